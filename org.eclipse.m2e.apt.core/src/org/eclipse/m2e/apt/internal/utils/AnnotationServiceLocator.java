@@ -20,8 +20,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -57,6 +60,20 @@ public class AnnotationServiceLocator {
    */
   private static final String[] APT_SERVICES = {JAVA5_FACTORY_NAME, JAVA6_FACTORY_NAME};
 
+  /**
+   * Maximum number of jars whose service entries are cached, the least recently used ones are dropped
+   */
+  private static final int MAX_CACHED_JARS = 1024;
+
+  /**
+   * The service entries of the jars, by absolute path of the jar. An entry is only valid as long as the size and
+   * modification time of the jar are unchanged.
+   */
+  private static final Map<String, CachedServiceEntries> SERVICE_ENTRIES = LruCache.create(MAX_CACHED_JARS);
+
+  private static record CachedServiceEntries(long length, long lastModified, Set<ServiceEntry> serviceEntries) {
+  }
+
   /**
    * Given a JAR file, get the names of any auto-loadable Java 5-style or Java 6-style annotation processor
    * implementations provided by the JAR. The information is based on the Sun
@@ -66,10 +83,12 @@ public class AnnotationServiceLocator {
    * may also contain whitespace (which is to be ignored). The '#' character indicates the beginning of a line comment,
    * also to be ignored. Implied but not stated in the spec is that this routine also ignores anything after the first
    * nonwhitespace token on a line.
+   * The result is cached until the size or modification time of the JAR changes.
    *
    * @param jar the <code>.jar</code> {@link File} to inspect for annotation processor services
-   * @return the {@link Set} of auto-loadable Java 5-style or Java 6-style annotation processor {@link ServiceEntry}s
-   *         provided by the specified JAR, or an empty {@link Set} if no such {@link ServiceEntry}s are found
+   * @return the unmodifiable {@link Set} of auto-loadable Java 5-style or Java 6-style annotation processor
+   *         {@link ServiceEntry}s provided by the specified JAR, or an empty {@link Set} if no such
+   *         {@link ServiceEntry}s are found
    */
   public static Set<ServiceEntry> getAptServiceEntries(File jar) throws IOException {
     // Sanity checks:
@@ -86,6 +105,19 @@ public class AnnotationServiceLocator {
       return Collections.emptySet();
     }
 
+    String path = jar.getAbsolutePath();
+    BasicFileAttributes attributes = Files.readAttributes(jar.toPath(), BasicFileAttributes.class);
+    long lastModified = attributes.lastModifiedTime().toMillis();
+    CachedServiceEntries cached = SERVICE_ENTRIES.get(path);
+    if(cached != null && cached.length() == attributes.size() && cached.lastModified() == lastModified) {
+      return cached.serviceEntries();
+    }
+    Set<ServiceEntry> serviceEntries = Collections.unmodifiableSet(readAptServiceEntries(jar));
+    SERVICE_ENTRIES.put(path, new CachedServiceEntries(attributes.size(), lastModified, serviceEntries));
+    return serviceEntries;
+  }
+
+  private static Set<ServiceEntry> readAptServiceEntries(File jar) throws IOException {
     Set<ServiceEntry> serviceEntries = new HashSet<>();
     try (JarFile jarFile = new JarFile(jar)) {
       for(String serviceName : APT_SERVICES) {
@@ -18,6 +18,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import org.slf4j.Logger;
@@ -29,6 +30,8 @@ import org.eclipse.aether.artifact.ArtifactTypeRegistry;
 import org.eclipse.aether.collection.CollectRequest;
 import org.eclipse.aether.collection.DependencyGraphTransformer;
 import org.eclipse.aether.graph.DependencyFilter;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.repository.RemoteRepository;
 import org.eclipse.aether.resolution.ArtifactResult;
 import org.eclipse.aether.resolution.DependencyRequest;
 import org.eclipse.aether.resolution.DependencyResolutionException;
@@ -63,13 +66,34 @@ public class PluginDependencyResolver {
 
   private static final Logger log = LoggerFactory.getLogger(PluginDependencyResolver.class);
 
+  /**
+   * Maximum number of cached resolutions, the least recently used ones are dropped
+   */
+  private static final int MAX_CACHED_RESOLUTIONS = 256;
+
+  /**
+   * The resolved files by resolution request, shared by all projects, so projects with the same plugin setup (e.g. the
+   * same annotation processor paths) are only resolved once.
+   */
+  private static final Map<ResolutionKey, List<File>> RESOLVED_DEPENDENCIES = LruCache.create(MAX_CACHED_RESOLUTIONS);
+
+  /**
+   * @param plugin the coordinates of the plugin
+   * @param dependencies the dependencies to resolve, with scope, optionality and exclusions
+   * @param repositories the local and remote repositories to resolve from
+   */
+  private static record ResolutionKey(String plugin, List<String> dependencies, List<String> repositories) {
+  }
+
   /**
    * Looks up a plugin's dependencies (including the transitive ones) and return them as a list of {@link File} <br/>
    * Some of
    * {@link MavenModelManager#readDependencyTree(org.eclipse.m2e.core.project.IMavenProjectFacade, MavenProject, String, IProgressMonitor)}
-   * 's logic has been copied and reused in this implementation.
+   * 's logic has been copied and reused in this implementation. The result is cached by plugin, dependencies and
+   * repositories, as long as it contains no snapshot and all files still exist. Dependencies with a version range are
+   * resolved each time and a forced dependency update resolves the dependencies again.
    */
-  public synchronized List<File> getResolvedPluginDependencies(MavenSession mavenSession, MavenProject mavenProject,
+  public List<File> getResolvedPluginDependencies(MavenSession mavenSession, MavenProject mavenProject,
       Plugin plugin, IProgressMonitor monitor) throws CoreException {
 
     monitor.setTaskName("Resolve plugin dependency");
@@ -94,6 +118,8 @@ public class PluginDependencyResolver {
       request.setRequestContext("plugin"); //$NON-NLS-1$
       request.setRepositories(mavenProject.getRemoteProjectRepositories());
 
+      List<String> dependencyKeys = new ArrayList<>();
+      boolean cacheable = true;
       Collection<Dependency> dependencies = getDependencies(plugin);
       for(Dependency dependency : dependencies) {
         if(dependency.getVersion() == null) {
@@ -109,7 +135,25 @@ public class PluginDependencyResolver {
             }
           }
         }
-        request.addDependency(RepositoryUtils.toDependency(dependency, stereotypes));
+        org.eclipse.aether.graph.Dependency dep = RepositoryUtils.toDependency(dependency, stereotypes);
+        request.addDependency(dep);
+        dependencyKeys.add(toKey(dep));
+        // the resolved version depends on the repository metadata at the time of the resolution
+        cacheable &= !isDynamicVersion(dep.getArtifact().getVersion());
+      }
+
+      List<String> repositoryKeys = new ArrayList<>();
+      repositoryKeys.add(String.valueOf(session.getLocalRepository().getBasedir()));
+      for(RemoteRepository repository : request.getRepositories()) {
+        repositoryKeys.add(repository.getId() + "@" + repository.getUrl()); //$NON-NLS-1$
+      }
+      ResolutionKey key = new ResolutionKey(plugin.getId(), dependencyKeys, repositoryKeys);
+      List<File> cached = null;
+      if(cacheable && !mavenSession.getRequest().isUpdateSnapshots()) {
+        cached = RESOLVED_DEPENDENCIES.get(key);
+      }
+      if(cached != null && cached.stream().allMatch(File::exists)) {
+        return new ArrayList<>(cached);
       }
 
       DependencyFilter classpathFilter = DependencyFilterUtils.classpathFilter(JavaScopes.COMPILE, JavaScopes.RUNTIME);
@@ -120,8 +164,16 @@ public class PluginDependencyResolver {
         List<ArtifactResult> artifactResults = system.resolveDependencies(session, dependencyRequest)
             .getArtifactResults();
 
+        boolean snapshot = false;
         for(ArtifactResult artifactResult : artifactResults) {
           files.add(artifactResult.getArtifact().getFile());
+          snapshot |= artifactResult.getArtifact().isSnapshot();
+        }
+        if(snapshot || !cacheable) {
+          // snapshots and the versions of ranges can change at any time
+          RESOLVED_DEPENDENCIES.remove(key);
+        } else {
+          RESOLVED_DEPENDENCIES.put(key, List.copyOf(files));
         }
       } catch(DependencyResolutionException e) {
         String msg = "Unable to collect dependencies for plugin";
@@ -135,6 +187,24 @@ public class PluginDependencyResolver {
     return files;
   }
 
+  private static String toKey(org.eclipse.aether.graph.Dependency dependency) {
+    StringBuilder key = new StringBuilder();
+    key.append(dependency.getArtifact()).append(':').append(dependency.getScope()).append(':')
+        .append(dependency.isOptional());
+    for(Exclusion exclusion : dependency.getExclusions()) {
+      key.append(":!").append(exclusion); //$NON-NLS-1$
+    }
+    return key.toString();
+  }
+
+  /**
+   * @return <code>true</code> if the version is a range or a meta version
+   */
+  private static boolean isDynamicVersion(String version) {
+    return version.startsWith("[") || version.startsWith("(") //$NON-NLS-1$ //$NON-NLS-2$
+        || "LATEST".equals(version) || "RELEASE".equals(version); //$NON-NLS-1$ //$NON-NLS-2$
+  }
+
   protected Collection<Dependency> getDependencies(Plugin plugin) {
     return plugin.getDependencies();
   }
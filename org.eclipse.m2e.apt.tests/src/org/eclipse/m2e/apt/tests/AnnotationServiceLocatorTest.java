@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.apt.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.eclipse.m2e.apt.internal.utils.AnnotationServiceLocator;
+import org.eclipse.m2e.apt.internal.utils.AnnotationServiceLocator.ServiceEntry;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AnnotationServiceLocatorTest {
+
+	private static final String PROCESSOR_SERVICE = "javax.annotation.processing.Processor";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testServiceEntriesAreCachedUntilJarChanges() throws IOException {
+		File jar = new File(folder.getRoot(), "processors.jar");
+		writeJar(jar, "foo.FirstProcessor # a comment\n");
+		jar.setLastModified(1000000);
+
+		Set<ServiceEntry> entries = AnnotationServiceLocator.getAptServiceEntries(jar);
+		assertEquals(Set.of("foo.FirstProcessor"), getClassNames(entries));
+		assertSame(entries, AnnotationServiceLocator.getAptServiceEntries(jar));
+
+		writeJar(jar, "foo.FirstProcessor\nfoo.SecondProcessor\n");
+		jar.setLastModified(2000000);
+		assertEquals(Set.of("foo.FirstProcessor", "foo.SecondProcessor"),
+				getClassNames(AnnotationServiceLocator.getAptServiceEntries(jar)));
+	}
+
+	@Test
+	public void testJarWithoutProcessors() throws IOException {
+		File jar = new File(folder.getRoot(), "empty.jar");
+		try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath()))) {
+			out.putNextEntry(new JarEntry("foo/Bar.class"));
+		}
+		assertTrue(AnnotationServiceLocator.getAptServiceEntries(jar).isEmpty());
+	}
+
+	private static void writeJar(File jar, String services) throws IOException {
+		try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath()))) {
+			out.putNextEntry(new JarEntry("META-INF/services/" + PROCESSOR_SERVICE));
+			out.write(services.getBytes(StandardCharsets.UTF_8));
+			out.closeEntry();
+		}
+	}
+
+	private static Set<String> getClassNames(Set<ServiceEntry> entries) {
+		Set<String> classNames = new TreeSet<>();
+		for (ServiceEntry entry : entries) {
+			assertEquals(PROCESSOR_SERVICE, entry.getServiceName());
+			classNames.add(entry.getServiceProviderClassName());
+		}
+		return classNames;
+	}
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+public class BinaryCacheFileTest {
+
+  private static final int MAGIC = 0x54455354;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    BinaryCacheFile file = new BinaryCacheFile(folder.getRoot().toPath().resolve("cache"), MAGIC, 1);
+    assertNull(file.read(in -> in.readUTF()));
+    file.write(out -> out.writeUTF("first"));
+    assertEquals("first", file.read(in -> in.readUTF()));
+    file.write(out -> out.writeUTF("second"));
+    assertEquals("second", file.read(in -> in.readUTF()));
+    assertEquals(1, folder.getRoot().list().length);
+  }
+
+  @Test
+  public void testOtherHeaderIsMissing() throws IOException {
+    Path path = folder.getRoot().toPath().resolve("cache");
+    new BinaryCacheFile(path, MAGIC, 1).write(out -> out.writeUTF("content"));
+    assertNull(new BinaryCacheFile(path, MAGIC, 2).read(in -> in.readUTF()));
+    assertNull(new BinaryCacheFile(path, MAGIC + 1, 1).read(in -> in.readUTF()));
+  }
+
+  @Test
+  public void testFailedWriteKeepsPreviousContent() throws IOException {
+    BinaryCacheFile file = new BinaryCacheFile(folder.getRoot().toPath().resolve("cache"), MAGIC, 1);
+    file.write(out -> out.writeUTF("content"));
+    try {
+      file.write(out -> {
+        out.writeUTF("partial");
+        throw new IOException("failed");
+      });
+      fail();
+    } catch(IOException ex) {
+      assertEquals("failed", ex.getMessage());
+    }
+    assertEquals("content", file.read(in -> in.readUTF()));
+    assertEquals(1, folder.getRoot().list().length);
+  }
+
+  @Test
+  public void testDelete() throws IOException {
+    BinaryCacheFile file = new BinaryCacheFile(folder.getRoot().toPath().resolve("cache"), MAGIC, 1);
+    file.write(out -> out.writeUTF("content"));
+    file.delete();
+    assertFalse(Files.exists(file.getPath()));
+    assertNull(file.read(in -> in.readUTF()));
+    file.delete();
+  }
+}
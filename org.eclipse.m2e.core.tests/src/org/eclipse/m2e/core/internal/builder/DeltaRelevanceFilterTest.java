@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.builder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.runtime.IPath;
+
+import org.eclipse.m2e.core.internal.builder.MavenBuilderImpl.DeltaType;
+import org.eclipse.m2e.core.project.IMavenProjectFacade;
+
+
+public class DeltaRelevanceFilterTest {
+
+  private IMavenProjectFacade facade;
+
+  private DeltaRelevanceFilter filter;
+
+  @Before
+  public void setUp() {
+    IProject project = Mockito.mock(IProject.class);
+    when(project.getFullPath()).thenReturn(IPath.fromPortableString("/project"));
+    facade = Mockito.mock(IMavenProjectFacade.class);
+    when(facade.getProject()).thenReturn(project);
+    when(facade.getBuildOutputLocation()).thenReturn(IPath.fromPortableString("/project/target"));
+    when(facade.getOutputLocation()).thenReturn(IPath.fromPortableString("/project/target/classes"));
+    when(facade.getTestOutputLocation()).thenReturn(IPath.fromPortableString("/project/target/test-classes"));
+    when(facade.getMavenProjectModules()).thenReturn(List.of("module"));
+    filter = DeltaRelevanceFilter.get(facade);
+  }
+
+  @Test
+  public void testNoBuildOutput() {
+    when(facade.getBuildOutputLocation()).thenReturn(null);
+    assertNull(DeltaRelevanceFilter.get(facade));
+  }
+
+  @Test
+  public void testUnrelatedDelta() {
+    assertEquals(DeltaType.INCREMENTAL, filter.classify(delta("/project", file("src/main/java/A.java", true))));
+    assertEquals(DeltaType.INCREMENTAL, filter.classify(delta("/project", file("pom.xml", true))));
+  }
+
+  @Test
+  public void testDeltaUnderModule() {
+    assertEquals(DeltaType.IRRELEVANT, filter.classify(delta("/project", file("module/src/A.java", true))));
+    assertEquals(DeltaType.IRRELEVANT, filter.classify(delta("/project", file("module/pom.xml", false))));
+    // a folder that only starts like a module is not one
+    assertEquals(DeltaType.INCREMENTAL, filter.classify(delta("/project", file("module2/pom.xml", true))));
+  }
+
+  @Test
+  public void testDeltaUnderOutputFolder() {
+    assertEquals(DeltaType.IRRELEVANT, filter.classify(delta("/project", file("target/classes/A.class", true))));
+    assertEquals(DeltaType.IRRELEVANT,
+        filter.classify(delta("/project", file("target/test-classes/ATest.class", true))));
+    // removed files elsewhere in the build output are irrelevant
+    assertEquals(DeltaType.IRRELEVANT, filter.classify(delta("/project", file("target/site/index.html", false))));
+  }
+
+  @Test
+  public void testDeltaUnderRemovedOutputFolder() {
+    assertEquals(DeltaType.FULL_BUILD, filter.classify(delta("/project", file("target/classes/A.class", false))));
+    assertEquals(DeltaType.FULL_BUILD,
+        filter.classify(delta("/project", file("target/test-classes/ATest.class", false))));
+  }
+
+  @Test
+  public void testClassifyBelowProject() {
+    // deltas may start below the project, the locations above them still apply
+    assertEquals(DeltaType.FULL_BUILD, filter.classify(delta("/project/target/classes", file("A.class", false))));
+    assertEquals(DeltaType.IRRELEVANT, filter.classify(delta("/project/module", file("src/A.java", true))));
+    assertEquals(DeltaType.INCREMENTAL, filter.classify(delta("/project/src", file("main/java/A.java", true))));
+  }
+
+  @Test
+  public void testMixedDelta() {
+    assertEquals(DeltaType.INCREMENTAL, filter.classify(delta("/project", file("module/src/A.java", true),
+        file("target/classes/A.class", true), file("src/main/java/A.java", true))));
+    assertEquals(DeltaType.FULL_BUILD, filter.classify(
+        delta("/project", file("src/main/java/A.java", true), file("target/classes/A.class", false))));
+  }
+
+  @Test
+  public void testFilterIsCachedPerFacade() {
+    when(facade.getSessionProperty(DeltaRelevanceFilter.class.getName())).thenReturn(filter);
+    assertSame(filter, DeltaRelevanceFilter.get(facade));
+  }
+
+  private record Change(String path, boolean exists) {
+  }
+
+  private static Change file(String path, boolean exists) {
+    return new Change(path, exists);
+  }
+
+  /**
+   * Creates the delta tree of the given changed files below the given folder
+   */
+  private static IResourceDelta delta(String folder, Change... changes) {
+    IPath path = IPath.fromPortableString(folder);
+    IResourceDelta delta = Mockito.mock(IResourceDelta.class);
+    IResource resource = resource(IFolder.class, path, true);
+    IResourceDelta[] children = children(path, List.of(changes));
+    when(delta.getFullPath()).thenReturn(path);
+    when(delta.getResource()).thenReturn(resource);
+    when(delta.getAffectedChildren()).thenReturn(children);
+    return delta;
+  }
+
+  private static IResourceDelta[] children(IPath parent, List<Change> changes) {
+    return changes.stream().map(change -> {
+      IPath relative = IPath.fromPortableString(change.path());
+      IPath path = parent.append(relative.segment(0));
+      IResourceDelta delta = Mockito.mock(IResourceDelta.class);
+      when(delta.getFullPath()).thenReturn(path);
+      if(relative.segmentCount() == 1) {
+        IResource resource = resource(IFile.class, path, change.exists());
+        when(delta.getResource()).thenReturn(resource);
+        when(delta.getAffectedChildren()).thenReturn(new IResourceDelta[0]);
+      } else {
+        // the folders on the way to the file exist as long as the file does
+        IResource resource = resource(IFolder.class, path, change.exists());
+        when(delta.getResource()).thenReturn(resource);
+        IResourceDelta[] children = children(path,
+            List.of(new Change(relative.removeFirstSegments(1).toPortableString(), change.exists())));
+        when(delta.getAffectedChildren()).thenReturn(children);
+      }
+      return delta;
+    }).toArray(IResourceDelta[]::new);
+  }
+
+  private static IResource resource(Class<? extends IResource> type, IPath path, boolean exists) {
+    IResource resource = Mockito.mock(type);
+    when(resource.getFullPath()).thenReturn(path);
+    when(resource.getName()).thenReturn(path.lastSegment());
+    when(resource.exists()).thenReturn(exists);
+    return resource;
+  }
+}
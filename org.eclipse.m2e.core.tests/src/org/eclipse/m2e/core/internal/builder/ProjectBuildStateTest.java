@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.builder;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import org.eclipse.core.resources.IProject;
+
+import org.eclipse.m2e.core.internal.BinaryCacheFile;
+
+
+public class ProjectBuildStateTest {
+
+  private static final int MAGIC = 0x54455354;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private IProject project;
+
+  private BinaryCacheFile stateFile;
+
+  private File input;
+
+  @Before
+  public void setUp() throws IOException {
+    project = Mockito.mock(IProject.class);
+    when(project.getName()).thenReturn("project");
+    when(project.exists()).thenReturn(true);
+    stateFile = new BinaryCacheFile(folder.getRoot().toPath().resolve("project.buildstate"), MAGIC, 1);
+    input = folder.newFile("input.txt");
+    write(input, "content", 1000);
+  }
+
+  @Test
+  public void testUnchangedFileIsNotReported() throws IOException {
+    ProjectBuildState state = new ProjectBuildState(project, stateFile);
+    build(state, true);
+    build(state, false);
+  }
+
+  @Test
+  public void testModifiedFileIsReported() throws IOException {
+    ProjectBuildState state = new ProjectBuildState(project, stateFile);
+    build(state, true);
+    write(input, "modified", 2000);
+    build(state, true);
+    build(state, false);
+  }
+
+  @Test
+  public void testFileWrittenAfterQueryIsNotReported() throws IOException {
+    ProjectBuildState state = new ProjectBuildState(project, stateFile);
+    state.begin();
+    assertTrue(state.hasChanged(input));
+    // the build itself writes the file after it was queried
+    write(input, "generated", 2000);
+    state.commit();
+    build(state, false);
+  }
+
+  @Test
+  public void testStateIsPersisted() throws IOException {
+    ProjectBuildState state = new ProjectBuildState(project, stateFile);
+    build(state, true);
+    state.save();
+    build(new ProjectBuildState(project, stateFile), false);
+  }
+
+  @Test
+  public void testCorruptedStateIsMiss() throws IOException {
+    stateFile.write(out -> {
+      out.writeLong(System.currentTimeMillis());
+      out.writeLong(1);
+      out.writeInt(1);
+      out.writeUTF(input.getAbsolutePath());
+      out.writeLong(input.length());
+      out.writeLong(input.lastModified());
+      out.writeInt(-1); // hash length
+    });
+    build(new ProjectBuildState(project, stateFile), true);
+  }
+
+  private void build(ProjectBuildState state, boolean expectChanged) {
+    state.begin();
+    boolean changed = state.hasChanged(input);
+    state.commit();
+    if(expectChanged) {
+      assertTrue(changed);
+    } else {
+      assertFalse(changed);
+    }
+  }
+
+  private static void write(File file, String content, long lastModified) throws IOException {
+    Files.writeString(file.toPath(), content);
+    assertTrue(file.setLastModified(lastModified));
+  }
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.builder.plexusbuildapi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+public class ChangedFileOutputStreamTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testNewFileIsWritten() throws IOException {
+    File file = new File(folder.getRoot(), "new.txt");
+    write(file, "content");
+    assertEquals("content", Files.readString(file.toPath()));
+    assertEquals(1, folder.getRoot().list().length);
+  }
+
+  @Test
+  public void testUnchangedFileIsNotWritten() throws IOException {
+    File file = folder.newFile("unchanged.txt");
+    Files.writeString(file.toPath(), "content");
+    file.setLastModified(1000);
+    write(file, "content");
+    assertEquals(1000, file.lastModified());
+  }
+
+  @Test
+  public void testChangedFileIsReplaced() throws IOException {
+    File file = folder.newFile("changed.txt");
+    Files.writeString(file.toPath(), "content");
+    write(file, "contest");
+    assertEquals("contest", Files.readString(file.toPath()));
+    write(file, "cont");
+    assertEquals("cont", Files.readString(file.toPath()));
+    write(file, "content and more");
+    assertEquals("content and more", Files.readString(file.toPath()));
+    write(file, "");
+    assertEquals(0, file.length());
+    assertEquals(1, folder.getRoot().list().length);
+  }
+
+  @Test
+  public void testLargeFile() throws IOException {
+    File file = folder.newFile("large.bin");
+    byte[] content = new byte[1024 * 1024];
+    for(int i = 0; i < content.length; i++ ) {
+      content[i] = (byte) (i * 31);
+    }
+    Files.write(file.toPath(), content);
+    file.setLastModified(1000);
+    try (OutputStream os = new ChangedFileOutputStream(file)) {
+      for(int i = 0; i < content.length; i += 1000) {
+        os.write(content, i, Math.min(1000, content.length - i));
+      }
+    }
+    assertEquals(1000, file.lastModified());
+
+    content[content.length - 1]++ ;
+    try (OutputStream os = new ChangedFileOutputStream(file)) {
+      os.write(content);
+    }
+    assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+  }
+
+  @Test
+  public void testPermissionsAreKept() throws IOException {
+    assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+    File file = folder.newFile("script.sh");
+    Files.writeString(file.toPath(), "echo 1");
+    Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rwxr-x---");
+    Files.setPosixFilePermissions(file.toPath(), permissions);
+    write(file, "echo 2");
+    assertEquals("echo 2", Files.readString(file.toPath()));
+    assertEquals(permissions, Files.getPosixFilePermissions(file.toPath()));
+  }
+
+  @Test
+  public void testSymbolicLinkIsWrittenInPlace() throws IOException {
+    Path target = folder.newFile("target.txt").toPath();
+    Files.writeString(target, "content");
+    Path link = folder.getRoot().toPath().resolve("link.txt");
+    try {
+      Files.createSymbolicLink(link, target);
+    } catch(UnsupportedOperationException | IOException ex) {
+      assumeTrue("symbolic links are not supported", false);
+    }
+    write(link.toFile(), "contest and more");
+    assertTrue(Files.isSymbolicLink(link));
+    assertEquals("contest and more", Files.readString(target));
+    write(link.toFile(), "co");
+    assertTrue(Files.isSymbolicLink(link));
+    assertEquals("co", Files.readString(target));
+    assertEquals(2, folder.getRoot().list().length);
+  }
+
+  @Test
+  public void testHardLinkIsWrittenInPlace() throws IOException {
+    Path file = folder.newFile("file.txt").toPath();
+    Files.writeString(file, "content");
+    Path link = folder.getRoot().toPath().resolve("hardlink.txt");
+    try {
+      Files.createLink(link, file);
+    } catch(UnsupportedOperationException | IOException ex) {
+      assumeTrue("hard links are not supported", false);
+    }
+    write(link.toFile(), "changed");
+    assertEquals("changed", Files.readString(file));
+    assertTrue(Files.isSameFile(file, link));
+  }
+
+  private static void write(File file, String content) throws IOException {
+    try (OutputStream os = new ChangedFileOutputStream(file)) {
+      for(byte b : content.getBytes(StandardCharsets.UTF_8)) {
+        os.write(b);
+      }
+    }
+  }
+}
@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.commons.io.FileUtils;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.m2e.core.embedder.ArtifactKey;
+import org.eclipse.m2e.core.internal.BinaryCacheFile;
+
+
+public class LocalRepositoryIndexTest {
+
+  private static final int MAGIC = 0x54455354;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File repository;
+
+  private BinaryCacheFile indexFile;
+
+  @Before
+  public void setUp() throws IOException {
+    repository = folder.newFolder("repository");
+    indexFile = new BinaryCacheFile(folder.getRoot().toPath().resolve("index.bin"), MAGIC, 1);
+    file("org/example/lib/1.0/lib-1.0.pom");
+    file("org/example/lib/1.0/lib-1.0.jar");
+    file("org/example/lib/1.0/lib-1.0-sources.jar");
+    file("org/example/lib/1.0/lib-1.0-tests.jar");
+    // a file of another version in the directory of version 1.0
+    file("org/example/lib/1.0/lib-1.0.1.jar");
+    file("org/example/lib/1.0.1/lib-1.0.1.pom");
+    file("org/example/lib/2.0-SNAPSHOT/lib-2.0-SNAPSHOT.pom");
+    file("org/example/lib/2.0-SNAPSHOT/lib-2.0-20260101.120000-1.jar");
+    file("org/example/lib-extra/1.0/lib-extra-1.0.jar");
+    file("org/example/lib-extra/1.0/lib-extra-1.0-javadoc.jar");
+    file("com/other/mylib/3.0/mylib-3.0.war");
+    file("org/example/maven/foo-maven-plugin/1.0/foo-maven-plugin-1.0.jar");
+    file("org/ab/x/1/x-1.pom");
+  }
+
+  @Test
+  public void testLayoutParsing() {
+    LocalRepositoryIndex index = scan();
+
+    IndexedArtifactFile release = index.getIndexedArtifactFile(key("org.example", "lib", "1.0"));
+    assertEquals("lib-1.0.jar", release.fname);
+    assertEquals("jar", release.type);
+    assertEquals(IIndex.PRESENT, release.sourcesExists);
+    assertEquals(IIndex.NOT_PRESENT, release.javadocExists);
+
+    // the jar in the directory of 1.0 does not make 1.0.1 a jar
+    IndexedArtifactFile pomOnly = index.getIndexedArtifactFile(key("org.example", "lib", "1.0.1"));
+    assertEquals("lib-1.0.1.pom", pomOnly.fname);
+    assertEquals("pom", pomOnly.type);
+
+    IndexedArtifactFile snapshot = index.getIndexedArtifactFile(key("org.example", "lib", "2.0-SNAPSHOT"));
+    assertEquals("lib-2.0-20260101.120000-1.jar", snapshot.fname);
+    assertEquals("jar", snapshot.type);
+
+    assertEquals("war", index.getIndexedArtifactFile(key("com.other", "mylib", "3.0")).type);
+    assertEquals(IIndex.PRESENT,
+        index.getIndexedArtifactFile(key("org.example", "lib-extra", "1.0")).javadocExists);
+    assertNotNull(index.getIndexedArtifactFile(key("org.example.maven", "foo-maven-plugin", "1.0")));
+    assertEquals(pomOnly.fname,
+        index.identify(new File(repository, "org/example/lib/1.0.1/lib-1.0.1.pom")).fname);
+    assertNull(index.getIndexedArtifactFile(key("org.example", "lib", "3.0")));
+  }
+
+  @Test
+  public void testSearchRanking() {
+    LocalRepositoryIndex index = scan();
+    // exact artifact id, artifact id prefix, other matches
+    assertEquals(List.of("org.example:lib", "org.example:lib-extra", "com.other:mylib"),
+        search(index, "lib", IIndex.SEARCH_ARTIFACT));
+    assertEquals(List.of("org.example:lib-extra"), search(index, "org*extra", IIndex.SEARCH_ARTIFACT));
+    assertEquals(List.of(), search(index, "xyz", IIndex.SEARCH_ARTIFACT));
+    assertEquals(List.of(), search(index, "extra*org", IIndex.SEARCH_ARTIFACT));
+  }
+
+  @Test
+  public void testShortTermsUsePrefixes() {
+    LocalRepositoryIndex index = scan();
+    assertEquals(List.of("org.ab:x"), search(index, "ab", IIndex.SEARCH_ARTIFACT));
+    assertEquals(List.of("com.other:mylib"), search(index, "my", IIndex.SEARCH_ARTIFACT));
+    assertEquals(List.of(), search(index, "yl", IIndex.SEARCH_ARTIFACT));
+  }
+
+  @Test
+  public void testSearchTypes() {
+    LocalRepositoryIndex index = scan();
+    assertEquals(List.of("org.example.maven:foo-maven-plugin"), search(index, "foo", IIndex.SEARCH_PLUGIN));
+    assertEquals(List.of(), search(index, "lib", IIndex.SEARCH_PLUGIN));
+    assertEquals(List.of("com.other:mylib"), search(index, "com", IIndex.SEARCH_GROUP));
+    assertEquals(List.of("org.ab:x", "org.example:lib"), search(index, "", IIndex.SEARCH_PARENTS));
+    // only the versions without a main artifact are parents
+    Set<String> versions = index.search(new UserInputSearchExpression("lib"), IIndex.SEARCH_PARENTS)
+        .get("org.example:lib").getFiles().stream().map(f -> f.version).collect(Collectors.toSet());
+    assertEquals(Set.of("1.0.1"), versions);
+  }
+
+  @Test
+  public void testSearchClassifier() {
+    LocalRepositoryIndex index = scan();
+    assertEquals(List.of("org.example:lib"), search(index, "lib", IIndex.SEARCH_ARTIFACT, IIndex.SEARCH_SOURCES));
+    assertEquals(Set.of("1.0"), index.search(new UserInputSearchExpression("lib"), IIndex.SEARCH_ARTIFACT,
+        IIndex.SEARCH_SOURCES).get("org.example:lib").getFiles().stream().map(f -> f.version)
+        .collect(Collectors.toSet()));
+    assertEquals(List.of("org.example:lib-extra"),
+        search(index, "lib", IIndex.SEARCH_ARTIFACT, IIndex.SEARCH_JAVADOCS));
+    assertEquals(List.of("org.example:lib", "org.example:lib-extra"),
+        search(index, "lib", IIndex.SEARCH_ARTIFACT, IIndex.SEARCH_SOURCES | IIndex.SEARCH_JAVADOCS));
+    assertEquals(List.of("org.example:lib", "org.example:lib-extra", "com.other:mylib"),
+        search(index, "lib", IIndex.SEARCH_ARTIFACT, IIndex.SEARCH_JARS));
+  }
+
+  @Test
+  public void testSaveAndLoad() {
+    LocalRepositoryIndex index = scan();
+    index.save();
+
+    LocalRepositoryIndex loaded = new LocalRepositoryIndex(repository, indexFile);
+    assertTrue(loaded.load());
+    for(String version : List.of("1.0", "1.0.1", "2.0-SNAPSHOT")) {
+      IndexedArtifactFile expected = index.getIndexedArtifactFile(key("org.example", "lib", version));
+      IndexedArtifactFile actual = loaded.getIndexedArtifactFile(key("org.example", "lib", version));
+      assertEquals(expected.fname, actual.fname);
+      assertEquals(expected.type, actual.type);
+      assertEquals(expected.size, actual.size);
+      assertEquals(expected.date, actual.date);
+      assertEquals(expected.sourcesExists, actual.sourcesExists);
+      assertEquals(expected.javadocExists, actual.javadocExists);
+    }
+    assertEquals(search(index, "lib", IIndex.SEARCH_ARTIFACT), search(loaded, "lib", IIndex.SEARCH_ARTIFACT));
+
+    // the index of another repository is not used
+    assertFalse(new LocalRepositoryIndex(folder.getRoot(), indexFile).load());
+  }
+
+  @Test
+  public void testRescan() throws IOException {
+    LocalRepositoryIndex index = scan();
+    FileUtils.deleteDirectory(new File(repository, "org/example/lib/1.0.1"));
+    Path extra = file("org/example/lib-extra/1.0/lib-extra-1.0-sources.jar").toPath().getParent();
+    Files.setLastModifiedTime(extra, FileTime.fromMillis(Files.getLastModifiedTime(extra).toMillis() + 10000));
+    file("org/example/maven/bar-maven-plugin/1.0/bar-maven-plugin-1.0.jar");
+
+    index.scan(new NullProgressMonitor());
+    assertNull(index.getIndexedArtifactFile(key("org.example", "lib", "1.0.1")));
+    assertNotNull(index.getIndexedArtifactFile(key("org.example", "lib", "1.0")));
+    assertEquals(IIndex.PRESENT, index.getIndexedArtifactFile(key("org.example", "lib-extra", "1.0")).sourcesExists);
+    assertNotNull(index.getIndexedArtifactFile(key("org.example.maven", "bar-maven-plugin", "1.0")));
+
+    // a loaded index is brought up to date by a scan as well
+    index.save();
+    FileUtils.deleteDirectory(new File(repository, "com/other/mylib/3.0"));
+    LocalRepositoryIndex loaded = new LocalRepositoryIndex(repository, indexFile);
+    assertTrue(loaded.load());
+    loaded.scan(new NullProgressMonitor());
+    assertNull(loaded.getIndexedArtifactFile(key("com.other", "mylib", "3.0")));
+    assertEquals(List.of("org.example:lib", "org.example:lib-extra"), search(loaded, "lib", IIndex.SEARCH_ARTIFACT));
+  }
+
+  private LocalRepositoryIndex scan() {
+    LocalRepositoryIndex index = new LocalRepositoryIndex(repository, indexFile);
+    index.scan(new NullProgressMonitor());
+    return index;
+  }
+
+  private static List<String> search(LocalRepositoryIndex index, String term, String searchType) {
+    return search(index, term, searchType, IIndex.SEARCH_ALL);
+  }
+
+  private static List<String> search(LocalRepositoryIndex index, String term, String searchType, int classifier) {
+    return List.copyOf(index.search(new UserInputSearchExpression(term), searchType, classifier).keySet());
+  }
+
+  private static ArtifactKey key(String groupId, String artifactId, String version) {
+    return new ArtifactKey(groupId, artifactId, version, null);
+  }
+
+  private File file(String path) throws IOException {
+    File file = new File(repository, path);
+    file.getParentFile().mkdirs();
+    Files.writeString(file.toPath(), path);
+    return file;
+  }
+}
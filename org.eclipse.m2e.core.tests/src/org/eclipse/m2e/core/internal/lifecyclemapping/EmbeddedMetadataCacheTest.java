@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.lifecyclemapping;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import org.eclipse.m2e.core.internal.BinaryCacheFile;
+import org.eclipse.m2e.core.internal.lifecyclemapping.model.LifecycleMappingMetadata;
+import org.eclipse.m2e.core.internal.lifecyclemapping.model.LifecycleMappingMetadataSource;
+import org.eclipse.m2e.core.internal.lifecyclemapping.model.PluginExecutionMetadata;
+
+
+public class EmbeddedMetadataCacheTest {
+
+  private static final String METADATA = """
+      <lifecycleMappingMetadata>
+        <lifecycleMappings>
+          <lifecycleMapping>
+            <packagingType>example</packagingType>
+            <lifecycleMappingId>org.example.mapping</lifecycleMappingId>
+            <pluginExecutions>
+              <pluginExecution>
+                <pluginExecutionFilter>
+                  <groupId>org.example</groupId>
+                  <artifactId>example-maven-plugin</artifactId>
+                  <versionRange>[1.0.0,)</versionRange>
+                  <goals><goal>package</goal></goals>
+                </pluginExecutionFilter>
+                <action><ignore/></action>
+              </pluginExecution>
+            </pluginExecutions>
+          </lifecycleMapping>
+        </lifecycleMappings>
+        <pluginExecutions>
+          <pluginExecution>
+            <pluginExecutionFilter>
+              <groupId>org.example</groupId>
+              <artifactId>example-maven-plugin</artifactId>
+              <versionRange>[1.0.0,)</versionRange>
+              <goals><goal>generate</goal></goals>
+            </pluginExecutionFilter>
+            <action><execute/></action>
+          </pluginExecution>
+        </pluginExecutions>
+      </lifecycleMappingMetadata>
+      """;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private BinaryCacheFile cacheFile;
+
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    cacheFile = new BinaryCacheFile(folder.getRoot().toPath().resolve("cache.bin"), 1, 1);
+    file = folder.newFile("example-maven-plugin-1.0.0.jar");
+    Files.writeString(file.toPath(), METADATA);
+    file.setLastModified(1000000);
+  }
+
+  @Test
+  public void testHit() throws Exception {
+    EmbeddedMetadataCache cache = new EmbeddedMetadataCache(cacheFile);
+    LifecycleMappingMetadataSource first = cache.get(file, this::load);
+    LifecycleMappingMetadataSource second = cache.get(file, this::load);
+    assertEquals(1, loads.get());
+    assertNotSame(first, second);
+    assertMetadata(first);
+    assertMetadata(second);
+  }
+
+  @Test
+  public void testNoMetadataIsRemembered() throws Exception {
+    EmbeddedMetadataCache cache = new EmbeddedMetadataCache(cacheFile);
+    EmbeddedMetadataCache.Loader loader = f -> {
+      loads.incrementAndGet();
+      return null;
+    };
+    assertNull(cache.get(file, loader));
+    assertNull(cache.get(file, loader));
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void testInvalidatedBySize() throws Exception {
+    EmbeddedMetadataCache cache = new EmbeddedMetadataCache(cacheFile);
+    cache.get(file, this::load);
+    Files.writeString(file.toPath(), METADATA + " ");
+    file.setLastModified(1000000);
+    cache.get(file, this::load);
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  public void testInvalidatedByModificationTime() throws Exception {
+    EmbeddedMetadataCache cache = new EmbeddedMetadataCache(cacheFile);
+    cache.get(file, this::load);
+    file.setLastModified(2000000);
+    cache.get(file, this::load);
+    assertEquals(2, loads.get());
+    cache.get(file, this::load);
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  public void testCopiesAreIndependent() throws Exception {
+    EmbeddedMetadataCache cache = new EmbeddedMetadataCache(cacheFile);
+    LifecycleMappingMetadataSource first = cache.get(file, this::load);
+    first.setSource("first");
+    first.getPluginExecutions().get(0).getFilter().setGroupId("org.other");
+    first.getLifecycleMappings().get(0).getPluginExecutions().clear();
+
+    LifecycleMappingMetadataSource second = cache.get(file, this::load);
+    assertNull(second.getSource());
+    assertEquals("org.example", second.getPluginExecutions().get(0).getFilter().getGroupId());
+    assertMetadata(second);
+  }
+
+  @Test
+  public void testPersisted() throws Exception {
+    EmbeddedMetadataCache cache = new EmbeddedMetadataCache(cacheFile);
+    cache.get(file, this::load);
+    File other = folder.newFile("other-maven-plugin-1.0.0.jar");
+    cache.get(other, f -> null);
+    cache.save();
+
+    EmbeddedMetadataCache reopened = new EmbeddedMetadataCache(cacheFile);
+    EmbeddedMetadataCache.Loader failing = f -> {
+      throw new IOException("unexpected load of " + f);
+    };
+    assertMetadata(reopened.get(file, failing));
+    assertNull(reopened.get(other, failing));
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void testRemovedFilesAreNotPersisted() throws Exception {
+    EmbeddedMetadataCache cache = new EmbeddedMetadataCache(cacheFile);
+    cache.get(file, this::load);
+    cache.save();
+    long length = file.length();
+    long lastModified = file.lastModified();
+    Files.delete(file.toPath());
+    cache.get(folder.newFile("other-maven-plugin-1.0.0.jar"), f -> null);
+    cache.save();
+
+    // a file that reappears with the same attributes is read again
+    Files.writeString(file.toPath(), METADATA);
+    file.setLastModified(lastModified);
+    assertEquals(length, file.length());
+    new EmbeddedMetadataCache(cacheFile).get(file, this::load);
+    assertEquals(2, loads.get());
+  }
+
+  private LifecycleMappingMetadataSource load(File f) throws IOException, XmlPullParserException {
+    loads.incrementAndGet();
+    try (InputStream is = new FileInputStream(f)) {
+      return LifecycleMappingFactory.createLifecycleMappingMetadataSource(is);
+    }
+  }
+
+  private static void assertMetadata(LifecycleMappingMetadataSource metadata) {
+    assertEquals(1, metadata.getLifecycleMappings().size());
+    LifecycleMappingMetadata lifecycleMapping = metadata.getLifecycleMappings().get(0);
+    assertEquals("example", lifecycleMapping.getPackagingType());
+    assertEquals("org.example.mapping", lifecycleMapping.getLifecycleMappingId());
+    assertSame(metadata, lifecycleMapping.getSource());
+    assertEquals(1, lifecycleMapping.getPluginExecutions().size());
+    PluginExecutionMetadata ignore = lifecycleMapping.getPluginExecutions().get(0);
+    assertEquals("ignore", ignore.getAction().name());
+    assertSame(metadata, ignore.getSource());
+
+    assertEquals(1, metadata.getPluginExecutions().size());
+    PluginExecutionMetadata execute = metadata.getPluginExecutions().get(0);
+    assertEquals("execute", execute.getAction().name());
+    assertEquals("org.example", execute.getFilter().getGroupId());
+    assertEquals(Set.of("generate"), execute.getFilter().getGoals());
+    assertSame(metadata, execute.getSource());
+  }
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.project.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class LayeredMapTest {
+
+  private Map<String, Set<String>> base;
+
+  private LayeredMap<String, Set<String>> map;
+
+  @Before
+  public void setUp() {
+    base = new HashMap<>();
+    base.put("a", new LinkedHashSet<>(Set.of("1")));
+    base.put("b", new LinkedHashSet<>(Set.of("2")));
+    map = new LayeredMap<>(base, LinkedHashSet::new);
+  }
+
+  @Test
+  public void testGetDoesNotRecordCopy() {
+    Set<String> value = map.get("a");
+    assertEquals(Set.of("1"), value);
+    assertNotSame(base.get("a"), value);
+    value.add("lost");
+    assertEquals(Set.of("1"), map.get("a"));
+    assertEquals(Set.of("1"), base.get("a"));
+    assertEquals(Set.of(), map.getChangedKeys());
+  }
+
+  @Test
+  public void testGetForUpdateRecordsCopy() {
+    Set<String> value = map.getForUpdate("a");
+    value.add("x");
+    assertSame(value, map.getForUpdate("a"));
+    assertEquals(Set.of("1", "x"), map.get("a"));
+    assertEquals(Set.of("1"), base.get("a"));
+    assertEquals(Set.of("a"), map.getChangedKeys());
+  }
+
+  @Test
+  public void testComputeIfAbsent() {
+    map.computeIfAbsent("a", k -> new LinkedHashSet<>()).add("x");
+    map.computeIfAbsent("c", k -> new LinkedHashSet<>()).add("3");
+    assertEquals(Set.of("1", "x"), map.get("a"));
+    assertEquals(Set.of("3"), map.get("c"));
+    assertEquals(3, map.size());
+    assertEquals(Set.of("1"), base.get("a"));
+    assertEquals(Set.of("a", "c"), map.getChangedKeys());
+  }
+
+  @Test
+  public void testRemove() {
+    assertEquals(Set.of("2"), map.remove("b"));
+    assertEquals(null, map.get("b"));
+    assertEquals(null, map.getForUpdate("b"));
+    assertEquals(1, map.size());
+    assertEquals(Map.of("a", Set.of("1")), new HashMap<>(map));
+    assertEquals(Set.of("2"), base.get("b"));
+  }
+
+  @Test
+  public void testCommit() {
+    map.getForUpdate("a").add("x");
+    LayeredMap<String, Set<String>> layer = map.commit();
+    assertEquals(Set.of("1", "x"), layer.get("a"));
+    assertThrows(UnsupportedOperationException.class, () -> layer.getForUpdate("a"));
+    assertThrows(UnsupportedOperationException.class, () -> layer.put("c", Set.of()));
+
+    // the map continues on top of the layer and copies its values again
+    map.getForUpdate("a").add("y");
+    assertEquals(Set.of("1", "x"), layer.get("a"));
+    assertEquals(Set.of("1", "x", "y"), map.get("a"));
+  }
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.project.registry;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
+
+import org.eclipse.m2e.core.internal.project.registry.ProjectRegistryReader.IFileReplace;
+import org.eclipse.m2e.core.internal.project.registry.ProjectRegistryReader.IPathReplace;
+import org.eclipse.m2e.core.internal.project.registry.ProjectRegistryReader.MavenProjectManagerImplReplace;
+
+
+/**
+ * Writes the workspace state with the java serialization used by previous versions, so the migration can be tested
+ * and both formats can be compared. The counterpart is {@link ProjectRegistryReader#readLegacyWorkspaceState}.
+ */
+final class LegacyWorkspaceStateWriter {
+
+  private LegacyWorkspaceStateWriter() {
+  }
+
+  static void write(ProjectRegistry state, File file) throws IOException {
+    try (ObjectOutputStream os = createObjectOutputStream(file)) {
+      synchronized(state) { // see MNGECLIPSE-860
+        os.writeObject(state);
+      }
+    }
+  }
+
+  private static ObjectOutputStream createObjectOutputStream(File file) throws IOException {
+    ClassLoader readerClassloader = ProjectRegistryReader.class.getClassLoader();
+    return new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file))) {
+      {
+        enableReplaceObject(true);
+      }
+
+      @Override
+      protected Object replaceObject(Object o) throws IOException {
+        if(o instanceof IPath path) {
+          return new IPathReplace(path);
+        } else if(o instanceof IFile file) {
+          return new IFileReplace(file);
+        } else if(o instanceof ProjectRegistryManager) {
+          return new MavenProjectManagerImplReplace();
+        }
+        return super.replaceObject(o);
+      }
+
+      @Override
+      protected void annotateClass(Class<?> cl) throws IOException {
+        // if the class is visible to the reader, assume it will be during reading stream back
+        try {
+          Class<?> target = cl;
+          while(target.isArray()) {
+            target = target.getComponentType();
+          }
+          if(target.isPrimitive() || target.equals(readerClassloader.loadClass(target.getName()))) {
+            writeObject(null);
+            return;
+          }
+        } catch(ClassNotFoundException ex) {
+          // fall through
+        }
+        // foreign class
+        Bundle bundle = FrameworkUtil.getBundle(cl);
+        if(bundle != null) {
+          writeObject(bundle.getSymbolicName());
+          writeObject(bundle.getVersion().toString());
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.project.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+
+import org.eclipse.m2e.core.embedder.ArtifactKey;
+import org.eclipse.m2e.core.embedder.IComponentLookup;
+import org.eclipse.m2e.core.internal.embedder.PlexusContainerManager;
+import org.eclipse.m2e.core.project.IMavenProjectFacade;
+import org.eclipse.m2e.core.project.IProjectConfiguration;
+
+
+public class MavenProjectCacheTest {
+
+  /**
+   * Each project weighs 40 KB, so the cache holds two of them
+   */
+  private static final int PROJECT_DEPENDENCIES = 24;
+
+  private static final long MAX_WEIGHT = 100;
+
+  private final IProjectConfiguration configuration = Mockito.mock(IProjectConfiguration.class);
+
+  private MavenProjectCache cache;
+
+  @Before
+  public void setUp() {
+    // a single segment, so the maximum weight applies to all lines
+    cache = new MavenProjectCache(MAX_WEIGHT, 1);
+    cache.containerManager = Mockito.mock(PlexusContainerManager.class);
+    when(cache.containerManager.getComponentLookup(any())).thenReturn(Mockito.mock(IComponentLookup.class));
+  }
+
+  @Test
+  public void testEstimateWeight() {
+    assertEquals(16 + PROJECT_DEPENDENCIES, MavenProjectCache.estimateWeight(project("a")));
+  }
+
+  @Test
+  public void testEvictedByWeight() {
+    IMavenProjectFacade a = facade("a", "a");
+    IMavenProjectFacade b = facade("b", "b");
+    IMavenProjectFacade c = facade("c", "c");
+    MavenProject projectA = cache.getMavenProject(a, loader());
+    cache.getMavenProject(b, loader());
+    assertEquals(80, cache.getStatistics().weight());
+    assertEquals(0, cache.getStatistics().evictionCount());
+
+    cache.getMavenProject(c, loader());
+    MavenProjectCache.Statistics statistics = cache.getStatistics();
+    assertEquals(1, statistics.evictionCount());
+    assertEquals(80, statistics.weight());
+    // the least recently used project was evicted
+    assertNull(cache.getMavenProject(a, null));
+    assertNotSame(projectA, cache.getMavenProject(a, loader()));
+  }
+
+  @Test
+  public void testProbeIsNoMiss() {
+    IMavenProjectFacade a = facade("a", "a");
+    assertNull(cache.getMavenProject(a, null));
+    assertEquals(0, cache.getStatistics().missCount());
+    assertEquals(0, cache.getStatistics().hitCount());
+
+    MavenProject project = cache.getMavenProject(a, loader());
+    assertEquals(1, cache.getStatistics().missCount());
+    assertSame(project, cache.getMavenProject(a, null));
+    assertEquals(1, cache.getStatistics().missCount());
+    assertEquals(1, cache.getStatistics().hitCount());
+  }
+
+  @Test
+  public void testRetainedSurvivesEviction() {
+    IMavenProjectFacade a = facade("a", "a");
+    MavenProject projectA = cache.getMavenProject(a, loader());
+    try (MavenProjectCache.Retention retention = cache.retain(a.getPomFile())) {
+      cache.getMavenProject(facade("b", "b"), loader());
+      cache.getMavenProject(facade("c", "c"), loader());
+      assertEquals(1, cache.getStatistics().retainedLines());
+      assertSame(projectA, cache.getMavenProject(a, null));
+      assertEquals(0, cache.getStatistics().retainedLines());
+
+      cache.getMavenProject(facade("d", "d"), loader());
+      cache.getMavenProject(facade("e", "e"), loader());
+      assertEquals(1, cache.getStatistics().retainedLines());
+    }
+    // the released line is dropped
+    assertEquals(0, cache.getStatistics().retainedLines());
+    assertNull(cache.getMavenProject(a, null));
+  }
+
+  @Test
+  public void testOnlyRetainedProjectsAreKept() {
+    // two poms with the same coordinates share a line
+    IMavenProjectFacade a1 = facade("a", "a1");
+    IMavenProjectFacade a2 = facade("a", "a2");
+    MavenProject projectA1 = cache.getMavenProject(a1, loader());
+    cache.getMavenProject(a2, loader());
+    try (MavenProjectCache.Retention retention = cache.retain(a1.getPomFile())) {
+      cache.getMavenProject(facade("b", "b"), loader());
+      assertEquals(1, cache.getStatistics().retainedLines());
+      assertEquals(40, cache.getStatistics().weight());
+      assertNull(cache.getMavenProject(a2, null));
+      assertSame(projectA1, cache.getMavenProject(a1, null));
+    }
+  }
+
+  private IMavenProjectFacade facade(String artifactId, String pom) {
+    IMavenProjectFacade facade = Mockito.mock(IMavenProjectFacade.class);
+    when(facade.getArtifactKey()).thenReturn(new ArtifactKey("org.example", artifactId, "1.0.0", null));
+    when(facade.getConfiguration()).thenReturn(configuration);
+    when(facade.getPomFile()).thenReturn(new File(pom, "pom.xml"));
+    return facade;
+  }
+
+  private static Function<IMavenProjectFacade, MavenProject> loader() {
+    return facade -> {
+      MavenProject project = project(facade.getArtifactKey().artifactId());
+      project.setFile(facade.getPomFile());
+      return project;
+    };
+  }
+
+  private static MavenProject project(String artifactId) {
+    Model model = new Model();
+    model.setGroupId("org.example");
+    model.setArtifactId(artifactId);
+    model.setVersion("1.0.0");
+    for(int i = 0; i < PROJECT_DEPENDENCIES; i++ ) {
+      Dependency dependency = new Dependency();
+      dependency.setGroupId("org.example");
+      dependency.setArtifactId("dependency" + i);
+      dependency.setVersion("1.0.0");
+      model.addDependency(dependency);
+    }
+    return new MavenProject(model);
+  }
+}
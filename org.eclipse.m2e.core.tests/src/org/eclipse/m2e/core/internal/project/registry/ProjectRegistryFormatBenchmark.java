@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.project.registry;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.apache.commons.io.FileUtils;
+
+import org.eclipse.m2e.core.MavenPlugin;
+import org.eclipse.m2e.core.internal.MavenPluginActivator;
+import org.eclipse.m2e.core.project.MavenProjectInfo;
+import org.eclipse.m2e.core.project.ProjectImportConfiguration;
+import org.eclipse.m2e.tests.common.AbstractMavenProjectTestCase;
+
+
+/**
+ * Compares size and read/write timings of the binary workspace state with the java serialization used before. This
+ * is a performance harness and not part of the test suite as its name does not match the test includes, run it
+ * explicitly, e.g. with <code>-Dtest=ProjectRegistryFormatBenchmark</code>.
+ */
+public class ProjectRegistryFormatBenchmark extends AbstractMavenProjectTestCase {
+
+  private static final int PROJECTS = Integer.getInteger("m2e.benchmark.projects", 500);
+
+  private static final int ITERATIONS = Integer.getInteger("m2e.benchmark.iterations", 10);
+
+  @Test
+  public void compareWithSerialization() throws Exception {
+    File tempDirectory = Files.createTempDirectory(getClass().getSimpleName()).toFile();
+    try {
+      List<MavenProjectInfo> toImport = ProjectRegistryFormatTest
+          .createProjects(PROJECTS, new File(tempDirectory, "projects")).stream()
+          .map(pom -> new MavenProjectInfo("", pom, null, null)).collect(Collectors.toList());
+      MavenPlugin.getProjectConfigurationManager().importProjects(toImport, new ProjectImportConfiguration(), null,
+          new NullProgressMonitor());
+      waitForJobsToComplete(monitor);
+
+      ProjectRegistryManager manager = MavenPluginActivator.getDefault().getMavenProjectManagerImpl();
+      ProjectRegistry registry = manager.getProjectRegistry();
+      File stateLocation = new File(tempDirectory, "state");
+      stateLocation.mkdirs();
+      ProjectRegistryReader reader = new ProjectRegistryReader();
+      reader.setStateLocation(stateLocation);
+      File binaryFile = new File(stateLocation, "workspaceState.bin");
+      File legacyFile = new File(stateLocation, "legacy.ser");
+
+      long binaryWrite = time(() -> reader.writeWorkspaceState(registry));
+      long legacyWrite = time(() -> LegacyWorkspaceStateWriter.write(registry, legacyFile));
+      long binaryRead = time(() -> reader.readWorkspaceState(manager));
+      long legacyRead = time(() -> reader.readLegacyWorkspaceState(manager, legacyFile));
+      System.out.printf("%d projects%n", registry.getProjects().size());
+      System.out.printf("binary: %d bytes, write %d us, read %d us%n", binaryFile.length(), binaryWrite, binaryRead);
+      System.out.printf("legacy: %d bytes, write %d us, read %d us%n", legacyFile.length(), legacyWrite, legacyRead);
+    } finally {
+      FileUtils.deleteDirectory(tempDirectory);
+    }
+  }
+
+  private static long time(Action action) throws Exception {
+    action.run(); // warm up
+    long start = System.nanoTime();
+    for(int i = 0; i < ITERATIONS; i++ ) {
+      action.run();
+    }
+    return (System.nanoTime() - start) / ITERATIONS / 1000;
+  }
+
+  @FunctionalInterface
+  private interface Action {
+    void run() throws Exception;
+  }
+}
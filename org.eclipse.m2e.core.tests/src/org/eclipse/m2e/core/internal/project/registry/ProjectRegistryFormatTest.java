@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.project.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.m2e.core.MavenPlugin;
+import org.eclipse.m2e.core.internal.MavenPluginActivator;
+import org.eclipse.m2e.core.internal.lifecyclemapping.model.PluginExecutionFilter;
+import org.eclipse.m2e.core.internal.lifecyclemapping.model.PluginExecutionMetadata;
+import org.eclipse.m2e.core.lifecyclemapping.model.IPluginExecutionMetadata;
+import org.eclipse.m2e.core.project.MavenProjectInfo;
+import org.eclipse.m2e.core.project.ProjectImportConfiguration;
+import org.eclipse.m2e.core.project.configurator.MojoExecutionKey;
+import org.eclipse.m2e.tests.common.AbstractMavenProjectTestCase;
+import org.junit.Test;
+
+
+/**
+ * Round trip of the binary workspace state and comparison against the java serialization used before, the timings
+ * are measured by {@link ProjectRegistryFormatBenchmark}.
+ */
+public class ProjectRegistryFormatTest extends AbstractMavenProjectTestCase {
+
+  @Test
+  public void testRoundTripAndCompareWithSerialization() throws Exception {
+    File tempDirectory = Files.createTempDirectory(getClass().getSimpleName()).toFile();
+    try {
+      List<MavenProjectInfo> toImport = createProjects(50, new File(tempDirectory, "projects")).stream()
+          .map(pom -> new MavenProjectInfo("", pom, null, null)).collect(Collectors.toList());
+      MavenPlugin.getProjectConfigurationManager().importProjects(toImport, new ProjectImportConfiguration(), null,
+          new NullProgressMonitor());
+      waitForJobsToComplete(monitor);
+
+      ProjectRegistryManager manager = MavenPluginActivator.getDefault().getMavenProjectManagerImpl();
+      ProjectRegistry registry = manager.getProjectRegistry();
+      File stateLocation = new File(tempDirectory, "state");
+      stateLocation.mkdirs();
+      ProjectRegistryReader reader = new ProjectRegistryReader();
+      reader.setStateLocation(stateLocation);
+      File binaryFile = new File(stateLocation, "workspaceState.bin");
+      File legacyFile = new File(stateLocation, "legacy.ser");
+
+      reader.writeWorkspaceState(registry);
+      LegacyWorkspaceStateWriter.write(registry, legacyFile);
+      assertNotNull(reader.readLegacyWorkspaceState(manager, legacyFile));
+
+      ProjectRegistry restored = reader.readWorkspaceState(manager);
+      assertNotNull(restored);
+      assertTrue(restored.isValid());
+      assertEquals(registry.workspacePoms.keySet(), restored.workspacePoms.keySet());
+      assertEquals(registry.workspaceArtifacts, restored.workspaceArtifacts);
+      assertEquals(registry.projectCapabilities, restored.projectCapabilities);
+      assertEquals(registry.projectRequirements, restored.projectRequirements);
+      for(MavenProjectFacade facade : registry.getProjects()) {
+        MavenProjectFacade other = restored.getProjectFacade(facade.getPom());
+        assertEquals(facade.getArtifactKey(), other.getArtifactKey());
+        assertEquals(facade.getConfiguration(), other.getConfiguration());
+        assertEquals(facade.getMavenProjectArtifacts(), other.getMavenProjectArtifacts());
+        assertEquals(facade.getMojoExecutionMapping() != null ? facade.getMojoExecutionMapping().keySet() : null,
+            other.getMojoExecutionMapping() != null ? other.getMojoExecutionMapping().keySet() : null);
+        assertEquals(facade.isStale(), other.isStale());
+      }
+      assertTrue("binary state should be smaller than the serialized one",
+          binaryFile.length() < legacyFile.length());
+    } finally {
+      FileUtils.deleteDirectory(tempDirectory);
+    }
+  }
+
+  @Test
+  public void testJournalReplayAndRecovery() throws Exception {
+    File tempDirectory = Files.createTempDirectory(getClass().getSimpleName()).toFile();
+    try {
+      List<MavenProjectInfo> toImport = createProjects(10, new File(tempDirectory, "projects")).stream()
+          .map(pom -> new MavenProjectInfo("", pom, null, null)).collect(Collectors.toList());
+      MavenPlugin.getProjectConfigurationManager().importProjects(toImport, new ProjectImportConfiguration(), null,
+          new NullProgressMonitor());
+      waitForJobsToComplete(monitor);
+
+      ProjectRegistryManager manager = MavenPluginActivator.getDefault().getMavenProjectManagerImpl();
+      ProjectRegistry registry = manager.getProjectRegistry();
+      File stateLocation = new File(tempDirectory, "state");
+      stateLocation.mkdirs();
+      ProjectRegistryReader reader = new ProjectRegistryReader();
+      reader.setStateLocation(stateLocation);
+      File journalFile = new File(stateLocation, "workspaceState.journal");
+
+      // start with an empty snapshot and journal one project at a time
+      ProjectRegistry journaled = new ProjectRegistry();
+      reader.writeWorkspaceState(journaled);
+      assertTrue(reader.isJournaling(journaled));
+      for(IFile pom : registry.workspacePoms.keySet()) {
+        journaled.replay(pom, registry.workspacePoms.get(pom), registry.projectCapabilities.get(pom),
+            registry.projectRequirements.get(pom));
+        reader.journalChanges(journaled, List.of(pom));
+      }
+      assertTrue(journalFile.length() > 0);
+      assertRegistryEquals(registry, reader.readWorkspaceState(manager));
+
+      // simulate a crash while appending a record
+      long journalLength = journalFile.length();
+      try (DataOutputStream out = new DataOutputStream(new FileOutputStream(journalFile, true))) {
+        out.writeInt(1000);
+        out.writeLong(0);
+        out.write(new byte[10]);
+      }
+      assertRegistryEquals(registry, reader.readWorkspaceState(manager));
+      assertEquals(journalLength, journalFile.length());
+
+      // a new snapshot makes the journal obsolete
+      ProjectRegistry restored = reader.readWorkspaceState(manager);
+      reader.writeWorkspaceState(restored);
+      assertFalse(journalFile.exists());
+      assertRegistryEquals(registry, reader.readWorkspaceState(manager));
+
+      // a journal left behind by a crash must not be applied to a snapshot written without reading the state
+      IFile pom = registry.workspacePoms.keySet().iterator().next();
+      reader.journalChanges(restored, List.of(pom));
+      File staleJournal = new File(tempDirectory, "stale.journal");
+      Files.copy(journalFile.toPath(), staleJournal.toPath());
+      ProjectRegistryReader otherReader = new ProjectRegistryReader();
+      otherReader.setStateLocation(stateLocation);
+      otherReader.writeWorkspaceState(new ProjectRegistry());
+      Files.copy(staleJournal.toPath(), journalFile.toPath());
+      assertTrue(otherReader.readWorkspaceState(manager).workspacePoms.isEmpty());
+      assertFalse(journalFile.exists());
+    } finally {
+      FileUtils.deleteDirectory(tempDirectory);
+    }
+  }
+
+  @Test
+  public void testPluginExecutionFilterParameters() throws Exception {
+    Xpp3Dom dom = new Xpp3Dom("configuration");
+    Xpp3Dom child = new Xpp3Dom("skip");
+    child.setValue("true");
+    dom.addChild(child);
+    Map<String, Object> parameters = new LinkedHashMap<>();
+    parameters.put("string", "value");
+    parameters.put("dom", dom);
+    parameters.put("null", null);
+    PluginExecutionFilter filter = new PluginExecutionFilter("org.example", "plugin", "[1.0,)", "compile,test");
+    filter.setParameters(parameters);
+    PluginExecutionMetadata metadata = new PluginExecutionMetadata();
+    metadata.setFilter(filter);
+    MojoExecutionKey key = new MojoExecutionKey("org.example", "plugin", "1.0", "compile", "compile", "default");
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    new ProjectRegistryFormat.Output(bytes).writeMojoExecutionMapping(Map.of(key, List.of(metadata)));
+    Map<MojoExecutionKey, List<IPluginExecutionMetadata>> mapping = new ProjectRegistryFormat.Input(
+        new ByteArrayInputStream(bytes.toByteArray())).readMojoExecutionMapping();
+
+    PluginExecutionFilter restored = ((PluginExecutionMetadata) mapping.get(key).get(0)).getFilter();
+    assertEquals(filter.getGroupId(), restored.getGroupId());
+    assertEquals(filter.getArtifactId(), restored.getArtifactId());
+    assertEquals(filter.getVersionRange(), restored.getVersionRange());
+    assertEquals(filter.getGoals(), restored.getGoals());
+    assertEquals(List.of("string", "dom", "null"), new ArrayList<>(restored.getParameters().keySet()));
+    assertEquals("value", restored.getParameters().get("string"));
+    assertEquals(dom, restored.getParameters().get("dom"));
+    assertNull(restored.getParameters().get("null"));
+  }
+
+  private static void assertRegistryEquals(ProjectRegistry expected, ProjectRegistry actual) {
+    assertNotNull(actual);
+    assertEquals(expected.workspacePoms.keySet(), actual.workspacePoms.keySet());
+    assertEquals(expected.workspaceArtifacts, actual.workspaceArtifacts);
+    assertEquals(expected.projectCapabilities, actual.projectCapabilities);
+    assertEquals(expected.projectRequirements, actual.projectRequirements);
+    assertEquals(expected.requiredCapabilities, actual.requiredCapabilities);
+  }
+
+  static List<File> createProjects(int count, File directory) throws IOException {
+    List<File> poms = new ArrayList<>();
+    for(int i = 0; i < count; i++ ) {
+      File projectDir = new File(directory, "p" + i);
+      projectDir.mkdirs();
+      File pom = new File(projectDir, "pom.xml");
+      poms.add(pom.getCanonicalFile());
+      try (PrintStream content = new PrintStream(pom)) {
+        content.println("<project>");
+        content.println("  <modelVersion>4.0.0</modelVersion>");
+        content.println("  <groupId>org.eclipse.m2e.core.tests.format</groupId>");
+        content.println("  <artifactId>p" + i + "</artifactId>");
+        content.println("  <version>1</version>");
+        if(i > 0) {
+          content.println("  <dependencies>");
+          content.println("    <dependency>");
+          content.println("      <groupId>org.eclipse.m2e.core.tests.format</groupId>");
+          content.println("      <artifactId>p" + (i - 1) + "</artifactId>");
+          content.println("      <version>1</version>");
+          content.println("    </dependency>");
+          content.println("  </dependencies>");
+        }
+        content.println("</project>");
+      }
+    }
+    return poms;
+  }
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.project.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.m2e.core.internal.project.registry.ProjectRegistryRefreshJob.PendingRefresh;
+import org.eclipse.m2e.core.internal.project.registry.ProjectRegistryRefreshJob.Priority;
+import org.eclipse.m2e.core.project.MavenUpdateRequest;
+
+
+public class ProjectRegistryRefreshJobTest {
+
+  private final IFile pom1 = Mockito.mock(IFile.class);
+
+  private final IFile pom2 = Mockito.mock(IFile.class);
+
+  private final IFile pom3 = Mockito.mock(IFile.class);
+
+  private final IFile pom4 = Mockito.mock(IFile.class);
+
+  private final ProjectRegistry registry = Mockito.mock(ProjectRegistry.class);
+
+  /**
+   * The tiers passed to the refresh, in the order they were refreshed
+   */
+  private final List<Map<IFile, PendingRefresh>> tiers = new ArrayList<>();
+
+  private Consumer<Map<IFile, PendingRefresh>> onRefresh = tier -> {
+  };
+
+  private ProjectRegistryRefreshJob job;
+
+  @Before
+  public void setUp() {
+    job = new ProjectRegistryRefreshJob() {
+      @Override
+      void refresh(Map<IFile, PendingRefresh> requests, IProgressMonitor monitor) {
+        tiers.add(Map.copyOf(requests));
+        onRefresh.accept(requests);
+      }
+    };
+    job.manager = Mockito.mock(ProjectRegistryManager.class);
+    when(job.manager.getProjectRegistry()).thenReturn(registry);
+  }
+
+  @After
+  public void tearDown() {
+    // a requeue schedules the job
+    job.cancel();
+  }
+
+  @Test
+  public void testDuplicateRequestsAreCoalesced() {
+    job.queue(request(false, false, pom1, pom2), Priority.NORMAL);
+    job.queue(request(false, false, pom2, pom1), Priority.NORMAL);
+    Map<IFile, PendingRefresh> queue = job.getQueue();
+    // the order of the first request is kept
+    assertEquals(List.of(pom1, pom2), List.copyOf(queue.keySet()));
+    assertEquals(new PendingRefresh(false, false, Priority.NORMAL), queue.get(pom1));
+    assertEquals(new PendingRefresh(false, false, Priority.NORMAL), queue.get(pom2));
+  }
+
+  @Test
+  public void testCoalescedFlags() {
+    job.queue(request(true, false, pom1, pom2), Priority.NORMAL);
+    job.queue(request(false, false, pom1), Priority.NORMAL);
+    job.queue(request(true, true, pom2), Priority.NORMAL);
+    Map<IFile, PendingRefresh> queue = job.getQueue();
+    // an online refresh covers an offline one, a forced dependency update is kept
+    assertEquals(new PendingRefresh(false, false, Priority.NORMAL), queue.get(pom1));
+    assertEquals(new PendingRefresh(true, true, Priority.NORMAL), queue.get(pom2));
+  }
+
+  @Test
+  public void testMixedPrioritiesKeepTheHighest() {
+    job.queue(request(false, false, pom1, pom2), Priority.LOW);
+    job.queue(request(false, false, pom1), Priority.HIGH);
+    job.queue(request(false, false, pom1, pom2), Priority.NORMAL);
+    Map<IFile, PendingRefresh> queue = job.getQueue();
+    assertEquals(Priority.HIGH, queue.get(pom1).priority());
+    assertEquals(Priority.NORMAL, queue.get(pom2).priority());
+  }
+
+  @Test
+  public void testPriorityTiers() {
+    job.queue(request(false, false, pom1), Priority.LOW);
+    job.queue(request(false, false, pom2), Priority.HIGH);
+    job.queue(request(false, false, pom3), Priority.NORMAL);
+    job.queue(request(false, false, pom4), Priority.LOW);
+    job.run(new NullProgressMonitor());
+
+    assertEquals(3, tiers.size());
+    assertEquals(List.of(pom2), List.copyOf(tiers.get(0).keySet()));
+    assertEquals(List.of(pom3), List.copyOf(tiers.get(1).keySet()));
+    assertEquals(Map.of(pom1, new PendingRefresh(false, false, Priority.LOW), pom4,
+        new PendingRefresh(false, false, Priority.LOW)), tiers.get(2));
+    assertTrue(job.isEmpty());
+  }
+
+  @Test
+  public void testRetainedPomsAreRefreshedFirst() {
+    when(job.manager.isRetained(pom2)).thenReturn(true);
+    job.queue(request(false, false, pom1, pom2), Priority.LOW);
+    job.run(new NullProgressMonitor());
+
+    assertEquals(2, tiers.size());
+    assertEquals(Map.of(pom2, new PendingRefresh(false, false, Priority.HIGH)), tiers.get(0));
+    assertEquals(Map.of(pom1, new PendingRefresh(false, false, Priority.LOW)), tiers.get(1));
+  }
+
+  @Test
+  public void testRequeueInvalidated() {
+    MavenProjectFacade initial = Mockito.mock(MavenProjectFacade.class);
+    MavenProjectFacade changed = Mockito.mock(MavenProjectFacade.class);
+    when(registry.getProjectFacade(pom1)).thenReturn(initial);
+    // pom2 and pom3 are refreshed by someone else before our state is applied
+    when(registry.getProjectFacade(pom2)).thenReturn(initial, changed);
+    when(registry.getProjectFacade(pom3)).thenReturn(initial, changed);
+    when(registry.getProjectFacade(pom4)).thenReturn(initial);
+
+    job.queue(request(false, false, pom4), Priority.HIGH);
+    job.queue(request(false, false, pom1, pom2), Priority.NORMAL);
+    job.queue(request(false, true, pom3), Priority.NORMAL);
+    onRefresh = tier -> {
+      if(tier.containsKey(pom1)) {
+        // a request that comes in while the job runs is merged into the requeued one
+        job.queue(request(true, true, pom1), Priority.LOW);
+        throw new StaleMutableProjectRegistryException();
+      }
+    };
+    job.run(new NullProgressMonitor());
+
+    assertEquals(2, tiers.size());
+    Map<IFile, PendingRefresh> queue = job.getQueue();
+    // the applied high tier and the pom that was refreshed concurrently are not redone, a forced dependency update is
+    assertEquals(List.of(pom1, pom3), List.copyOf(queue.keySet()));
+    assertEquals(new PendingRefresh(false, true, Priority.NORMAL), queue.get(pom1));
+    assertEquals(new PendingRefresh(false, true, Priority.NORMAL), queue.get(pom3));
+  }
+
+  private static MavenUpdateRequest request(boolean offline, boolean forceDependencyUpdate, IFile... poms) {
+    MavenUpdateRequest request = new MavenUpdateRequest(offline, forceDependencyUpdate);
+    for(IFile pom : poms) {
+      request.addPomFile(pom);
+    }
+    return request;
+  }
+}
@@ -21,7 +21,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
@@ -35,8 +39,10 @@ import org.eclipse.m2e.core.embedder.ArtifactKey;
 import org.eclipse.m2e.core.internal.MavenPluginActivator;
 import org.eclipse.m2e.core.internal.embedder.MavenImpl;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
+import org.eclipse.m2e.core.project.MavenProjectChangedEvent;
 import org.eclipse.m2e.core.project.MavenUpdateRequest;
 import org.eclipse.m2e.core.project.ProjectImportConfiguration;
+import org.eclipse.m2e.core.project.ResolverConfiguration;
 import org.eclipse.m2e.tests.common.AbstractMavenProjectTestCase;
 import org.junit.Assert;
 import org.junit.Ignore;
@@ -90,6 +96,150 @@ public class RegistryTest extends AbstractMavenProjectTestCase {
     Assert.assertNotEquals(Collections.emptyMap(), state.requiredCapabilities);
   }
 
+  @Test
+  public void testParallelRefreshMatchesSerial() throws IOException, CoreException, InterruptedException {
+    IProject[] projects = importProjects("resources/projects/parallelRefresh",
+        new String[] {"pom.xml", "a/pom.xml", "b/pom.xml", "c/pom.xml"}, new ResolverConfiguration());
+    waitForJobsToComplete(monitor);
+    List<IFile> pomFiles = Arrays.stream(projects).map(p -> p.getFile("pom.xml")).toList();
+    IFile parent = pomFiles.get(0);
+    IFile a = pomFiles.get(1);
+    IFile b = pomFiles.get(2);
+    IFile c = pomFiles.get(3);
+    ProjectRegistryManager registryManager = MavenPluginActivator.getDefault().getMavenProjectManagerImpl();
+
+    Map<IFile, List<?>> serial = refreshAll(registryManager, pomFiles);
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    registryManager.phase2Parallelism = 4;
+    registryManager.phase2Listener = (pom, finished) -> events
+        .add((finished ? "finished " : "started ") + pom.getProject().getName());
+    Map<IFile, List<?>> parallel;
+    try {
+      parallel = refreshAll(registryManager, pomFiles);
+    } finally {
+      registryManager.phase2Parallelism = ProjectRegistryManager.PHASE2_PARALLELISM;
+      registryManager.phase2Listener = null;
+    }
+    assertEquals(serial, parallel);
+
+    // a project is only processed after the projects it depends on are settled
+    for(IFile child : List.of(a, b, c)) {
+      assertProcessedBefore(events, parent, child);
+    }
+    assertProcessedBefore(events, a, b);
+    assertProcessedBefore(events, b, c);
+  }
+
+  private static Map<IFile, List<?>> refreshAll(ProjectRegistryManager registryManager, List<IFile> pomFiles)
+      throws CoreException {
+    try (MutableProjectRegistry state = registryManager.newMutableProjectRegistry()) {
+      state.clear();
+      MavenImpl.execute(MavenPlugin.getMaven(), false, false, (context, aMonitor) -> {
+        registryManager.refresh(state, pomFiles, aMonitor);
+        return null;
+      }, monitor);
+      Map<IFile, List<?>> result = new HashMap<>();
+      for(IFile pom : pomFiles) {
+        MavenProjectFacade facade = state.getProjectFacade(pom);
+        Assert.assertNotNull(facade);
+        result.put(pom, List.of(facade.getArtifactKey(), facade.getMavenProjectArtifacts(),
+            state.getProjectRequirements(pom)));
+      }
+      return result;
+    }
+  }
+
+  private static void assertProcessedBefore(List<String> events, IFile first, IFile second) {
+    int finished = events.indexOf("finished " + first.getProject().getName());
+    int started = events.indexOf("started " + second.getProject().getName());
+    Assert.assertTrue(events.toString(), finished >= 0 && started > finished);
+  }
+
+  @Test
+  public void testRefreshMetricsRecorded() throws IOException, CoreException, InterruptedException {
+    ProjectRegistryManager registryManager = MavenPluginActivator.getDefault().getMavenProjectManagerImpl();
+    RefreshMetrics metrics = registryManager.getRefreshMetrics();
+    metrics.reset();
+    IProject dependentProject = createExisting("dependent", "resources/projects/dependency/dependent", true);
+    IProject dependencyProject = createExisting("dependency", "resources/projects/dependency/dependency", true);
+    waitForJobsToComplete(monitor);
+    IFile dependentPom = dependentProject.getFile("pom.xml");
+    Assert.assertTrue(metrics.getRefreshCount() > 0);
+    Assert.assertTrue(metrics.getPoms().contains(dependentPom.getFullPath()));
+    Assert.assertTrue(metrics.getPoms().contains(dependencyProject.getFile("pom.xml").getFullPath()));
+    Assert.assertTrue(metrics.getStatistics(dependentPom.getFullPath(), RefreshMetrics.Stage.READ_FACADES).count() > 0);
+    Assert.assertTrue(
+        metrics.getStatistics(dependentPom.getFullPath(), RefreshMetrics.Stage.RESOLVE_DEPENDENCIES).count() > 0);
+    Assert.assertTrue(metrics.toJson().contains(dependentPom.getFullPath().toPortableString()));
+
+    // metrics of projects that leave the registry are dropped
+    dependentProject.close(monitor);
+    waitForJobsToComplete(monitor);
+    Assert.assertFalse(metrics.getPoms().contains(dependentPom.getFullPath()));
+    Assert.assertTrue(metrics.getPoms().contains(dependencyProject.getFile("pom.xml").getFullPath()));
+  }
+
+  @Test
+  public void testWorkspaceArtifactIndex() throws IOException, CoreException, InterruptedException {
+    IProject dependencyProject = createExisting("dependency", "resources/projects/dependency/dependency", true);
+    waitForJobsToComplete(monitor);
+    IFile dependencyPom = dependencyProject.getFile("pom.xml");
+    ArtifactKey key = new ArtifactKey("org.eclipse.m2e.core.test.registrymanager", "dependency", "0.0.1", null);
+    ProjectRegistryManager registryManager = MavenPluginActivator.getDefault().getMavenProjectManagerImpl();
+    try (MutableProjectRegistry state = registryManager.newMutableProjectRegistry()) {
+      assertEquals(Collections.singleton(key),
+          state.getWorkspaceArtifactVersions(key.groupId(), key.artifactId()).keySet());
+      assertEquals("0.0.1",
+          state.getWorkspaceArtifactVersions(key.groupId(), key.artifactId()).get(key).toString());
+      assertEquals(Collections.singleton(dependencyPom),
+          Set.copyOf(state.getWorkspaceArtifacts(key.groupId(), key.artifactId()).get(key)));
+
+      state.removeProject(dependencyPom, key);
+      assertEquals(Collections.emptyMap(), state.getWorkspaceArtifactVersions(key.groupId(), key.artifactId()));
+      assertEquals(Collections.emptyMap(), state.getWorkspaceArtifacts(key.groupId(), key.artifactId()));
+      // the index of the registry the mutable one was created from is not affected
+      assertEquals(Collections.singleton(key), registryManager.getProjectRegistry()
+          .getWorkspaceArtifactVersions(key.groupId(), key.artifactId()).keySet());
+    }
+  }
+
+  @Test
+  public void testMutableRegistryLayers() throws Exception {
+    IProject dependencyProject = createExisting("dependency", "resources/projects/dependency/dependency", true);
+    waitForJobsToComplete(monitor);
+    IFile dependencyPom = dependencyProject.getFile("pom.xml");
+    MavenProjectFacade facade = MavenPluginActivator.getDefault().getMavenProjectManagerImpl()
+        .getProjectRegistry().getProjectFacade(dependencyPom);
+    ArtifactKey key = facade.getArtifactKey();
+
+    ProjectRegistry registry = new ProjectRegistry();
+    List<MavenProjectChangedEvent> events;
+    try (MutableProjectRegistry state = new MutableProjectRegistry(registry)) {
+      state.setProject(dependencyPom, facade);
+      assertEquals(null, registry.getProjectFacade(dependencyPom));
+      events = registry.apply(state);
+    }
+    assertEquals(1, events.size());
+    assertEquals(MavenProjectChangedEvent.KIND_ADDED, events.get(0).getKind());
+    assertEquals(facade, registry.getProjectFacade(dependencyPom));
+    assertEquals(facade, registry.getProjectFacade(facade.getPomFile()));
+
+    try (MutableProjectRegistry state = new MutableProjectRegistry(registry)) {
+      state.removeProject(dependencyPom, key);
+      assertEquals(null, state.getProjectFacade(dependencyPom));
+      // changes of the mutable registry are not visible in the registry it was created from
+      assertEquals(facade, registry.getProjectFacade(dependencyPom));
+      assertEquals(Collections.singleton(key),
+          registry.getWorkspaceArtifactVersions(key.groupId(), key.artifactId()).keySet());
+      events = registry.apply(state);
+      Assert.assertTrue(state.isStale());
+    }
+    assertEquals(1, events.size());
+    assertEquals(MavenProjectChangedEvent.KIND_REMOVED, events.get(0).getKind());
+    assertEquals(null, registry.getProjectFacade(dependencyPom));
+    assertEquals(Collections.emptyMap(), registry.getWorkspaceArtifacts(key.groupId(), key.artifactId()));
+  }
+
   @Ignore(value = "This test doesn't manage to reproduce Bug 547172 while similar manual steps do lead to an error")
   @Test
   public void testInvalidParent() throws IOException, CoreException, InterruptedException {
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.project.registry;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.m2e.core.embedder.ArtifactKey;
+
+
+/**
+ * Compares workspace artifact lookups through the index of {@link BasicProjectRegistry} with the scan of all workspace
+ * artifacts used before, for 100, 1000 and 5000 projects. This is a performance harness and not part of the test suite
+ * as its name does not match the test includes, run it explicitly, e.g. with
+ * <code>-Dtest=WorkspaceArtifactLookupBenchmark</code>.
+ */
+public class WorkspaceArtifactLookupBenchmark {
+
+  private static final int[] PROJECTS = {100, 1000, 5000};
+
+  private static final int LOOKUPS = Integer.getInteger("m2e.benchmark.lookups", 100000);
+
+  private int blackhole;
+
+  @Test
+  public void compareWithScan() {
+    for(int projects : PROJECTS) {
+      ProjectRegistry registry = createRegistry(projects);
+      ArtifactKey[] keys = registry.workspaceArtifacts.keySet().toArray(ArtifactKey[]::new);
+      for(ArtifactKey key : keys) {
+        assertEquals(scan(registry, key.groupId(), key.artifactId()),
+            registry.getWorkspaceArtifactVersions(key.groupId(), key.artifactId()).keySet());
+      }
+      long indexed = time(keys, key -> registry.getWorkspaceArtifactVersions(key.groupId(), key.artifactId()).size());
+      long scanned = time(keys, key -> scan(registry, key.groupId(), key.artifactId()).size());
+      System.out.printf("%d projects: index %d ns, scan %d ns per lookup%n", projects, indexed, scanned);
+    }
+  }
+
+  private static ProjectRegistry createRegistry(int projects) {
+    ProjectRegistry registry = new ProjectRegistry();
+    for(int i = 0; i < projects; i++ ) {
+      // a few versions of each module, as in a workspace with maintenance branches
+      ArtifactKey key = new ArtifactKey("org.example.group" + i % 10, "module" + i / 3, "1.0." + i % 3, null);
+      registry.workspaceArtifacts.put(key, new LinkedHashSet<>(Set.of(Mockito.mock(IFile.class))));
+    }
+    return registry;
+  }
+
+  /**
+   * The lookup as it was done before the index was introduced.
+   */
+  private static Set<ArtifactKey> scan(ProjectRegistry registry, String groupId, String artifactId) {
+    Set<ArtifactKey> keys = new LinkedHashSet<>();
+    for(Map.Entry<ArtifactKey, Set<IFile>> entry : registry.workspaceArtifacts.entrySet()) {
+      ArtifactKey key = entry.getKey();
+      if(groupId.equals(key.groupId()) && artifactId.equals(key.artifactId()) && !entry.getValue().isEmpty()) {
+        keys.add(key);
+      }
+    }
+    return keys;
+  }
+
+  private long time(ArtifactKey[] keys, ToIntFunction<ArtifactKey> lookup) {
+    for(int i = 0; i < LOOKUPS; i++ ) { // warm up
+      blackhole += lookup.applyAsInt(keys[i % keys.length]);
+    }
+    long start = System.nanoTime();
+    for(int i = 0; i < LOOKUPS; i++ ) {
+      blackhole += lookup.applyAsInt(keys[i % keys.length]);
+    }
+    return (System.nanoTime() - start) / LOOKUPS;
+  }
+}
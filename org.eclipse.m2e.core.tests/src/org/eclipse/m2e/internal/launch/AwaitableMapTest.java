@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.internal.launch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.Test;
+
+import org.eclipse.m2e.core.embedder.ArtifactKey;
+
+
+public class AwaitableMapTest {
+
+  private static final int MODULES = 1000;
+
+  private static final int CONSOLE_THREADS = 8;
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  @Test
+  public void testReactorStream() throws Exception {
+    AwaitableMap<ArtifactKey, String> projects = new AwaitableMap<>();
+    List<ArtifactKey> modules = new ArrayList<>();
+    for(int i = 0; i < MODULES; i++ ) {
+      modules.add(new ArtifactKey("org.example", "module-" + i, "1.0.0-SNAPSHOT", null));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(CONSOLE_THREADS + 1);
+    try {
+      // the console lines of a module can be processed before or after its data was read from the build
+      List<Future<Integer>> consoles = new ArrayList<>();
+      for(int t = 0; t < CONSOLE_THREADS; t++ ) {
+        List<ArtifactKey> order = new ArrayList<>(modules);
+        Collections.shuffle(order, new Random(t));
+        consoles.add(executor.submit(() -> {
+          int found = 0;
+          for(ArtifactKey module : order) {
+            String basedir = projects.await(module, TIMEOUT);
+            assertEquals("/work/" + module.artifactId(), basedir);
+            found++ ;
+          }
+          return found;
+        }));
+      }
+      Future<?> build = executor.submit(() -> {
+        for(ArtifactKey module : modules) {
+          projects.put(module, "/work/" + module.artifactId());
+          if(module.artifactId().endsWith("0")) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+          }
+        }
+        projects.close();
+      });
+      build.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+      for(Future<Integer> console : consoles) {
+        assertEquals(MODULES, console.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS).intValue());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testCloseReleasesWaitingThreads() throws Exception {
+    AwaitableMap<ArtifactKey, String> projects = new AwaitableMap<>();
+    ArtifactKey missing = new ArtifactKey("org.example", "missing", "1.0.0", null);
+    ExecutorService executor = Executors.newFixedThreadPool(CONSOLE_THREADS);
+    try {
+      List<Future<String>> waiting = new ArrayList<>();
+      for(int t = 0; t < CONSOLE_THREADS; t++ ) {
+        waiting.add(executor.submit(() -> projects.await(missing, TIMEOUT)));
+      }
+      projects.close();
+      for(Future<String> future : waiting) {
+        assertNull(future.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+      }
+      long start = System.nanoTime();
+      assertNull(projects.await(missing, TIMEOUT));
+      assertTrue(projects.isClosed());
+      assertTrue(System.nanoTime() - start < TIMEOUT.toNanos());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testTimeout() {
+    AwaitableMap<ArtifactKey, String> projects = new AwaitableMap<>();
+    ArtifactKey module = new ArtifactKey("org.example", "module", "1.0.0", null);
+    assertNull(projects.await(module, Duration.ofMillis(10)));
+    projects.put(module, "/work/module");
+    assertEquals("/work/module", projects.await(module, Duration.ofMillis(10)));
+  }
+}
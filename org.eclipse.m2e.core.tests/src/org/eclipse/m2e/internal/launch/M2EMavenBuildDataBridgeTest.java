@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.internal.launch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+
+import org.eclipse.m2e.internal.maven.listener.M2EMavenBuildDataBridge;
+import org.eclipse.m2e.internal.maven.listener.M2EMavenBuildDataBridge.BuildResult;
+import org.eclipse.m2e.internal.maven.listener.M2EMavenBuildDataBridge.MavenBuildConnection;
+import org.eclipse.m2e.internal.maven.listener.M2EMavenBuildDataBridge.MavenBuildListener;
+import org.eclipse.m2e.internal.maven.listener.M2EMavenBuildDataBridge.MavenProjectBuildData;
+import org.eclipse.m2e.internal.maven.listener.M2EMavenBuildDataBridge.MavenProjectResult;
+import org.eclipse.m2e.internal.maven.listener.M2EMavenBuildDataBridge.MojoExecutionData;
+
+
+@SuppressWarnings("restriction")
+public class M2EMavenBuildDataBridgeTest {
+
+  private static final long TIMEOUT_SECONDS = 30;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testRoundTripOverSocket() throws Exception {
+    List<MavenProjectBuildData> started = Collections.synchronizedList(new ArrayList<>());
+    List<MavenProjectResult> finished = Collections.synchronizedList(new ArrayList<>());
+    List<MojoExecutionData> mojosStarted = Collections.synchronizedList(new ArrayList<>());
+    List<MojoExecutionData> mojosFinished = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch closed = new CountDownLatch(1);
+    MavenBuildConnection connection = M2EMavenBuildDataBridge.prepareConnection("test", new MavenBuildListener() {
+      @Override
+      public void projectStarted(MavenProjectBuildData project) {
+        started.add(project);
+      }
+
+      @Override
+      public void projectFinished(MavenProjectResult result) {
+        finished.add(result);
+      }
+
+      @Override
+      public void mojoStarted(MojoExecutionData mojo) {
+        mojosStarted.add(mojo);
+      }
+
+      @Override
+      public void mojoFinished(MojoExecutionData mojo) {
+        mojosFinished.add(mojo);
+      }
+
+      @Override
+      public void connectionClosed() {
+        closed.countDown();
+      }
+    });
+
+    // the paths of the old key=value format could not contain ',' or '='
+    File basedir = folder.newFolder("a,b=c", "x=1,y=2");
+    File pomFile = new File(basedir, "pom.xml");
+    MavenProject project = new MavenProject();
+    project.setGroupId("org.example");
+    project.setArtifactId("module");
+    project.setVersion("1.0.0");
+    project.setFile(pomFile);
+    project.getBuild().setDirectory(new File(basedir, "target,out").getAbsolutePath());
+    // a project that was not read from a file
+    MavenProject stub = new MavenProject();
+    stub.setGroupId("org.example");
+    stub.setArtifactId("stub");
+    stub.setVersion("1.0.0");
+    String failure = "Übersetzung fehlgeschlagen: 失败 ✗";
+    Plugin plugin = new Plugin();
+    plugin.setGroupId("org.apache.maven.plugins");
+    plugin.setArtifactId("maven-compiler-plugin");
+    plugin.setVersion("3.13.0");
+    MojoExecution compile = new MojoExecution(plugin, "compile", "default-compile");
+    MojoExecution testCompile = new MojoExecution(plugin, "testCompile", "default-testCompile");
+
+    // the connection is configured by a system property in the Maven JVM
+    String argument = connection.getMavenVMArguments();
+    String[] property = argument.substring("-D".length()).split("=", 2);
+    String previous = System.setProperty(property[0], property[1]);
+    M2EMavenBuildDataBridge bridge = new M2EMavenBuildDataBridge();
+    try {
+      bridge.init(null);
+      bridge.onEvent(event(ExecutionEvent.Type.ProjectStarted, project, null, null));
+      bridge.onEvent(event(ExecutionEvent.Type.MojoStarted, project, compile, null));
+      bridge.onEvent(event(ExecutionEvent.Type.MojoSucceeded, project, compile, null));
+      bridge.onEvent(event(ExecutionEvent.Type.MojoStarted, project, testCompile, null));
+      bridge.onEvent(event(ExecutionEvent.Type.MojoFailed, project, testCompile, new IllegalStateException(failure)));
+      bridge.onEvent(event(ExecutionEvent.Type.ProjectStarted, stub, null, null));
+      // an event without mojo execution is still reported
+      bridge.onEvent(event(ExecutionEvent.Type.MojoSkipped, stub, null, null));
+      bridge.onEvent(event(ExecutionEvent.Type.ProjectFailed, project, null, new IllegalStateException(failure)));
+      bridge.onEvent(event(ExecutionEvent.Type.ProjectSucceeded, stub, null, null));
+    } finally {
+      bridge.close();
+      if(previous != null) {
+        System.setProperty(property[0], previous);
+      } else {
+        System.clearProperty(property[0]);
+      }
+    }
+    try {
+      assertTrue(closed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      assertTrue(connection.isReadCompleted());
+    } finally {
+      connection.close();
+    }
+
+    assertEquals(2, started.size());
+    MavenProjectBuildData data = started.get(0);
+    assertEquals("org.example", data.groupId);
+    assertEquals("module", data.artifactId);
+    assertEquals("1.0.0", data.version);
+    assertEquals(pomFile.toPath(), data.projectFile);
+    assertEquals(basedir.toPath(), data.projectBasedir);
+    assertEquals(basedir.toPath().resolve("target,out"), data.projectBuildDirectory);
+    MavenProjectBuildData stubData = started.get(1);
+    assertEquals("stub", stubData.artifactId);
+    assertNull(stubData.projectFile);
+    assertNull(stubData.projectBasedir);
+    assertNull(stubData.projectBuildDirectory);
+
+    assertEquals(2, finished.size());
+    assertEquals(BuildResult.FAILED, finished.get(0).result);
+    assertEquals(failure, finished.get(0).failure);
+    assertEquals(BuildResult.SUCCEEDED, finished.get(1).result);
+    assertNull(finished.get(1).failure);
+
+    assertEquals(2, mojosStarted.size());
+    MojoExecutionData compileStarted = mojosStarted.get(0);
+    assertEquals("module", compileStarted.artifactId);
+    assertEquals("org.apache.maven.plugins", compileStarted.pluginGroupId);
+    assertEquals("maven-compiler-plugin", compileStarted.pluginArtifactId);
+    assertEquals("3.13.0", compileStarted.pluginVersion);
+    assertEquals("compile", compileStarted.goal);
+    assertEquals("default-compile", compileStarted.executionId);
+    assertNull(compileStarted.result);
+    assertEquals("testCompile", mojosStarted.get(1).goal);
+
+    assertEquals(3, mojosFinished.size());
+    assertEquals("compile", mojosFinished.get(0).goal);
+    assertEquals(BuildResult.SUCCEEDED, mojosFinished.get(0).result);
+    assertNull(mojosFinished.get(0).failure);
+    MojoExecutionData testCompileFinished = mojosFinished.get(1);
+    assertEquals("default-testCompile", testCompileFinished.executionId);
+    assertEquals(BuildResult.FAILED, testCompileFinished.result);
+    assertEquals(failure, testCompileFinished.failure);
+    MojoExecutionData skipped = mojosFinished.get(2);
+    assertEquals("stub", skipped.artifactId);
+    assertNull(skipped.pluginGroupId);
+    assertNull(skipped.goal);
+    assertEquals(BuildResult.SKIPPED, skipped.result);
+  }
+
+  private static ExecutionEvent event(ExecutionEvent.Type type, MavenProject project, MojoExecution mojoExecution,
+      Exception exception) {
+    return new ExecutionEvent() {
+      @Override
+      public Type getType() {
+        return type;
+      }
+
+      @Override
+      public MavenSession getSession() {
+        return null;
+      }
+
+      @Override
+      public MavenProject getProject() {
+        return project;
+      }
+
+      @Override
+      public MojoExecution getMojoExecution() {
+        return mojoExecution;
+      }
+
+      @Override
+      public Exception getException() {
+        return exception;
+      }
+    };
+  }
+}
@@ -357,6 +357,8 @@ public class Messages extends NLS {
 
   public static String MavenPomSelectionComponent_results;
 
+  public static String MavenPomSelectionComponent_results_building;
+
   public static String MavenPomSelectionComponent_search_title;
 
   public static String MavenPomSelectionComponent_searching;
@@ -26,6 +26,7 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -118,6 +119,11 @@ public class MavenImportWizardPage extends AbstractMavenWizardPage {
 
   private String preselectedWorkingSetName;
 
+  /**
+   * whether the projects shown are those found by a running scan, their modules are not known yet
+   */
+  private boolean scanning;
+
   public MavenImportWizardPage(ProjectImportConfiguration importConfiguration) {
     super("MavenProjectImportWizardPage", importConfiguration); //$NON-NLS-1$
     setTitle(org.eclipse.m2e.core.ui.internal.Messages.MavenImportWizardPage_title);
@@ -262,7 +268,7 @@ public class MavenImportWizardPage extends AbstractMavenWizardPage {
           @SuppressWarnings("unchecked")
           List<MavenProjectInfo> projects = (List<MavenProjectInfo>) parentElement;
           return sorted(projects);
-        } else if(parentElement instanceof MavenProjectInfo mavenProjectInfo) {
+        } else if(parentElement instanceof MavenProjectInfo mavenProjectInfo && !scanning) {
           Collection<MavenProjectInfo> projects = mavenProjectInfo.getProjects();
           return sorted(projects);
         }
@@ -284,7 +290,7 @@ public class MavenImportWizardPage extends AbstractMavenWizardPage {
       public boolean hasChildren(Object parentElement) {
         if(parentElement instanceof List<?> projects) {
           return !projects.isEmpty();
-        } else if(parentElement instanceof MavenProjectInfo mavenProjectInfo) {
+        } else if(parentElement instanceof MavenProjectInfo mavenProjectInfo && !scanning) {
           return !mavenProjectInfo.getProjects().isEmpty();
         }
         return false;
@@ -388,8 +394,34 @@ public class MavenImportWizardPage extends AbstractMavenWizardPage {
 
   public void scanProjects() {
     final AbstractProjectScanner<MavenProjectInfo> projectScanner = getProjectScanner();
+    // show the projects and modules while the scan is still running as a flat list, modules are added to their parent
+    // concurrently, the tree is updated at most once per pending UI runnable
+    List<MavenProjectInfo> found = new ArrayList<>();
+    AtomicBoolean updatePending = new AtomicBoolean();
+    Display display = getShell().getDisplay();
+    projectScanner.addProjectListener(projectInfo -> {
+      synchronized(found) {
+        found.add(projectInfo);
+      }
+      if(updatePending.compareAndSet(false, true)) {
+        display.asyncExec(() -> {
+          updatePending.set(false);
+          // pending updates must not replace the final result
+          if(scanning && !projectTreeViewer.getControl().isDisposed()) {
+            synchronized(found) {
+              projectTreeViewer.setInput(new ArrayList<>(found));
+            }
+          }
+        });
+      }
+    });
     try {
-      getWizard().getContainer().run(true, true, monitor -> projectScanner.run(monitor));
+      scanning = true;
+      try {
+        getWizard().getContainer().run(true, true, monitor -> projectScanner.run(monitor));
+      } finally {
+        scanning = false;
+      }
 
       List<MavenProjectInfo> projects = projectScanner.getProjects();
       projectTreeViewer.setInput(projects);
@@ -424,7 +456,8 @@ public class MavenImportWizardPage extends AbstractMavenWizardPage {
       }
 
     } catch(InterruptedException ex) {
-      // canceled
+      // canceled, the flat list of the projects found so far would show modules twice now
+      projectTreeViewer.setInput(null);
     } catch(InvocationTargetException ex) {
       Throwable e = ex.getCause() == null ? ex : ex.getCause();
       String msg;
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -67,6 +68,7 @@ import org.eclipse.m2e.core.internal.MavenPluginActivator;
 import org.eclipse.m2e.core.internal.index.IIndex;
 import org.eclipse.m2e.core.internal.index.IndexedArtifact;
 import org.eclipse.m2e.core.internal.index.IndexedArtifactFile;
+import org.eclipse.m2e.core.internal.index.UserInputSearchExpression;
 import org.eclipse.m2e.core.internal.index.filter.ArtifactFilterManager;
 import org.eclipse.m2e.core.internal.jobs.MavenJob;
 import org.eclipse.m2e.core.ui.internal.M2EUIPluginActivator;
@@ -115,6 +117,8 @@ public class MavenPomSelectionComponent extends Composite {
 
   private static final long LONG_DELAY = 500L;
 
+  private static final long BUILDING_DELAY = 2000L;
+
   final HashSet<String> artifactKeys = new HashSet<>();
 
   final HashSet<String> managedKeys = new HashSet<>();
@@ -398,7 +402,6 @@ public class MavenPomSelectionComponent extends Composite {
 
     private String query;
 
-    @SuppressWarnings("unused") //TODO: remove if search-capability is not restored
     private final String field;
 
     private volatile boolean stop = false;
@@ -424,11 +427,27 @@ public class MavenPomSelectionComponent extends Composite {
           || searchResultViewer.getControl().isDisposed()) {
         return Status.CANCEL_STATUS;
       }
-      if(query != null) {
+      IIndex index = MavenPluginActivator.getDefault().getIndex();
+      if(query != null && index != null) {
         String activeQuery = query;
         setResult(IStatus.OK, NLS.bind(Messages.MavenPomSelectionComponent_searching, activeQuery.toLowerCase()), null);
+        try {
+          boolean building = index.isBuilding();
+          Map<String, IndexedArtifact> result = index.search(new UserInputSearchExpression(activeQuery),
+              field != null ? field : IIndex.SEARCH_ARTIFACT);
+          if(building) {
+            setResult(IStatus.WARNING,
+                NLS.bind(Messages.MavenPomSelectionComponent_results_building, activeQuery, result.size()), result);
+            // search again, until the index is complete
+            schedule(BUILDING_DELAY);
+          } else {
+            setResult(IStatus.OK, NLS.bind(Messages.MavenPomSelectionComponent_results, activeQuery, result.size()),
+                result);
+          }
+        } catch(CoreException ex) {
+          setResult(IStatus.ERROR, NLS.bind(Messages.MavenPomSelectionComponent_error, ex.getMessage()), Map.of());
+        }
       }
-      // TODO used to be indexer, replace with Central search
 
       return Status.OK_STATUS;
     }
@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.FrameworkUtil;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import org.eclipse.core.runtime.ILog;
+import org.eclipse.core.runtime.Platform;
+
+import org.eclipse.m2e.core.MavenPlugin;
+import org.eclipse.m2e.core.embedder.ArtifactKey;
+
+
+/**
+ * Persistent index of the artifacts identified in jar files, keyed by the path of the jar and validated by its size
+ * and modification time, so the jar is only scanned again if it has changed. Jars in the local repository are
+ * identified by their location in the repository layout and are never scanned. Directories are not indexed as their
+ * content can change without changing their modification time.
+ */
+final class ArtifactIdentifierIndex {
+
+  private static final ILog LOG = Platform.getLog(ArtifactIdentifierIndex.class);
+
+  /**
+   * If set, the SHA-1 of indexed jars is recorded as well, so jars that were only touched or copied are not scanned
+   * again.
+   */
+  private static final boolean CONTENT_HASH = Boolean.getBoolean("m2e.identifier.hash");
+
+  private static final String INDEX_FILE = "artifactIdentifierIndex.bin"; //$NON-NLS-1$
+
+  /**
+   * "M2EI"
+   */
+  private static final int MAGIC = 0x4d324549;
+
+  private static final int FORMAT_VERSION = 1;
+
+  private static final byte[] NO_HASH = new byte[0];
+
+  private static final String SNAPSHOT = "SNAPSHOT"; //$NON-NLS-1$
+
+  /**
+   * @param sha1 SHA-1 of the jar or {@link #NO_HASH} if not recorded
+   */
+  private static record Entry(long length, long lastModified, byte[] sha1, Set<ArtifactKey> artifacts) {
+  }
+
+  private static class Holder { // encapsulated in an inner-class to load the index only when it is used first
+    static final ArtifactIdentifierIndex INDEX = load();
+  }
+
+  private final BinaryCacheFile indexFile;
+
+  /**
+   * Entries by absolute path of the jar
+   */
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  private volatile boolean dirty;
+
+  private volatile Path localRepository;
+
+  private ArtifactIdentifierIndex(BinaryCacheFile indexFile) {
+    this.indexFile = indexFile;
+  }
+
+  /**
+   * @param scanner identifies the artifacts of a file or directory that is not indexed or has changed
+   * @return the artifacts identified in the given file or directory
+   */
+  static Set<ArtifactKey> identify(Path location, Function<Path, Set<ArtifactKey>> scanner) {
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(location, BasicFileAttributes.class);
+    } catch(IOException ex) {
+      return scanner.apply(location);
+    }
+    if(!attributes.isRegularFile()) {
+      return scanner.apply(location);
+    }
+    return Holder.INDEX.identify(location.toAbsolutePath(), attributes, scanner);
+  }
+
+  private Set<ArtifactKey> identify(Path file, BasicFileAttributes attributes,
+      Function<Path, Set<ArtifactKey>> scanner) {
+    ArtifactKey repositoryArtifact = fromLocalRepository(file);
+    if(repositoryArtifact != null) {
+      return Set.of(repositoryArtifact);
+    }
+    String path = file.toString();
+    long length = attributes.size();
+    long lastModified = attributes.lastModifiedTime().toMillis();
+    Entry entry = entries.get(path);
+    if(entry != null && entry.length() == length && entry.lastModified() == lastModified) {
+      return entry.artifacts();
+    }
+    byte[] sha1 = NO_HASH;
+    if(CONTENT_HASH) {
+      sha1 = sha1(file);
+      if(entry != null && sha1.length > 0 && Arrays.equals(sha1, entry.sha1())) {
+        entries.put(path, new Entry(length, lastModified, sha1, entry.artifacts()));
+        dirty = true;
+        return entry.artifacts();
+      }
+    }
+    Set<ArtifactKey> artifacts = Collections.unmodifiableSet(new LinkedHashSet<>(scanner.apply(file)));
+    entries.put(path, new Entry(length, lastModified, sha1, artifacts));
+    dirty = true;
+    return artifacts;
+  }
+
+  /**
+   * @return the artifact of the given file if it is located in the local repository, <code>null</code> otherwise
+   */
+  private ArtifactKey fromLocalRepository(Path file) {
+    Path repository = getLocalRepository();
+    if(repository == null || !file.startsWith(repository)) {
+      return null;
+    }
+    // <groupId path>/<artifactId>/<version>/<artifactId>-<version>[-<classifier>].<extension>
+    Path relative = repository.relativize(file);
+    int count = relative.getNameCount();
+    if(count < 4) {
+      return null;
+    }
+    String fileName = relative.getName(count - 1).toString();
+    String version = relative.getName(count - 2).toString();
+    String artifactId = relative.getName(count - 3).toString();
+    // timestamped snapshots are stored in the directory of the base version
+    String fileVersion = version.endsWith(SNAPSHOT) ? version.substring(0, version.length() - SNAPSHOT.length())
+        : version;
+    if(!fileName.startsWith(artifactId + "-" + fileVersion)) { //$NON-NLS-1$
+      return null;
+    }
+    StringBuilder groupId = new StringBuilder();
+    for(int i = 0; i < count - 3; i++ ) {
+      if(i > 0) {
+        groupId.append('.');
+      }
+      groupId.append(relative.getName(i));
+    }
+    return new ArtifactKey(groupId.toString(), artifactId, version, /* classifier= */null);
+  }
+
+  private Path getLocalRepository() {
+    Path repository = localRepository;
+    if(repository == null) {
+      try {
+        String path = MavenPlugin.getMaven().getLocalRepositoryPath();
+        if(path == null) {
+          return null;
+        }
+        repository = Path.of(path).toAbsolutePath().normalize();
+        localRepository = repository;
+      } catch(RuntimeException ex) {
+        // maven is not available, try again next time
+        return null;
+      }
+    }
+    return repository;
+  }
+
+  private static byte[] sha1(Path file) {
+    try (InputStream in = Files.newInputStream(file)) {
+      return DigestUtils.sha1(in);
+    } catch(IOException ex) {
+      return NO_HASH;
+    }
+  }
+
+  private static ArtifactIdentifierIndex load() {
+    Bundle bundle = FrameworkUtil.getBundle(ArtifactIdentifierIndex.class);
+    Path indexFile = Platform.getStateLocation(bundle).append(INDEX_FILE).toFile().toPath();
+    ArtifactIdentifierIndex index = new ArtifactIdentifierIndex(new BinaryCacheFile(indexFile, MAGIC, FORMAT_VERSION));
+    bundle.getBundleContext().addBundleListener(event -> {
+      if(event.getType() == BundleEvent.STOPPED) { // called e.g. on shutdown
+        index.save();
+      }
+    });
+    try {
+      index.indexFile.read(in -> {
+        int size = in.readInt();
+        for(int i = 0; i < size; i++ ) {
+          String path = in.readUTF();
+          long length = in.readLong();
+          long lastModified = in.readLong();
+          byte[] sha1 = in.readNBytes(in.readInt());
+          int count = in.readInt();
+          Set<ArtifactKey> artifacts = new LinkedHashSet<>();
+          for(int j = 0; j < count; j++ ) {
+            artifacts.add(ArtifactKey.fromPortableString(in.readUTF()));
+          }
+          index.entries.put(path, new Entry(length, lastModified, sha1.length > 0 ? sha1 : NO_HASH,
+              Collections.unmodifiableSet(artifacts)));
+        }
+        return null;
+      });
+    } catch(IOException | RuntimeException ex) {
+      LOG.error("Failed to load artifact identifier index", ex);
+      index.entries.clear();
+    }
+    return index;
+  }
+
+  private void save() {
+    if(!dirty) {
+      return;
+    }
+    // only jars outside the local repository are indexed, mostly project libraries and build outputs that are often
+    // deleted or renamed
+    entries.keySet().removeIf(path -> !Files.isRegularFile(Path.of(path)));
+    Map<String, Entry> snapshot = Map.copyOf(entries);
+    try {
+      indexFile.write(out -> {
+        out.writeInt(snapshot.size());
+        for(Map.Entry<String, Entry> e : snapshot.entrySet()) {
+          Entry entry = e.getValue();
+          out.writeUTF(e.getKey());
+          out.writeLong(entry.length());
+          out.writeLong(entry.lastModified());
+          out.writeInt(entry.sha1().length);
+          out.write(entry.sha1());
+          out.writeInt(entry.artifacts().size());
+          for(ArtifactKey artifact : entry.artifacts()) {
+            out.writeUTF(artifact.toPortableString());
+          }
+        }
+      });
+      dirty = false;
+    } catch(IOException ex) {
+      LOG.error("Failed to persist artifact identifier index", ex);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+
+/**
+ * A file that persists the content of a cache across sessions. The content is preceded by a header made of a magic
+ * number identifying the cache and its format version, a file with a different header is treated as missing. The file
+ * is replaced atomically, so readers never see a partially written file.
+ */
+public final class BinaryCacheFile {
+
+  @FunctionalInterface
+  public interface ContentReader<T> {
+    T read(DataInputStream in) throws IOException;
+  }
+
+  @FunctionalInterface
+  public interface ContentWriter {
+    void write(DataOutputStream out) throws IOException;
+  }
+
+  private final Path file;
+
+  private final int magic;
+
+  private final int formatVersion;
+
+  public BinaryCacheFile(Path file, int magic, int formatVersion) {
+    this.file = file;
+    this.magic = magic;
+    this.formatVersion = formatVersion;
+  }
+
+  public Path getPath() {
+    return file;
+  }
+
+  /**
+   * @return the content read from the file or <code>null</code> if the file does not exist or was written by another
+   *         cache or format version
+   */
+  public <T> T read(ContentReader<T> reader) throws IOException {
+    if(!Files.isRegularFile(file)) {
+      return null;
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if(in.readInt() != magic || in.readInt() != formatVersion) {
+        return null;
+      }
+      return reader.read(in);
+    }
+  }
+
+  /**
+   * Writes the content to a temporary file that then replaces the file.
+   */
+  public void write(ContentWriter writer) throws IOException {
+    Path tmp = file.resolveSibling(file.getFileName() + ".tmp"); //$NON-NLS-1$
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(magic);
+        out.writeInt(formatVersion);
+        writer.write(out);
+      }
+      try {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch(AtomicMoveNotSupportedException ex) {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch(IOException ex) {
+      try {
+        Files.deleteIfExists(tmp);
+      } catch(IOException deleteEx) {
+        ex.addSuppressed(deleteEx);
+      }
+      throw ex;
+    }
+  }
+
+  public void delete() throws IOException {
+    Files.deleteIfExists(file);
+  }
+}
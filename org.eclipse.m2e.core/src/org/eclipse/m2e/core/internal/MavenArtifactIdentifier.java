@@ -70,18 +70,24 @@ public class MavenArtifactIdentifier {
   private static final ILog LOG = Platform.getLog(MavenArtifactIdentifier.class);
 
   public static Collection<ArtifactKey> identify(File classesLocation) {
-    // GAV extracted from pom.properties
     Path location = classesLocation.toPath();
+    // unchanged jars are only scanned once, jars in the local repository not at all
+    Set<ArtifactKey> classesArtifacts = ArtifactIdentifierIndex.identify(location, MavenArtifactIdentifier::scan);
+    if(classesArtifacts.isEmpty() && isQueryCentral()) {
+      // checksum-based lookup in central. This can be really slow and the chances are low that, 
+      // after we havn't found a pom.xml/.properties embedded into the jar that this exact 
+      // same jar is on Maven-Central (jars on central usually have that).
+      classesArtifacts = identifyCentralSearch(location);
+    }
+    return classesArtifacts;
+  }
+
+  private static Set<ArtifactKey> scan(Path location) {
+    // GAV extracted from pom.properties
     Set<ArtifactKey> classesArtifacts = MetaInfMavenScanner.scanForPomProperties(location);
     if(classesArtifacts.isEmpty()) {
       // GAV extracted from pom.xml
       classesArtifacts = MetaInfMavenScanner.scanForPomXml(location);
-      if(classesArtifacts.isEmpty() && isQueryCentral()) {
-        // checksum-based lookup in central. This can be really slow and the chances are low that, 
-        // after we havn't found a pom.xml/.properties embedded into the jar that this exact 
-        // same jar is on Maven-Central (jars on central usually have that).
-        classesArtifacts = identifyCentralSearch(location);
-      }
     }
     return classesArtifacts;
   }
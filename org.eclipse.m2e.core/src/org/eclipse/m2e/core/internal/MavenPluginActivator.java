@@ -37,8 +37,10 @@ import org.apache.maven.project.DefaultProjectBuilder;
 import org.eclipse.m2e.core.embedder.IMaven;
 import org.eclipse.m2e.core.embedder.IMavenConfiguration;
 import org.eclipse.m2e.core.embedder.MavenModelManager;
+import org.eclipse.m2e.core.internal.index.IIndex;
 import org.eclipse.m2e.core.internal.index.filter.ArtifactFilterManager;
 import org.eclipse.m2e.core.internal.launch.MavenRuntimeManagerImpl;
+import org.eclipse.m2e.core.internal.lifecyclemapping.EmbeddedMetadataCache;
 import org.eclipse.m2e.core.internal.lifecyclemapping.LifecycleMappingFactory;
 import org.eclipse.m2e.core.internal.markers.IMavenMarkerManager;
 import org.eclipse.m2e.core.internal.project.registry.ProjectRegistryManager;
@@ -190,6 +192,14 @@ public class MavenPluginActivator extends Plugin {
     return getService(ArtifactFilterManager.class);
   }
 
+  public IIndex getIndex() {
+    return getService(IIndex.class);
+  }
+
+  public EmbeddedMetadataCache getEmbeddedMetadataCache() {
+    return getService(EmbeddedMetadataCache.class);
+  }
+
   /**
    * @return
    */
@@ -66,6 +66,8 @@ public class Messages extends NLS {
 
   public static String EclipseLogger_name;
 
+  public static String EmbeddedMetadataCache_job;
+
   public static String IndexUpdaterJob_title;
 
   public static String LifecycleConfigurationPluginExecutionNotCovered;
@@ -94,6 +96,8 @@ public class Messages extends NLS {
 
   public static String LocalProjectScanner_missingArtifactId;
 
+  public static String LocalRepositoryIndex_job;
+
   public static String MavenExternalRuntime_error_cannot_parse;
 
   public static String MavenExternalRuntime_exc_unsupported;
@@ -236,6 +240,10 @@ public class Messages extends NLS {
 
   public static String ProjectConfigurationManager_task_updating_projects;
 
+  public static String ProjectBuildState_job;
+
+  public static String ProjectRegistryManager_compact_state_job;
+
   public static String ProjectRegistryManager_task_project;
 
   public static String ProjectRegistryManager_task_refreshing;
@@ -246,6 +254,8 @@ public class Messages extends NLS {
 
   public static String RepositoryRegistryUpdateJob_title;
 
+  public static String WorkspaceStateWriter_job;
+
   public static String pluginMarkerBuildError;
 
   public static String importProjectExists;
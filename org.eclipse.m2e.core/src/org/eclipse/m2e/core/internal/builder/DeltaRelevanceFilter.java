@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.builder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.runtime.IPath;
+
+import org.eclipse.m2e.core.internal.builder.MavenBuilderImpl.DeltaType;
+import org.eclipse.m2e.core.project.IMavenProjectFacade;
+
+
+/**
+ * Decides whether a resource delta is relevant for the maven build of a project. The build output, output, test output
+ * and module locations of the project are compiled into a trie of path segments once per facade, the delta is then
+ * classified per subtree so folders that can't contain relevant changes are skipped as a whole:
+ * <ul>
+ * <li>files in the build output are irrelevant, unless they are removed from the output or test output, in which case
+ * a full build is required</li>
+ * <li>files in modules are irrelevant as the modules are built on their own</li>
+ * <li>any other file makes the delta relevant</li>
+ * </ul>
+ */
+final class DeltaRelevanceFilter {
+
+  private static final String SESSION_PROPERTY = DeltaRelevanceFilter.class.getName();
+
+  private static final int BUILD_OUTPUT = 1;
+
+  private static final int OUTPUT = 2;
+
+  private static final int MODULE = 4;
+
+  private static final class Node {
+
+    final Map<String, Node> children = new HashMap<>();
+
+    int kinds;
+
+    Node add(IPath path, int kind) {
+      Node node = this;
+      for(String segment : path.segments()) {
+        node = node.children.computeIfAbsent(segment, s -> new Node());
+      }
+      node.kinds |= kind;
+      return node;
+    }
+  }
+
+  private final Node root = new Node();
+
+  private DeltaRelevanceFilter(IMavenProjectFacade facade, IPath buildOutputLocation) {
+    root.add(buildOutputLocation, BUILD_OUTPUT);
+    if(facade.getOutputLocation() != null) {
+      root.add(facade.getOutputLocation(), OUTPUT);
+    }
+    if(facade.getTestOutputLocation() != null) {
+      root.add(facade.getTestOutputLocation(), OUTPUT);
+    }
+    IPath projectPath = facade.getProject().getFullPath();
+    for(String module : facade.getMavenProjectModules()) {
+      root.add(projectPath.append(module), MODULE);
+    }
+  }
+
+  /**
+   * @return the filter for the given facade or <code>null</code> if the facade has no project or build output
+   */
+  static DeltaRelevanceFilter get(IMavenProjectFacade facade) {
+    IProject project = facade.getProject();
+    IPath buildOutputLocation = facade.getBuildOutputLocation();
+    if(project == null || buildOutputLocation == null) {
+      return null;
+    }
+    // the locations are fixed for a facade, a new facade is created whenever the project is refreshed
+    if(facade.getSessionProperty(SESSION_PROPERTY) instanceof DeltaRelevanceFilter filter) {
+      return filter;
+    }
+    DeltaRelevanceFilter filter = new DeltaRelevanceFilter(facade, buildOutputLocation);
+    facade.setSessionProperty(SESSION_PROPERTY, filter);
+    return filter;
+  }
+
+  DeltaType classify(IResourceDelta delta) {
+    Node node = root;
+    int kinds = 0;
+    for(String segment : delta.getFullPath().segments()) {
+      node = node != null ? node.children.get(segment) : null;
+      if(node != null) {
+        kinds |= node.kinds;
+      }
+    }
+    return visit(delta, node, kinds, false);
+  }
+
+  /**
+   * @param kinds the kinds of all locations the delta is in
+   * @param relevant whether a relevant change was already found, only a required full build can change the result
+   *          then
+   */
+  private static DeltaType visit(IResourceDelta delta, Node node, int kinds, boolean relevant) {
+    IResource resource = delta.getResource();
+    boolean inBuildOutput = (kinds & BUILD_OUTPUT) != 0;
+    if(resource instanceof IFile) {
+      if(inBuildOutput) {
+        //anything in the build output is not interesting for a change as it is produced by the build
+        // ... unless a classpath resource that existed before has been deleted, possibly by another builder
+        //in this case we should perform a full build as we can't know what mojo has placed data possible here...
+        return (kinds & OUTPUT) != 0 && !resource.exists() ? DeltaType.FULL_BUILD : DeltaType.IRRELEVANT;
+      }
+      //changes in a child module do not really affect this one, the child will be (possibly) build directly.
+      return (kinds & MODULE) != 0 ? DeltaType.IRRELEVANT : DeltaType.INCREMENTAL;
+    }
+    if(node == null || node.children.isEmpty()) {
+      // no other locations below, so the kind of all files in this subtree is known
+      if(inBuildOutput ? (kinds & OUTPUT) == 0 : (relevant || (kinds & MODULE) != 0)) {
+        return DeltaType.IRRELEVANT;
+      }
+    }
+    DeltaType result = DeltaType.IRRELEVANT;
+    for(IResourceDelta child : delta.getAffectedChildren()) {
+      Node childNode = node != null ? node.children.get(child.getResource().getName()) : null;
+      int childKinds = childNode != null ? kinds | childNode.kinds : kinds;
+      DeltaType type = visit(child, childNode, childKinds, relevant || result == DeltaType.INCREMENTAL);
+      if(type == DeltaType.FULL_BUILD) {
+        return type;
+      }
+      if(type == DeltaType.INCREMENTAL) {
+        result = type;
+      }
+    }
+    return result;
+  }
+}
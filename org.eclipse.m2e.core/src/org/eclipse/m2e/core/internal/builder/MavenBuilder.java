@@ -40,6 +40,7 @@ import org.eclipse.m2e.core.internal.IMavenConstants;
 import org.eclipse.m2e.core.internal.M2EUtils;
 import org.eclipse.m2e.core.internal.MavenPluginActivator;
 import org.eclipse.m2e.core.internal.markers.IMavenMarkerManager;
+import org.eclipse.m2e.core.internal.project.registry.MavenProjectCache;
 import org.eclipse.m2e.core.internal.project.registry.ProjectRegistryManager;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
 import org.eclipse.m2e.core.project.IProjectConfiguration;
@@ -87,27 +88,30 @@ public class MavenBuilder extends IncrementalProjectBuilder implements DeltaProv
           return null;
         }
 
-        MavenProject mavenProject;
-        try {
-          // make sure projectFacade has MavenProject instance loaded
-          mavenProject = projectFacade.getMavenProject(monitor2);
-        } catch(CoreException ce) {
-          //unable to read the project facade
-          addErrorMarker(project, ce);
-          return null;
-        }
-
-        return context2.execute(mavenProject, (context1, monitor1) -> {
-          ILifecycleMapping lifecycleMapping = configurationManager.getLifecycleMapping(projectFacade);
-          if(lifecycleMapping == null) {
+        // the project is in use until the build is done, don't evict it from the project cache meanwhile
+        try (MavenProjectCache.Retention retention = projectManager.retainMavenProject(projectFacade.getPomFile())) {
+          MavenProject mavenProject;
+          try {
+            // make sure projectFacade has MavenProject instance loaded
+            mavenProject = projectFacade.getMavenProject(monitor2);
+          } catch(CoreException ce) {
+            //unable to read the project facade
+            addErrorMarker(project, ce);
             return null;
           }
 
-          Map<MojoExecutionKey, List<AbstractBuildParticipant>> buildParticipantsByMojoExecutionKey = lifecycleMapping
-              .getBuildParticipants(projectFacade, monitor1);
+          return context2.execute(mavenProject, (context1, monitor1) -> {
+            ILifecycleMapping lifecycleMapping = configurationManager.getLifecycleMapping(projectFacade);
+            if(lifecycleMapping == null) {
+              return null;
+            }
 
-          return method(context1, projectFacade, buildParticipantsByMojoExecutionKey, kind, args, monitor1);
-        }, monitor2);
+            Map<MojoExecutionKey, List<AbstractBuildParticipant>> buildParticipantsByMojoExecutionKey = lifecycleMapping
+                .getBuildParticipants(projectFacade, monitor1);
+
+            return method(context1, projectFacade, buildParticipantsByMojoExecutionKey, kind, args, monitor1);
+          }, monitor2);
+        }
       }, monitor);
     }
 
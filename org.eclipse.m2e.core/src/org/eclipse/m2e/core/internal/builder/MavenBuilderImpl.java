@@ -16,11 +16,15 @@ package org.eclipse.m2e.core.internal.builder;
 import static org.eclipse.core.resources.IncrementalProjectBuilder.FULL_BUILD;
 
 import java.io.File;
-import java.text.DateFormat;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Date;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -28,13 +32,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Predicate;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -80,13 +82,26 @@ public class MavenBuilderImpl {
 
   private static final String BUILD_PARTICIPANT_ID_ATTR_NAME = "buildParticipantId";
 
+  /**
+   * If set, the project is not refreshed as a whole after a build when auto refresh is off. Only the files reported by
+   * the build participants and the files modified during the build below the build directory and the source roots of
+   * the project are refreshed.
+   */
+  static final boolean TARGETED_REFRESH = Boolean.getBoolean("m2e.builder.refresh.targeted");
+
+  /**
+   * Files modified up to this many milliseconds before the build started are considered modified by the build, to
+   * account for the timestamp resolution of the filesystem.
+   */
+  private static final long MODIFICATION_TOLERANCE = 2000;
+
   private final DeltaProvider deltaProvider;
 
   private final List<IIncrementalBuildFramework> incrementalBuildFrameworks;
 
   private final Map<IProject, ProjectBuildState> deltaState = new ConcurrentHashMap<>();
 
-  private enum DeltaType {
+  enum DeltaType {
     INCREMENTAL, IRRELEVANT, FULL_BUILD, UNKOWN;
   }
 
@@ -127,6 +142,7 @@ public class MavenBuilderImpl {
       return Set.of(project);
     }
     ProjectBuildState buildState = deltaState.computeIfAbsent(project, ProjectBuildState::new);
+    buildState.begin();
     final BuildResultCollector participantResults = new BuildResultCollector();
     List<BuildContext> incrementalContexts = setupProjectBuildContext(project, kind, delta, participantResults,
         buildState, deltaType);
@@ -134,6 +150,7 @@ public class MavenBuilderImpl {
     debugBuildStart(debugHooks, projectFacade, kind, args, participants, delta, monitor);
 
     Map<Throwable, MojoExecutionKey> buildErrors = new LinkedHashMap<>();
+    long buildStart = System.currentTimeMillis();
     MavenProjectMutableState snapshot = MavenProjectMutableState.takeSnapshot(mavenProject);
     try {
       participants.forEach((mojoExecutionKey, buildParticipants) -> {
@@ -193,7 +210,7 @@ public class MavenBuilderImpl {
     }
     
     // Refresh files modified by build participants/maven plugins
-    refreshResources(project, participantResults.getFiles(), monitor);
+    refreshResources(projectFacade, participantResults.getFiles(), buildStart, monitor);
 
     // Process errors and warnings
     MavenExecutionResult result = session.getResult();
@@ -205,59 +222,15 @@ public class MavenBuilderImpl {
     return dependencies;
   }
 
-  private DeltaType hasRelevantDelta(IMavenProjectFacade projectFacade, IResourceDelta resourceDelta)
-      throws CoreException {
+  private DeltaType hasRelevantDelta(IMavenProjectFacade projectFacade, IResourceDelta resourceDelta) {
     if(resourceDelta == null) {
       return DeltaType.FULL_BUILD;
     }
-    IProject project = projectFacade.getProject();
-    IPath buildOutputLocation = projectFacade.getBuildOutputLocation();
-    if(project == null || buildOutputLocation == null) {
+    DeltaRelevanceFilter filter = DeltaRelevanceFilter.get(projectFacade);
+    if(filter == null) {
       return DeltaType.UNKOWN;
     }
-
-    Predicate<IPath> isOutput = toPrefixPredicate(projectFacade.getOutputLocation());
-    Predicate<IPath> isTestOutput = toPrefixPredicate(projectFacade.getTestOutputLocation());
-    Predicate<IPath> isOutputOrTestOutput = isOutput.or(isTestOutput);
-
-    IPath projectPath = project.getFullPath();
-    List<IPath> moduleLocations = projectFacade.getMavenProjectModules().stream()
-        .map(module -> projectPath.append(module)).toList();
-    AtomicReference<DeltaType> deltaType = new AtomicReference<>(DeltaType.IRRELEVANT);
-    resourceDelta.accept(delta -> {
-      IResource resource = delta.getResource();
-      if(resource instanceof IFile) {
-        IPath fullPath = delta.getFullPath();
-        if(buildOutputLocation.isPrefixOf(fullPath)) {
-          //anything in the build output is not interesting for a change as it is produced by the build
-          // ... unless a classpath resource that existed before has been deleted, possibly by another builder
-          if(isOutputOrTestOutput.test(fullPath) && !resource.exists()) {
-            //in this case we should perform a full build as we can't know what mojo has placed data possible here...
-            deltaType.set(DeltaType.FULL_BUILD);
-            return false;
-          }
-          return true;
-        }
-        for(IPath modulePath : moduleLocations) {
-          if(modulePath.isPrefixOf(fullPath)) {
-            //this is a change in a child module so this one is not really affected and the child will be (possibly) build directly.
-            return true;
-          }
-        }
-        //anything else has changed, so mark this as relevant an leave the loop
-        deltaType.set(DeltaType.INCREMENTAL);
-        return false;
-      }
-      return true;
-    });
-    return deltaType.get();
-  }
-
-  private static Predicate<IPath> toPrefixPredicate(IPath location) {
-    if(location == null) {
-      return (p) -> false;
-    }
-    return (p) -> location.isPrefixOf(p);
+    return filter.classify(resourceDelta);
   }
 
   private List<IIncrementalBuildFramework.BuildContext> setupProjectBuildContext(IProject project, int kind,
@@ -315,14 +288,41 @@ public class MavenBuilderImpl {
     }
   }
 
-  private void refreshResources(IProject project, Collection<File> resources, IProgressMonitor monitor)
-      throws CoreException {
+  private void refreshResources(IMavenProjectFacade projectFacade, Collection<File> resources, long buildStart,
+      IProgressMonitor monitor) throws CoreException {
     if(isAutoRefresh()) {
       //if autorefresh is on, resources will be refreshed automatically
       return;
     }
-    //1st is to refresh all project resources, just to make sure if anything has changed during the build will become visible to eclipse
-    project.refreshLocal(IResource.DEPTH_INFINITE, monitor);
+    IProject project = projectFacade.getProject();
+    long start = System.nanoTime();
+    int scanned = 0;
+    List<Path> roots = TARGETED_REFRESH ? getGeneratedRoots(projectFacade.getMavenProject()) : null;
+    if(roots != null) {
+      //1st is to refresh what was modified during the build in the folders maven plugins usually write to
+      for(File modified : collectModified(roots, buildStart - MODIFICATION_TOLERANCE)) {
+        IPath path = MavenProjectUtils.getProjectRelativePath(project, modified.getAbsolutePath());
+        IResource resource;
+        if(path == null || path.isEmpty()) {
+          continue;
+        } else if(!modified.exists()) {
+          resource = project.findMember(path);
+        } else if(modified.isDirectory()) {
+          resource = project.getFolder(path);
+        } else {
+          resource = project.getFile(path);
+        }
+        if(resource != null) {
+          // a depth of one picks up added and removed members of directories
+          resource.refreshLocal(resource.getType() == IResource.FILE ? IResource.DEPTH_ZERO : IResource.DEPTH_ONE,
+              monitor);
+          scanned++ ;
+        }
+      }
+    } else {
+      //1st is to refresh all project resources, just to make sure if anything has changed during the build will become visible to eclipse
+      project.refreshLocal(IResource.DEPTH_INFINITE, monitor);
+    }
     //2nd is to refresh all explicitly updated resources by named files...
     for(File file : resources) {
       IPath path = MavenProjectUtils.getProjectRelativePath(project, file.getAbsolutePath());
@@ -355,6 +355,73 @@ public class MavenBuilderImpl {
         }
       }
     }
+    log.debug("Refreshed {} reported and {} modified resources of {} in {} ms ({} refresh)", resources.size(), scanned,
+        project.getName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+        roots != null ? "targeted" : "full");
+  }
+
+  /**
+   * @return the build directory and all source roots of the given project, or <code>null</code> if they are not known
+   */
+  private static List<Path> getGeneratedRoots(MavenProject mavenProject) {
+    if(mavenProject == null || mavenProject.getBuild() == null || mavenProject.getBuild().getDirectory() == null) {
+      return null;
+    }
+    Set<Path> roots = new LinkedHashSet<>();
+    roots.add(Path.of(mavenProject.getBuild().getDirectory()).normalize());
+    for(String root : mavenProject.getCompileSourceRoots()) {
+      roots.add(Path.of(root).normalize());
+    }
+    for(String root : mavenProject.getTestCompileSourceRoots()) {
+      roots.add(Path.of(root).normalize());
+    }
+    // nested roots, e.g. generated sources in the build directory, are covered by their parent
+    return roots.stream()
+        .filter(root -> roots.stream().noneMatch(other -> !other.equals(root) && root.startsWith(other))).toList();
+  }
+
+  /**
+   * Collects all files and directories below the given roots that were modified since the given time, and all roots
+   * that don't exist. Directories are modified if members were added or removed, they are returned before their
+   * members.
+   */
+  private static Set<File> collectModified(List<Path> roots, long since) {
+    Set<File> modified = new LinkedHashSet<>();
+    for(Path root : roots) {
+      if(!Files.isDirectory(root)) {
+        // possibly deleted by the build
+        modified.add(root.toFile());
+        continue;
+      }
+      try {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            if(attrs.lastModifiedTime().toMillis() >= since) {
+              modified.add(dir.toFile());
+            }
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if(attrs.lastModifiedTime().toMillis() >= since) {
+              modified.add(file.toFile());
+            }
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFileFailed(Path file, IOException exc) {
+            // deleted while walking, the parent directory is refreshed in this case
+            return FileVisitResult.CONTINUE;
+          }
+        });
+      } catch(IOException ex) {
+        log.debug("Could not scan {} for modified files", root, ex);
+      }
+    }
+    return modified;
   }
 
   @SuppressWarnings("deprecation")
@@ -448,6 +515,7 @@ public class MavenBuilderImpl {
         null, participantResults, null, DeltaType.UNKOWN);
 
     Map<Throwable, MojoExecutionKey> buildErrors = new LinkedHashMap<>();
+    long cleanStart = System.currentTimeMillis();
     try {
       participants.forEach((mojoExecutionKey, buildParticipants) -> {
         for(InternalBuildParticipant participant : buildParticipants) {
@@ -480,7 +548,7 @@ public class MavenBuilderImpl {
     }
 
     // Refresh files modified by build participants/maven plugins
-    refreshResources(project, participantResults.getFiles(), monitor);
+    refreshResources(projectFacade, participantResults.getFiles(), cleanStart, monitor);
 
     MavenExecutionResult result = session.getResult();
     processBuildResults(project, mavenProject, result, participantResults, buildErrors);
@@ -490,27 +558,6 @@ public class MavenBuilderImpl {
     return deltaProvider;
   }
 
-  private static final class ProjectBuildState {
-
-    private long lastBuild;
-
-    private IProject project;
-
-    public ProjectBuildState(IProject project) {
-      this.project = project;
-    }
-
-    public void commit() {
-      this.lastBuild = System.currentTimeMillis();
-    }
-
-    @Override
-    public String toString() {
-      return "BuildState for " + project + " lat reccorded timestamp "
-          + DateFormat.getDateTimeInstance().format(new Date(lastBuild));
-    }
-  }
-
   private static final class ProjectBuildStateDelta implements BuildDelta, IAdaptable {
 
     private ProjectBuildState buildState;
@@ -528,19 +575,11 @@ public class MavenBuilderImpl {
 
     @Override
     public boolean hasDelta(File file) {
-      //first check the delegate...
-      if(delegate != null && delegate.hasDelta(file)) {
-        return true;
-      }
-      //... now perform additional checks
-      if(file.isFile()) {
-        long lastModified = file.lastModified();
-        if(lastModified > buildState.lastBuild) {
-          //if the file is modified after the last build timestamp we assume it was modified even though not part of the current delta!
-          return true;
-        }
-      }
-      return false;
+      //check if the file was modified since the last build even though not part of the current delta, this is always
+      //done so the file is recorded in the build state
+      boolean changed = buildState.hasChanged(file);
+      //... and the delegate
+      return changed || (delegate != null && delegate.hasDelta(file));
     }
 
     @Override
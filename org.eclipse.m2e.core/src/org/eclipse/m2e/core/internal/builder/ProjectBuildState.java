@@ -0,0 +1,352 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.builder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.DateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.osgi.framework.BundleEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.m2e.core.internal.BinaryCacheFile;
+import org.eclipse.m2e.core.internal.MavenPluginActivator;
+import org.eclipse.m2e.core.internal.Messages;
+
+
+/**
+ * Build state of a project, used to answer whether an input file has changed since the last successful build for
+ * files that are not part of the resource delta. The state records the size and modification time of every file that
+ * was queried during a build and is persisted in the bundle state location, so the first build after a restart stays
+ * incremental. Files are only accessed once per build, regardless of how often they are queried.
+ * <p>
+ * The state is written in the background shortly after a build, and deleted together with the project.
+ */
+final class ProjectBuildState {
+  private static final Logger log = LoggerFactory.getLogger(ProjectBuildState.class);
+
+  /**
+   * If set, the content hash of the queried files is recorded as well, so files that were only touched are not
+   * reported as changed.
+   */
+  static final boolean CONTENT_HASH = Boolean.getBoolean("m2e.builder.state.hash");
+
+  private static final String STATE_FILE_EXTENSION = ".buildstate"; //$NON-NLS-1$
+
+  /**
+   * "M2EB"
+   */
+  private static final int MAGIC = 0x4d324542;
+
+  private static final int FORMAT_VERSION = 2;
+
+  private static final byte[] NO_HASH = new byte[0];
+
+  /**
+   * Stamps of files that were not queried by this many successful builds are dropped, e.g. because the file is no
+   * longer an input of the build.
+   */
+  private static final int MAX_UNUSED_BUILDS = 100;
+
+  private static final long SAVE_DELAY = 10000;
+
+  /**
+   * @param hash content hash or {@link #NO_HASH} if not (yet) known
+   * @param build number of the last successful build that queried the file
+   */
+  private record Stamp(long length, long lastModified, byte[] hash, long build) {
+
+    static final Stamp MISSING = new Stamp(-1, -1, NO_HASH, 0);
+
+    boolean sameAttributes(Stamp other) {
+      return length == other.length && lastModified == other.lastModified;
+    }
+  }
+
+  private final IProject project;
+
+  private final BinaryCacheFile stateFile;
+
+  /**
+   * Stamps of the last successful build by absolute file path
+   */
+  private Map<String, Stamp> stamps;
+
+  /**
+   * Stamps of the files queried during the current build
+   */
+  private final Map<String, Stamp> observed = new ConcurrentHashMap<>();
+
+  private long lastBuild;
+
+  private long builds;
+
+  private boolean dirty;
+
+  public ProjectBuildState(IProject project) {
+    this(project, Persistence.INSTANCE != null ? Persistence.INSTANCE.getStateFile(project.getName()) : null);
+  }
+
+  ProjectBuildState(IProject project, BinaryCacheFile stateFile) {
+    this.project = project;
+    this.stateFile = stateFile;
+  }
+
+  /**
+   * Starts a new build, files are accessed again when queried.
+   */
+  public void begin() {
+    observed.clear();
+  }
+
+  /**
+   * @return whether the given file is a regular file that has changed since the last successful build
+   */
+  public synchronized boolean hasChanged(File file) {
+    load();
+    String path = file.getAbsolutePath();
+    Stamp current = observed.computeIfAbsent(path, p -> stat(file));
+    if(current == Stamp.MISSING) {
+      return false;
+    }
+    Stamp recorded = stamps.get(path);
+    if(recorded == null) {
+      // not an input of a previous build
+      return current.lastModified() > lastBuild;
+    }
+    if(current.sameAttributes(recorded)) {
+      return false;
+    }
+    if(CONTENT_HASH && recorded.hash().length > 0 && recorded.length() == current.length()) {
+      if(current.hash().length == 0) {
+        current = new Stamp(current.length(), current.lastModified(), hash(file), 0);
+        observed.put(path, current);
+      }
+      return !Arrays.equals(recorded.hash(), current.hash());
+    }
+    return true;
+  }
+
+  /**
+   * Records the state of all files queried during the current build, it is persisted in the background. The files are
+   * accessed again, as the build might have written files after it queried them.
+   */
+  public synchronized void commit() {
+    load();
+    lastBuild = System.currentTimeMillis();
+    long build = ++builds;
+    observed.forEach((path, queried) -> {
+      File file = new File(path);
+      Stamp stamp = stat(file);
+      if(stamp == Stamp.MISSING) {
+        stamps.remove(path);
+        return;
+      }
+      Stamp recorded = stamps.get(path);
+      if(recorded != null && stamp.sameAttributes(recorded)) {
+        // unchanged, keep the known hash
+        stamps.put(path, new Stamp(recorded.length(), recorded.lastModified(), recorded.hash(), build));
+        return;
+      }
+      byte[] hash = NO_HASH;
+      if(queried.hash().length > 0 && stamp.sameAttributes(queried)) {
+        hash = queried.hash();
+      } else if(CONTENT_HASH) {
+        hash = hash(file);
+      }
+      stamps.put(path, new Stamp(stamp.length(), stamp.lastModified(), hash, build));
+    });
+    observed.clear();
+    stamps.values().removeIf(stamp -> build - stamp.build() > MAX_UNUSED_BUILDS);
+    dirty = true;
+    if(Persistence.INSTANCE != null) {
+      Persistence.INSTANCE.scheduleSave(this);
+    }
+  }
+
+  private static Stamp stat(File file) {
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+      if(attributes.isRegularFile()) {
+        return new Stamp(attributes.size(), attributes.lastModifiedTime().toMillis(), NO_HASH, 0);
+      }
+    } catch(IOException ex) {
+      // does not exist
+    }
+    return Stamp.MISSING;
+  }
+
+  private static byte[] hash(File file) {
+    try (InputStream in = Files.newInputStream(file.toPath())) {
+      return DigestUtils.sha1(in);
+    } catch(IOException ex) {
+      return NO_HASH;
+    }
+  }
+
+  private void load() {
+    if(stamps != null) {
+      return;
+    }
+    stamps = new HashMap<>();
+    if(stateFile == null) {
+      return;
+    }
+    try {
+      stateFile.read(in -> {
+        long timestamp = in.readLong();
+        long count = in.readLong();
+        int size = in.readInt();
+        for(int i = 0; i < size; i++ ) {
+          String path = in.readUTF();
+          long length = in.readLong();
+          long lastModified = in.readLong();
+          byte[] hash = in.readNBytes(in.readInt());
+          long build = in.readLong();
+          stamps.put(path, new Stamp(length, lastModified, hash.length > 0 ? hash : NO_HASH, build));
+        }
+        lastBuild = timestamp;
+        builds = count;
+        return null;
+      });
+    } catch(IOException | RuntimeException ex) {
+      // a corrupted state is a cache miss, all files are reported as changed then
+      log.debug("Can't read build state of {}", project.getName(), ex);
+      stamps.clear();
+    }
+  }
+
+  synchronized void save() {
+    if(!dirty || stateFile == null || !project.exists()) {
+      // the state file of a deleted or renamed project was removed already
+      return;
+    }
+    try {
+      stateFile.write(out -> {
+        out.writeLong(lastBuild);
+        out.writeLong(builds);
+        out.writeInt(stamps.size());
+        for(Map.Entry<String, Stamp> entry : stamps.entrySet()) {
+          Stamp stamp = entry.getValue();
+          out.writeUTF(entry.getKey());
+          out.writeLong(stamp.length());
+          out.writeLong(stamp.lastModified());
+          out.writeInt(stamp.hash().length);
+          out.write(stamp.hash());
+          out.writeLong(stamp.build());
+        }
+      });
+      dirty = false;
+    } catch(IOException ex) {
+      log.debug("Can't write build state of {}", project.getName(), ex);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "BuildState for " + project + " last recorded timestamp "
+        + DateFormat.getDateTimeInstance().format(new Date(lastBuild));
+  }
+
+  /**
+   * Writes the build states of all projects in the background and deletes the state file of projects that are deleted
+   * or renamed.
+   */
+  private static final class Persistence {
+
+    /**
+     * Created with the first build state, <code>null</code> if the bundle is not active
+     */
+    static final Persistence INSTANCE = create();
+
+    private final Path stateLocation;
+
+    private final Set<ProjectBuildState> pending = ConcurrentHashMap.newKeySet();
+
+    private final Job saveJob = Job.createSystem(Messages.ProjectBuildState_job, monitor -> saveAll());
+
+    private Persistence(Path stateLocation) {
+      this.stateLocation = stateLocation;
+    }
+
+    private static Persistence create() {
+      MavenPluginActivator activator = MavenPluginActivator.getDefault();
+      if(activator == null) {
+        return null;
+      }
+      Persistence persistence = new Persistence(activator.getStateLocation().toFile().toPath());
+      activator.getBundle().getBundleContext().addBundleListener(event -> {
+        if(event.getType() == BundleEvent.STOPPED) { // called e.g. on shutdown
+          persistence.saveJob.cancel();
+          persistence.saveAll();
+        }
+      });
+      ResourcesPlugin.getWorkspace().addResourceChangeListener(persistence::projectsRemoved,
+          IResourceChangeEvent.POST_CHANGE);
+      return persistence;
+    }
+
+    BinaryCacheFile getStateFile(String projectName) {
+      return new BinaryCacheFile(stateLocation.resolve(projectName + STATE_FILE_EXTENSION), MAGIC, FORMAT_VERSION);
+    }
+
+    void scheduleSave(ProjectBuildState state) {
+      pending.add(state);
+      saveJob.schedule(SAVE_DELAY);
+    }
+
+    private void saveAll() {
+      for(ProjectBuildState state : pending) {
+        pending.remove(state);
+        state.save();
+      }
+    }
+
+    private void projectsRemoved(IResourceChangeEvent event) {
+      IResourceDelta delta = event.getDelta();
+      if(delta == null) {
+        return;
+      }
+      for(IResourceDelta child : delta.getAffectedChildren(IResourceDelta.REMOVED)) {
+        if(child.getResource() instanceof IProject removed) {
+          pending.removeIf(state -> state.project.equals(removed));
+          try {
+            getStateFile(removed.getName()).delete();
+          } catch(IOException ex) {
+            log.debug("Can't delete build state of {}", removed.getName(), ex);
+          }
+        }
+      }
+    }
+  }
+}
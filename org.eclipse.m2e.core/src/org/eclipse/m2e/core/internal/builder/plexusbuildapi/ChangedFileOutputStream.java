@@ -13,34 +13,74 @@
 
 package org.eclipse.m2e.core.internal.builder.plexusbuildapi;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.Arrays;
 
 import org.sonatype.plexus.build.incremental.BuildContext;
 
 
 /**
- * Writes to the file only if content of the file is different. TODO. Current implementation defers actual writing to
- * the output file until invocation of {@link #close()} method. This results in missed/ignored IOExceptions in some
- * cases. First, {@link #flush()} method does not actually flush buffer to the disk. Second, any problems writing to the
- * file will be reported as IOException thrown by {@link #close()}, which are generally ignored.
+ * Writes to the file only if content of the file is different. The content is compared with the existing file while
+ * it is written, without buffering it. Once it differs, the matching part of the existing file and all further content
+ * is written to a temporary file next to the file, which replaces the file on {@link #close()}. Unchanged files are
+ * never written, and the file is never left partially written.
+ * <p>
+ * The temporary file gets the permissions of the file. Symbolic links and files with several hard links are written in
+ * place instead, as replacing them would break the link.
  */
 public class ChangedFileOutputStream extends OutputStream {
 
+  private static final int COMPARE_BUFFER_SIZE = 64 * 1024;
+
   private final File file;
 
   private final BuildContext buildContext;
 
-  private final OutputStream os;
+  /**
+   * whether the file is written in place instead of being replaced by a temporary file
+   */
+  private final boolean inPlace;
+
+  /**
+   * the existing file while the content is still the same, <code>null</code> otherwise
+   */
+  private FileChannel existing;
+
+  private final ByteBuffer compareBuffer;
+
+  /**
+   * number of bytes that are the same as in the existing file
+   */
+  private long position;
+
+  /**
+   * temporary file once the content differs
+   */
+  private Path tmp;
 
-  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+  /**
+   * the file opened for writing in place once the content differs
+   */
+  private FileChannel inPlaceChannel;
+
+  private OutputStream os;
+
+  private final byte[] single = new byte[1];
+
+  private boolean closed;
 
   public ChangedFileOutputStream(File file) throws FileNotFoundException {
     this(file, null);
@@ -49,52 +89,167 @@ public class ChangedFileOutputStream extends OutputStream {
   public ChangedFileOutputStream(File file, BuildContext buildContext) throws FileNotFoundException {
     this.file = file;
     this.buildContext = buildContext;
-    this.os = new BufferedOutputStream(new FileOutputStream(file));
+    File parent = file.getAbsoluteFile().getParentFile();
+    if(file.isDirectory() || parent == null || !parent.isDirectory()) {
+      throw new FileNotFoundException(file.getAbsolutePath());
+    }
+    FileChannel channel = null;
+    if(file.isFile()) {
+      try {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+      } catch(IOException ex) {
+        // can't compare, the file is written in any case
+      }
+    }
+    this.existing = channel;
+    this.inPlace = isLink(file.toPath());
+    this.compareBuffer = channel != null ? ByteBuffer.allocate(COMPARE_BUFFER_SIZE).limit(0) : null;
   }
 
   @Override
-  public void write(int b) {
-    buffer.write(b);
+  public void write(int b) throws IOException {
+    single[0] = (byte) b;
+    write(single, 0, 1);
   }
 
   @Override
-  public void write(byte[] b, int off, int len) {
-    buffer.write(b, off, len);
+  public void write(byte[] b, int off, int len) throws IOException {
+    if(closed) {
+      throw new IOException("Stream closed"); //$NON-NLS-1$
+    }
+    while(len > 0 && existing != null) {
+      if(!compareBuffer.hasRemaining()) {
+        compareBuffer.clear();
+        int read = existing.read(compareBuffer);
+        compareBuffer.flip();
+        if(read <= 0) {
+          // new content is longer than the existing file
+          break;
+        }
+      }
+      int n = Math.min(len, compareBuffer.remaining());
+      int start = compareBuffer.position();
+      int mismatch = Arrays.mismatch(b, off, off + n, compareBuffer.array(), start, start + n);
+      if(mismatch >= 0) {
+        position += mismatch;
+        off += mismatch;
+        len -= mismatch;
+        break;
+      }
+      compareBuffer.position(start + n);
+      position += n;
+      off += n;
+      len -= n;
+    }
+    if(len > 0) {
+      divergedStream().write(b, off, len);
+    }
   }
 
   @Override
-  public void close() throws IOException {
-    try (os) {
-      writeIfNewOrChanged();
+  public void flush() throws IOException {
+    if(os != null) {
+      os.flush();
     }
   }
 
-  protected void writeIfNewOrChanged() throws IOException {
-    byte[] bytes = buffer.toByteArray();
-
-    boolean needToWrite = false;
-
-    // XXX harden
-    if(file.exists()) {
-      try (BufferedInputStream is = new BufferedInputStream(new FileInputStream(file))) {
-        for(byte element : bytes) {
-          if(element != is.read()) {
-            needToWrite = true;
-            break;
-          }
+  /**
+   * Switches to writing the temporary file, which starts with the part of the existing file that matched so far, or
+   * to writing the file in place after that part.
+   */
+  private OutputStream divergedStream() throws IOException {
+    if(os == null && inPlace) {
+      if(existing != null) {
+        existing.close();
+        existing = null;
+      }
+      inPlaceChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      inPlaceChannel.position(position);
+      os = new BufferedOutputStream(Channels.newOutputStream(inPlaceChannel));
+    } else if(os == null) {
+      // not created with Files.createTempFile, as it restricts the permissions of the file
+      String name = "." + file.getName() + Long.toHexString(System.nanoTime()) + ".tmp"; //$NON-NLS-1$ //$NON-NLS-2$
+      tmp = file.getAbsoluteFile().toPath().resolveSibling(name);
+      try (FileChannel source = existing;
+          FileChannel target = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+        existing = null;
+        long copied = 0;
+        while(source != null && copied < position) {
+          copied += source.transferTo(copied, position - copied, target);
         }
+        copyPermissions(file.toPath(), tmp);
+      } catch(IOException ex) {
+        Files.deleteIfExists(tmp);
+        throw ex;
+      }
+      os = new BufferedOutputStream(Files.newOutputStream(tmp, StandardOpenOption.APPEND));
+    }
+    return os;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if(closed) {
+      return;
+    }
+    closed = true;
+    if(existing != null && position == existing.size()) {
+      // unchanged
+      existing.close();
+      existing = null;
+      return;
+    }
+    if(inPlace) {
+      try (OutputStream out = divergedStream()) {
+        out.flush();
+        // the new content is shorter than the existing file
+        inPlaceChannel.truncate(inPlaceChannel.position());
       }
     } else {
-      // file does not exist
-      needToWrite = true;
+      replace();
+    }
+    if(buildContext != null) {
+      buildContext.refresh(file);
     }
+  }
 
-    if(needToWrite) {
-      if(buildContext != null) {
-        buildContext.refresh(file);
+  private void replace() throws IOException {
+    try {
+      try (OutputStream out = divergedStream()) {
+        out.flush();
+      }
+      try {
+        Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch(AtomicMoveNotSupportedException ex) {
+        Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      if(tmp != null) {
+        Files.deleteIfExists(tmp);
       }
+    }
+  }
+
+  /**
+   * @return whether the file is a symbolic link or has further hard links
+   */
+  private static boolean isLink(Path path) {
+    if(Files.isSymbolicLink(path)) {
+      return true;
+    }
+    try {
+      return Files.isRegularFile(path)
+          && ((Number) Files.getAttribute(path, "unix:nlink")).intValue() > 1; //$NON-NLS-1$
+    } catch(IOException | UnsupportedOperationException | IllegalArgumentException ex) {
+      // hard links are not known on this file system
+      return false;
+    }
+  }
 
-      os.write(bytes);
+  private static void copyPermissions(Path source, Path target) throws IOException {
+    PosixFileAttributeView view = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+    if(view != null && Files.exists(source)) {
+      Files.setPosixFilePermissions(target, view.readAttributes().permissions());
     }
   }
 }
@@ -544,6 +544,51 @@ public class MavenImpl implements IMaven, IMavenConfigurationChangeListener {
     }, monitor);
   }
 
+  /**
+   * Resolves the given artifacts with a single request, so missing artifacts are downloaded in parallel by the
+   * repository connector. Artifacts that can't be resolved are returned unresolved, the last update check is recorded
+   * for all of them like for {@link #resolve(Artifact, List, IProgressMonitor)}.
+   *
+   * @param artifacts the artifacts to resolve with the remote repositories to resolve each of them from
+   */
+  public void resolveAll(Map<Artifact, List<ArtifactRepository>> artifacts, IProgressMonitor monitor)
+      throws CoreException {
+    if(artifacts.isEmpty()) {
+      return;
+    }
+    getExecutionContext().execute((context, pm) -> {
+      org.eclipse.aether.RepositorySystem repoSystem = lookup(org.eclipse.aether.RepositorySystem.class);
+      List<Artifact> keys = new ArrayList<>(artifacts.keySet());
+      List<ArtifactRequest> requests = new ArrayList<>(keys.size());
+      for(Artifact artifact : keys) {
+        ArtifactRequest request = new ArtifactRequest();
+        request.setArtifact(RepositoryUtils.toArtifact(artifact));
+        request.setRepositories(RepositoryUtils.toRepos(artifacts.get(artifact)));
+        requests.add(request);
+      }
+
+      List<ArtifactResult> results;
+      try {
+        results = repoSystem.resolveArtifacts(context.getRepositorySession(), requests);
+      } catch(ArtifactResolutionException ex) {
+        results = ex.getResults();
+      }
+
+      // results are in the order of the requests
+      for(int i = 0; i < keys.size(); i++ ) {
+        Artifact artifact = keys.get(i);
+        ArtifactResult result = results.get(i);
+        setLastUpdated(context.getLocalRepository(), artifacts.get(artifact), artifact);
+        if(result.isResolved()) {
+          artifact.selectVersion(result.getArtifact().getVersion());
+          artifact.setFile(result.getArtifact().getFile());
+          artifact.setResolved(true);
+        }
+      }
+      return null;
+    }, monitor);
+  }
+
   public Artifact resolvePluginArtifact(Plugin plugin, List<ArtifactRepository> remoteRepositories,
       IProgressMonitor monitor) throws CoreException {
     Artifact artifact = lookup(RepositorySystem.class).createPluginArtifact(plugin);
@@ -133,4 +133,11 @@ public interface IIndex {
    */
   Map<String, IndexedArtifact> search(SearchExpression expression, String searchType, int classifier)
       throws CoreException;
+
+  /**
+   * @return whether the index is still being built, searches return incomplete results until it is done
+   */
+  default boolean isBuilding() {
+    return false;
+  }
 }
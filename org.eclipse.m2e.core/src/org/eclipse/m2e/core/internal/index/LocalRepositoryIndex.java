@@ -0,0 +1,880 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.m2e.core.embedder.ArtifactKey;
+import org.eclipse.m2e.core.embedder.ILocalRepositoryListener;
+import org.eclipse.m2e.core.embedder.IMaven;
+import org.eclipse.m2e.core.internal.BinaryCacheFile;
+import org.eclipse.m2e.core.internal.MavenPluginActivator;
+import org.eclipse.m2e.core.internal.Messages;
+import org.eclipse.m2e.core.internal.index.MatchTyped.MatchType;
+
+
+/**
+ * Index of the artifacts in the local repository. The index is persisted in the bundle state location and kept up to
+ * date with the artifacts that are downloaded or installed. Artifacts that are changed outside of m2e, e.g. by a
+ * command line build, are picked up by a rescan in the background after the index was loaded, which only lists the
+ * version directories whose modification time has changed. Searches use a trigram index over
+ * <code>groupId:artifactId</code>, terms shorter than three characters use a prefix index over the segments of the
+ * group and artifact ids instead, so results are available without scanning all artifacts.
+ */
+@Component(service = {IIndex.class})
+public class LocalRepositoryIndex implements IIndex, ILocalRepositoryListener {
+  private static final Logger log = LoggerFactory.getLogger(LocalRepositoryIndex.class);
+
+  private static final String REPOSITORY = "local"; //$NON-NLS-1$
+
+  private static final String INDEX_FILE = "localRepositoryIndex.bin"; //$NON-NLS-1$
+
+  /**
+   * "M2EX"
+   */
+  private static final int MAGIC = 0x4d324558;
+
+  private static final int FORMAT_VERSION = 2;
+
+  /**
+   * Maximum number of artifacts returned by a search.
+   */
+  private static final int MAX_RESULTS = Integer.getInteger("m2e.index.maxResults", 500); //$NON-NLS-1$
+
+  private static final String SNAPSHOT = "SNAPSHOT"; //$NON-NLS-1$
+
+  private static final String SOURCES = "sources"; //$NON-NLS-1$
+
+  private static final String JAVADOC = "javadoc"; //$NON-NLS-1$
+
+  private static final String POM = "pom"; //$NON-NLS-1$
+
+  /**
+   * Extensions of main artifacts, in order of preference for the packaging
+   */
+  private static final List<String> MAIN_EXTENSIONS = List.of("jar", "war", //$NON-NLS-1$ //$NON-NLS-2$
+      "ear", "rar"); //$NON-NLS-1$ //$NON-NLS-2$
+
+  private static final int HAS_SOURCES = 1;
+
+  private static final int HAS_JAVADOC = 2;
+
+  /**
+   * A version of an artifact, the file is the pom if there is no main artifact.
+   */
+  private static final class VersionEntry {
+    String packaging;
+
+    String fileName;
+
+    long size;
+
+    long lastModified;
+
+    int flags;
+
+    int priority;
+
+    /**
+     * modification time of the version directory when it was last listed, 0 if it was not listed completely
+     */
+    long directoryModified;
+  }
+
+  private static final class ArtifactEntry {
+    final String groupId;
+
+    final String artifactId;
+
+    /**
+     * lower case <code>groupId:artifactId</code>
+     */
+    final String text;
+
+    final Map<String, VersionEntry> versions = new HashMap<>();
+
+    ArtifactEntry(String groupId, String artifactId) {
+      this.groupId = groupId;
+      this.artifactId = artifactId;
+      this.text = (groupId + ":" + artifactId).toLowerCase(Locale.ENGLISH); //$NON-NLS-1$
+    }
+
+    boolean isPlugin() {
+      return artifactId.endsWith("-maven-plugin") //$NON-NLS-1$
+          || (artifactId.startsWith("maven-") && artifactId.endsWith("-plugin")); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    boolean hasPackaging(String packaging) {
+      return versions.values().stream().anyMatch(v -> packaging.equals(v.packaging));
+    }
+  }
+
+  /**
+   * Growable list of artifact ids, ids are only ever appended in ascending order.
+   */
+  private static final class IdList {
+    int[] ids = new int[4];
+
+    int size;
+
+    void add(int id) {
+      if(size > 0 && ids[size - 1] == id) {
+        return;
+      }
+      if(size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      ids[size++ ] = id;
+    }
+
+    void addTo(BitSet set) {
+      for(int i = 0; i < size; i++ ) {
+        set.set(ids[i]);
+      }
+    }
+  }
+
+  @Reference
+  private IMaven maven;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final List<ArtifactEntry> artifacts = new ArrayList<>();
+
+  private final Map<String, Integer> artifactIds = new HashMap<>();
+
+  private final Map<String, IdList> trigrams = new HashMap<>();
+
+  private final NavigableMap<String, IdList> tokens = new TreeMap<>();
+
+  private File repository;
+
+  private BinaryCacheFile indexFile;
+
+  private volatile boolean dirty;
+
+  /**
+   * whether the index is still being built, i.e. it was not loaded and the repository was not scanned completely yet,
+   * the index is only saved afterwards
+   */
+  private volatile boolean building = true;
+
+  /**
+   * Versions that were found in the repository by the running scan, <code>null</code> if no scan is running. Guarded
+   * by the write lock.
+   */
+  private Set<VersionEntry> seen;
+
+  private final Job loadJob = new Job(Messages.LocalRepositoryIndex_job) {
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+      try {
+        if(load()) {
+          building = false;
+        }
+        scan(monitor);
+        building = false;
+        save();
+      } catch(OperationCanceledException ex) {
+        return Status.CANCEL_STATUS;
+      }
+      return Status.OK_STATUS;
+    }
+  };
+
+  public LocalRepositoryIndex() {
+  }
+
+  /**
+   * Creates an index of the given repository that is not kept up to date in the background
+   */
+  LocalRepositoryIndex(File repository, BinaryCacheFile indexFile) {
+    this.repository = repository.getAbsoluteFile();
+    this.indexFile = indexFile;
+    this.building = false;
+  }
+
+  @Activate
+  void activate() {
+    MavenPluginActivator plugin = MavenPluginActivator.getDefault();
+    String repositoryPath = maven.getLocalRepositoryPath();
+    if(plugin == null || repositoryPath == null) {
+      building = false;
+      return;
+    }
+    repository = new File(repositoryPath).getAbsoluteFile();
+    indexFile = new BinaryCacheFile(plugin.getStateLocation().append(INDEX_FILE).toFile().toPath(), MAGIC,
+        FORMAT_VERSION);
+    maven.addLocalRepositoryListener(this);
+    loadJob.setSystem(true);
+    loadJob.schedule();
+  }
+
+  @Deactivate
+  void deactivate() {
+    maven.removeLocalRepositoryListener(this);
+    loadJob.cancel();
+    try {
+      loadJob.join();
+    } catch(InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    save();
+  }
+
+  @Override
+  public void artifactInstalled(File repositoryBasedir, ArtifactKey baseArtifact, ArtifactKey artifact,
+      File artifactFile) {
+    if(repository == null || !repository.equals(repositoryBasedir.getAbsoluteFile())) {
+      return;
+    }
+    String name = artifactFile.getName();
+    int dot = name.lastIndexOf('.');
+    if(dot < 0) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      add(baseArtifact.groupId(), baseArtifact.artifactId(), baseArtifact.version(), baseArtifact.classifier(),
+          name.substring(dot + 1), name, artifactFile.length(), artifactFile.lastModified());
+      dirty = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public boolean isBuilding() {
+    return building;
+  }
+
+  @Override
+  public IndexedArtifactFile getIndexedArtifactFile(ArtifactKey artifact) {
+    lock.readLock().lock();
+    try {
+      Integer id = artifactIds.get(artifact.groupId() + ":" + artifact.artifactId()); //$NON-NLS-1$
+      if(id == null) {
+        return null;
+      }
+      ArtifactEntry entry = artifacts.get(id);
+      VersionEntry version = entry.versions.get(artifact.version());
+      return version != null ? toFile(entry, artifact.version(), version) : null;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public IndexedArtifactFile identify(File file) {
+    if(repository == null) {
+      return null;
+    }
+    Path relative;
+    try {
+      relative = repository.toPath().relativize(file.getAbsoluteFile().toPath());
+    } catch(IllegalArgumentException ex) {
+      return null;
+    }
+    int count = relative.getNameCount();
+    if(count < 4 || relative.startsWith("..")) { //$NON-NLS-1$
+      return null;
+    }
+    String groupId = relative.subpath(0, count - 3).toString().replace(File.separatorChar, '.');
+    String artifactId = relative.getName(count - 3).toString();
+    String version = relative.getName(count - 2).toString();
+    return getIndexedArtifactFile(new ArtifactKey(groupId, artifactId, version, null));
+  }
+
+  @Override
+  public Collection<IndexedArtifact> find(SearchExpression groupId, SearchExpression artifactId,
+      SearchExpression version, SearchExpression packaging) {
+    return find(asList(groupId), asList(artifactId), asList(version), asList(packaging));
+  }
+
+  @Override
+  public Collection<IndexedArtifact> find(Collection<SearchExpression> groupId, Collection<SearchExpression> artifactId,
+      Collection<SearchExpression> version, Collection<SearchExpression> packaging) {
+    List<IndexedArtifact> result = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      for(ArtifactEntry entry : artifacts) {
+        if(!matches(groupId, entry.groupId) || !matches(artifactId, entry.artifactId)) {
+          continue;
+        }
+        IndexedArtifact indexedArtifact = null;
+        for(Map.Entry<String, VersionEntry> v : entry.versions.entrySet()) {
+          if(matches(version, v.getKey()) && matches(packaging, v.getValue().packaging)) {
+            if(indexedArtifact == null) {
+              indexedArtifact = new IndexedArtifact(entry.groupId, entry.artifactId, null, null,
+                  v.getValue().packaging);
+              result.add(indexedArtifact);
+            }
+            indexedArtifact.addFile(toFile(entry, v.getKey(), v.getValue()));
+          }
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return result;
+  }
+
+  @Override
+  public Map<String, IndexedArtifact> search(SearchExpression expression, String searchType) {
+    return search(expression, searchType, SEARCH_ALL);
+  }
+
+  @Override
+  public Map<String, IndexedArtifact> search(SearchExpression expression, String searchType, int classifier) {
+    String term = expression.getStringValue().trim().toLowerCase(Locale.ENGLISH);
+    if(SEARCH_PACKAGING.equals(searchType)) {
+      return toResult(find(null, null, null, List.of(new MatchTypedStringSearchExpression(term, MatchType.EXACT))));
+    }
+    if(SEARCH_SHA1.equals(searchType)) {
+      // checksums are not indexed
+      return Map.of();
+    }
+    List<String> parts = Arrays.stream(term.split("\\*")).filter(p -> !p.isEmpty()).toList(); //$NON-NLS-1$
+    List<ArtifactEntry> matches = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      BitSet candidates = getCandidates(parts);
+      for(int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+        ArtifactEntry entry = artifacts.get(id);
+        String text = SEARCH_GROUP.equals(searchType) ? entry.groupId.toLowerCase(Locale.ENGLISH) : entry.text;
+        if(containsInOrder(text, parts) && isOfType(entry, searchType)
+            && entry.versions.values().stream().anyMatch(v -> hasClassifier(v, classifier))) {
+          matches.add(entry);
+        }
+      }
+      // best matches first, exact and prefix matches of the artifact id before other matches
+      String first = parts.isEmpty() ? "" : parts.get(0); //$NON-NLS-1$
+      matches.sort(Comparator.<ArtifactEntry> comparingInt(e -> rank(e, first)).thenComparing(e -> e.text));
+      Map<String, IndexedArtifact> result = new LinkedHashMap<>();
+      for(ArtifactEntry entry : matches.subList(0, Math.min(matches.size(), MAX_RESULTS))) {
+        IndexedArtifact indexedArtifact = null;
+        for(Map.Entry<String, VersionEntry> v : entry.versions.entrySet()) {
+          if(SEARCH_PARENTS.equals(searchType) && !POM.equals(v.getValue().packaging)
+              || !hasClassifier(v.getValue(), classifier)) {
+            continue;
+          }
+          if(indexedArtifact == null) {
+            indexedArtifact = new IndexedArtifact(entry.groupId, entry.artifactId, null, null, v.getValue().packaging);
+            result.put(entry.groupId + ":" + entry.artifactId, indexedArtifact); //$NON-NLS-1$
+          }
+          indexedArtifact.addFile(toFile(entry, v.getKey(), v.getValue()));
+        }
+      }
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private BitSet getCandidates(List<String> parts) {
+    BitSet candidates = null;
+    for(String part : parts) {
+      BitSet partCandidates = new BitSet(artifacts.size());
+      if(part.length() >= 3) {
+        for(int i = 0; i + 3 <= part.length(); i++ ) {
+          IdList ids = trigrams.get(part.substring(i, i + 3));
+          if(ids == null) {
+            return new BitSet();
+          }
+          BitSet trigramIds = new BitSet(artifacts.size());
+          ids.addTo(trigramIds);
+          if(i == 0) {
+            partCandidates = trigramIds;
+          } else {
+            partCandidates.and(trigramIds);
+          }
+        }
+      } else {
+        for(IdList ids : tokens.subMap(part, true, part + Character.MAX_VALUE, false).values()) {
+          ids.addTo(partCandidates);
+        }
+      }
+      if(candidates == null) {
+        candidates = partCandidates;
+      } else {
+        candidates.and(partCandidates);
+      }
+    }
+    if(candidates == null) {
+      candidates = new BitSet(artifacts.size());
+      candidates.set(0, artifacts.size());
+    }
+    return candidates;
+  }
+
+  private static boolean containsInOrder(String text, List<String> parts) {
+    int index = 0;
+    for(String part : parts) {
+      index = text.indexOf(part, index);
+      if(index < 0) {
+        return false;
+      }
+      index += part.length();
+    }
+    return true;
+  }
+
+  private static boolean isOfType(ArtifactEntry entry, String searchType) {
+    if(SEARCH_PLUGIN.equals(searchType)) {
+      return entry.isPlugin();
+    }
+    if(SEARCH_PARENTS.equals(searchType)) {
+      return entry.hasPackaging(POM);
+    }
+    if(SEARCH_ARCHETYPE.equals(searchType)) {
+      return entry.artifactId.contains("archetype"); //$NON-NLS-1$
+    }
+    return true;
+  }
+
+  /**
+   * @param classifier the {@link IIndex#SEARCH_JARS SEARCH_*} flags of the requested files, tests are not indexed
+   */
+  private static boolean hasClassifier(VersionEntry v, int classifier) {
+    return (classifier & SEARCH_JARS) != 0 || ((classifier & SEARCH_JAVADOCS) != 0 && (v.flags & HAS_JAVADOC) != 0)
+        || ((classifier & SEARCH_SOURCES) != 0 && (v.flags & HAS_SOURCES) != 0);
+  }
+
+  private static int rank(ArtifactEntry entry, String term) {
+    String artifactId = entry.artifactId.toLowerCase(Locale.ENGLISH);
+    if(artifactId.equals(term)) {
+      return 0;
+    }
+    if(artifactId.startsWith(term)) {
+      return 1;
+    }
+    return entry.text.startsWith(term) ? 2 : 3;
+  }
+
+  private static boolean matches(Collection<SearchExpression> expressions, String value) {
+    if(expressions == null || expressions.isEmpty()) {
+      return true;
+    }
+    if(value == null) {
+      return false;
+    }
+    for(SearchExpression expression : expressions) {
+      String expected = expression.getStringValue();
+      if(expression instanceof MatchTyped matchTyped && matchTyped.getMatchType() == MatchType.PARTIAL
+          ? value.toLowerCase(Locale.ENGLISH).contains(expected.toLowerCase(Locale.ENGLISH))
+          : value.equals(expected)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<SearchExpression> asList(SearchExpression expression) {
+    return expression != null ? List.of(expression) : null;
+  }
+
+  private static Map<String, IndexedArtifact> toResult(Collection<IndexedArtifact> artifacts) {
+    Map<String, IndexedArtifact> result = new LinkedHashMap<>();
+    for(IndexedArtifact artifact : artifacts) {
+      if(result.size() >= MAX_RESULTS) {
+        break;
+      }
+      result.put(artifact.getGroupId() + ":" + artifact.getArtifactId(), artifact); //$NON-NLS-1$
+    }
+    return result;
+  }
+
+  private static IndexedArtifactFile toFile(ArtifactEntry entry, String version, VersionEntry v) {
+    return new IndexedArtifactFile(REPOSITORY, entry.groupId, entry.artifactId, version, v.packaging, null,
+        v.fileName, v.size, new Date(v.lastModified), (v.flags & HAS_SOURCES) != 0 ? PRESENT : NOT_PRESENT,
+        (v.flags & HAS_JAVADOC) != 0 ? PRESENT : NOT_PRESENT, null, null);
+  }
+
+  /**
+   * Adds a file of an artifact version, must be called with the write lock held. The file of a version is its main
+   * artifact if known, its pom otherwise.
+   *
+   * @param classifier the classifier or <code>null</code> for the main artifact and pom
+   */
+  private void add(String groupId, String artifactId, String version, String classifier, String extension,
+      String fileName, long size, long lastModified) {
+    boolean pom = POM.equals(extension);
+    if(!pom && !MAIN_EXTENSIONS.contains(extension)) {
+      return;
+    }
+    ArtifactEntry entry = getOrCreate(groupId, artifactId);
+    VersionEntry v = entry.versions.computeIfAbsent(version, k -> new VersionEntry());
+    if(seen != null) {
+      seen.add(v);
+    }
+    dirty = true;
+    if(SOURCES.equals(classifier)) {
+      v.flags |= HAS_SOURCES;
+    } else if(JAVADOC.equals(classifier)) {
+      v.flags |= HAS_JAVADOC;
+    }
+    // attached artifacts < pom < main artifacts by preference of the extension
+    int priority = classifier != null ? 0 : pom ? 1 : 1 + MAIN_EXTENSIONS.size() - MAIN_EXTENSIONS.indexOf(extension);
+    if(v.fileName == null || priority > v.priority) {
+      v.packaging = classifier != null ? MAIN_EXTENSIONS.get(0) : extension;
+      v.fileName = fileName;
+      v.size = size;
+      v.lastModified = lastModified;
+      v.priority = priority;
+    }
+  }
+
+  private ArtifactEntry getOrCreate(String groupId, String artifactId) {
+    String key = groupId + ":" + artifactId; //$NON-NLS-1$
+    Integer existing = artifactIds.get(key);
+    if(existing != null) {
+      return artifacts.get(existing);
+    }
+    int id = artifacts.size();
+    ArtifactEntry entry = new ArtifactEntry(groupId, artifactId);
+    artifacts.add(entry);
+    artifactIds.put(key, id);
+    String text = entry.text;
+    for(int i = 0; i + 3 <= text.length(); i++ ) {
+      trigrams.computeIfAbsent(text.substring(i, i + 3), t -> new IdList()).add(id);
+    }
+    for(String token : text.split("[.:\\-_]")) { //$NON-NLS-1$
+      if(!token.isEmpty()) {
+        tokens.computeIfAbsent(token, t -> new IdList()).add(id);
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Scans the repository for changes. Version directories that were listed before and have not been modified since are
+   * skipped, versions that are no longer found are removed once the scan completes.
+   */
+  void scan(IProgressMonitor monitor) {
+    Path root = repository.toPath();
+    if(!Files.isDirectory(root)) {
+      return;
+    }
+    long start = System.currentTimeMillis();
+    Map<Path, Long> listing = new HashMap<>();
+    lock.writeLock().lock();
+    try {
+      seen = new HashSet<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    try {
+      Files.walkFileTree(root, new SimpleFileVisitor<>() {
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+          if(monitor.isCanceled()) {
+            throw new OperationCanceledException();
+          }
+          Path relative = root.relativize(dir);
+          if(relative.getNameCount() >= 3) {
+            long lastModified = attrs.lastModifiedTime().toMillis();
+            // only version directories are recorded as listed, so this doesn't skip group directories
+            if(isUnchanged(relative, lastModified)) {
+              return FileVisitResult.SKIP_SUBTREE;
+            }
+            if(isVersionDirectory(dir)) {
+              listing.put(dir, lastModified);
+            }
+          }
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+          Path relative = root.relativize(file);
+          int count = relative.getNameCount();
+          if(count >= 4) {
+            String fileName = relative.getName(count - 1).toString();
+            String version = relative.getName(count - 2).toString();
+            String artifactId = relative.getName(count - 3).toString();
+            String groupId = relative.subpath(0, count - 3).toString().replace(File.separatorChar, '.');
+            addScanned(groupId, artifactId, version, fileName, attrs);
+          }
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+          return FileVisitResult.CONTINUE; // ignore
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+          Long modified = listing.remove(dir);
+          if(modified != null && exc == null) {
+            setListed(root.relativize(dir), modified);
+          }
+          return FileVisitResult.CONTINUE;
+        }
+      });
+      removeUnseen();
+    } catch(IOException ex) {
+      log.debug("Can't scan local repository {}", repository, ex);
+    } finally {
+      lock.writeLock().lock();
+      try {
+        seen = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+    log.debug("Scanned local repository {} in {} ms", repository, System.currentTimeMillis() - start);
+  }
+
+  /**
+   * @return whether the directory contains a pom or jar, other directories of the same depth are group directories
+   */
+  private static boolean isVersionDirectory(Path dir) {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.{pom,jar}")) { //$NON-NLS-1$
+      for(Path file : files) {
+        if(Files.isRegularFile(file)) {
+          return true;
+        }
+      }
+    } catch(IOException ex) {
+      // not listed then
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether the given directory is a known version directory that was not modified since it was last listed.
+   * The version is reset if the directory was modified, so files that were deleted are not kept.
+   *
+   * @param relative <code>groupId/artifactId/version</code> relative to the repository
+   */
+  private boolean isUnchanged(Path relative, long lastModified) {
+    String version = relative.getFileName().toString();
+    lock.writeLock().lock();
+    try {
+      ArtifactEntry entry = getArtifact(relative);
+      VersionEntry v = entry != null ? entry.versions.get(version) : null;
+      if(v == null) {
+        return false;
+      }
+      if(v.directoryModified == lastModified) {
+        seen.add(v);
+        return true;
+      }
+      entry.versions.remove(version);
+      dirty = true;
+      return false;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void setListed(Path relative, long lastModified) {
+    lock.writeLock().lock();
+    try {
+      ArtifactEntry entry = getArtifact(relative);
+      VersionEntry v = entry != null ? entry.versions.get(relative.getFileName().toString()) : null;
+      if(v != null) {
+        v.directoryModified = lastModified;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param versionDirectory <code>groupId/artifactId/version</code> relative to the repository
+   * @return the artifact of the given version directory, <code>null</code> if it is unknown, must be called with the
+   *         lock held
+   */
+  private ArtifactEntry getArtifact(Path versionDirectory) {
+    Integer id = artifactIds.get(getKey(versionDirectory));
+    return id != null ? artifacts.get(id) : null;
+  }
+
+  private static String getKey(Path versionDirectory) {
+    int count = versionDirectory.getNameCount();
+    return versionDirectory.subpath(0, count - 2).toString().replace(File.separatorChar, '.') + ":" //$NON-NLS-1$
+        + versionDirectory.getName(count - 2);
+  }
+
+  /**
+   * Removes the versions that were not found by the completed scan, e.g. because they were deleted from the repository.
+   * Artifacts without versions are kept as their ids are referenced by the search indexes, they are not found by
+   * searches.
+   */
+  private void removeUnseen() {
+    lock.writeLock().lock();
+    try {
+      for(ArtifactEntry entry : artifacts) {
+        if(entry.versions.values().removeIf(v -> !seen.contains(v))) {
+          dirty = true;
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds a file found in the repository layout
+   * <code>groupId/artifactId/version/artifactId-version[-classifier].ext</code>.
+   */
+  private void addScanned(String groupId, String artifactId, String version, String fileName,
+      BasicFileAttributes attrs) {
+    // timestamped snapshots are stored in the directory of the base version
+    String fileVersion = version.endsWith(SNAPSHOT) ? version.substring(0, version.length() - SNAPSHOT.length())
+        : version;
+    String prefix = artifactId + "-" + fileVersion; //$NON-NLS-1$
+    int dot = fileName.lastIndexOf('.');
+    if(!fileName.startsWith(prefix) || dot < prefix.length()) {
+      return;
+    }
+    if(!version.endsWith(SNAPSHOT) && dot > prefix.length() && fileName.charAt(prefix.length()) != '-') {
+      // e.g. a-1.0.1.jar in the directory of version 1.0
+      return;
+    }
+    String extension = fileName.substring(dot + 1);
+    String base = fileName.substring(0, dot);
+    String classifier = null;
+    if(base.endsWith("-" + SOURCES)) { //$NON-NLS-1$
+      classifier = SOURCES;
+    } else if(base.endsWith("-" + JAVADOC)) { //$NON-NLS-1$
+      classifier = JAVADOC;
+    } else if(!version.endsWith(SNAPSHOT) && base.length() > prefix.length() + 1
+        && base.charAt(prefix.length()) == '-') {
+      classifier = base.substring(prefix.length() + 1);
+    }
+    lock.writeLock().lock();
+    try {
+      add(groupId, artifactId, version, classifier, extension, fileName, attrs.size(),
+          attrs.lastModifiedTime().toMillis());
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @return whether the index of the current repository was loaded
+   */
+  boolean load() {
+    try {
+      Boolean loaded = indexFile.read(in -> {
+        if(!repository.getPath().equals(in.readUTF())) {
+          return false;
+        }
+        lock.writeLock().lock();
+        try {
+          int count = in.readInt();
+          for(int i = 0; i < count; i++ ) {
+            ArtifactEntry entry = getOrCreate(in.readUTF(), in.readUTF());
+            int versions = in.readInt();
+            for(int j = 0; j < versions; j++ ) {
+              String version = in.readUTF();
+              VersionEntry v = new VersionEntry();
+              v.packaging = in.readUTF();
+              v.fileName = in.readUTF();
+              v.size = in.readLong();
+              v.lastModified = in.readLong();
+              v.flags = in.readInt();
+              v.priority = in.readInt();
+              v.directoryModified = in.readLong();
+              // artifacts installed since the activation are more recent
+              entry.versions.putIfAbsent(version, v);
+            }
+          }
+        } finally {
+          lock.writeLock().unlock();
+        }
+        return true;
+      });
+      return loaded != null && loaded;
+    } catch(IOException ex) {
+      log.debug("Can't read local repository index", ex);
+      return false;
+    }
+  }
+
+  void save() {
+    if(!dirty || building) {
+      return;
+    }
+    lock.readLock().lock();
+    try {
+      indexFile.write(out -> {
+        out.writeUTF(repository.getPath());
+        out.writeInt(artifacts.size());
+        for(ArtifactEntry entry : artifacts) {
+          out.writeUTF(entry.groupId);
+          out.writeUTF(entry.artifactId);
+          Set<Map.Entry<String, VersionEntry>> versions = entry.versions.entrySet();
+          out.writeInt(versions.size());
+          for(Map.Entry<String, VersionEntry> e : versions) {
+            VersionEntry v = e.getValue();
+            out.writeUTF(e.getKey());
+            out.writeUTF(v.packaging);
+            out.writeUTF(v.fileName);
+            out.writeLong(v.size);
+            out.writeLong(v.lastModified);
+            out.writeInt(v.flags);
+            out.writeInt(v.priority);
+            out.writeLong(v.directoryModified);
+          }
+        }
+      });
+      dirty = false;
+    } catch(IOException ex) {
+      log.debug("Can't write local repository index", ex);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+}
@@ -46,6 +46,31 @@ public class DefaultPluginExecutionMetadata implements IPluginExecutionMetadata,
     this.executionId = execution.getExecutionId();
   }
 
+  public DefaultPluginExecutionMetadata(String groupId, String artifactId, String version, String executionId,
+      PluginExecutionAction action) {
+    this.action = action;
+    this.groupId = groupId;
+    this.artifactId = artifactId;
+    this.version = version;
+    this.executionId = executionId;
+  }
+
+  public String getGroupId() {
+    return groupId;
+  }
+
+  public String getArtifactId() {
+    return artifactId;
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  public String getExecutionId() {
+    return executionId;
+  }
+
   @Override
   public PluginExecutionAction getAction() {
     return action;
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.lifecyclemapping;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import org.eclipse.m2e.core.internal.BinaryCacheFile;
+import org.eclipse.m2e.core.internal.Messages;
+import org.eclipse.m2e.core.internal.lifecyclemapping.model.LifecycleMappingMetadataSource;
+import org.eclipse.m2e.core.internal.lifecyclemapping.model.io.xpp3.LifecycleMappingMetadataSourceXpp3Writer;
+
+
+/**
+ * Cache of the lifecycle mapping metadata read from the local repository, i.e. embedded in maven plugin jars or
+ * provided by lifecycle mapping metadata artifacts, shared by all projects and persisted across sessions. Entries are
+ * keyed by the file and validated against its size and modification time, jars without embedded metadata are
+ * remembered as well so they are not opened again.
+ * <p>
+ * The cache holds parsed {@link LifecycleMappingMetadataSource} instances. Their consumers modify them, so each call
+ * returns a copy and the cached instance is never handed out.
+ * <p>
+ * The cache is written in the background shortly after it has changed and when the component is deactivated.
+ */
+@Component(service = EmbeddedMetadataCache.class)
+public final class EmbeddedMetadataCache {
+  private static final Logger log = LoggerFactory.getLogger(EmbeddedMetadataCache.class);
+
+  private static final String CACHE_FILE = "embeddedLifecycleMappingMetadata.bin"; //$NON-NLS-1$
+
+  /**
+   * "M2EL"
+   */
+  private static final int MAGIC = 0x4d32454c;
+
+  private static final int FORMAT_VERSION = 1;
+
+  private static final long SAVE_DELAY = 10000;
+
+  @FunctionalInterface
+  interface Loader {
+    /**
+     * @return the metadata read from the file or <code>null</code> if there is none
+     */
+    LifecycleMappingMetadataSource load(File file) throws IOException, XmlPullParserException;
+  }
+
+  /**
+   * @param metadata the parsed metadata or <code>null</code> if the file does not provide any
+   */
+  private record Entry(long length, long lastModified, LifecycleMappingMetadataSource metadata) {
+  }
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  private BinaryCacheFile cacheFile;
+
+  private volatile boolean dirty;
+
+  private final Job saveJob = new Job(Messages.EmbeddedMetadataCache_job) {
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+      save();
+      return Status.OK_STATUS;
+    }
+  };
+
+  public EmbeddedMetadataCache() {
+    saveJob.setSystem(true);
+  }
+
+  /**
+   * Creates a cache that is backed by the given file, for tests only.
+   */
+  EmbeddedMetadataCache(BinaryCacheFile cacheFile) {
+    this();
+    open(cacheFile);
+  }
+
+  @Activate
+  void activate(BundleContext context) {
+    open(new BinaryCacheFile(Platform.getStateLocation(context.getBundle()).append(CACHE_FILE).toFile().toPath(),
+        MAGIC, FORMAT_VERSION));
+  }
+
+  private void open(BinaryCacheFile cacheFile) {
+    this.cacheFile = cacheFile;
+    try {
+      read();
+    } catch(IOException | RuntimeException ex) {
+      log.warn("Can't read embedded lifecycle mapping metadata cache", ex);
+      entries.clear();
+    }
+  }
+
+  @Deactivate
+  void deactivate() {
+    saveJob.cancel();
+    save();
+  }
+
+  /**
+   * Returns the lifecycle mapping metadata of the given file, the loader is only called if the file is not known or has
+   * changed since it was cached.
+   *
+   * @return a copy of the metadata that can be modified by the caller or <code>null</code> if the file does not provide
+   *         any
+   */
+  LifecycleMappingMetadataSource get(File file, Loader loader) throws IOException, XmlPullParserException {
+    String path = file.getAbsolutePath();
+    long length = file.length();
+    long lastModified = file.lastModified();
+    Entry entry = entries.get(path);
+    if(entry == null || entry.length() != length || entry.lastModified() != lastModified) {
+      entry = new Entry(length, lastModified, loader.load(file));
+      entries.put(path, entry);
+      dirty = true;
+      saveJob.schedule(SAVE_DELAY);
+    }
+    LifecycleMappingMetadataSource metadata = entry.metadata();
+    return metadata != null ? LifecycleMappingFactory.copyLifecycleMappingMetadataSource(metadata) : null;
+  }
+
+  /**
+   * Writes the cache to the bundle state location if it has changed, entries of files that were removed from the local
+   * repository are dropped. The metadata is stored as document and parsed again when the cache is read.
+   */
+  synchronized void save() {
+    if(!dirty || cacheFile == null) {
+      return;
+    }
+    entries.keySet().removeIf(path -> !new File(path).isFile());
+    Map<String, Entry> snapshot = Map.copyOf(entries);
+    LifecycleMappingMetadataSourceXpp3Writer writer = new LifecycleMappingMetadataSourceXpp3Writer();
+    try {
+      cacheFile.write(out -> {
+        out.writeInt(snapshot.size());
+        for(Map.Entry<String, Entry> e : snapshot.entrySet()) {
+          Entry entry = e.getValue();
+          out.writeUTF(e.getKey());
+          out.writeLong(entry.length());
+          out.writeLong(entry.lastModified());
+          if(entry.metadata() != null) {
+            ByteArrayOutputStream document = new ByteArrayOutputStream();
+            writer.write(document, entry.metadata());
+            out.writeInt(document.size());
+            document.writeTo(out);
+          } else {
+            out.writeInt(0);
+          }
+        }
+      });
+      dirty = false;
+    } catch(IOException ex) {
+      log.warn("Can't write embedded lifecycle mapping metadata cache", ex);
+    }
+  }
+
+  private void read() throws IOException {
+    cacheFile.read(in -> {
+      int size = in.readInt();
+      for(int i = 0; i < size; i++ ) {
+        String path = in.readUTF();
+        long length = in.readLong();
+        long lastModified = in.readLong();
+        byte[] document = in.readNBytes(in.readInt());
+        LifecycleMappingMetadataSource metadata = null;
+        if(document.length > 0) {
+          try {
+            metadata = LifecycleMappingFactory.createLifecycleMappingMetadataSource(new ByteArrayInputStream(document));
+          } catch(XmlPullParserException ex) {
+            // read the file again on next access
+            continue;
+          }
+        }
+        entries.put(path, new Entry(length, lastModified, metadata));
+      }
+      return null;
+    });
+  }
+}
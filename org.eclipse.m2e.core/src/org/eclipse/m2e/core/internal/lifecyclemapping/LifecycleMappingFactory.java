@@ -475,14 +475,7 @@ public class LifecycleMappingFactory {
     LifecycleMappingMetadataSource metadata = null;
     try {
       if(file.isFile()) {
-        try (JarFile jar = new JarFile(file)) {
-          ZipEntry entry = jar.getEntry(LIFECYCLE_MAPPING_METADATA_EMBEDDED_SOURCE_PATH);
-          if(entry == null) {
-            return null;
-          }
-          InputStream is = jar.getInputStream(entry);
-          metadata = createLifecycleMappingMetadataSource(is);
-        }
+        metadata = readCachedMetadata(file, LifecycleMappingFactory::readEmbeddedMetadata);
       } else if(file.isDirectory()) {
         file = new File(file, LIFECYCLE_MAPPING_METADATA_EMBEDDED_SOURCE_PATH);
         if(file.isFile()) {
@@ -501,6 +494,25 @@ public class LifecycleMappingFactory {
     return metadata;
   }
 
+  private static LifecycleMappingMetadataSource readEmbeddedMetadata(File file)
+      throws IOException, XmlPullParserException {
+    try (JarFile jar = new JarFile(file)) {
+      ZipEntry entry = jar.getEntry(LIFECYCLE_MAPPING_METADATA_EMBEDDED_SOURCE_PATH);
+      if(entry == null) {
+        return null;
+      }
+      try (InputStream is = jar.getInputStream(entry)) {
+        return createLifecycleMappingMetadataSource(is);
+      }
+    }
+  }
+
+  private static LifecycleMappingMetadataSource readCachedMetadata(File file, EmbeddedMetadataCache.Loader loader)
+      throws IOException, XmlPullParserException {
+    EmbeddedMetadataCache cache = MavenPluginActivator.getDefault().getEmbeddedMetadataCache();
+    return cache != null ? cache.get(file, loader) : loader.load(file);
+  }
+
   private static File getWorkspaceMetadataFile() {
     return new File(MavenPlugin.getMavenConfiguration().getWorkspaceLifecycleMappingMetadataFile());
   }
@@ -933,7 +945,40 @@ public class LifecycleMappingFactory {
   private static LifecycleMappingMetadataSource createLifecycleMappingMetadataSource(Reader reader)
       throws IOException, XmlPullParserException {
     LifecycleMappingMetadataSource metadataSource = new LifecycleMappingMetadataSourceXpp3Reader().read(reader);
+    linkSources(metadataSource);
+    return metadataSource;
+  }
+
+  /**
+   * Returns a copy of the given metadata that can be modified independently of it.
+   */
+  static LifecycleMappingMetadataSource copyLifecycleMappingMetadataSource(LifecycleMappingMetadataSource original) {
+    LifecycleMappingMetadataSource copy = new LifecycleMappingMetadataSource();
+    copy.setGroupId(original.getGroupId());
+    copy.setArtifactId(original.getArtifactId());
+    copy.setVersion(original.getVersion());
+    copy.setSource(original.getSource());
+    for(LifecycleMappingMetadata lifecycleMappingMetadata : original.getLifecycleMappings()) {
+      LifecycleMappingMetadata lifecycleMappingCopy = new LifecycleMappingMetadata();
+      lifecycleMappingCopy.setPackagingType(lifecycleMappingMetadata.getPackagingType());
+      lifecycleMappingCopy.setLifecycleMappingId(lifecycleMappingMetadata.getLifecycleMappingId());
+      lifecycleMappingCopy.setLifecycleMappingVersionRange(lifecycleMappingMetadata.getLifecycleMappingVersionRange());
+      for(PluginExecutionMetadata executionMetadata : lifecycleMappingMetadata.getPluginExecutions()) {
+        lifecycleMappingCopy.addPluginExecution(executionMetadata.clone());
+      }
+      copy.addLifecycleMapping(lifecycleMappingCopy);
+    }
+    for(PluginExecutionMetadata executionMetadata : original.getPluginExecutions()) {
+      copy.addPluginExecution(executionMetadata.clone());
+    }
+    for(LifecycleMappingFilter filter : original.getLifecycleMappingFilters()) {
+      copy.addLifecycleMappingFilter(filter.clone());
+    }
+    linkSources(copy);
+    return copy;
+  }
 
+  private static void linkSources(LifecycleMappingMetadataSource metadataSource) {
     for(LifecycleMappingMetadata lifecycleMappingMetadata : metadataSource.getLifecycleMappings()) {
       lifecycleMappingMetadata.setSource(metadataSource);
       for(PluginExecutionMetadata executionMetadata : lifecycleMappingMetadata.getPluginExecutions()) {
@@ -943,7 +988,6 @@ public class LifecycleMappingFactory {
     for(PluginExecutionMetadata executionMetadata : metadataSource.getPluginExecutions()) {
       executionMetadata.setSource(metadataSource);
     }
-    return metadataSource;
   }
 
   private static AbstractLifecycleMapping createLifecycleMapping(IConfigurationElement element) {
@@ -1240,7 +1284,6 @@ public class LifecycleMappingFactory {
     }
   }
 
-  // TODO: cache LifecycleMappingMetadataSource instances
   private static LifecycleMappingMetadataSource getLifecycleMappingMetadataSource(String groupId, String artifactId,
       String version, List<ArtifactRepository> repositories, IProgressMonitor monitor) {
     Artifact artifact;
@@ -1255,7 +1298,10 @@ public class LifecycleMappingFactory {
       throw new LifecycleMappingConfigurationException("Cannot find file for artifact " + artifact);
     }
     try {
-      LifecycleMappingMetadataSource source = createLifecycleMappingMetadataSource(groupId, artifactId, version, file);
+      LifecycleMappingMetadataSource source = readCachedMetadata(file, LifecycleMappingFactory::readMetadataFile);
+      source.setGroupId(groupId);
+      source.setArtifactId(artifactId);
+      source.setVersion(version);
       source.setSource(artifact);
       return source;
     } catch(IOException e) {
@@ -1267,14 +1313,10 @@ public class LifecycleMappingFactory {
     }
   }
 
-  private static LifecycleMappingMetadataSource createLifecycleMappingMetadataSource(String groupId, String artifactId,
-      String version, File configuration) throws IOException, XmlPullParserException {
+  private static LifecycleMappingMetadataSource readMetadataFile(File configuration)
+      throws IOException, XmlPullParserException {
     try (InputStream in = new FileInputStream(configuration)) {
-      LifecycleMappingMetadataSource lifecycleMappingMetadataSource = createLifecycleMappingMetadataSource(in);
-      lifecycleMappingMetadataSource.setGroupId(groupId);
-      lifecycleMappingMetadataSource.setArtifactId(artifactId);
-      lifecycleMappingMetadataSource.setVersion(version);
-      return lifecycleMappingMetadataSource;
+      return createLifecycleMappingMetadataSource(in);
     }
   }
 
@@ -15,7 +15,13 @@ package org.eclipse.m2e.core.internal.project;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
@@ -30,11 +36,15 @@ import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.QualifiedName;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.apache.maven.project.MavenProject;
 
 import org.eclipse.m2e.core.embedder.ArtifactKey;
+import org.eclipse.m2e.core.internal.Messages;
 import org.eclipse.m2e.core.internal.project.registry.MavenProjectManager;
 import org.eclipse.m2e.core.project.IMavenProjectChangedListener;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
@@ -44,7 +54,9 @@ import org.eclipse.m2e.workspace.MutableWorkspaceState;
 
 
 /**
- * Maintains map file of maven artifacts present in workspace.
+ * Maintains map file of maven artifacts present in workspace. The state of all projects is kept in memory and only
+ * updated for the projects of the change events, the file is written in the background shortly after the last
+ * change.
  */
 
 @Component(service = {IMavenProjectChangedListener.class}, immediate = true)
@@ -53,84 +65,194 @@ public class WorkspaceStateWriter implements IMavenProjectChangedListener {
 
   private static final Logger log = LoggerFactory.getLogger(WorkspaceStateWriter.class);
 
+  private static final Object JOB_FAMILY = WorkspaceStateWriter.class;
+
+  private static final long WRITE_DELAY = 500;
+
+  /**
+   * Packaging types whose artifact extension is the packaging, all others are assumed to produce a jar. Used if the
+   * extension of a project is not known yet as the MavenProject is not loaded.
+   */
+  private static final Set<String> EXTENSION_PACKAGINGS = Set.of("war", "ear", //$NON-NLS-1$ //$NON-NLS-2$
+      "rar"); //$NON-NLS-1$
+
   @Reference
   private IMavenProjectRegistry projectManager;
 
   @Reference
   private IWorkspace workspace;
 
+  /**
+   * State of all maven projects by pom, <code>null</code> until the first change
+   */
+  private Map<IFile, ProjectState> projects;
+
+  private File stateFile;
+
+  /**
+   * @param pom location of the pom file, <code>null</code> if not readable
+   * @param output the output folder, <code>null</code> if not part of the state
+   * @param extension the artifact extension of the output folder
+   * @param testOutput the test output folder, <code>null</code> if not part of the state
+   */
+  private static record ProjectState(ArtifactKey artifact, File pom, IResource output, String extension,
+      IResource testOutput) {
+  }
+
+  private final Job writeJob = new Job(Messages.WorkspaceStateWriter_job) {
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+      write();
+      return Status.OK_STATUS;
+    }
+
+    @Override
+    public boolean belongsTo(Object family) {
+      return family == JOB_FAMILY;
+    }
+  };
+
+  public WorkspaceStateWriter() {
+    writeJob.setSystem(true);
+  }
+
+  /**
+   * Waits until pending changes are written to the workspace state file.
+   */
+  public static void awaitPendingWrite() {
+    Job.getJobManager().wakeUp(JOB_FAMILY);
+    try {
+      Job.getJobManager().join(JOB_FAMILY, null);
+    } catch(InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
 
   @Override
   public void mavenProjectChanged(List<MavenProjectChangedEvent> events, IProgressMonitor monitor) {
-    try {
-      MutableWorkspaceState state = new MutableWorkspaceState();
-
-      IWorkspaceRoot root = workspace.getRoot();
-      for(IMavenProjectFacade projectFacade : projectManager.getProjects()) {
-        IProject project = projectFacade.getProject();
-        if(!project.isAccessible()) {
-          log.debug("Project registry contains closed project {}", project);
-          // this is actually a bug somewhere in registry refresh logic, closed projects should not be there
-          continue;
+    synchronized(this) {
+      if(stateFile == null) {
+        stateFile = ((MavenProjectManager) projectManager).getWorkspaceStateFile();
+      }
+      if(projects == null) {
+        projects = new LinkedHashMap<>();
+        for(IMavenProjectFacade projectFacade : projectManager.getProjects()) {
+          update(projectFacade.getPom(), projectFacade);
         }
-        try {
-          ArtifactKey artifact = projectFacade.getArtifactKey();
-          IFile pomFile = projectFacade.getPom();
-          IPath location = pomFile.getLocation();
-          if(location != null) {
-            File pom = location.toFile();
-            if(pom.canRead()) {
-              state.putPom(pom, artifact.groupId(), artifact.artifactId(), artifact.version());
-            }
-          }
-          IResource outputLocation = root.findMember(projectFacade.getOutputLocation());
-          if(!"pom".equals(projectFacade.getPackaging()) && outputLocation != null && outputLocation.exists()) { //$NON-NLS-1$
-            // three cases to consider
-            // 1. facade has cached MavenProject instance, i.e. it was refreshed during this eclipse session
-            // 2. project has persistent PPROP_EXTENSION
-            // 3. neither cached MavenProject instance nor PPROP_EXTENSION are present
-            String extension;
-            MavenProject mavenProject = projectFacade.getMavenProject();
-            if(mavenProject != null) {
-              extension = getAndPersistArtifactExtension(project, mavenProject);
-            } else {
-              extension = project.getPersistentProperty(PPROP_EXTENSION);
-            }
-            if(extension == null && mavenProject == null) {
-              // force loading of MavenProject
-              extension = getAndPersistArtifactExtension(project, projectFacade.getMavenProject(monitor));
-            }
-            if(extension != null) {
-              String classifier = artifact.classifier();
-              if(classifier == null) {
-                classifier = "";
-              }
-              state.putArtifact(outputLocation.getLocation().toFile(), artifact.groupId(), artifact.artifactId(),
-                  extension, classifier, artifact.version());
-            } else {
-              log.warn("Could not determine project {} main artifact extension.", project);
-            }
-          }
-          // assume test output location gets attached as classified=tests
-          IResource testOutputLocation = root.findMember(projectFacade.getTestOutputLocation());
-          if(!"pom".equals(projectFacade.getPackaging()) && testOutputLocation != null && testOutputLocation.exists()) {
-            state.putArtifact(testOutputLocation.getLocation().toFile(), artifact.groupId(),
-                artifact.artifactId(), "jar", "tests", artifact.version());
-          }
-        } catch(CoreException ex) {
-          log.error("Error writing workspace state file", ex);
+      } else {
+        for(MavenProjectChangedEvent event : events) {
+          IFile pom = (IFile) event.getSource();
+          update(pom, event.getKind() == MavenProjectChangedEvent.KIND_REMOVED ? null : event.getMavenProject());
         }
       }
+    }
+    writeJob.schedule(WRITE_DELAY);
+  }
 
-      state.store(((MavenProjectManager) projectManager).getWorkspaceStateFile());
-    } catch(IOException ex) {
+  private void update(IFile pom, IMavenProjectFacade projectFacade) {
+    if(projectFacade == null) {
+      projects.remove(pom);
+      return;
+    }
+    IProject project = projectFacade.getProject();
+    if(!project.isAccessible()) {
+      log.debug("Project registry contains closed project {}", project);
+      // this is actually a bug somewhere in registry refresh logic, closed projects should not be there
+      projects.remove(pom);
+      return;
+    }
+    try {
+      ArtifactKey artifact = projectFacade.getArtifactKey();
+      IPath location = projectFacade.getPom().getLocation();
+      File pomFile = location != null && location.toFile().canRead() ? location.toFile() : null;
+      IResource output = null;
+      String extension = null;
+      IResource testOutput = null;
+      if(!"pom".equals(projectFacade.getPackaging())) { //$NON-NLS-1$
+        IWorkspaceRoot root = workspace.getRoot();
+        output = getFolder(root, projectFacade.getOutputLocation());
+        if(output != null) {
+          extension = getArtifactExtension(project, projectFacade);
+          if(extension == null) {
+            log.warn("Could not determine project {} main artifact extension.", project);
+            output = null;
+          }
+        }
+        // assume test output location gets attached as classified=tests
+        testOutput = getFolder(root, projectFacade.getTestOutputLocation());
+      }
+      projects.put(pom, new ProjectState(artifact, pomFile, output, extension, testOutput));
+    } catch(CoreException ex) {
       log.error("Error writing workspace state file", ex);
     }
   }
 
-  private String getAndPersistArtifactExtension(IProject project, MavenProject mavenProject) throws CoreException {
-    String extension = mavenProject.getArtifact().getArtifactHandler().getExtension();
-    project.setPersistentProperty(PPROP_EXTENSION, extension);
+  private static IResource getFolder(IWorkspaceRoot root, IPath path) {
+    if(path == null) {
+      return null;
+    }
+    // a handle is used so folders created later by the build are picked up when the state is written
+    return path.segmentCount() > 1 ? root.getFolder(path) : root.findMember(path);
+  }
+
+  private String getArtifactExtension(IProject project, IMavenProjectFacade projectFacade) throws CoreException {
+    // three cases to consider
+    // 1. facade has cached MavenProject instance, i.e. it was refreshed during this eclipse session
+    // 2. project has persistent PPROP_EXTENSION
+    // 3. neither cached MavenProject instance nor PPROP_EXTENSION are present, the MavenProject is not loaded just
+    //    for this, the extension is derived from the packaging instead
+    MavenProject mavenProject = projectFacade.getMavenProject();
+    if(mavenProject != null) {
+      String extension = mavenProject.getArtifact().getArtifactHandler().getExtension();
+      if(!extension.equals(project.getPersistentProperty(PPROP_EXTENSION))) {
+        project.setPersistentProperty(PPROP_EXTENSION, extension);
+      }
+      return extension;
+    }
+    String extension = project.getPersistentProperty(PPROP_EXTENSION);
+    if(extension == null && projectFacade.getPackaging() != null) {
+      String packaging = projectFacade.getPackaging();
+      extension = EXTENSION_PACKAGINGS.contains(packaging) ? packaging : "jar"; //$NON-NLS-1$
+    }
     return extension;
   }
+
+  private void write() {
+    MutableWorkspaceState state = new MutableWorkspaceState();
+    File file;
+    synchronized(this) {
+      file = stateFile;
+      for(ProjectState project : projects.values()) {
+        ArtifactKey artifact = project.artifact();
+        if(project.pom() != null) {
+          state.putPom(project.pom(), artifact.groupId(), artifact.artifactId(), artifact.version());
+        }
+        if(project.output() != null && project.output().exists()) {
+          String classifier = artifact.classifier();
+          if(classifier == null) {
+            classifier = "";
+          }
+          state.putArtifact(project.output().getLocation().toFile(), artifact.groupId(), artifact.artifactId(),
+              project.extension(), classifier, artifact.version());
+        }
+        if(project.testOutput() != null && project.testOutput().exists()) {
+          state.putArtifact(project.testOutput().getLocation().toFile(), artifact.groupId(), artifact.artifactId(),
+              "jar", "tests", artifact.version());
+        }
+      }
+    }
+    // launched builds read the file at any time, so it is replaced atomically
+    File tmp = new File(file.getParentFile(), file.getName() + ".tmp"); //$NON-NLS-1$
+    try {
+      state.store(tmp);
+      try {
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch(AtomicMoveNotSupportedException ex) {
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch(IOException ex) {
+      log.error("Error writing workspace state file", ex);
+      tmp.delete();
+    }
+  }
 }
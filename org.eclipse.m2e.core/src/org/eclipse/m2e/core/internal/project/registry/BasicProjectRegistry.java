@@ -24,6 +24,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.aether.util.version.GenericVersionScheme;
+import org.eclipse.aether.version.InvalidVersionSpecificationException;
+import org.eclipse.aether.version.Version;
 import org.eclipse.core.resources.IFile;
 
 import org.eclipse.m2e.core.embedder.ArtifactKey;
@@ -38,73 +41,104 @@ abstract class BasicProjectRegistry implements Serializable {
 
   private static final long serialVersionUID = 6232274446642339434L;
 
+  private static final GenericVersionScheme versionScheme = new GenericVersionScheme();
+
   /**
    * Maps ArtifactKey to IFile of the POM file that defines this artifact.
    */
-  protected final Map<ArtifactKey, Set<IFile>> workspaceArtifacts = new HashMap<>();
+  protected Map<ArtifactKey, Set<IFile>> workspaceArtifacts = new HashMap<>();
 
   /**
    * Maps IFile to MavenProjectFacade
    */
-  protected final Map<IFile, MavenProjectFacade> workspacePoms = new HashMap<>();
+  protected Map<IFile, MavenProjectFacade> workspacePoms = new HashMap<>();
 
   /**
    * Maps File to MavenProjectFacade
    */
-  protected final Map<File, MavenProjectFacade> workspacePomFiles = new HashMap<>();
+  protected Map<File, MavenProjectFacade> workspacePomFiles = new HashMap<>();
 
   /**
    * Maps required capabilities to projects that require them.
    */
-  protected final Map<VersionlessKey, Map<RequiredCapability, Set<IFile>>> requiredCapabilities = new HashMap<>();
+  protected Map<VersionlessKey, Map<RequiredCapability, Set<IFile>>> requiredCapabilities = new HashMap<>();
 
   /**
    * Maps project pom.xml file to the capabilities provided by the project
    */
-  protected final Map<IFile, Set<Capability>> projectCapabilities = new HashMap<>();
+  protected Map<IFile, Set<Capability>> projectCapabilities = new HashMap<>();
 
   /**
    * Maps project pom.xml file to the capabilities required by the project
    */
-  protected final Map<IFile, Set<RequiredCapability>> projectRequirements = new HashMap<>();
+  protected Map<IFile, Set<RequiredCapability>> projectRequirements = new HashMap<>();
+
+  /**
+   * Index of the non-empty entries of {@link #workspaceArtifacts} by groupId and artifactId, with the parsed version of
+   * each artifact. Built on first use as the artifacts are also filled directly when the registry is read from disk,
+   * afterwards kept up to date by {@link #addWorkspaceArtifact(ArtifactKey, IFile)} and
+   * {@link #removeWorkspaceArtifact(ArtifactKey, IFile)}.
+   */
+  private transient Map<GroupArtifact, Map<ArtifactKey, Version>> workspaceArtifactIndex;
+
+  private static record GroupArtifact(String groupId, String artifactId) {
+  }
 
   protected BasicProjectRegistry() {
   }
 
+  /**
+   * Creates a registry that records its changes on top of the current state of the given registry, the state of the
+   * given registry must only be replaced but not modified afterwards.
+   */
   protected BasicProjectRegistry(BasicProjectRegistry other) {
-    replaceWith(other);
+    synchronized(other) {
+      workspaceArtifacts = new LayeredMap<>(other.workspaceArtifacts, LinkedHashSet::new);
+      workspacePoms = new LayeredMap<>(other.workspacePoms, null);
+      workspacePomFiles = new LayeredMap<>(other.workspacePomFiles, null);
+      requiredCapabilities = new LayeredMap<>(other.requiredCapabilities,
+          BasicProjectRegistry::copyRequiredCapabilities);
+      projectCapabilities = new LayeredMap<>(other.projectCapabilities, null);
+      projectRequirements = new LayeredMap<>(other.projectRequirements, null);
+      workspaceArtifactIndex = new LayeredMap<>(other.getWorkspaceArtifactIndex(), HashMap::new);
+    }
   }
 
+  /**
+   * Replaces the state of this registry with the current state of the given registry. Changes recorded by a registry
+   * created with {@link #BasicProjectRegistry(BasicProjectRegistry)} are adopted as immutable layers, so the cost is
+   * proportional to the number of changes rather than to the size of the registry.
+   */
   protected final void replaceWith(BasicProjectRegistry other) {
-    clear();
-
-    copy(other.workspaceArtifacts, workspaceArtifacts);
-    copy(other.workspacePoms, workspacePoms);
-    copy(other.projectCapabilities, projectCapabilities);
-    copy(other.projectRequirements, projectRequirements);
-    copy(other.requiredCapabilities, requiredCapabilities);
+    workspaceArtifacts = commit(other.workspaceArtifacts);
+    workspacePoms = commit(other.workspacePoms);
+    workspacePomFiles = commit(other.workspacePomFiles);
+    requiredCapabilities = commit(other.requiredCapabilities);
+    projectCapabilities = commit(other.projectCapabilities);
+    projectRequirements = commit(other.projectRequirements);
+    workspaceArtifactIndex = other.workspaceArtifactIndex != null ? commit(other.workspaceArtifactIndex) : null;
+  }
 
-    for(MavenProjectFacade facade : workspacePoms.values()) {
-      workspacePomFiles.put(facade.getPomFile(), facade);
+  private static <K, V> Map<K, V> commit(Map<K, V> map) {
+    if(map instanceof LayeredMap<K, V> layered) {
+      return layered.commit();
     }
+    return new HashMap<>(map);
   }
 
   /**
-   * THIS IS NOT A GENERIC DEEP COPY IMPLEMENTATION!
+   * Returns the value of the given key to modify it in place, this must be used instead of {@link Map#get(Object)} for
+   * maps created with {@link #BasicProjectRegistry(BasicProjectRegistry)}.
    */
-  @SuppressWarnings({"unchecked", "rawtypes"})
-  private static void copy(Map from, Map to) {
-    from.forEach((key, value) -> {
-      if(value instanceof Map mapValue) {
-        Map map = new LinkedHashMap();
-        copy(mapValue, map);
-        to.put(key, map);
-        value = map;
-      } else if(value instanceof Set setValue) {
-        value = new LinkedHashSet(setValue);
-      }
-      to.put(key, value);
-    });
+  protected static <K, V> V getForUpdate(Map<K, V> map, K key) {
+    return map instanceof LayeredMap<K, V> layered ? layered.getForUpdate(key) : map.get(key);
+  }
+
+  private static Map<RequiredCapability, Set<IFile>> copyRequiredCapabilities(
+      Map<RequiredCapability, Set<IFile>> requirements) {
+    Map<RequiredCapability, Set<IFile>> copy = new LinkedHashMap<>();
+    requirements.forEach((requirement, poms) -> copy.put(requirement, new LinkedHashSet<>(poms)));
+    return copy;
   }
 
   public MavenProjectFacade getProjectFacade(IFile pom) {
@@ -129,21 +163,75 @@ abstract class BasicProjectRegistry implements Serializable {
 
   public Map<ArtifactKey, Collection<IFile>> getWorkspaceArtifacts(String groupId, String artifactId) {
     Map<ArtifactKey, Collection<IFile>> artifacts = new HashMap<>();
-    workspaceArtifacts.forEach((wsKey, files) -> {
-      if(!files.isEmpty() && groupId.equals(wsKey.groupId()) && artifactId.equals(wsKey.artifactId())) {
-        artifacts.computeIfAbsent(wsKey, k -> new HashSet<>()).addAll(files);
-      }
-    });
+    getWorkspaceArtifactIndex().getOrDefault(new GroupArtifact(groupId, artifactId), Map.of()).keySet()
+        .forEach(key -> artifacts.put(key, new HashSet<>(workspaceArtifacts.get(key))));
     return artifacts;
   }
 
+  /**
+   * @return the parsed versions of all workspace artifacts with the given groupId and artifactId, the version is
+   *         <code>null</code> if it can't be parsed
+   */
+  public Map<ArtifactKey, Version> getWorkspaceArtifactVersions(String groupId, String artifactId) {
+    return new HashMap<>(getWorkspaceArtifactIndex().getOrDefault(new GroupArtifact(groupId, artifactId), Map.of()));
+  }
+
+  protected final void addWorkspaceArtifact(ArtifactKey key, IFile pom) {
+    workspaceArtifacts.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(pom);
+    if(workspaceArtifactIndex != null) {
+      addToIndex(workspaceArtifactIndex, key);
+    }
+  }
+
+  protected final void removeWorkspaceArtifact(ArtifactKey key, IFile pom) {
+    Set<IFile> paths = getForUpdate(workspaceArtifacts, key);
+    if(paths != null && paths.remove(pom) && paths.isEmpty() && workspaceArtifactIndex != null) {
+      GroupArtifact ga = new GroupArtifact(key.groupId(), key.artifactId());
+      Map<ArtifactKey, Version> versions = getForUpdate(workspaceArtifactIndex, ga);
+      if(versions != null) {
+        versions.remove(key);
+        if(versions.isEmpty()) {
+          workspaceArtifactIndex.remove(ga);
+        }
+      }
+    }
+  }
+
+  private Map<GroupArtifact, Map<ArtifactKey, Version>> getWorkspaceArtifactIndex() {
+    if(workspaceArtifactIndex == null) {
+      Map<GroupArtifact, Map<ArtifactKey, Version>> index = new HashMap<>();
+      workspaceArtifacts.forEach((key, files) -> {
+        if(!files.isEmpty()) {
+          addToIndex(index, key);
+        }
+      });
+      workspaceArtifactIndex = index;
+    }
+    return workspaceArtifactIndex;
+  }
+
+  private static void addToIndex(Map<GroupArtifact, Map<ArtifactKey, Version>> index, ArtifactKey key) {
+    index.computeIfAbsent(new GroupArtifact(key.groupId(), key.artifactId()), ga -> new HashMap<>())
+        .computeIfAbsent(key, BasicProjectRegistry::parseVersion);
+  }
+
+  private static Version parseVersion(ArtifactKey key) {
+    try {
+      return key.version() != null ? versionScheme.parseVersion(key.version()) : null;
+    } catch(InvalidVersionSpecificationException e) {
+      // this can't happen with GenericVersionScheme
+      return null;
+    }
+  }
+
   protected void clear() {
-    workspaceArtifacts.clear();
-    workspacePoms.clear();
-    workspacePomFiles.clear();
-    requiredCapabilities.clear();
-    projectCapabilities.clear();
-    projectRequirements.clear();
+    workspaceArtifacts = new HashMap<>();
+    workspacePoms = new HashMap<>();
+    workspacePomFiles = new HashMap<>();
+    requiredCapabilities = new HashMap<>();
+    projectCapabilities = new HashMap<>();
+    projectRequirements = new HashMap<>();
+    workspaceArtifactIndex = null;
   }
 
   public boolean isValid() {
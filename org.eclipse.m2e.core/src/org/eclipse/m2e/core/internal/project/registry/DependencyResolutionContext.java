@@ -14,12 +14,15 @@
 
 package org.eclipse.m2e.core.internal.project.registry;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.runtime.IStatus;
@@ -56,6 +59,21 @@ public class DependencyResolutionContext {
     return pom;
   }
 
+  /**
+   * Removes and returns up to <code>max</code> pom files accepted by the given filter, preserving the queue order.
+   */
+  synchronized List<IFile> pop(Predicate<IFile> filter, int max) {
+    List<IFile> result = new ArrayList<>();
+    for(Iterator<IFile> i = pomFiles.iterator(); i.hasNext() && result.size() < max;) {
+      IFile pom = i.next();
+      if(filter.test(pom)) {
+        i.remove();
+        result.add(pom);
+      }
+    }
+    return result;
+  }
+
   synchronized Set<IFile> getCurrent() {
     return new LinkedHashSet<>(pomFiles);
   }
@@ -63,20 +81,20 @@ public class DependencyResolutionContext {
   /**
    * @param file
    */
-  public void forcePomFile(IFile file) {
+  public synchronized void forcePomFile(IFile file) {
     pomFiles.add(file);
     statusMap.remove(file);
   }
 
-  public IStatus getStatus(IFile file) {
+  public synchronized IStatus getStatus(IFile file) {
     return statusMap.getOrDefault(file, Status.OK_STATUS);
   }
 
-  void setStatus(IFile file, IStatus status) {
+  synchronized void setStatus(IFile file, IStatus status) {
     statusMap.put(file, status);
   }
 
-  void clearErrors(Collection<? extends IFile> pomFiles) {
+  synchronized void clearErrors(Collection<? extends IFile> pomFiles) {
     for(IFile file : pomFiles) {
       statusMap.remove(file);
     }
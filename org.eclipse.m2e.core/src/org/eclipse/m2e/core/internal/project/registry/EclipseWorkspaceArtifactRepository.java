@@ -18,7 +18,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.repository.WorkspaceReader;
@@ -106,7 +105,7 @@ public final class EclipseWorkspaceArtifactRepository extends LocalArtifactRepos
   }
 
   private IFile getWorkspaceArtifact(String groupId, String artifactId, String version) {
-    Map<ArtifactKey, Collection<IFile>> workspaceArtifacts = context.state.getWorkspaceArtifacts(groupId, artifactId);
+    Map<ArtifactKey, Version> workspaceArtifacts = context.state.getWorkspaceArtifactVersions(groupId, artifactId);
     if(workspaceArtifacts.isEmpty()) {
       return null;
     }
@@ -116,23 +115,22 @@ public final class EclipseWorkspaceArtifactRepository extends LocalArtifactRepos
     } catch(InvalidVersionSpecificationException e) {
       return null; // broken version range spec does not match anything
     }
-    TreeMap<Version, ArtifactKey> matchingArtifacts = new TreeMap<>();
     // in vast majority of cases there will be single workspace artifact with matching groupId and artifactId
-    for(ArtifactKey workspaceArtifact : workspaceArtifacts.keySet()) {
-      try {
-        Version workspaceVersion = versionScheme.parseVersion(workspaceArtifact.version());
-        if(constraint.containsVersion(workspaceVersion)) {
-          matchingArtifacts.put(workspaceVersion, workspaceArtifact);
-        }
-      } catch(InvalidVersionSpecificationException e) {
-        // this can't happen with GenericVersionScheme
+    ArtifactKey matchingArtifact = null;
+    Version matchingVersion = null;
+    for(Map.Entry<ArtifactKey, Version> workspaceArtifact : workspaceArtifacts.entrySet()) {
+      Version workspaceVersion = workspaceArtifact.getValue();
+      if(workspaceVersion != null && constraint.containsVersion(workspaceVersion)
+          && (matchingVersion == null || workspaceVersion.compareTo(matchingVersion) < 0)) {
+        matchingArtifact = workspaceArtifact.getKey();
+        matchingVersion = workspaceVersion;
       }
     }
-    if(matchingArtifacts.isEmpty()) {
+    if(matchingArtifact == null) {
       return null;
     }
-    ArtifactKey matchingArtifact = matchingArtifacts.values().iterator().next();
-    return workspaceArtifacts.get(matchingArtifact).iterator().next();
+    Collection<IFile> poms = context.state.getWorkspaceArtifacts(groupId, artifactId).get(matchingArtifact);
+    return poms != null && !poms.isEmpty() ? poms.iterator().next() : null;
   }
 
   @Override
@@ -205,11 +203,8 @@ public final class EclipseWorkspaceArtifactRepository extends LocalArtifactRepos
       return versions;
     }
 
-    for(MavenProjectFacade facade : context.state.getProjects()) {
-      ArtifactKey artifactKey = facade.getArtifactKey();
-      if(groupId.equals(artifactKey.groupId()) && artifactId.equals(artifactKey.artifactId())) {
-        versions.add(artifactKey.version());
-      }
+    for(ArtifactKey artifactKey : context.state.getWorkspaceArtifactVersions(groupId, artifactId).keySet()) {
+      versions.add(artifactKey.version());
     }
 
     return versions;
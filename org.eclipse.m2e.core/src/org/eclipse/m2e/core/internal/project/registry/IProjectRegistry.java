@@ -17,6 +17,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import org.eclipse.aether.version.Version;
 import org.eclipse.core.resources.IFile;
 
 import org.eclipse.m2e.core.embedder.ArtifactKey;
@@ -37,4 +38,6 @@ public interface IProjectRegistry {
 
   Map<ArtifactKey, Collection<IFile>> getWorkspaceArtifacts(String groupId, String artifactId);
 
+  Map<ArtifactKey, Version> getWorkspaceArtifactVersions(String groupId, String artifactId);
+
 }
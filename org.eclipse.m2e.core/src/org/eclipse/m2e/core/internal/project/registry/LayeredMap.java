@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.project.registry;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+
+/**
+ * Map that records changes on top of a base map that is never modified through it, this allows a
+ * {@link MutableProjectRegistry} to work on its own view of the {@link ProjectRegistry} without copying it. Mutable
+ * values of the base (e.g. nested sets) are copied with the given copier, so they are never modified through this map.
+ * {@link #get(Object)} returns a copy that is not recorded, only {@link #getForUpdate(Object)} and
+ * {@link #computeIfAbsent(Object, Function)} record the copy as a change so it can be modified in place.
+ * <p>
+ * {@link #commit()} turns the changes into a new immutable layer over the same base, layers are merged into a single
+ * map once there are more than {@value #MAX_DEPTH} of them. The map does not support <code>null</code> values.
+ */
+final class LayeredMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int MAX_DEPTH = 8;
+
+  private Map<K, V> base;
+
+  private final UnaryOperator<V> copier;
+
+  private Map<K, V> changes;
+
+  private Set<K> removed;
+
+  private int depth;
+
+  private boolean frozen;
+
+  private int size;
+
+  /**
+   * @param base the map to record changes on, must not be modified afterwards
+   * @param copier copies mutable values of the base, <code>null</code> if values are immutable
+   */
+  LayeredMap(Map<K, V> base, UnaryOperator<V> copier) {
+    this(base, copier, new HashMap<>(), new HashSet<>(), base.size());
+  }
+
+  private LayeredMap(Map<K, V> base, UnaryOperator<V> copier, Map<K, V> changes, Set<K> removed, int size) {
+    this.base = base;
+    this.copier = copier;
+    this.changes = changes;
+    this.removed = removed;
+    this.size = size;
+    this.depth = base instanceof LayeredMap<K, V> layered ? layered.depth + 1 : 1;
+  }
+
+  /**
+   * Returns the value of the given key, a value of the base is copied so it can't be modified through this map but the
+   * copy is not recorded, use {@link #getForUpdate(Object)} to modify the value in place.
+   */
+  @Override
+  public V get(Object key) {
+    V value = changes.get(key);
+    if(value != null || removed.contains(key)) {
+      return value;
+    }
+    value = base.get(key);
+    if(value != null && copier != null && !frozen) {
+      value = copier.apply(value);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the value of the given key to modify it in place, a value of the base is copied and recorded as a change.
+   */
+  V getForUpdate(K key) {
+    assertNotFrozen();
+    V value = changes.get(key);
+    if(value != null || removed.contains(key)) {
+      return value;
+    }
+    value = base.get(key);
+    if(value != null && copier != null) {
+      value = copier.apply(value);
+      changes.put(key, value);
+    }
+    return value;
+  }
+
+  /**
+   * Like {@link #getForUpdate(Object)}, the returned value can be modified in place.
+   */
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    V value = getForUpdate(key);
+    if(value == null) {
+      value = mappingFunction.apply(key);
+      if(value != null) {
+        put(key, value);
+      }
+    }
+    return value;
+  }
+
+  private V peek(Object key) {
+    V value = changes.get(key);
+    if(value != null || removed.contains(key)) {
+      return value;
+    }
+    return base.get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return peek(key) != null;
+  }
+
+  @Override
+  public V put(K key, V value) {
+    assertNotFrozen();
+    Objects.requireNonNull(value);
+    V oldValue = peek(key);
+    if(oldValue == null) {
+      size++ ;
+    }
+    changes.put(key, value);
+    removed.remove(key);
+    return oldValue;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key) {
+    assertNotFrozen();
+    V oldValue = peek(key);
+    if(oldValue != null) {
+      size-- ;
+      changes.remove(key);
+      if(base.containsKey(key)) {
+        removed.add((K) key);
+      }
+    }
+    return oldValue;
+  }
+
+  @Override
+  public void clear() {
+    assertNotFrozen();
+    changes.clear();
+    removed.addAll(base.keySet());
+    size = 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /**
+   * @return whether this map records its changes directly on top of the given map
+   */
+  boolean isLayerOf(Map<K, V> map) {
+    return base == map;
+  }
+
+  /**
+   * @return all keys that were put or removed since this map was created on top of its base
+   */
+  Set<K> getChangedKeys() {
+    Set<K> keys = new LinkedHashSet<>(changes.keySet());
+    keys.addAll(removed);
+    return keys;
+  }
+
+  /**
+   * Turns the current content of this map into an immutable layer. This map continues on top of the returned layer, so
+   * values it has copied so far are copied again before they are modified.
+   *
+   * @return an immutable map with the current content of this map
+   */
+  LayeredMap<K, V> commit() {
+    if(frozen) {
+      return this;
+    }
+    LayeredMap<K, V> layer;
+    if(depth >= MAX_DEPTH) {
+      layer = new LayeredMap<>(new HashMap<>(this), copier);
+    } else {
+      layer = new LayeredMap<>(base, copier, changes, removed, size);
+    }
+    layer.frozen = true;
+    base = layer;
+    changes = new HashMap<>();
+    removed = new HashSet<>();
+    depth = layer.depth + 1;
+    return layer;
+  }
+
+  private void assertNotFrozen() {
+    if(frozen) {
+      throw new UnsupportedOperationException("Can't modify committed LayeredMap"); //$NON-NLS-1$
+    }
+  }
+
+  private Object writeReplace() {
+    return new HashMap<>(this);
+  }
+
+  private final class EntryIterator implements Iterator<Entry<K, V>> {
+
+    private final Iterator<Entry<K, V>> changesIterator = changes.entrySet().iterator();
+
+    private final Iterator<Entry<K, V>> baseIterator = base.entrySet().iterator();
+
+    private Entry<K, V> next;
+
+    @Override
+    public boolean hasNext() {
+      if(next != null) {
+        return true;
+      }
+      if(changesIterator.hasNext()) {
+        Entry<K, V> entry = changesIterator.next();
+        next = new SimpleImmutableEntry<>(entry);
+        return true;
+      }
+      while(baseIterator.hasNext()) {
+        Entry<K, V> entry = baseIterator.next();
+        if(!changes.containsKey(entry.getKey()) && !removed.contains(entry.getKey())) {
+          next = new SimpleImmutableEntry<>(entry);
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public Entry<K, V> next() {
+      if(!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Entry<K, V> entry = next;
+      next = null;
+      return entry;
+    }
+  }
+}
@@ -84,6 +84,10 @@ public class MavenCapability extends Capability {
     return new MavenCapability(NS_MAVEN_PARENT, getId(key), key.version());
   }
 
+  static MavenCapability create(String namespace, String id, String version) {
+    return new MavenCapability(namespace, id, version);
+  }
+
   static String getId(ArtifactKey key) {
     String classifier = key.classifier() != null ? ":" + key.classifier() : "";
     return key.groupId() + ":" + key.artifactId() + classifier;
@@ -13,25 +13,36 @@
 package org.eclipse.m2e.core.internal.project.registry;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalCause;
 import com.google.common.cache.RemovalNotification;
 
 import org.eclipse.core.runtime.CoreException;
 
+import org.apache.maven.model.Model;
 import org.apache.maven.plugin.ExtensionRealmCache;
 import org.apache.maven.plugin.PluginArtifactsCache;
 import org.apache.maven.plugin.PluginRealmCache;
@@ -49,14 +60,32 @@ import org.eclipse.m2e.core.project.IProjectConfiguration;
 
 
 /**
- * MavenProjectCache
+ * MavenProjectCache, limited by the estimated amount of memory retained by the cached projects rather than by the
+ * number of entries. Projects that are {@link #retain(File) retained}, for example because they are open in an editor
+ * or currently built, survive eviction until they are released.
  *
  * @author christoph
  */
 @Component(service = MavenProjectCache.class)
 public class MavenProjectCache {
+  private static final Logger log = LoggerFactory.getLogger(MavenProjectCache.class);
 
-  private static final int MAX_CACHE_SIZE = Integer.getInteger("m2e.project.cache.size", 50);
+  /**
+   * Legacy limit by number of entries, only used if explicitly set
+   */
+  private static final Integer MAX_CACHE_SIZE = Integer.getInteger("m2e.project.cache.size");
+
+  /**
+   * Maximum estimated memory in MB, defaults to a tenth of the maximum heap
+   */
+  private static final long MAX_CACHE_MEMORY = Long.getLong("m2e.project.cache.memory",
+      Runtime.getRuntime().maxMemory() / (10 * 1024 * 1024));
+
+  /**
+   * Maximum number of evicted lines kept because they contain retained projects, further lines are flushed and their
+   * retained projects are loaded again on next access
+   */
+  private static final int MAX_RETAINED_LINES = Integer.getInteger("m2e.project.cache.retainedLines", 1000);
 
   private static final String CTX_MAVENPROJECTS = MavenProjectCache.class.getName() + "/mavenProjects";
 
@@ -65,18 +94,120 @@ public class MavenProjectCache {
 
   private LoadingCache<CacheKey, CacheLine> loadingCache;
 
+  /**
+   * Number of retentions per pom file
+   */
+  private final ConcurrentMap<File, AtomicInteger> retained = new ConcurrentHashMap<>();
+
+  /**
+   * Lines that were evicted while holding a retained project, reduced to the retained projects. They are put back into
+   * the cache on next access.
+   */
+  private final ConcurrentMap<CacheKey, CacheLine> evictedRetained = new ConcurrentHashMap<>();
+
+  private final LongAdder hitCount = new LongAdder();
+
+  private final LongAdder missCount = new LongAdder();
+
+  private final LongAdder totalLoadTime = new LongAdder();
+
+  private final LongAdder evictionCount = new LongAdder();
 
   public MavenProjectCache() {
-    this.loadingCache = CacheBuilder.newBuilder() //
-        .maximumSize(MAX_CACHE_SIZE) //
-        .removalListener((RemovalNotification<CacheKey, CacheLine> removed) -> {
-          Map<IMavenProjectFacade, MavenProject> contextProjects = getContextProjectMap();
-          removed.getValue().projects.values().forEach(mavenProject -> {
-            if(!contextProjects.containsValue(mavenProject)) {
-              flushMavenCaches(mavenProject.getFile(), removed.getKey().artifactKey(), false);
-            }
-          });
-        }).build(CacheLoader.from(CacheLine::new));
+    this(Math.max(1, MAX_CACHE_MEMORY) * 1024, 4);
+  }
+
+  /**
+   * @param maxWeight the maximum estimated memory retained by the cached projects in KB
+   * @param concurrencyLevel the concurrency level of the cache, the maximum weight is distributed among its segments
+   */
+  MavenProjectCache(long maxWeight, int concurrencyLevel) {
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().concurrencyLevel(concurrencyLevel);
+    if(MAX_CACHE_SIZE != null) {
+      builder.maximumSize(MAX_CACHE_SIZE);
+    } else {
+      builder.maximumWeight(maxWeight).weigher((CacheKey key, CacheLine line) -> line.weight());
+    }
+    this.loadingCache = builder.removalListener((RemovalNotification<CacheKey, CacheLine> removed) -> {
+      if(removed.getCause() == RemovalCause.REPLACED) {
+        // the line was only re-weighed
+        return;
+      }
+      CacheLine line = removed.getValue();
+      if(removed.wasEvicted()) {
+        evictionCount.add(line.projects.size());
+        if(line.projects.keySet().stream().anyMatch(retained::containsKey)
+            && evictedRetained.size() < MAX_RETAINED_LINES) {
+          flushMavenCaches(removed.getKey(), line.removeUnretained());
+          evictedRetained.put(removed.getKey(), line);
+          return;
+        }
+      }
+      flushMavenCaches(removed.getKey(), line.projects.values());
+    }).build(CacheLoader.from(key -> {
+      CacheLine line = evictedRetained.remove(key);
+      return line != null ? line : new CacheLine(key);
+    }));
+  }
+
+  private void flushMavenCaches(CacheKey key, Collection<MavenProject> mavenProjects) {
+    Map<IMavenProjectFacade, MavenProject> contextProjects = getContextProjectMap();
+    mavenProjects.forEach(mavenProject -> {
+      if(!contextProjects.containsValue(mavenProject)) {
+        flushMavenCaches(mavenProject.getFile(), key.artifactKey(), false);
+      }
+    });
+  }
+
+  /**
+   * Prevents eviction of the project with the given pom until the returned retention is closed. Retentions are
+   * counted, so a project can be retained by several clients.
+   *
+   * @param pomFile the pom of the project to retain
+   * @return the retention, must be closed when the project is no longer in use
+   */
+  public Retention retain(File pomFile) {
+    retained.computeIfAbsent(pomFile, f -> new AtomicInteger()).incrementAndGet();
+    AtomicBoolean closed = new AtomicBoolean();
+    return () -> {
+      if(closed.compareAndSet(false, true)) {
+        release(pomFile);
+      }
+    };
+  }
+
+  /**
+   * @return <code>true</code> if the project with the given pom is currently retained
+   */
+  public boolean isRetained(File pomFile) {
+    return retained.containsKey(pomFile);
+  }
+
+  private void release(File pomFile) {
+    AtomicInteger count = retained.computeIfPresent(pomFile, (f, c) -> c.decrementAndGet() > 0 ? c : null);
+    if(count == null) {
+      evictedRetained.entrySet().removeIf(entry -> {
+        CacheLine line = entry.getValue();
+        if(line.projects.keySet().stream().noneMatch(retained::containsKey)) {
+          flushMavenCaches(entry.getKey(), line.projects.values());
+          return true;
+        }
+        return false;
+      });
+    }
+  }
+
+  @Deactivate
+  void logStatistics() {
+    log.debug("Maven project cache statistics: {}", getStatistics()); //$NON-NLS-1$
+  }
+
+  /**
+   * @return the current statistics of this cache
+   */
+  public Statistics getStatistics() {
+    return new Statistics(hitCount.sum(), missCount.sum(), totalLoadTime.sum(), evictionCount.sum(),
+        loadingCache.asMap().values().stream().mapToLong(CacheLine::weight).sum(), evictedRetained.size());
   }
 
   /**
@@ -85,7 +216,11 @@ public class MavenProjectCache {
    * @param facade the facade to invalidate
    */
   public void invalidateProjectFacade(IMavenProjectFacade facade) {
-    CacheLine cacheLine = loadingCache.getIfPresent(new CacheKey(facade.getArtifactKey(), facade.getConfiguration()));
+    CacheKey key = new CacheKey(facade.getArtifactKey(), facade.getConfiguration());
+    CacheLine cacheLine = loadingCache.getIfPresent(key);
+    if(cacheLine == null) {
+      cacheLine = evictedRetained.get(key);
+    }
     if(cacheLine != null) {
       cacheLine.remove(facade.getPomFile());
     }
@@ -96,7 +231,7 @@ public class MavenProjectCache {
    * 
    * @param facade the facade for which a project should be returned
    * @param projectLoader if given will be used to load a value into this cache, if <code>null</code> no loading is
-   *          attempted if no value is in the cache
+   *          attempted if no value is in the cache and the request is not counted as miss
    * @return the project or null
    */
   public MavenProject getMavenProject(IMavenProjectFacade facade, Function<IMavenProjectFacade, MavenProject> projectLoader) {
@@ -168,10 +303,39 @@ public class MavenProjectCache {
 
   private final class CacheLine {
 
+    private final CacheKey key;
+
     private ConcurrentMap<File, MavenProject> projects = new ConcurrentHashMap<>(1);
 
+    private final ConcurrentMap<File, Integer> weights = new ConcurrentHashMap<>(1);
+
+    CacheLine(CacheKey key) {
+      this.key = key;
+    }
+
     void remove(File pomFile) {
       projects.remove(pomFile);
+      if(weights.remove(pomFile) != null) {
+        reweigh();
+      }
+    }
+
+    /**
+     * Removes the projects that are not retained from this line
+     *
+     * @return the removed projects
+     */
+    Collection<MavenProject> removeUnretained() {
+      List<MavenProject> removed = new ArrayList<>();
+      projects.entrySet().removeIf(entry -> {
+        if(retained.containsKey(entry.getKey())) {
+          return false;
+        }
+        removed.add(entry.getValue());
+        weights.remove(entry.getKey());
+        return true;
+      });
+      return removed;
     }
 
     void updateProject(IMavenProjectFacade facade, MavenProject mavenProject) {
@@ -180,23 +344,90 @@ public class MavenProjectCache {
         distributeProjectToCache(mavenProject, facade.getConfiguration());
         return mavenProject;
       });
-
+      added(pomFile, mavenProject);
     }
 
     MavenProject getProject(IMavenProjectFacade facade, Function<IMavenProjectFacade, MavenProject> loader) {
       File pomFile = facade.getPomFile();
+      MavenProject cached = projects.get(pomFile);
+      if(cached != null) {
+        hitCount.increment();
+        return cached;
+      }
       if(loader == null) {
-        return projects.get(pomFile);
+        // only a probe, the caller loads the project elsewhere if required
+        return null;
       }
-      return projects.computeIfAbsent(pomFile, f -> {
+      boolean[] loaded = new boolean[1];
+      MavenProject result = projects.computeIfAbsent(pomFile, f -> {
+        long start = System.nanoTime();
         MavenProject mavenProject = loader.apply(facade);
+        totalLoadTime.add(System.nanoTime() - start);
+        loaded[0] = true;
         distributeProjectToCache(mavenProject, facade.getConfiguration());
         return mavenProject;
       });
+      if(loaded[0]) {
+        missCount.increment();
+        added(pomFile, result);
+      } else {
+        hitCount.increment();
+      }
+      return result;
+    }
+
+    void added(File pomFile, MavenProject mavenProject) {
+      if(mavenProject != null) {
+        weights.put(pomFile, estimateWeight(mavenProject));
+        reweigh();
+      }
+    }
+
+    /**
+     * Replacing the line with itself makes the cache pick up the new weight and evict other lines if required
+     */
+    void reweigh() {
+      loadingCache.asMap().replace(key, this, this);
+    }
+
+    /**
+     * @return the estimated retained size of all projects in this line in KB
+     */
+    int weight() {
+      int weight = 0;
+      for(Integer projectWeight : weights.values()) {
+        weight += projectWeight;
+      }
+      return weight;
     }
 
   }
 
+  /**
+   * Roughly estimates the memory retained by the given project in KB, based on the number of resolved artifacts,
+   * dependencies and build plugins. Parents that are not cached as own line (because they are not backed by a file)
+   * are added to the weight of the child.
+   */
+  static int estimateWeight(MavenProject mavenProject) {
+    int weight = 0;
+    for(MavenProject project = mavenProject; project != null; project = project.getParent()) {
+      if(project != mavenProject && project.getFile() != null) {
+        break;
+      }
+      Model model = project.getModel();
+      weight += 16; // the project, its model and the interpolated properties
+      weight += model.getDependencies().size();
+      if(model.getDependencyManagement() != null) {
+        weight += model.getDependencyManagement().getDependencies().size();
+      }
+      if(model.getBuild() != null) {
+        weight += 4 * model.getBuild().getPlugins().size();
+      }
+      weight += project.getArtifacts().size();
+    }
+    return weight;
+  }
+
   private void distributeProjectToCache(MavenProject mavenProject, IProjectConfiguration configuration) {
     if(mavenProject == null) {
       return;
@@ -207,10 +438,11 @@ public class MavenProjectCache {
       //check if this is a workspace artifact
       if(file != null) {
         ArtifactKey projectKey = new ArtifactKey(parent.getArtifact());
-        MavenProject cacheItem = loadingCache.getUnchecked(new CacheKey(projectKey, configuration)).projects
-            .computeIfAbsent(file, x -> parent);
+        CacheLine cacheLine = loadingCache.getUnchecked(new CacheKey(projectKey, configuration));
+        MavenProject cacheItem = cacheLine.projects.computeIfAbsent(file, x -> parent);
         if(cacheItem == parent) {
           //the project was cached, go on with the parent of the parent...
+          cacheLine.added(file, parent);
           distributeProjectToCache(parent, configuration);
         } else {
           //the project was already in the cache, replace the reference and we are done
@@ -223,4 +455,24 @@ public class MavenProjectCache {
   private static final record CacheKey(ArtifactKey artifactKey, IProjectConfiguration configuration) {
   }
 
+  /**
+   * Handle returned by {@link MavenProjectCache#retain(File)}
+   */
+  public interface Retention extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  /**
+   * @param hitCount number of requests answered from the cache
+   * @param missCount number of requests not answered from the cache
+   * @param totalLoadTime time spent loading projects in nanoseconds
+   * @param evictionCount number of projects evicted from the cache
+   * @param weight current estimated memory retained by the cache in KB
+   * @param retainedLines number of evicted cache lines kept because they contain retained projects
+   */
+  public static record Statistics(long hitCount, long missCount, long totalLoadTime, long evictionCount, long weight,
+      int retainedLines) {
+  }
+
 }
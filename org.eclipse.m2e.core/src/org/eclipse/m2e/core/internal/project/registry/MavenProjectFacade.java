@@ -14,6 +14,7 @@
 package org.eclipse.m2e.core.internal.project.registry;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -211,6 +212,66 @@ public class MavenProjectFacade implements IMavenProjectFacade, Serializable {
     this.timestamp = Arrays.copyOf(other.timestamp, other.timestamp.length);
   }
 
+  /**
+   * Restores a facade persisted with {@link #write(ProjectRegistryFormat.Output)}.
+   */
+  MavenProjectFacade(ProjectRegistryManager manager, ProjectRegistryFormat.Input in) throws IOException {
+    this.manager = manager;
+    this.pom = in.readFile();
+    this.pomFile = in.readJavaFile();
+    this.resolverConfiguration = new MavenProjectConfiguration(in);
+    this.timestamp = new long[in.readVarInt()];
+    for(int i = 0; i < timestamp.length; i++ ) {
+      timestamp[i] = in.readLong();
+    }
+    this.artifactKey = in.readArtifactKey();
+    this.packaging = in.readString();
+    this.modules = List.copyOf(in.readStrings());
+    this.resourceLocations = List.copyOf(in.readPaths());
+    this.testResourceLocations = List.copyOf(in.readPaths());
+    this.compileSourceLocations = List.copyOf(in.readPaths());
+    this.testCompileSourceLocations = List.copyOf(in.readPaths());
+    this.outputLocation = in.readPath();
+    this.buildOutputLocation = in.readPath();
+    this.testOutputLocation = in.readPath();
+    this.finalName = in.readString();
+    this.artifactRepositories = in.readRepositoryRefs();
+    this.pluginArtifactRepositories = in.readRepositoryRefs();
+    Set<ArtifactRef> artifactRefs = in.readArtifactRefs();
+    this.artifacts = artifactRefs != null ? Collections.unmodifiableSet(artifactRefs) : null;
+    this.lifecycleMappingId = in.readString();
+    this.mojoExecutionMapping = in.readMojoExecutionMapping();
+  }
+
+  /**
+   * Writes the persistent state of this facade, session properties are not written.
+   */
+  void write(ProjectRegistryFormat.Output out) throws IOException {
+    out.writeFile(pom);
+    out.writeJavaFile(pomFile);
+    MavenProjectConfiguration.write(resolverConfiguration, out);
+    out.writeVarInt(timestamp.length);
+    for(long stamp : timestamp) {
+      out.writeLong(stamp);
+    }
+    out.writeArtifactKey(artifactKey);
+    out.writeString(packaging);
+    out.writeStrings(modules);
+    out.writePaths(resourceLocations);
+    out.writePaths(testResourceLocations);
+    out.writePaths(compileSourceLocations);
+    out.writePaths(testCompileSourceLocations);
+    out.writePath(outputLocation);
+    out.writePath(buildOutputLocation);
+    out.writePath(testOutputLocation);
+    out.writeString(finalName);
+    out.writeRepositoryRefs(artifactRepositories);
+    out.writeRepositoryRefs(pluginArtifactRepositories);
+    out.writeArtifactRefs(artifacts);
+    out.writeString(lifecycleMappingId);
+    out.writeMojoExecutionMapping(mojoExecutionMapping);
+  }
+
   /**
    * Returns project relative paths of resource directories
    */
@@ -679,6 +740,29 @@ public class MavenProjectFacade implements IMavenProjectFacade, Serializable {
       this.inactiveProfiles = List.copyOf(baseConfiguration.getInactiveProfileList());
     }
 
+    private MavenProjectConfiguration(ProjectRegistryFormat.Input in) throws IOException {
+      this.multiModuleProjectDirectory = in.readJavaFile();
+      this.mappingId = in.readString();
+      this.properties = Map.copyOf(in.readStringMap());
+      this.userProperties = Map.copyOf(in.readStringMap());
+      this.resolveWorkspace = in.readBoolean();
+      this.profiles = in.readString();
+      this.activeProfiles = List.copyOf(in.readStrings());
+      this.inactiveProfiles = List.copyOf(in.readStrings());
+    }
+
+    private static void write(IProjectConfiguration configuration, ProjectRegistryFormat.Output out)
+        throws IOException {
+      out.writeJavaFile(configuration.getMultiModuleProjectDirectory());
+      out.writeString(configuration.getLifecycleMappingId());
+      out.writeStringMap(configuration.getConfigurationProperties());
+      out.writeStringMap(configuration.getUserProperties());
+      out.writeBoolean(configuration.isResolveWorkspaceProjects());
+      out.writeString(configuration.getSelectedProfiles());
+      out.writeStrings(configuration.getActiveProfileList());
+      out.writeStrings(configuration.getInactiveProfileList());
+    }
+
     @Override
     public Map<String, String> getConfigurationProperties() {
       return properties;
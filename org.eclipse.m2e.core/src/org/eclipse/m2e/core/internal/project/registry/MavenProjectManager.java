@@ -36,6 +36,7 @@ import org.eclipse.core.runtime.Platform;
 import org.eclipse.m2e.core.embedder.ICallable;
 import org.eclipse.m2e.core.embedder.IMavenConfiguration;
 import org.eclipse.m2e.core.embedder.IMavenExecutionContext;
+import org.eclipse.m2e.core.internal.project.WorkspaceStateWriter;
 import org.eclipse.m2e.core.project.IMavenProjectChangedListener;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
 import org.eclipse.m2e.core.project.IMavenProjectRegistry;
@@ -72,8 +73,8 @@ public class MavenProjectManager implements IMavenProjectRegistry {
     this.workspaceStateFile = new File(bundleStateLocation, STATE_FILENAME);
     boolean updateProjectsOnStartup = configuration.isUpdateProjectsOnStartup();
     if(updateProjectsOnStartup || manager.getProjects().isEmpty()) {
-      refresh(new MavenUpdateRequest(Arrays.asList(workspace.getRoot().getProjects()), //
-          configuration.isOffline() /*offline*/, false /* updateSnapshots */));
+      mavenBackgroundJob.refresh(new MavenUpdateRequest(Arrays.asList(workspace.getRoot().getProjects()), //
+          configuration.isOffline() /*offline*/, false /* updateSnapshots */), ProjectRegistryRefreshJob.Priority.LOW);
     }
   }
 
@@ -128,8 +129,12 @@ public class MavenProjectManager implements IMavenProjectRegistry {
     return manager.getMavenProject(groupId, artifactId, version);
   }
 
+  /**
+   * @return the workspace state file, after pending changes have been written to it
+   */
   public File getWorkspaceStateFile() {
     //FIXME this is more a property of the WorkspaceStateWriter!
+    WorkspaceStateWriter.awaitPendingWrite();
     return workspaceStateFile;
   }
 
@@ -73,6 +73,27 @@ public class MavenRequiredCapability extends RequiredCapability {
         null, false, true);
   }
 
+  static MavenRequiredCapability create(String namespace, String id, String versionRange, String scope,
+      boolean optional, boolean resolved) {
+    return new MavenRequiredCapability(namespace, id, versionRange, scope, optional, resolved);
+  }
+
+  String getVersionRange() {
+    return versionRange;
+  }
+
+  String getScope() {
+    return scope;
+  }
+
+  boolean isOptional() {
+    return optional;
+  }
+
+  boolean isResolved() {
+    return resolved;
+  }
+
   @Override
   public boolean isPotentialMatch(Capability capability, boolean narrowMatch) {
     if(capability instanceof MavenCapability mavenCapability
@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.aether.version.Version;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 
@@ -30,7 +31,8 @@ import org.eclipse.m2e.core.embedder.ArtifactKey;
 
 
 /**
- * WorkspaceStateDelta
+ * WorkspaceStateDelta. All accessors are synchronized so the registry can be updated by concurrent dependency
+ * resolution workers.
  *
  * @author igor
  */
@@ -45,9 +47,14 @@ public class MutableProjectRegistry extends BasicProjectRegistry implements IPro
   private boolean closed;
 
   public MutableProjectRegistry(ProjectRegistry state) {
+    // read the version before the state, a concurrent apply then at worst makes this registry stale
+    this(state, state.getVersion());
+  }
+
+  private MutableProjectRegistry(ProjectRegistry state, int version) {
     super(state);
     this.parent = state;
-    this.parentVersion = state.getVersion();
+    this.parentVersion = version;
   }
 
   private void assertNotClosed() {
@@ -56,28 +63,26 @@ public class MutableProjectRegistry extends BasicProjectRegistry implements IPro
     }
   }
 
-  public void setProject(IFile pom, MavenProjectFacade facade) {
+  public synchronized void setProject(IFile pom, MavenProjectFacade facade) {
     assertNotClosed();
 
     // remove
     MavenProjectFacade oldFacade = workspacePoms.remove(pom);
     if(oldFacade != null) {
-      Set<IFile> paths = workspaceArtifacts.get(oldFacade.getArtifactKey());
-      if(paths != null) {
-        paths.remove(pom);
-      }
+      workspacePomFiles.remove(oldFacade.getPomFile());
+      removeWorkspaceArtifact(oldFacade.getArtifactKey(), pom);
     }
     if(facade != null) {
       // Add the project to workspaceProjects map
       workspacePoms.put(pom, facade);
+      workspacePomFiles.put(facade.getPomFile(), facade);
 
       // Add the project to workspaceArtifacts map
-      Set<IFile> paths = workspaceArtifacts.computeIfAbsent(facade.getArtifactKey(), k -> new LinkedHashSet<>());
-      paths.add(pom);
+      addWorkspaceArtifact(facade.getArtifactKey(), pom);
     }
   }
 
-  public void removeProject(IFile pom, ArtifactKey mavenProject) {
+  public synchronized void removeProject(IFile pom, ArtifactKey mavenProject) {
     assertNotClosed();
 
     // remove project from requiredCapabilities map
@@ -90,10 +95,7 @@ public class MutableProjectRegistry extends BasicProjectRegistry implements IPro
 
     // Remove the project from workspaceArtifacts map
     if(mavenProject != null) {
-      Set<IFile> paths = workspaceArtifacts.get(mavenProject);
-      if(paths != null) {
-        paths.remove(pom);
-      }
+      removeWorkspaceArtifact(mavenProject, pom);
     }
 
     if(facade != null) {
@@ -108,7 +110,7 @@ public class MutableProjectRegistry extends BasicProjectRegistry implements IPro
     return r1.getProject().equals(r2.getProject());
   }
 
-  public Set<IFile> removeWorkspaceModules(ArtifactKey mavenProject) {
+  public synchronized Set<IFile> removeWorkspaceModules(ArtifactKey mavenProject) {
     assertNotClosed();
 
     return getDependents(MavenCapability.createMavenParent(mavenProject), true);
@@ -119,7 +121,7 @@ public class MutableProjectRegistry extends BasicProjectRegistry implements IPro
   }
 
   @Override
-  public void close() {
+  public synchronized void close() {
     this.closed = true;
     clear();
   }
@@ -131,7 +133,7 @@ public class MutableProjectRegistry extends BasicProjectRegistry implements IPro
   // IProjectRegistry
 
   @Override
-  public MavenProjectFacade getProjectFacade(IFile pom) {
+  public synchronized MavenProjectFacade getProjectFacade(IFile pom) {
     if(isClosed()) {
       return parent.getProjectFacade(pom);
     }
@@ -139,7 +141,7 @@ public class MutableProjectRegistry extends BasicProjectRegistry implements IPro
   }
 
   @Override
-  public MavenProjectFacade getProjectFacade(File pom) {
+  public synchronized MavenProjectFacade getProjectFacade(File pom) {
     if(isClosed()) {
       return parent.getProjectFacade(pom);
     }
@@ -147,7 +149,7 @@ public class MutableProjectRegistry extends BasicProjectRegistry implements IPro
   }
 
   @Override
-  public MavenProjectFacade getProjectFacade(String groupId, String artifactId, String version) {
+  public synchronized MavenProjectFacade getProjectFacade(String groupId, String artifactId, String version) {
     if(isClosed()) {
       return parent.getProjectFacade(groupId, artifactId, version);
     }
@@ -155,7 +157,7 @@ public class MutableProjectRegistry extends BasicProjectRegistry implements IPro
   }
 
   @Override
-  public List<MavenProjectFacade> getProjects() {
+  public synchronized List<MavenProjectFacade> getProjects() {
     if(isClosed()) {
       return parent.getProjects();
     }
@@ -163,31 +165,40 @@ public class MutableProjectRegistry extends BasicProjectRegistry implements IPro
   }
 
   @Override
-  public Map<ArtifactKey, Collection<IFile>> getWorkspaceArtifacts(String groupId, String artifactId) {
+  public synchronized Map<ArtifactKey, Collection<IFile>> getWorkspaceArtifacts(String groupId, String artifactId) {
     if(isClosed()) {
       return parent.getWorkspaceArtifacts(groupId, artifactId);
     }
     return super.getWorkspaceArtifacts(groupId, artifactId);
   }
 
+  @Override
+  public synchronized Map<ArtifactKey, Version> getWorkspaceArtifactVersions(String groupId, String artifactId) {
+    if(isClosed()) {
+      return parent.getWorkspaceArtifactVersions(groupId, artifactId);
+    }
+    return super.getWorkspaceArtifactVersions(groupId, artifactId);
+  }
+
   // low level access and manipulation
 
   /**
    * Returns all workspace projects that require given Capability.
    */
-  public Set<IFile> getDependents(Capability capability, boolean remove) {
+  public synchronized Set<IFile> getDependents(Capability capability, boolean remove) {
     return getDependents(capability, false, remove);
   }
 
   /**
    * Returns all workspace projects that require given Capability of a certain version, if available
    */
-  public Set<IFile> getVersionedDependents(Capability capability, boolean remove) {
+  public synchronized Set<IFile> getVersionedDependents(Capability capability, boolean remove) {
     return getDependents(capability, true, remove);
   }
 
   private Set<IFile> getDependents(Capability capability, boolean versionMatch, boolean remove) {
-    Map<RequiredCapability, Set<IFile>> rs = requiredCapabilities.get(capability.getVersionlessKey());
+    Map<RequiredCapability, Set<IFile>> rs = remove ? getForUpdate(requiredCapabilities, capability.getVersionlessKey())
+        : requiredCapabilities.get(capability.getVersionlessKey());
     if(rs == null) {
       return Collections.emptySet();
     }
@@ -208,7 +219,7 @@ public class MutableProjectRegistry extends BasicProjectRegistry implements IPro
   /**
    * Returns all workspace projects that require given versionless Capability.
    */
-  public Set<IFile> getDependents(VersionlessKey capability, boolean remove) {
+  public synchronized Set<IFile> getDependents(VersionlessKey capability, boolean remove) {
     Map<RequiredCapability, Set<IFile>> rs;
     if(remove) {
       rs = requiredCapabilities.remove(capability);
@@ -225,11 +236,27 @@ public class MutableProjectRegistry extends BasicProjectRegistry implements IPro
     return result;
   }
 
-  public Set<Capability> setCapabilities(IFile pom, Set<Capability> capabilities) {
+  /**
+   * Returns the capabilities currently provided by the given project, never <code>null</code>.
+   */
+  synchronized Set<Capability> getCapabilities(IFile pom) {
+    Set<Capability> capabilities = projectCapabilities.get(pom);
+    return capabilities != null ? Set.copyOf(capabilities) : Set.of();
+  }
+
+  /**
+   * Returns the capabilities currently required by the given project, never <code>null</code>.
+   */
+  synchronized Set<RequiredCapability> getRequirements(IFile pom) {
+    Set<RequiredCapability> requirements = projectRequirements.get(pom);
+    return requirements != null ? Set.copyOf(requirements) : Set.of();
+  }
+
+  public synchronized Set<Capability> setCapabilities(IFile pom, Set<Capability> capabilities) {
     return capabilities != null ? projectCapabilities.put(pom, capabilities) : projectCapabilities.remove(pom);
   }
 
-  public Set<RequiredCapability> setRequirements(IFile pom, Set<RequiredCapability> requirements) {
+  public synchronized Set<RequiredCapability> setRequirements(IFile pom, Set<RequiredCapability> requirements) {
     removeRequiredCapabilities(pom);
     if(requirements != null) {
       for(RequiredCapability requirement : requirements) {
@@ -15,10 +15,16 @@ package org.eclipse.m2e.core.internal.project.registry;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiPredicate;
 
+import org.eclipse.aether.version.Version;
 import org.eclipse.core.resources.IFile;
 
 import org.eclipse.m2e.core.embedder.ArtifactKey;
@@ -58,17 +64,41 @@ public class ProjectRegistry extends BasicProjectRegistry implements IProjectReg
     return super.getWorkspaceArtifacts(groupId, artifactId);
   }
 
+  @Override
+  public synchronized Map<ArtifactKey, Version> getWorkspaceArtifactVersions(String groupId, String artifactId) {
+    return super.getWorkspaceArtifactVersions(groupId, artifactId);
+  }
+
   public synchronized List<MavenProjectChangedEvent> apply(MutableProjectRegistry newState)
       throws StaleMutableProjectRegistryException {
+    return apply(newState, null);
+  }
+
+  /**
+   * Applies the given state and adds all poms whose facade, capabilities or requirements have changed to
+   * <code>changedPoms</code> if not <code>null</code>.
+   */
+  synchronized List<MavenProjectChangedEvent> apply(MutableProjectRegistry newState, Set<IFile> changedPoms)
+      throws StaleMutableProjectRegistryException {
     if(newState.isStale()) {
       throw new StaleMutableProjectRegistryException();
     }
 
+    Set<IFile> changedFacades = getChangedKeys(workspacePoms, newState.workspacePoms);
+    if(changedPoms != null) {
+      collectChanges(changedFacades, workspacePoms, newState.workspacePoms, (a, b) -> a == b, changedPoms);
+      collectChanges(getChangedKeys(projectCapabilities, newState.projectCapabilities), projectCapabilities,
+          newState.projectCapabilities, Objects::equals, changedPoms);
+      collectChanges(getChangedKeys(projectRequirements, newState.projectRequirements), projectRequirements,
+          newState.projectRequirements, Objects::equals, changedPoms);
+    }
+
     ArrayList<MavenProjectChangedEvent> events = new ArrayList<>();
 
     // removed projects
-    for(MavenProjectFacade facade : workspacePoms.values()) {
-      if(!newState.workspacePoms.containsKey(facade.getPom())) {
+    for(IFile pom : changedFacades) {
+      MavenProjectFacade facade = workspacePoms.get(pom);
+      if(facade != null && !newState.workspacePoms.containsKey(pom)) {
         MavenProjectChangedEvent event = new MavenProjectChangedEvent( //
             facade.getPom(), //
             MavenProjectChangedEvent.KIND_REMOVED, //
@@ -80,9 +110,10 @@ public class ProjectRegistry extends BasicProjectRegistry implements IProjectReg
     }
 
     // changed and new projects
-    for(MavenProjectFacade facade : newState.workspacePoms.values()) {
-      MavenProjectFacade old = workspacePoms.get(facade.getPom());
-      if(facade != old) { // not the same instance!
+    for(IFile pom : changedFacades) {
+      MavenProjectFacade facade = newState.workspacePoms.get(pom);
+      MavenProjectFacade old = workspacePoms.get(pom);
+      if(facade != null && facade != old) { // not the same instance!
         MavenProjectChangedEvent event;
         if(old != null) {
           int flags = hasDependencyChange(old.getPom(), newState) ? MavenProjectChangedEvent.FLAG_DEPENDENCIES
@@ -111,6 +142,74 @@ public class ProjectRegistry extends BasicProjectRegistry implements IProjectReg
     return events;
   }
 
+  /**
+   * Returns the keys that possibly differ between the two maps. If the new map records its changes on top of the old
+   * map only these are considered, otherwise all keys of both maps.
+   */
+  private static <V> Set<IFile> getChangedKeys(Map<IFile, V> oldMap, Map<IFile, V> newMap) {
+    if(newMap instanceof LayeredMap<IFile, V> layered && layered.isLayerOf(oldMap)) {
+      return layered.getChangedKeys();
+    }
+    Set<IFile> keys = new LinkedHashSet<>(oldMap.keySet());
+    keys.addAll(newMap.keySet());
+    return keys;
+  }
+
+  private static <V> void collectChanges(Set<IFile> keys, Map<IFile, V> oldMap, Map<IFile, V> newMap,
+      BiPredicate<V, V> same, Set<IFile> changedPoms) {
+    for(IFile pom : keys) {
+      V oldValue = oldMap.get(pom);
+      V newValue = newMap.get(pom);
+      if(oldValue != null ? !same.test(oldValue, newValue) : newValue != null) {
+        changedPoms.add(pom);
+      }
+    }
+  }
+
+  /**
+   * Replaces the complete state of a single project, used when replaying the workspace state journal. A
+   * <code>null</code> value removes the corresponding state.
+   */
+  synchronized void replay(IFile pom, MavenProjectFacade facade, Set<Capability> capabilities,
+      Set<RequiredCapability> requirements) {
+    MavenProjectFacade oldFacade = facade != null ? workspacePoms.put(pom, facade) : workspacePoms.remove(pom);
+    if(oldFacade != null) {
+      workspacePomFiles.remove(oldFacade.getPomFile());
+      removeWorkspaceArtifact(oldFacade.getArtifactKey(), pom);
+    }
+    if(facade != null) {
+      workspacePomFiles.put(facade.getPomFile(), facade);
+      addWorkspaceArtifact(facade.getArtifactKey(), pom);
+    }
+    if(capabilities != null) {
+      projectCapabilities.put(pom, capabilities);
+    } else {
+      projectCapabilities.remove(pom);
+    }
+    Set<RequiredCapability> oldRequirements = requirements != null ? projectRequirements.put(pom, requirements)
+        : projectRequirements.remove(pom);
+    if(oldRequirements != null) {
+      for(RequiredCapability requirement : oldRequirements) {
+        Map<RequiredCapability, Set<IFile>> poms = getForUpdate(requiredCapabilities, requirement.getVersionlessKey());
+        if(poms != null) {
+          Set<IFile> requiring = poms.get(requirement);
+          if(requiring != null && requiring.remove(pom) && requiring.isEmpty()) {
+            poms.remove(requirement);
+          }
+          if(poms.isEmpty()) {
+            requiredCapabilities.remove(requirement.getVersionlessKey());
+          }
+        }
+      }
+    }
+    if(requirements != null) {
+      for(RequiredCapability requirement : requirements) {
+        requiredCapabilities.computeIfAbsent(requirement.getVersionlessKey(), k -> new HashMap<>())
+            .computeIfAbsent(requirement, r -> new HashSet<>()).add(pom);
+      }
+    }
+  }
+
   public synchronized int getVersion() {
     return version;
   }
@@ -0,0 +1,732 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.project.registry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+import org.eclipse.m2e.core.embedder.ArtifactKey;
+import org.eclipse.m2e.core.embedder.ArtifactRef;
+import org.eclipse.m2e.core.embedder.ArtifactRepositoryRef;
+import org.eclipse.m2e.core.internal.lifecyclemapping.DefaultPluginExecutionMetadata;
+import org.eclipse.m2e.core.internal.lifecyclemapping.model.PluginExecutionFilter;
+import org.eclipse.m2e.core.internal.lifecyclemapping.model.PluginExecutionMetadata;
+import org.eclipse.m2e.core.lifecyclemapping.model.IPluginExecutionMetadata;
+import org.eclipse.m2e.core.lifecyclemapping.model.PluginExecutionAction;
+import org.eclipse.m2e.core.project.configurator.MojoExecutionKey;
+
+
+/**
+ * Compact binary format used to persist the {@link ProjectRegistry} between sessions. In contrast to java
+ * serialization the format does not depend on class or bundle versions, only on the {@link #FORMAT_VERSION} written
+ * into the header. All strings are interned, so group ids, project names, paths prefixes and alike are only stored
+ * once. Derived state (the pom file and required capability lookup maps) is not stored but rebuild on read.
+ * <p>
+ * Besides full snapshots the format defines delta records, each containing the complete state of a set of projects
+ * keyed by their pom file. Delta records are appended to a journal that belongs to the snapshot with the same
+ * id.
+ */
+final class ProjectRegistryFormat {
+
+  /**
+   * "M2ER"
+   */
+  private static final int MAGIC = 0x4d324552;
+
+  /**
+   * "M2EJ"
+   */
+  private static final int JOURNAL_MAGIC = 0x4d32454a;
+
+  /**
+   * Must be incremented whenever the layout of the data changes
+   */
+  static final int FORMAT_VERSION = 3;
+
+  private static final int METADATA_NULL = 0;
+
+  private static final int METADATA_PLUGIN_EXECUTION = 1;
+
+  private static final int METADATA_DEFAULT = 2;
+
+  private static final int PARAMETER_NULL = 0;
+
+  private static final int PARAMETER_STRING = 1;
+
+  private static final int PARAMETER_DOM = 2;
+
+  private ProjectRegistryFormat() {
+  }
+
+  static void write(ProjectRegistry registry, long snapshotId, OutputStream os) throws IOException {
+    Output out = new Output(os);
+    out.writeInt(MAGIC);
+    out.writeInt(FORMAT_VERSION);
+    out.writeLong(snapshotId);
+    synchronized(registry) {
+      out.writeVarInt(registry.workspacePoms.size());
+      for(MavenProjectFacade facade : registry.workspacePoms.values()) {
+        facade.write(out);
+      }
+      out.writeVarInt(registry.workspaceArtifacts.size());
+      for(Map.Entry<ArtifactKey, Set<IFile>> entry : registry.workspaceArtifacts.entrySet()) {
+        out.writeArtifactKey(entry.getKey());
+        out.writeVarInt(entry.getValue().size());
+        for(IFile file : entry.getValue()) {
+          out.writeFile(file);
+        }
+      }
+      out.writeVarInt(registry.projectCapabilities.size());
+      for(Map.Entry<IFile, Set<Capability>> entry : registry.projectCapabilities.entrySet()) {
+        out.writeFile(entry.getKey());
+        writeCapabilities(out, entry.getValue());
+      }
+      out.writeVarInt(registry.projectRequirements.size());
+      for(Map.Entry<IFile, Set<RequiredCapability>> entry : registry.projectRequirements.entrySet()) {
+        out.writeFile(entry.getKey());
+        writeRequirements(out, entry.getValue());
+      }
+    }
+    out.flush();
+  }
+
+  /**
+   * @return the snapshot stored in the stream or <code>null</code> if the stream was written with an incompatible
+   *         format version
+   */
+  static Snapshot read(InputStream is, ProjectRegistryManager manager) throws IOException {
+    Input in = new Input(is);
+    if(in.readInt() != MAGIC) {
+      throw new IOException("Not a workspace state file");
+    }
+    int version = in.readInt();
+    if(version != FORMAT_VERSION) {
+      return null;
+    }
+    long snapshotId = in.readLong();
+    ProjectRegistry registry = new ProjectRegistry();
+    int facades = in.readVarInt();
+    for(int i = 0; i < facades; i++ ) {
+      MavenProjectFacade facade = new MavenProjectFacade(manager, in);
+      registry.workspacePoms.put(facade.getPom(), facade);
+      registry.workspacePomFiles.put(facade.getPomFile(), facade);
+    }
+    int artifacts = in.readVarInt();
+    for(int i = 0; i < artifacts; i++ ) {
+      ArtifactKey key = in.readArtifactKey();
+      int size = in.readVarInt();
+      Set<IFile> files = new LinkedHashSet<>(size);
+      for(int j = 0; j < size; j++ ) {
+        files.add(in.readFile());
+      }
+      registry.workspaceArtifacts.put(key, files);
+    }
+    int capabilities = in.readVarInt();
+    for(int i = 0; i < capabilities; i++ ) {
+      registry.projectCapabilities.put(in.readFile(), readCapabilities(in));
+    }
+    int requirements = in.readVarInt();
+    for(int i = 0; i < requirements; i++ ) {
+      IFile pom = in.readFile();
+      Set<RequiredCapability> required = readRequirements(in);
+      registry.projectRequirements.put(pom, required);
+      for(RequiredCapability requirement : required) {
+        registry.requiredCapabilities.computeIfAbsent(requirement.getVersionlessKey(), k -> new HashMap<>())
+            .computeIfAbsent(requirement, r -> new LinkedHashSet<>()).add(pom);
+      }
+    }
+    return new Snapshot(registry, snapshotId);
+  }
+
+  static void writeJournalHeader(DataOutputStream out, long snapshotId) throws IOException {
+    out.writeInt(JOURNAL_MAGIC);
+    out.writeInt(FORMAT_VERSION);
+    out.writeLong(snapshotId);
+  }
+
+  /**
+   * @return the id of the snapshot the journal belongs to or <code>-1</code> if the journal is not compatible
+   */
+  static long readJournalHeader(DataInputStream in) throws IOException {
+    if(in.readInt() != JOURNAL_MAGIC || in.readInt() != FORMAT_VERSION) {
+      return -1;
+    }
+    return in.readLong();
+  }
+
+  /**
+   * Encodes the current state of the given poms as a self contained delta record.
+   */
+  static byte[] writeDelta(ProjectRegistry registry, Collection<IFile> poms) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    Output out = new Output(bytes);
+    synchronized(registry) {
+      out.writeVarInt(poms.size());
+      for(IFile pom : poms) {
+        out.writeFile(pom);
+        MavenProjectFacade facade = registry.workspacePoms.get(pom);
+        out.writeBoolean(facade != null);
+        if(facade != null) {
+          facade.write(out);
+        }
+        Set<Capability> capabilities = registry.projectCapabilities.get(pom);
+        out.writeBoolean(capabilities != null);
+        if(capabilities != null) {
+          writeCapabilities(out, capabilities);
+        }
+        Set<RequiredCapability> requirements = registry.projectRequirements.get(pom);
+        out.writeBoolean(requirements != null);
+        if(requirements != null) {
+          writeRequirements(out, requirements);
+        }
+      }
+    }
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Applies a delta record written by {@link #writeDelta(ProjectRegistry, Collection)} to the given registry.
+   */
+  static void readDelta(byte[] record, ProjectRegistry registry, ProjectRegistryManager manager) throws IOException {
+    Input in = new Input(new ByteArrayInputStream(record));
+    int size = in.readVarInt();
+    for(int i = 0; i < size; i++ ) {
+      IFile pom = in.readFile();
+      MavenProjectFacade facade = in.readBoolean() ? new MavenProjectFacade(manager, in) : null;
+      Set<Capability> capabilities = in.readBoolean() ? readCapabilities(in) : null;
+      Set<RequiredCapability> requirements = in.readBoolean() ? readRequirements(in) : null;
+      registry.replay(pom, facade, capabilities, requirements);
+    }
+  }
+
+  record Snapshot(ProjectRegistry registry, long snapshotId) {
+  }
+
+  private static void writeCapabilities(Output out, Set<Capability> capabilities) throws IOException {
+    out.writeVarInt(capabilities.size());
+    for(Capability capability : capabilities) {
+      if(!(capability instanceof MavenCapability mavenCapability)) {
+        throw new IOException("Unsupported capability type " + capability.getClass().getName());
+      }
+      out.writeString(capability.getVersionlessKey().namespace());
+      out.writeString(capability.getVersionlessKey().id());
+      out.writeString(mavenCapability.getVersion());
+    }
+  }
+
+  private static Set<Capability> readCapabilities(Input in) throws IOException {
+    int size = in.readVarInt();
+    Set<Capability> capabilities = new LinkedHashSet<>(size);
+    for(int i = 0; i < size; i++ ) {
+      capabilities.add(MavenCapability.create(in.readString(), in.readString(), in.readString()));
+    }
+    return capabilities;
+  }
+
+  private static void writeRequirements(Output out, Set<RequiredCapability> requirements) throws IOException {
+    out.writeVarInt(requirements.size());
+    for(RequiredCapability requirement : requirements) {
+      if(!(requirement instanceof MavenRequiredCapability mavenRequirement)) {
+        throw new IOException("Unsupported requirement type " + requirement.getClass().getName());
+      }
+      out.writeString(requirement.getVersionlessKey().namespace());
+      out.writeString(requirement.getVersionlessKey().id());
+      out.writeString(mavenRequirement.getVersionRange());
+      out.writeString(mavenRequirement.getScope());
+      out.writeBoolean(mavenRequirement.isOptional());
+      out.writeBoolean(mavenRequirement.isResolved());
+    }
+  }
+
+  private static Set<RequiredCapability> readRequirements(Input in) throws IOException {
+    int size = in.readVarInt();
+    Set<RequiredCapability> requirements = new LinkedHashSet<>(size);
+    for(int i = 0; i < size; i++ ) {
+      requirements.add(MavenRequiredCapability.create(in.readString(), in.readString(), in.readString(),
+          in.readString(), in.readBoolean(), in.readBoolean()));
+    }
+    return requirements;
+  }
+
+  /**
+   * Encodes primitive values, interned strings and the common value types used by {@link MavenProjectFacade}.
+   */
+  static final class Output {
+
+    private final DataOutputStream out;
+
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    Output(OutputStream os) {
+      this.out = new DataOutputStream(os);
+    }
+
+    void writeInt(int value) throws IOException {
+      out.writeInt(value);
+    }
+
+    void writeLong(long value) throws IOException {
+      out.writeLong(value);
+    }
+
+    void writeBoolean(boolean value) throws IOException {
+      out.writeBoolean(value);
+    }
+
+    void writeVarInt(int value) throws IOException {
+      while((value & ~0x7F) != 0) {
+        out.writeByte((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      out.writeByte(value);
+    }
+
+    /**
+     * Strings are written as their index in the string table, the first occurrence of a string additionally carries
+     * its UTF-8 encoded value.
+     */
+    void writeString(String value) throws IOException {
+      if(value == null) {
+        writeVarInt(0);
+        return;
+      }
+      Integer index = strings.get(value);
+      if(index != null) {
+        writeVarInt(index);
+        return;
+      }
+      int newIndex = strings.size() + 1;
+      strings.put(value, newIndex);
+      writeVarInt(newIndex);
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(bytes.length);
+      out.write(bytes);
+    }
+
+    void writeStrings(Collection<String> values) throws IOException {
+      if(values == null) {
+        writeVarInt(0);
+        return;
+      }
+      writeVarInt(values.size() + 1);
+      for(String value : values) {
+        writeString(value);
+      }
+    }
+
+    void writeStringMap(Map<String, String> map) throws IOException {
+      writeVarInt(map.size());
+      for(Map.Entry<String, String> entry : map.entrySet()) {
+        writeString(entry.getKey());
+        writeString(entry.getValue());
+      }
+    }
+
+    void writePath(IPath path) throws IOException {
+      writeString(path != null ? path.toPortableString() : null);
+    }
+
+    void writePaths(List<IPath> paths) throws IOException {
+      writeVarInt(paths.size());
+      for(IPath path : paths) {
+        writePath(path);
+      }
+    }
+
+    void writeFile(IFile file) throws IOException {
+      writePath(file != null ? file.getFullPath() : null);
+    }
+
+    void writeJavaFile(File file) throws IOException {
+      writeString(file != null ? file.getPath() : null);
+    }
+
+    void writeArtifactKey(ArtifactKey key) throws IOException {
+      writeBoolean(key != null);
+      if(key != null) {
+        writeString(key.groupId());
+        writeString(key.artifactId());
+        writeString(key.version());
+        writeString(key.classifier());
+      }
+    }
+
+    void writeArtifactRefs(Set<ArtifactRef> refs) throws IOException {
+      if(refs == null) {
+        writeVarInt(0);
+        return;
+      }
+      writeVarInt(refs.size() + 1);
+      for(ArtifactRef ref : refs) {
+        writeArtifactKey(ref.artifactKey());
+        writeString(ref.scope());
+      }
+    }
+
+    void writeRepositoryRefs(Set<ArtifactRepositoryRef> refs) throws IOException {
+      writeVarInt(refs.size());
+      for(ArtifactRepositoryRef ref : refs) {
+        writeString(ref.id());
+        writeString(ref.url());
+        writeString(ref.username());
+      }
+    }
+
+    void writeMojoExecutionMapping(Map<MojoExecutionKey, List<IPluginExecutionMetadata>> mapping)
+        throws IOException {
+      if(mapping == null) {
+        writeVarInt(0);
+        return;
+      }
+      writeVarInt(mapping.size() + 1);
+      for(Map.Entry<MojoExecutionKey, List<IPluginExecutionMetadata>> entry : mapping.entrySet()) {
+        MojoExecutionKey key = entry.getKey();
+        writeString(key.groupId());
+        writeString(key.artifactId());
+        writeString(key.version());
+        writeString(key.goal());
+        writeString(key.lifecyclePhase());
+        writeString(key.executionId());
+        List<IPluginExecutionMetadata> executions = entry.getValue();
+        if(executions == null) {
+          writeVarInt(0);
+          continue;
+        }
+        writeVarInt(executions.size() + 1);
+        for(IPluginExecutionMetadata metadata : executions) {
+          writeMetadata(metadata);
+        }
+      }
+    }
+
+    private void writeMetadata(IPluginExecutionMetadata metadata) throws IOException {
+      if(metadata == null) {
+        writeVarInt(METADATA_NULL);
+      } else if(metadata instanceof PluginExecutionMetadata execution) {
+        writeVarInt(METADATA_PLUGIN_EXECUTION);
+        PluginExecutionFilter filter = execution.getFilter();
+        writeBoolean(filter != null);
+        if(filter != null) {
+          writeString(filter.getGroupId());
+          writeString(filter.getArtifactId());
+          writeString(filter.getVersionRange());
+          writeStrings(filter.getGoals());
+          Map<String, Object> parameters = filter.getParameters();
+          writeVarInt(parameters.size());
+          for(Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            writeString(parameter.getKey());
+            writeParameterValue(parameter.getValue());
+          }
+        }
+        writeDom((Xpp3Dom) execution.getActionDom());
+        writeString(execution.getComment());
+      } else if(metadata instanceof DefaultPluginExecutionMetadata execution) {
+        writeVarInt(METADATA_DEFAULT);
+        writeString(execution.getGroupId());
+        writeString(execution.getArtifactId());
+        writeString(execution.getVersion());
+        writeString(execution.getExecutionId());
+        writeString(execution.getAction() != null ? execution.getAction().name() : null);
+      } else {
+        throw new IOException("Unsupported plugin execution metadata " + metadata.getClass().getName());
+      }
+    }
+
+    private void writeParameterValue(Object value) throws IOException {
+      if(value == null) {
+        writeVarInt(PARAMETER_NULL);
+      } else if(value instanceof String string) {
+        writeVarInt(PARAMETER_STRING);
+        writeString(string);
+      } else if(value instanceof Xpp3Dom dom) {
+        writeVarInt(PARAMETER_DOM);
+        writeDom(dom);
+      } else {
+        throw new IOException("Unsupported plugin execution filter parameter " + value.getClass().getName());
+      }
+    }
+
+    private void writeDom(Xpp3Dom dom) throws IOException {
+      writeBoolean(dom != null);
+      if(dom != null) {
+        writeString(dom.getName());
+        writeString(dom.getValue());
+        String[] attributeNames = dom.getAttributeNames();
+        writeVarInt(attributeNames.length);
+        for(String name : attributeNames) {
+          writeString(name);
+          writeString(dom.getAttribute(name));
+        }
+        Xpp3Dom[] children = dom.getChildren();
+        writeVarInt(children.length);
+        for(Xpp3Dom child : children) {
+          writeDom(child);
+        }
+      }
+    }
+
+    void flush() throws IOException {
+      out.flush();
+    }
+  }
+
+  /**
+   * Counterpart of {@link Output}
+   */
+  static final class Input {
+
+    private final DataInputStream in;
+
+    private final List<String> strings = new ArrayList<>();
+
+    private final IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+
+    Input(InputStream is) {
+      this.in = new DataInputStream(is);
+    }
+
+    int readInt() throws IOException {
+      return in.readInt();
+    }
+
+    long readLong() throws IOException {
+      return in.readLong();
+    }
+
+    boolean readBoolean() throws IOException {
+      return in.readBoolean();
+    }
+
+    int readVarInt() throws IOException {
+      int value = 0;
+      for(int shift = 0; shift < 32; shift += 7) {
+        int b = in.readUnsignedByte();
+        value |= (b & 0x7F) << shift;
+        if((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IOException("Malformed variable length integer");
+    }
+
+    String readString() throws IOException {
+      int index = readVarInt();
+      if(index == 0) {
+        return null;
+      }
+      if(index <= strings.size()) {
+        return strings.get(index - 1);
+      }
+      if(index != strings.size() + 1) {
+        throw new IOException("Invalid string table index " + index);
+      }
+      byte[] bytes = new byte[readVarInt()];
+      in.readFully(bytes);
+      String value = new String(bytes, StandardCharsets.UTF_8);
+      strings.add(value);
+      return value;
+    }
+
+    List<String> readStrings() throws IOException {
+      int size = readVarInt();
+      if(size == 0) {
+        return null;
+      }
+      List<String> values = new ArrayList<>(size - 1);
+      for(int i = 1; i < size; i++ ) {
+        values.add(readString());
+      }
+      return values;
+    }
+
+    Map<String, String> readStringMap() throws IOException {
+      int size = readVarInt();
+      Map<String, String> map = new LinkedHashMap<>(size);
+      for(int i = 0; i < size; i++ ) {
+        map.put(readString(), readString());
+      }
+      return map;
+    }
+
+    IPath readPath() throws IOException {
+      String path = readString();
+      return path != null ? IPath.fromPortableString(path) : null;
+    }
+
+    List<IPath> readPaths() throws IOException {
+      int size = readVarInt();
+      List<IPath> paths = new ArrayList<>(size);
+      for(int i = 0; i < size; i++ ) {
+        paths.add(readPath());
+      }
+      return paths;
+    }
+
+    IFile readFile() throws IOException {
+      IPath path = readPath();
+      return path != null ? root.getFile(path) : null;
+    }
+
+    File readJavaFile() throws IOException {
+      String path = readString();
+      return path != null ? new File(path) : null;
+    }
+
+    ArtifactKey readArtifactKey() throws IOException {
+      if(!readBoolean()) {
+        return null;
+      }
+      return new ArtifactKey(readString(), readString(), readString(), readString());
+    }
+
+    Set<ArtifactRef> readArtifactRefs() throws IOException {
+      int size = readVarInt();
+      if(size == 0) {
+        return null;
+      }
+      Set<ArtifactRef> refs = new LinkedHashSet<>(size);
+      for(int i = 1; i < size; i++ ) {
+        refs.add(new ArtifactRef(readArtifactKey(), readString()));
+      }
+      return refs;
+    }
+
+    Set<ArtifactRepositoryRef> readRepositoryRefs() throws IOException {
+      int size = readVarInt();
+      Set<ArtifactRepositoryRef> refs = new LinkedHashSet<>(size);
+      for(int i = 0; i < size; i++ ) {
+        refs.add(new ArtifactRepositoryRef(readString(), readString(), readString()));
+      }
+      return refs;
+    }
+
+    Map<MojoExecutionKey, List<IPluginExecutionMetadata>> readMojoExecutionMapping() throws IOException {
+      int size = readVarInt();
+      if(size == 0) {
+        return null;
+      }
+      Map<MojoExecutionKey, List<IPluginExecutionMetadata>> mapping = new LinkedHashMap<>(size);
+      for(int i = 1; i < size; i++ ) {
+        MojoExecutionKey key = new MojoExecutionKey(readString(), readString(), readString(), readString(),
+            readString(), readString());
+        int executions = readVarInt();
+        if(executions == 0) {
+          mapping.put(key, null);
+          continue;
+        }
+        List<IPluginExecutionMetadata> metadata = new ArrayList<>(executions - 1);
+        for(int j = 1; j < executions; j++ ) {
+          metadata.add(readMetadata());
+        }
+        mapping.put(key, metadata);
+      }
+      return mapping;
+    }
+
+    private IPluginExecutionMetadata readMetadata() throws IOException {
+      int type = readVarInt();
+      switch(type) {
+        case METADATA_NULL:
+          return null;
+        case METADATA_PLUGIN_EXECUTION:
+          PluginExecutionMetadata execution = new PluginExecutionMetadata();
+          if(readBoolean()) {
+            PluginExecutionFilter filter = new PluginExecutionFilter();
+            filter.setGroupId(readString());
+            filter.setArtifactId(readString());
+            String versionRange = readString();
+            if(versionRange != null) {
+              filter.setVersionRange(versionRange);
+            }
+            List<String> goals = readStrings();
+            filter.setGoals(goals != null ? new LinkedHashSet<>(goals) : null);
+            int parameters = readVarInt();
+            Map<String, Object> parameterMap = new LinkedHashMap<>(parameters);
+            for(int j = 0; j < parameters; j++ ) {
+              parameterMap.put(readString(), readParameterValue());
+            }
+            filter.setParameters(parameterMap);
+            execution.setFilter(filter);
+          }
+          execution.setActionDom(readDom());
+          execution.setComment(readString());
+          return execution;
+        case METADATA_DEFAULT:
+          String groupId = readString();
+          String artifactId = readString();
+          String version = readString();
+          String executionId = readString();
+          String action = readString();
+          return new DefaultPluginExecutionMetadata(groupId, artifactId, version, executionId,
+              action != null ? PluginExecutionAction.valueOf(action) : null);
+        default:
+          throw new IOException("Unknown plugin execution metadata type " + type);
+      }
+    }
+
+    private Object readParameterValue() throws IOException {
+      int type = readVarInt();
+      switch(type) {
+        case PARAMETER_NULL:
+          return null;
+        case PARAMETER_STRING:
+          return readString();
+        case PARAMETER_DOM:
+          return readDom();
+        default:
+          throw new IOException("Unknown plugin execution filter parameter type " + type);
+      }
+    }
+
+    private Xpp3Dom readDom() throws IOException {
+      if(!readBoolean()) {
+        return null;
+      }
+      Xpp3Dom dom = new Xpp3Dom(readString());
+      dom.setValue(readString());
+      int attributes = readVarInt();
+      for(int i = 0; i < attributes; i++ ) {
+        dom.setAttribute(readString(), readString());
+      }
+      int children = readVarInt();
+      for(int i = 0; i < children; i++ ) {
+        dom.addChild(readDom());
+      }
+      return dom;
+    }
+  }
+}
@@ -33,14 +33,22 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
@@ -62,6 +70,7 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
@@ -99,6 +108,7 @@ import org.eclipse.m2e.core.internal.IMavenToolbox;
 import org.eclipse.m2e.core.internal.Messages;
 import org.eclipse.m2e.core.internal.URLConnectionCaches;
 import org.eclipse.m2e.core.internal.embedder.MavenExecutionContext;
+import org.eclipse.m2e.core.internal.embedder.MavenImpl;
 import org.eclipse.m2e.core.internal.embedder.MavenProperties;
 import org.eclipse.m2e.core.internal.embedder.PlexusContainerManager;
 import org.eclipse.m2e.core.internal.lifecyclemapping.LifecycleMappingFactory;
@@ -107,6 +117,8 @@ import org.eclipse.m2e.core.internal.lifecyclemapping.model.PluginExecutionMetad
 import org.eclipse.m2e.core.internal.markers.IMavenMarkerManager;
 import org.eclipse.m2e.core.internal.markers.MarkerUtils;
 import org.eclipse.m2e.core.internal.project.ResolverConfigurationIO;
+import org.eclipse.m2e.core.internal.project.registry.RefreshMetrics.Cascade;
+import org.eclipse.m2e.core.internal.project.registry.RefreshMetrics.Stage;
 import org.eclipse.m2e.core.lifecyclemapping.model.IPluginExecutionMetadata;
 import org.eclipse.m2e.core.project.IMavenProjectChangedListener;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
@@ -139,6 +151,12 @@ public class ProjectRegistryManager implements ISaveParticipant {
 
   public static final String LIFECYCLE_SITE = "site";
 
+  /**
+   * Number of workers used to resolve project dependencies in the second refresh phase, a value of <code>1</code> (the
+   * default) processes all projects serially.
+   */
+  static final int PHASE2_PARALLELISM = Integer.getInteger("m2e.project.refresh.parallelism", 1);
+
   /**
    * Path of project metadata files, relative to the project. These files are used to determine if project dependencies
    * need to be updated.
@@ -147,7 +165,7 @@ public class ProjectRegistryManager implements ISaveParticipant {
       IPath.fromOSString("pom.xml"), // //$NON-NLS-1$
       IPath.fromOSString(".settings/" + IMavenConstants.PLUGIN_ID + ".prefs")); // dirty trick! //$NON-NLS-1$ //$NON-NLS-2$
 
-  private ProjectRegistry projectRegistry;
+  private volatile ProjectRegistry projectRegistry;
 
   @Reference
   IMaven maven;
@@ -174,26 +192,59 @@ public class ProjectRegistryManager implements ISaveParticipant {
 
   private volatile Thread syncRefreshThread;
 
+  private final RefreshMetrics refreshMetrics = new RefreshMetrics();
+
+  /**
+   * Compacts the workspace state journal into a new snapshot in the background, changes are journaled as they are
+   * applied so there is no need to write the whole registry on each workspace save.
+   */
+  private final Job compactWorkspaceStateJob = Job.createSystem(Messages.ProjectRegistryManager_compact_state_job,
+      monitor -> writeWorkspaceState());
+
   /**
    * @noreference For tests only
    */
   Consumer<Map<IMavenProjectFacade, MavenProject>> addContextProjectListener;
 
+  /**
+   * Called with each pom when the second refresh phase starts (<code>false</code>) and finishes (<code>true</code>)
+   * processing it.
+   *
+   * @noreference For tests only
+   */
+  BiConsumer<IFile, Boolean> phase2Listener;
+
+  /**
+   * @noreference For tests only
+   */
+  int phase2Parallelism = PHASE2_PARALLELISM;
+
   public ProjectRegistryManager() {
 
   }
 
-  @Activate
-  void init() {
-    //TODO this should really happen in the background!
-    ProjectRegistry state;
-    if(configuration.isUpdateProjectsOnStartup()) {
-      state = null;
-    } else {
-      state = stateReader.readWorkspaceState(this);
+  /**
+   * Returns the project registry, the persisted workspace state is read on first access so that activation of the
+   * manager does not need to wait for it.
+   */
+  ProjectRegistry getProjectRegistry() {
+    ProjectRegistry registry = projectRegistry;
+    if(registry == null) {
+      synchronized(this) {
+        registry = projectRegistry;
+        if(registry == null) {
+          ProjectRegistry state;
+          if(configuration.isUpdateProjectsOnStartup()) {
+            state = null;
+          } else {
+            state = stateReader.readWorkspaceState(this);
+          }
+          registry = (state != null && state.isValid()) ? state : new ProjectRegistry();
+          projectRegistry = registry;
+        }
+      }
     }
-    this.projectRegistry = (state != null && state.isValid()) ? state : new ProjectRegistry();
-
+    return registry;
   }
 
   /**
@@ -213,7 +264,7 @@ public class ProjectRegistryManager implements ISaveParticipant {
     if(pom == null) {
       return null;
     }
-    MavenProjectFacade projectFacade = projectRegistry.getProjectFacade(pom);
+    MavenProjectFacade projectFacade = getProjectRegistry().getProjectFacade(pom);
     if(projectFacade == null && load) {
       IProjectConfiguration config = ResolverConfigurationIO.readResolverConfiguration(pom.getProject());
       MavenExecutionResult executionResult = readProjectsWithDependencies(pom, config, monitor).iterator().next();
@@ -307,6 +358,11 @@ public class ProjectRegistryManager implements ISaveParticipant {
     return context != null && context.getExecutionRequest().isUpdateSnapshots();
   }
 
+  private boolean isOffline() throws CoreException {
+    IMavenExecutionContext context = MavenExecutionContext.getThreadContext();
+    return context != null ? context.getExecutionRequest().isOffline() : configuration.isOffline();
+  }
+
   /**
    * This method acquires workspace root's lock and sends project change events. It is meant for synchronous registry
    * updates.
@@ -361,7 +417,7 @@ public class ProjectRegistryManager implements ISaveParticipant {
       }
       if(!refresh.isEmpty()) {
         log.debug("Automatic refresh. artifact={}/{}. projects={}", baseArtifact, artifact, refresh);
-        context.forcePomFiles(refresh);
+        forcePomFiles(context, Cascade.FORCED_POM_FILES, refresh);
       }
     };
 
@@ -375,10 +431,23 @@ public class ProjectRegistryManager implements ISaveParticipant {
       return statusResult;
     } finally {
       maven.removeLocalRepositoryListener(listener);
+      refreshMetrics.recordRefresh(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - start));
       log.debug("Refresh takes {} ms", (System.currentTimeMillis() - start)); //$NON-NLS-1$
     }
   }
 
+  /**
+   * @return the metrics collected by all refreshes of this manager
+   */
+  public RefreshMetrics getRefreshMetrics() {
+    return refreshMetrics;
+  }
+
+  private void forcePomFiles(DependencyResolutionContext context, Cascade cascade, Collection<IFile> pomFiles) {
+    refreshMetrics.recordCascade(cascade, pomFiles.size());
+    context.forcePomFiles(pomFiles);
+  }
+
   private void refresh(MutableProjectRegistry newState, DependencyResolutionContext context, IProgressMonitor monitor)
       throws CoreException {
 
@@ -403,6 +472,7 @@ public class ProjectRegistryManager implements ISaveParticipant {
           MavenCapability mavenParentCapability = MavenCapability.createMavenParent(newFacade.getArtifactKey());
           for(IFile file : newState.getVersionedDependents(mavenParentCapability, true)) {
             if(!newFacades.containsKey(file)) {
+              refreshMetrics.recordCascade(Cascade.FORCED_POM_FILES, 1);
               context.forcePomFile(file);
             }
           }
@@ -411,6 +481,7 @@ public class ProjectRegistryManager implements ISaveParticipant {
               .createMavenArtifactImport(newFacade.getArtifactKey());
           for(IFile file : newState.getVersionedDependents(mavenArtifactImportCapability, true)) {
             if(!newFacades.containsKey(file)) {
+              refreshMetrics.recordCascade(Cascade.FORCED_POM_FILES, 1);
               context.forcePomFile(file);
             }
           }
@@ -446,6 +517,11 @@ public class ProjectRegistryManager implements ISaveParticipant {
 
     // phase 2: resolve project dependencies
     ProjectProcessingTracker tracker = new ProjectProcessingTracker(context);
+    if(phase2Parallelism > 1) {
+      refreshPhase2Parallel(newState, context, tracker, allProcessedPoms, originalCapabilities, originalRequirements,
+          monitor);
+      return;
+    }
     do {
       while(!context.isEmpty()) {
         if(monitor.isCanceled()) {
@@ -458,42 +534,190 @@ public class ProjectRegistryManager implements ISaveParticipant {
 
         IFile pom = context.pop();
         if(tracker.shouldProcess(pom)) {
+          processPhase2(newState, context, allProcessedPoms, originalCapabilities, originalRequirements, pom, monitor);
+          monitor.worked(1);
+        }
+      }
+    } while(tracker.needsImprovement());
+  }
+
+  /**
+   * Resolves the dependencies of the given pom, this is the unit of work of the second refresh phase.
+   *
+   * @return the new facade for the pom, or <code>null</code> if the pom is not (or no longer) a maven project
+   */
+  private MavenProjectFacade processPhase2(MutableProjectRegistry newState, DependencyResolutionContext context,
+      Set<IFile> allProcessedPoms, Map<IFile, Set<Capability>> originalCapabilities,
+      Map<IFile, Set<RequiredCapability>> originalRequirements, IFile pom, IProgressMonitor monitor)
+      throws CoreException {
+    if(phase2Listener != null) {
+      phase2Listener.accept(pom, false);
+    }
+    MavenProjectFacade newFacade = null;
+    if(pom.isAccessible() && pom.getProject().hasNature(IMavenConstants.NATURE_ID)) {
+      newFacade = newState.getProjectFacade(pom);
+    }
+    if(newFacade != null) {
+      MavenProject mavenProject = getMavenProject(newFacade);
+      if(!allProcessedPoms.contains(newFacade.getPom())) {
+        // facade from workspace state that has not been refreshed yet
+        newFacade = readMavenProjectFacades(Collections.singletonList(pom), newState, context, monitor).get(pom);
+      } else {
+        // recreate facade instance to trigger project changed event
+        // this is only necessary for facades that are refreshed because their dependencies changed
+        // but this is relatively cheap, so all facades are recreated here
+        putMavenProject(newFacade, null);
+        newFacade = new MavenProjectFacade(newFacade);
+        putMavenProject(newFacade, mavenProject);
+      }
+      mavenProjectCache.updateMavenProject(newFacade, mavenProject);
+    }
+
+    if(newFacade != null) {
+      MavenProjectFacade facade = newFacade;
+      IProjectConfiguration resolverConfiguration = facade.getConfiguration();
+      createExecutionContext(newState, pom, resolverConfiguration).execute(getMavenProject(newFacade),
+          (executionContext, pm) -> {
+            refreshPhase2(newState, context, originalCapabilities, originalRequirements, pom, facade, pm);
+            return null;
+          }, monitor);
+    } else {
+      refreshPhase2(newState, context, originalCapabilities, originalRequirements, pom, newFacade, monitor);
+    }
+    if(phase2Listener != null) {
+      phase2Listener.accept(pom, true);
+    }
+    return newFacade;
+  }
 
-          MavenProjectFacade newFacade = null;
-          if(pom.isAccessible() && pom.getProject().hasNature(IMavenConstants.NATURE_ID)) {
-            newFacade = newState.getProjectFacade(pom);
+  /**
+   * Parallel variant of the second refresh phase. POMs are taken from the context only once none of their required
+   * capabilities is provided by another POM that is still pending or currently processed, and are then resolved on a
+   * bounded pool of workers, each running in its own {@link MavenExecutionContext}. All interaction with the
+   * {@link ProjectProcessingTracker} happens on the calling thread, so the same ordering rules as for the serial
+   * processing apply.
+   */
+  private void refreshPhase2Parallel(MutableProjectRegistry newState, DependencyResolutionContext context,
+      ProjectProcessingTracker tracker, Set<IFile> allProcessedPoms, Map<IFile, Set<Capability>> originalCapabilities,
+      Map<IFile, Set<RequiredCapability>> originalRequirements, IProgressMonitor monitor) throws CoreException {
+    boolean offline = isOffline();
+    boolean forceDependencyUpdate = isForceDependencyUpdate();
+    int parallelism = phase2Parallelism;
+    AtomicInteger threadCount = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+      Thread thread = new Thread(runnable, "m2e-registry-refresh-" + threadCount.incrementAndGet()); //$NON-NLS-1$
+      thread.setDaemon(true);
+      return thread;
+    });
+    CompletionService<Phase2Result> completionService = new ExecutorCompletionService<>(executor);
+    // the poms currently processed by the workers, with the facade they started from
+    Map<IFile, MavenProjectFacade> running = new HashMap<>();
+    try {
+      do {
+        while(!context.isEmpty() || !running.isEmpty()) {
+          if(monitor.isCanceled()) {
+            throw new OperationCanceledException();
           }
-          if(newFacade != null) {
-            MavenProject mavenProject = getMavenProject(newFacade);
-            if(!allProcessedPoms.contains(newFacade.getPom())) {
-              // facade from workspace state that has not been refreshed yet
-              newFacade = readMavenProjectFacades(Collections.singletonList(pom), newState, context, monitor).get(pom);
-            } else {
-              // recreate facade instance to trigger project changed event
-              // this is only necessary for facades that are refreshed because their dependencies changed
-              // but this is relatively cheap, so all facades are recreated here
-              putMavenProject(newFacade, null);
-              newFacade = new MavenProjectFacade(newFacade);
-              putMavenProject(newFacade, mavenProject);
-            }
-            mavenProjectCache.updateMavenProject(newFacade, mavenProject);
+
+          if(newState.isStale() || (syncRefreshThread != null && syncRefreshThread != Thread.currentThread())) {
+            throw new StaleMutableProjectRegistryException();
           }
 
-          if(newFacade != null) {
-            MavenProjectFacade facade = newFacade;
-            IProjectConfiguration resolverConfiguration = facade.getConfiguration();
-            createExecutionContext(newState, pom, resolverConfiguration).execute(getMavenProject(newFacade),
-                (executionContext, pm) -> {
-                  refreshPhase2(newState, context, originalCapabilities, originalRequirements, pom, facade, pm);
-                  return null;
-                }, monitor);
-          } else {
-            refreshPhase2(newState, context, originalCapabilities, originalRequirements, pom, newFacade, monitor);
+          List<IFile> poms = popSettledPoms(newState, context, running.keySet(), parallelism - running.size());
+          for(IFile pom : poms) {
+            if(!tracker.shouldProcess(pom)) {
+              continue;
+            }
+            // the project might only be known to the context of this thread, hand it over to the worker
+            MavenProjectFacade currentFacade = newState.getProjectFacade(pom);
+            MavenProject currentProject = currentFacade != null ? getMavenProject(currentFacade) : null;
+            running.put(pom, currentFacade);
+            completionService.submit(() -> MavenImpl.execute(maven, offline, forceDependencyUpdate, (ctx, mon) -> {
+              if(currentProject != null) {
+                putMavenProject(currentFacade, currentProject);
+              }
+              MavenProjectFacade facade = processPhase2(newState, context, allProcessedPoms, originalCapabilities,
+                  originalRequirements, pom, mon);
+              return new Phase2Result(pom, facade, facade != null ? getMavenProject(facade) : null);
+            }, new NullProgressMonitor()));
+          }
+          if(running.isEmpty()) {
+            continue;
+          }
+          Future<Phase2Result> future = completionService.poll(100, TimeUnit.MILLISECONDS);
+          if(future == null) {
+            continue;
+          }
+          Phase2Result result = getPhase2Result(future);
+          MavenProjectFacade oldFacade = running.remove(result.pom());
+          if(oldFacade != null && oldFacade != result.facade()) {
+            // the worker replaced the facade, the old one must not keep its project in this context
+            putMavenProject(oldFacade, null);
+          }
+          if(result.facade() != null && result.mavenProject() != null) {
+            putMavenProject(result.facade(), result.mavenProject());
           }
           monitor.worked(1);
         }
+      } while(tracker.needsImprovement());
+    } catch(InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new OperationCanceledException();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Removes up to <code>max</code> poms from the context whose required capabilities are settled, that is not
+   * provided by any other pom that is still waiting for processing or currently processed. If nothing is running and
+   * no such pom exists (e.g. because of cyclic requirements) the first pending pom is returned to guarantee progress.
+   */
+  private static List<IFile> popSettledPoms(MutableProjectRegistry newState, DependencyResolutionContext context,
+      Set<IFile> running, int max) {
+    if(max <= 0) {
+      return List.of();
+    }
+    Map<VersionlessKey, Set<IFile>> pendingProviders = new HashMap<>();
+    for(IFile pom : Stream.concat(context.getCurrent().stream(), running.stream()).toList()) {
+      for(Capability capability : newState.getCapabilities(pom)) {
+        pendingProviders.computeIfAbsent(capability.getVersionlessKey(), k -> new HashSet<>()).add(pom);
+      }
+    }
+    List<IFile> poms = context.pop(pom -> {
+      if(running.contains(pom)) {
+        return false;
+      }
+      for(RequiredCapability requirement : newState.getRequirements(pom)) {
+        Set<IFile> providers = pendingProviders.get(requirement.getVersionlessKey());
+        if(providers != null && (providers.size() > 1 || !providers.contains(pom))) {
+          return false;
+        }
       }
-    } while(tracker.needsImprovement());
+      return true;
+    }, max);
+    if(poms.isEmpty() && running.isEmpty() && !context.isEmpty()) {
+      return List.of(context.pop());
+    }
+    return poms;
+  }
+
+  private static Phase2Result getPhase2Result(Future<Phase2Result> future) throws CoreException, InterruptedException {
+    try {
+      return future.get();
+    } catch(ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if(cause instanceof CoreException coreException) {
+        throw coreException;
+      }
+      if(cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new CoreException(Status.error(cause.getMessage(), cause));
+    }
+  }
+
+  private static record Phase2Result(IFile pom, MavenProjectFacade facade, MavenProject mavenProject) {
   }
 
   private List<IFile> calculateFacadesForUpdate(MutableProjectRegistry registry, DependencyResolutionContext context,
@@ -519,7 +743,12 @@ public class ProjectRegistryManager implements ISaveParticipant {
       monitor.subTask(NLS.bind(Messages.ProjectRegistryManager_task_project, pom.getProject().getName()));
       MavenProjectFacade oldFacade = registry.getProjectFacade(pom);
 
-      context.forcePomFiles(flushCaches(oldFacade, isForceDependencyUpdate()));
+      long flushStart = System.nanoTime();
+      Set<IFile> affected = flushCaches(oldFacade, isForceDependencyUpdate());
+      if(oldFacade != null) {
+        refreshMetrics.record(pom, Stage.FLUSH_CACHES, System.nanoTime() - flushStart);
+      }
+      forcePomFiles(context, Cascade.FORCED_POM_FILES, affected);
       if(oldFacade != null) {
         putMavenProject(oldFacade, null); // maintain maven project cache
       }
@@ -528,23 +757,26 @@ public class ProjectRegistryManager implements ISaveParticipant {
         if(oldFacade != null) {
           // refresh old child modules
           MavenCapability mavenParentCapability = MavenCapability.createMavenParent(oldFacade.getArtifactKey());
-          context.forcePomFiles(registry.getVersionedDependents(mavenParentCapability, true));
+          forcePomFiles(context, Cascade.FORCED_POM_FILES,
+              registry.getVersionedDependents(mavenParentCapability, true));
 
           // refresh projects that import dependencyManagement from this one
           MavenCapability mavenArtifactImportCapability = MavenCapability
               .createMavenArtifactImport(oldFacade.getArtifactKey());
-          context.forcePomFiles(registry.getVersionedDependents(mavenArtifactImportCapability, true));
+          forcePomFiles(context, Cascade.FORCED_POM_FILES,
+              registry.getVersionedDependents(mavenArtifactImportCapability, true));
         }
       } else {
         registry.setProject(pom, null); // discard closed/deleted pom in workspace
         // refresh children of deleted/closed parent
         if(oldFacade != null) {
           MavenCapability mavenParentCapability = MavenCapability.createMavenParent(oldFacade.getArtifactKey());
-          context.forcePomFiles(registry.getDependents(mavenParentCapability, true));
+          forcePomFiles(context, Cascade.FORCED_POM_FILES, registry.getDependents(mavenParentCapability, true));
 
           MavenCapability mavenArtifactImportCapability = MavenCapability
               .createMavenArtifactImport(oldFacade.getArtifactKey());
-          context.forcePomFiles(registry.getVersionedDependents(mavenArtifactImportCapability, true));
+          forcePomFiles(context, Cascade.FORCED_POM_FILES,
+              registry.getVersionedDependents(mavenArtifactImportCapability, true));
         }
       }
     }
@@ -559,7 +791,9 @@ public class ProjectRegistryManager implements ISaveParticipant {
     if(newFacade != null) {
       monitor.subTask(NLS.bind(Messages.ProjectRegistryManager_task_project, newFacade.getProject().getName()));
 
+      long mappingStart = System.nanoTime();
       setupLifecycleMapping(monitor, newFacade);
+      refreshMetrics.record(pom, Stage.LIFECYCLE_MAPPING, System.nanoTime() - mappingStart);
 
       capabilities = new LinkedHashSet<>();
       requirements = new LinkedHashSet<>();
@@ -575,10 +809,12 @@ public class ProjectRegistryManager implements ISaveParticipant {
 
       AbstractMavenDependencyResolver resolver = getMavenDependencyResolver(newFacade, monitor);
       resolver.setContextProjectRegistry(newState);
+      long resolveStart = System.nanoTime();
       try {
         resolver.resolveProjectDependencies(newFacade, capabilities, requirements, monitor);
       } finally {
         resolver.setContextProjectRegistry(null);
+        refreshMetrics.record(pom, Stage.RESOLVE_DEPENDENCIES, System.nanoTime() - resolveStart);
       }
 
       newState.setProject(pom, newFacade);
@@ -621,8 +857,9 @@ public class ProjectRegistryManager implements ISaveParticipant {
       }
     }
     for(Capability capability : changedCapabilities) {
-      context.forcePomFiles(versionedCapabilitiesOnly ? newState.getVersionedDependents(capability, true)
-          : newState.getDependents(capability, true));
+      forcePomFiles(context, Cascade.CAPABILITY_CHANGE,
+          versionedCapabilitiesOnly ? newState.getVersionedDependents(capability, true)
+              : newState.getDependents(capability, true));
     }
 
     Set<RequiredCapability> oldRequirements = newState.setRequirements(pom, requirements);
@@ -633,7 +870,7 @@ public class ProjectRegistryManager implements ISaveParticipant {
     // this is needed to deal with transitive dependency resolution in maven
     if(oldCapabilities != null && hasDiff(oldRequirements, requirements)) {
       for(Capability capability : oldCapabilities) {
-        context.forcePomFiles(newState.getVersionedDependents(capability, true));
+        forcePomFiles(context, Cascade.REQUIREMENT_CHANGE, newState.getVersionedDependents(capability, true));
       }
     }
   }
@@ -760,6 +997,8 @@ public class ProjectRegistryManager implements ISaveParticipant {
           null);
       configureExecutionRequest(context.getExecutionRequest(), state,
           fileList.size() == 1 ? fileList.iterator().next() : null, resolverConfiguration);
+      long readStart = System.nanoTime();
+      long[] participantsTime = new long[1];
       try {
         context.execute((ctx, mon) -> {
           Map<IFile, File> pomFiles = fileList.stream().filter(IFile::isAccessible)
@@ -788,8 +1027,12 @@ public class ProjectRegistryManager implements ISaveParticipant {
           }
           Set<AbstractMavenLifecycleParticipant> executed = new HashSet<>();
           List<MavenProject> projects = facadeMap.keySet().stream().toList();
+          long participantsStart = System.nanoTime();
           executeParticipants(ctx, projects, executed, buildingRequest);
+          long sharedTime = System.nanoTime() - participantsStart;
+          participantsTime[0] += sharedTime;
           facadeMap.values().forEach(facade -> {
+            long projectStart = System.nanoTime();
             try {
               facade.createExecutionContext().execute((projectContext, y) -> {
                 executeParticipants(projectContext, projects, executed, buildingRequest);
@@ -797,6 +1040,10 @@ public class ProjectRegistryManager implements ISaveParticipant {
               }, null);
             } catch(CoreException ex) {
             }
+            long projectTime = System.nanoTime() - projectStart;
+            participantsTime[0] += projectTime;
+            refreshMetrics.record(facade.getPom(), Stage.EXECUTE_PARTICIPANTS,
+                projectTime + sharedTime / facadeMap.size());
           });
           for(var mp : getSortedProjects(facadeMap.keySet())) {
             MavenProjectFacade facade = facadeMap.get(mp);
@@ -808,6 +1055,8 @@ public class ProjectRegistryManager implements ISaveParticipant {
         for(IFile file : fileList) {
           resolutionContext.setStatus(file, e.getStatus());
         }
+      } finally {
+        refreshMetrics.record(fileList, Stage.READ_FACADES, System.nanoTime() - readStart - participantsTime[0]);
       }
     }
     return result;
@@ -895,7 +1144,7 @@ public class ProjectRegistryManager implements ISaveParticipant {
   }
 
   public MavenProjectFacade getMavenProject(String groupId, String artifactId, String version) {
-    return projectRegistry.getProjectFacade(groupId, artifactId, version);
+    return getProjectRegistry().getProjectFacade(groupId, artifactId, version);
   }
 
   private MavenProject readProjectWithDependencies(IMavenProjectFacade facade) {
@@ -935,7 +1184,7 @@ public class ProjectRegistryManager implements ISaveParticipant {
       MavenExecutionContext context = new MavenExecutionContext(
           containerManager.getComponentLookup(multiModuleProjectDirectory), pomFile.getLocation().toFile(),
           multiModuleProjectDirectory, null);
-      configureExecutionRequest(context.getExecutionRequest(), projectRegistry, pomFile, resolverConfiguration);
+      configureExecutionRequest(context.getExecutionRequest(), getProjectRegistry(), pomFile, resolverConfiguration);
       resultMap = context.execute((ctx, mon) -> {
         ProjectBuildingRequest request = context.newProjectBuildingRequest();
         request.setResolveDependencies(true);
@@ -949,11 +1198,11 @@ public class ProjectRegistryManager implements ISaveParticipant {
   }
 
   public List<MavenProjectFacade> getProjects() {
-    return projectRegistry.getProjects();
+    return getProjectRegistry().getProjects();
   }
 
   public IMavenProjectFacade getProject(IProject project) {
-    return projectRegistry.getProjectFacade(getPom(project));
+    return getProjectRegistry().getProjectFacade(getPom(project));
   }
 
   /**
@@ -1011,7 +1260,7 @@ public class ProjectRegistryManager implements ISaveParticipant {
   public MavenArtifactRepository getWorkspaceLocalRepository() throws CoreException {
     ResolverConfiguration resolverConfiguration = new ResolverConfiguration();
     resolverConfiguration.setResolveWorkspaceProjects(true);
-    EclipseWorkspaceArtifactRepository workspaceReader = getWorkspaceReader(projectRegistry, null,
+    EclipseWorkspaceArtifactRepository workspaceReader = getWorkspaceReader(getProjectRegistry(), null,
         resolverConfiguration);
     return createDelegate(workspaceReader, maven.getLocalRepository());
   }
@@ -1025,7 +1274,7 @@ public class ProjectRegistryManager implements ISaveParticipant {
   }
 
   MutableProjectRegistry newMutableProjectRegistry() {
-    return new MutableProjectRegistry(projectRegistry);
+    return new MutableProjectRegistry(getProjectRegistry());
   }
 
   /**
@@ -1037,14 +1286,25 @@ public class ProjectRegistryManager implements ISaveParticipant {
    *           been created
    */
   void applyMutableProjectRegistry(MutableProjectRegistry newState, IProgressMonitor monitor) {
-    List<MavenProjectChangedEvent> events = projectRegistry.apply(newState);
-    //stateReader.writeWorkspaceState(projectRegistry);
+    ProjectRegistry registry = getProjectRegistry();
+    Set<IFile> changedPoms = new LinkedHashSet<>();
+    List<MavenProjectChangedEvent> events = registry.apply(newState, changedPoms);
+    for(MavenProjectChangedEvent event : events) {
+      if(event.getKind() == MavenProjectChangedEvent.KIND_REMOVED) {
+        refreshMetrics.remove((IFile) event.getSource());
+      }
+    }
+    if(stateReader != null) {
+      stateReader.journalChanges(registry, changedPoms);
+    }
     notifyProjectChangeListeners(events, monitor);
   }
 
   public void writeWorkspaceState() {
-    if(stateReader != null && projectRegistry != null) {
-      stateReader.writeWorkspaceState(projectRegistry);
+    // nothing to write if the registry was never accessed
+    ProjectRegistry registry = projectRegistry;
+    if(stateReader != null && registry != null) {
+      stateReader.writeWorkspaceState(registry);
     }
   }
 
@@ -1057,7 +1317,7 @@ public class ProjectRegistryManager implements ISaveParticipant {
 
     IMavenExecutionContext context;
     try {
-      MavenProjectFacade facade = projectRegistry.getProjectFacade(pom);
+      MavenProjectFacade facade = getProjectRegistry().getProjectFacade(pom);
       if(facade != null) {
         context = facade.createExecutionContext();
       } else {
@@ -1080,7 +1340,7 @@ public class ProjectRegistryManager implements ISaveParticipant {
 
   public IMavenExecutionContext createExecutionContext(IFile pom, IProjectConfiguration resolverConfiguration)
       throws CoreException {
-    return createExecutionContext(projectRegistry, pom, resolverConfiguration);
+    return createExecutionContext(getProjectRegistry(), pom, resolverConfiguration);
   }
 
   /**
@@ -1120,6 +1380,21 @@ public class ProjectRegistryManager implements ISaveParticipant {
     return mavenProject;
   }
 
+  /**
+   * Keeps the MavenProject of the given pom in the project cache until the returned retention is closed.
+   */
+  public MavenProjectCache.Retention retainMavenProject(File pomFile) {
+    return mavenProjectCache.retain(pomFile);
+  }
+
+  /**
+   * @return <code>true</code> if the MavenProject of the given pom is retained, i.e. it is currently in use
+   */
+  boolean isRetained(IFile pom) {
+    IPath location = pom.getLocation();
+    return location != null && mavenProjectCache.isRetained(location.toFile());
+  }
+
   /**
    * @noreference public for test purposes only
    */
@@ -1141,7 +1416,7 @@ public class ProjectRegistryManager implements ISaveParticipant {
       mavenProjectCache.invalidateProjectFacade(facade);
       Set<IFile> ifiles = new HashSet<>();
       for(File file : mavenProjectCache.flushMavenCaches(facade.getPomFile(), key, forceDependencyUpdate)) {
-        MavenProjectFacade affected = projectRegistry.getProjectFacade(file);
+        MavenProjectFacade affected = getProjectRegistry().getProjectFacade(file);
         if(affected != null) {
           ifiles.add(affected.getPom());
         }
@@ -1195,6 +1470,19 @@ public class ProjectRegistryManager implements ISaveParticipant {
 
   @Override
   public void saving(ISaveContext context) {
-    writeWorkspaceState();
+    ProjectRegistry registry = projectRegistry;
+    if(stateReader == null || registry == null) {
+      return;
+    }
+    if(!stateReader.isJournaling(registry)) {
+      writeWorkspaceState();
+    } else if(stateReader.needsCompaction()) {
+      if(context.getKind() == ISaveContext.FULL_SAVE) {
+        // the workspace is about to shut down, a background job might not run anymore
+        writeWorkspaceState();
+      } else {
+        compactWorkspaceStateJob.schedule();
+      }
+    }
   }
 }
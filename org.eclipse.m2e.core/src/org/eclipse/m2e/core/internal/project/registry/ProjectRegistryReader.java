@@ -15,17 +15,28 @@ package org.eclipse.m2e.core.internal.project.registry;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.zip.CRC32;
 
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
-import org.osgi.framework.FrameworkUtil;
 import org.osgi.framework.Version;
 import org.osgi.framework.VersionRange;
 import org.osgi.service.component.annotations.Activate;
@@ -49,10 +60,51 @@ import org.eclipse.core.runtime.Platform;
 public class ProjectRegistryReader {
   private static final Logger log = LoggerFactory.getLogger(ProjectRegistryReader.class);
 
-  private static final String WORKSPACE_STATE = "workspaceState.ser"; //$NON-NLS-1$
+  private static final String WORKSPACE_STATE = "workspaceState.bin"; //$NON-NLS-1$
+
+  /**
+   * Java serialized state written by previous versions, only read once for migration
+   */
+  private static final String LEGACY_WORKSPACE_STATE = "workspaceState.ser"; //$NON-NLS-1$
+
+  /**
+   * Append only journal of project changes applied since the snapshot in {@link #WORKSPACE_STATE} was written
+   */
+  private static final String WORKSPACE_JOURNAL = "workspaceState.journal"; //$NON-NLS-1$
+
+  /**
+   * The journal is not compacted before it has reached this size, no matter how small the snapshot is
+   */
+  private static final long MIN_COMPACTION_SIZE = 256 * 1024;
+
+  /**
+   * magic, format version and snapshot id
+   */
+  private static final int JOURNAL_HEADER_SIZE = 4 + 4 + 8;
+
+  /**
+   * record length and checksum
+   */
+  private static final int RECORD_HEADER_SIZE = 4 + 8;
+
+  private static final SecureRandom RANDOM = new SecureRandom();
 
   private File stateFile;
 
+  private File legacyStateFile;
+
+  private File journalFile;
+
+  /**
+   * The registry that is in sync with snapshot and journal on disk, changes of other registries can't be journaled
+   */
+  private ProjectRegistry attached;
+
+  /**
+   * Unique id of the snapshot on disk, a journal is only replayed onto the snapshot with the same id
+   */
+  private long snapshotId;
+
   @Activate
   void init(BundleContext bundleContext) {
     IPath result = Platform.getStateLocation(bundleContext.getBundle());
@@ -62,11 +114,146 @@ public class ProjectRegistryReader {
 
   public void setStateLocation(File bundleStateLocation) {
     this.stateFile = new File(bundleStateLocation, WORKSPACE_STATE);
+    this.legacyStateFile = new File(bundleStateLocation, LEGACY_WORKSPACE_STATE);
+    this.journalFile = new File(bundleStateLocation, WORKSPACE_JOURNAL);
   }
 
-  public ProjectRegistry readWorkspaceState(final ProjectRegistryManager managerImpl) {
+  public synchronized ProjectRegistry readWorkspaceState(final ProjectRegistryManager managerImpl) {
+    attached = null;
     if(stateFile.exists()) {
-      try (ObjectInputStream is = createObjectInputStream(managerImpl)) {
+      long start = System.currentTimeMillis();
+      try (InputStream is = new BufferedInputStream(new FileInputStream(stateFile))) {
+        ProjectRegistryFormat.Snapshot snapshot = ProjectRegistryFormat.read(is, managerImpl);
+        if(snapshot == null) {
+          log.info("Workspace state was written with an incompatible format version and is discarded");
+          return null;
+        }
+        ProjectRegistry registry = snapshot.registry();
+        int records = replayJournal(registry, snapshot.snapshotId(), managerImpl);
+        log.debug("Reading workspace state with {} journal records took {} ms", records, //$NON-NLS-1$
+            System.currentTimeMillis() - start);
+        attached = registry;
+        snapshotId = snapshot.snapshotId();
+        return registry;
+      } catch(Exception ex) {
+        log.error("Can't read workspace state", ex);
+      }
+      return null;
+    }
+    return readLegacyWorkspaceState(managerImpl, legacyStateFile);
+  }
+
+  /**
+   * Applies all intact records of the journal to the registry read from the snapshot. A journal left behind by a
+   * crash can end with a partially written record, the journal is truncated before the first record that can't be
+   * read completely or doesn't match its checksum.
+   *
+   * @return the number of replayed records
+   */
+  private int replayJournal(ProjectRegistry registry, long snapshotId, ProjectRegistryManager managerImpl)
+      throws IOException {
+    if(!journalFile.exists()) {
+      return 0;
+    }
+    int records = 0;
+    long validLength = 0;
+    boolean discard = false;
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+      if(ProjectRegistryFormat.readJournalHeader(in) != snapshotId) {
+        log.info("Workspace state journal does not belong to the workspace state and is discarded");
+        discard = true;
+        return 0;
+      }
+      validLength = JOURNAL_HEADER_SIZE;
+      while(true) {
+        int length = in.readInt();
+        long checksum = in.readLong();
+        if(length < 0) {
+          break;
+        }
+        byte[] record = in.readNBytes(length);
+        if(record.length != length || checksum(record) != checksum) {
+          break;
+        }
+        ProjectRegistryFormat.readDelta(record, registry, managerImpl);
+        validLength += RECORD_HEADER_SIZE + length;
+        records++ ;
+      }
+    } catch(EOFException ex) {
+      // end of journal or incomplete record
+    } finally {
+      if(discard) {
+        Files.delete(journalFile.toPath());
+      }
+    }
+    if(validLength < journalFile.length()) {
+      log.warn("Workspace state journal is truncated after {} intact records", records);
+      try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) { //$NON-NLS-1$
+        file.setLength(validLength);
+      }
+    }
+    return records;
+  }
+
+  /**
+   * Appends the current state of the given poms to the journal. If the registry is not the one the persisted state
+   * belongs to, for example because the workspace state could not be read, a new snapshot is written instead.
+   */
+  public synchronized void journalChanges(ProjectRegistry state, Collection<IFile> poms) {
+    if(attached != state) {
+      writeWorkspaceState(state);
+      return;
+    }
+    if(poms.isEmpty()) {
+      return;
+    }
+    try {
+      byte[] record = ProjectRegistryFormat.writeDelta(state, poms);
+      boolean newJournal = !journalFile.exists() || journalFile.length() == 0;
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(new FileOutputStream(journalFile, true)))) {
+        if(newJournal) {
+          ProjectRegistryFormat.writeJournalHeader(out, snapshotId);
+        }
+        out.writeInt(record.length);
+        out.writeLong(checksum(record));
+        out.write(record);
+      }
+    } catch(Exception ex) {
+      log.error("Can't write workspace state journal", ex);
+      // the journal can't be trusted any longer
+      writeWorkspaceState(state);
+    }
+  }
+
+  /**
+   * @return <code>true</code> if changes of the given registry are appended to the journal
+   */
+  public synchronized boolean isJournaling(ProjectRegistry state) {
+    return attached == state;
+  }
+
+  /**
+   * @return <code>true</code> if the journal has grown large enough compared to the snapshot that it should be
+   *         compacted
+   */
+  public boolean needsCompaction() {
+    long journalSize = journalFile.length();
+    return journalSize > MIN_COMPACTION_SIZE && journalSize > stateFile.length() / 2;
+  }
+
+  private static long checksum(byte[] record) {
+    CRC32 crc = new CRC32();
+    crc.update(record);
+    return crc.getValue();
+  }
+
+  /**
+   * Reads a workspace state written with java serialization by previous versions
+   */
+  ProjectRegistry readLegacyWorkspaceState(ProjectRegistryManager managerImpl, File file) {
+    if(file.exists()) {
+      try (ObjectInputStream is = createObjectInputStream(managerImpl, file)) {
         return (ProjectRegistry) is.readObject();
       } catch(Exception ex) {
         log.error("Can't read workspace state", ex);
@@ -75,8 +262,8 @@ public class ProjectRegistryReader {
     return null;
   }
 
-  private ObjectInputStream createObjectInputStream(ProjectRegistryManager managerImpl) throws IOException {
-    return new ObjectInputStream(new BufferedInputStream(new FileInputStream(stateFile))) {
+  private ObjectInputStream createObjectInputStream(ProjectRegistryManager managerImpl, File file) throws IOException {
+    return new ObjectInputStream(new BufferedInputStream(new FileInputStream(file))) {
       {
         enableResolveObject(true);
       }
@@ -112,68 +299,53 @@ public class ProjectRegistryReader {
     };
   }
 
-  public void writeWorkspaceState(ProjectRegistry state) {
-    try (ObjectOutputStream os = createObjectOutputStream()) {
-      synchronized(state) { // see MNGECLIPSE-860
-        os.writeObject(state);
+  /**
+   * Writes a new snapshot of the state to a temporary file that atomically replaces the previous state, so a crash
+   * while writing never leaves a truncated file behind. The journal is obsolete afterwards and discarded, the
+   * registry becomes the one further changes are journaled for.
+   */
+  public synchronized void writeWorkspaceState(ProjectRegistry state) {
+    Path target = stateFile.toPath();
+    Path tmp = target.resolveSibling(WORKSPACE_STATE + ".tmp"); //$NON-NLS-1$
+    // the id must be unique and not only increasing, as a snapshot can be written without reading the previous one
+    long newSnapshotId = newSnapshotId();
+    attached = null;
+    try {
+      try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+        ProjectRegistryFormat.write(state, newSnapshotId, os);
+      }
+      try {
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch(AtomicMoveNotSupportedException ex) {
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
       }
+      snapshotId = newSnapshotId;
+      // a journal that is left over belongs to a previous snapshot and is ignored on read
+      Files.deleteIfExists(journalFile.toPath());
+      attached = state;
+      Files.deleteIfExists(legacyStateFile.toPath());
     } catch(Exception ex) {
       log.error("Can't write workspace state", ex);
+      try {
+        Files.deleteIfExists(tmp);
+      } catch(IOException ignored) {
+        // nothing we can do here
+      }
     }
   }
 
-  private ObjectOutputStream createObjectOutputStream() throws IOException {
-    ClassLoader thisClassloader = getClass().getClassLoader();
-    return new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(stateFile))) {
-      {
-        enableReplaceObject(true);
-      }
-
-      @Override
-      protected Object replaceObject(Object o) throws IOException {
-        if(o instanceof IPath path) {
-          return new IPathReplace(path);
-        } else if(o instanceof IFile file) {
-          return new IFileReplace(file);
-        } else if(o instanceof ProjectRegistryManager) {
-          return new MavenProjectManagerImplReplace();
-        }
-        return super.replaceObject(o);
-      }
-
-      @Override
-      protected void annotateClass(Class<?> cl) throws IOException {
-        // if the class is visible through this classloader, assume it will be during reading stream back
-        try {
-          Class<?> target = cl;
-          while(target.isArray()) {
-            target = target.getComponentType();
-          }
-
-          if(target.isPrimitive() || target.equals(thisClassloader.loadClass(target.getName()))) {
-            writeObject(null); // TODO is there a better way?
-            return;
-          }
-        } catch(ClassNotFoundException ex) {
-          // fall through
-        }
-
-        // foreign class
-        Bundle bundle = FrameworkUtil.getBundle(cl);
-        if(bundle != null) {
-          writeObject(bundle.getSymbolicName());
-          writeObject(bundle.getVersion().toString());
-        }
-
-        // TODO this will likely fail during desirialization
-      }
-    };
+  private static long newSnapshotId() {
+    long id;
+    do {
+      id = RANDOM.nextLong();
+    } while(id == -1); // reserved for incompatible journals
+    return id;
   }
 
   /**
    * IPath replacement used for object serialization
    */
-  private static final class IPathReplace implements Serializable {
+  static final class IPathReplace implements Serializable {
     private static final long serialVersionUID = -2361259525684491181L;
 
     private final String path;
@@ -190,7 +362,7 @@ public class ProjectRegistryReader {
   /**
    * IFile replacement used for object serialization
    */
-  private static final class IFileReplace implements Serializable {
+  static final class IFileReplace implements Serializable {
     private static final long serialVersionUID = -7266001068347075329L;
 
     private final String path;
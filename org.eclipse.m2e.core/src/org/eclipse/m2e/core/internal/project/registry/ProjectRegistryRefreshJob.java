@@ -14,10 +14,10 @@
 
 package org.eclipse.m2e.core.internal.project.registry;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.osgi.service.component.annotations.Component;
@@ -60,7 +60,41 @@ public class ProjectRegistryRefreshJob extends MavenJob
 
   private static final long SCHEDULE_DELAY = 1000L;
 
-  private final Set<MavenUpdateRequest> queue = new LinkedHashSet<>();
+  /**
+   * Priority of queued refreshes, poms of a higher priority are refreshed and applied before those of a lower one
+   */
+  public enum Priority {
+    /**
+     * Background events like reopened projects or the startup refresh
+     */
+    LOW,
+    /**
+     * Changed project preferences
+     */
+    NORMAL,
+    /**
+     * Explicitly requested refreshes and poms open in an editor or currently built
+     */
+    HIGH
+  }
+
+  /**
+   * Pending refresh of a single pom, several requests for the same pom are coalesced into one
+   */
+  static final record PendingRefresh(boolean offline, boolean forceDependencyUpdate, Priority priority) {
+
+    PendingRefresh merge(PendingRefresh other) {
+      // an online refresh covers an offline one
+      return new PendingRefresh(offline && other.offline, forceDependencyUpdate || other.forceDependencyUpdate,
+          priority.compareTo(other.priority) >= 0 ? priority : other.priority);
+    }
+
+    PendingRefresh withPriority(Priority newPriority) {
+      return new PendingRefresh(offline, forceDependencyUpdate, newPriority);
+    }
+  }
+
+  private final Map<IFile, PendingRefresh> queue = new LinkedHashMap<>();
 
   @Reference
   ProjectRegistryManager manager;
@@ -76,7 +110,11 @@ public class ProjectRegistryRefreshJob extends MavenJob
   }
 
   public void refresh(MavenUpdateRequest updateRequest) {
-    queue(updateRequest);
+    refresh(updateRequest, Priority.HIGH);
+  }
+
+  public void refresh(MavenUpdateRequest updateRequest, Priority priority) {
+    queue(updateRequest, priority);
     schedule(SCHEDULE_DELAY);
   }
 
@@ -96,32 +134,74 @@ public class ProjectRegistryRefreshJob extends MavenJob
   @Override
   public IStatus run(final IProgressMonitor monitor) {
     monitor.beginTask(Messages.ProjectRegistryRefreshJob_task_refreshing, IProgressMonitor.UNKNOWN);
-    List<MavenUpdateRequest> requests;
+    Map<IFile, PendingRefresh> requests;
     synchronized(this.queue) {
-      requests = new ArrayList<>(this.queue);
+      requests = new LinkedHashMap<>(this.queue);
       this.queue.clear();
     }
 
+    // remember the current facades to find out which poms were refreshed by someone else in case of a conflict
+    ProjectRegistry registry = manager.getProjectRegistry();
+    Map<IFile, MavenProjectFacade> initialFacades = new HashMap<>();
+    for(IFile pom : requests.keySet()) {
+      initialFacades.put(pom, registry.getProjectFacade(pom));
+    }
+    requests.replaceAll((pom, pending) -> manager.isRetained(pom) ? pending.withPriority(Priority.HIGH) : pending);
+
+    try {
+      Priority[] priorities = Priority.values();
+      for(int i = priorities.length - 1; i >= 0; i-- ) {
+        Priority priority = priorities[i];
+        Map<IFile, PendingRefresh> tier = new LinkedHashMap<>();
+        requests.forEach((pom, pending) -> {
+          if(pending.priority() == priority) {
+            tier.put(pom, pending);
+          }
+        });
+        if(!tier.isEmpty()) {
+          refresh(tier, monitor);
+          // applied, so these are not redone if a later tier runs into a conflict
+          requests.keySet().removeAll(tier.keySet());
+        }
+      }
+    } catch(CoreException ex) {
+      log.error(ex.getMessage(), ex);
+    } catch(OperationCanceledException ex) {
+      log.info("{} was canceled", getClass().getName());
+    } catch(StaleMutableProjectRegistryException e) {
+      requeueInvalidated(requests, initialFacades);
+    } catch(Exception ex) {
+      log.error(ex.getMessage(), ex);
+    } finally {
+      monitor.done();
+    }
+
+    return Status.OK_STATUS;
+  }
+
+  /**
+   * Refreshes the given poms into a new mutable registry that is applied afterwards.
+   */
+  void refresh(Map<IFile, PendingRefresh> requests, IProgressMonitor monitor) throws CoreException {
     try (MutableProjectRegistry newState = manager.newMutableProjectRegistry()) {
       maven.createExecutionContext().execute((context, theMonitor) -> {
         SubMonitor subMonitor = SubMonitor.convert(theMonitor);
         // group requests
-        Set<IFile> offlineForceDependencyUpdate = new HashSet<>();
-        Set<IFile> offlineNotForceDependencyUpdate = new HashSet<>();
-        Set<IFile> notOfflineForceDependencyUpdate = new HashSet<>();
-        Set<IFile> notOfflineNotForceDependencyUpdate = new HashSet<>();
-        for(MavenUpdateRequest request : requests) {
-          subMonitor.checkCanceled();
-          if(request.isOffline() && request.isForceDependencyUpdate()) {
-            offlineForceDependencyUpdate.addAll(request.getPomFiles());
-          } else if(request.isOffline() && !request.isForceDependencyUpdate()) {
-            offlineNotForceDependencyUpdate.addAll(request.getPomFiles());
-          } else if(!request.isOffline() && request.isForceDependencyUpdate()) {
-            notOfflineForceDependencyUpdate.addAll(request.getPomFiles());
-          } else if(!request.isOffline() && !request.isForceDependencyUpdate()) {
-            notOfflineNotForceDependencyUpdate.addAll(request.getPomFiles());
+        Set<IFile> offlineForceDependencyUpdate = new LinkedHashSet<>();
+        Set<IFile> offlineNotForceDependencyUpdate = new LinkedHashSet<>();
+        Set<IFile> notOfflineForceDependencyUpdate = new LinkedHashSet<>();
+        Set<IFile> notOfflineNotForceDependencyUpdate = new LinkedHashSet<>();
+        requests.forEach((pom, request) -> {
+          if(request.offline() && request.forceDependencyUpdate()) {
+            offlineForceDependencyUpdate.add(pom);
+          } else if(request.offline() && !request.forceDependencyUpdate()) {
+            offlineNotForceDependencyUpdate.add(pom);
+          } else if(!request.offline() && request.forceDependencyUpdate()) {
+            notOfflineForceDependencyUpdate.add(pom);
+          } else {
+            notOfflineNotForceDependencyUpdate.add(pom);
           }
-        }
+        });
         // process requests
         // true * true
         subMonitor.checkCanceled();
@@ -165,27 +245,31 @@ public class ProjectRegistryRefreshJob extends MavenJob
         }
         return null;
       }, monitor);
-    } catch(CoreException ex) {
-      log.error(ex.getMessage(), ex);
-    } catch(OperationCanceledException ex) {
-      log.info("{} was canceled", getClass().getName());
-    } catch(StaleMutableProjectRegistryException e) {
-      synchronized(this.queue) {
-        // must preserve order of requests here
-        requests.addAll(this.queue);
-        this.queue.clear();
-        this.queue.addAll(requests);
-        if(!this.queue.isEmpty()) {
-          schedule(SCHEDULE_DELAY);
-        }
-      }
-    } catch(Exception ex) {
-      log.error(ex.getMessage(), ex);
-    } finally {
-      monitor.done();
     }
+  }
 
-    return Status.OK_STATUS;
+  /**
+   * Puts the requests that were not applied back into the queue, except for poms that have been refreshed in the
+   * meantime by the change that made our state stale. Forced dependency updates are always redone.
+   */
+  private void requeueInvalidated(Map<IFile, PendingRefresh> requests, Map<IFile, MavenProjectFacade> initialFacades) {
+    ProjectRegistry registry = manager.getProjectRegistry();
+    requests.entrySet().removeIf(entry -> {
+      IFile pom = entry.getKey();
+      MavenProjectFacade current = registry.getProjectFacade(pom);
+      return !entry.getValue().forceDependencyUpdate() && current != null && current != initialFacades.get(pom)
+          && !current.isStale();
+    });
+    log.debug("Registry changed concurrently, requeue {} poms", requests.size()); //$NON-NLS-1$
+    synchronized(this.queue) {
+      // must preserve order of requests here
+      this.queue.forEach((pom, pending) -> requests.merge(pom, pending, PendingRefresh::merge));
+      this.queue.clear();
+      this.queue.putAll(requests);
+      if(!this.queue.isEmpty()) {
+        schedule(SCHEDULE_DELAY);
+      }
+    }
   }
 
   // IResourceChangeListener
@@ -200,7 +284,7 @@ public class ProjectRegistryRefreshJob extends MavenJob
     if(IResourceChangeEvent.PRE_CLOSE == type || IResourceChangeEvent.PRE_DELETE == type) {
       IProject project = (IProject) event.getResource();
       if(MavenPlugin.isMavenProject(project)) {
-        queue(new MavenUpdateRequest(project, offline, forceDependencyUpdate));
+        queue(new MavenUpdateRequest(project, offline, forceDependencyUpdate), Priority.LOW);
       }
     } else {
       // if (IResourceChangeEvent.POST_CHANGE == type)
@@ -217,7 +301,7 @@ public class ProjectRegistryRefreshJob extends MavenJob
         //Bug 436679: queue update request only for reopened projects.
         //Imported projects (delta.getKind() == IResourceDelta.ADDED) will be taken care of by the builder.
         if((projectDelta.getKind() == IResourceDelta.CHANGED && (projectDelta.getFlags() & IResourceDelta.OPEN) != 0)) {
-          queue(new MavenUpdateRequest(project, offline, forceDependencyUpdate));
+          queue(new MavenUpdateRequest(project, offline, forceDependencyUpdate), Priority.LOW);
         }
       }
     }
@@ -229,10 +313,14 @@ public class ProjectRegistryRefreshJob extends MavenJob
     }
   }
 
-  private void queue(MavenUpdateRequest updateRequest) {
+  void queue(MavenUpdateRequest updateRequest, Priority priority) {
+    PendingRefresh pending = new PendingRefresh(updateRequest.isOffline(), updateRequest.isForceDependencyUpdate(),
+        priority);
     synchronized(queue) {
-      queue.add(updateRequest);
-      log.debug("Queued refresh request: {}", updateRequest); //$NON-NLS-1$
+      for(IFile pom : updateRequest.getPomFiles()) {
+        queue.merge(pom, pending, PendingRefresh::merge);
+      }
+      log.debug("Queued refresh request: {} {}", updateRequest, priority); //$NON-NLS-1$
     }
   }
 
@@ -242,7 +330,7 @@ public class ProjectRegistryRefreshJob extends MavenJob
     boolean updateSnapshots = false;
 
     if(event.getSource() instanceof IProject project) {
-      queue(new MavenUpdateRequest(project, offline, updateSnapshots));
+      queue(new MavenUpdateRequest(project, offline, updateSnapshots), Priority.NORMAL);
     }
   }
 
@@ -253,4 +341,13 @@ public class ProjectRegistryRefreshJob extends MavenJob
     }
   }
 
+  /**
+   * @return a copy of the pending refreshes in the order they are processed within a priority
+   */
+  Map<IFile, PendingRefresh> getQueue() {
+    synchronized(queue) {
+      return new LinkedHashMap<>(queue);
+    }
+  }
+
 }
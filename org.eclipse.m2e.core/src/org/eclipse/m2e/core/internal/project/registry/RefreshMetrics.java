@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.core.internal.project.registry;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.IPath;
+
+
+/**
+ * Timings and counters of the project registry refresh. Timings are recorded per pom and {@link Stage}, stages that
+ * process several poms at once distribute the time evenly across them. Recording only involves
+ * {@link System#nanoTime()} and a few uncontended adders, so the metrics are always enabled.
+ */
+public class RefreshMetrics {
+
+  /**
+   * Stages of the refresh that are timed per pom
+   */
+  public enum Stage {
+    READ_FACADES("readMavenProjectFacades"), //
+    LIFECYCLE_MAPPING("setupLifecycleMapping"), //
+    RESOLVE_DEPENDENCIES("resolveProjectDependencies"), //
+    EXECUTE_PARTICIPANTS("executeParticipants"), //
+    FLUSH_CACHES("flushCaches");
+
+    private final String displayName;
+
+    Stage(String displayName) {
+      this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+      return displayName;
+    }
+  }
+
+  /**
+   * Causes for poms being (re-)added to a running refresh
+   */
+  public enum Cascade {
+    /**
+     * dependents of a refreshed parent, imported or installed artifact, or poms affected by flushed maven caches
+     */
+    FORCED_POM_FILES,
+    /**
+     * dependents of capabilities that were added, changed or removed
+     */
+    CAPABILITY_CHANGE,
+    /**
+     * dependents of projects whose requirements have changed
+     */
+    REQUIREMENT_CHANGE
+  }
+
+  /**
+   * @param count number of times the stage was recorded
+   * @param totalNanos total time spent in nanoseconds
+   * @param maxNanos longest single time spent in nanoseconds
+   */
+  public static record StageStatistics(long count, long totalNanos, long maxNanos) {
+  }
+
+  private final ConcurrentMap<IPath, PomMetrics> poms = new ConcurrentHashMap<>();
+
+  private final Map<Cascade, LongAdder> cascades = new EnumMap<>(Cascade.class);
+
+  private final LongAdder refreshCount = new LongAdder();
+
+  private final LongAdder refreshNanos = new LongAdder();
+
+  public RefreshMetrics() {
+    for(Cascade cascade : Cascade.values()) {
+      cascades.put(cascade, new LongAdder());
+    }
+  }
+
+  void record(IFile pom, Stage stage, long nanos) {
+    poms.computeIfAbsent(pom.getFullPath(), p -> new PomMetrics()).record(stage, nanos);
+  }
+
+  void record(Collection<IFile> poms, Stage stage, long nanos) {
+    if(!poms.isEmpty()) {
+      long share = nanos / poms.size();
+      for(IFile pom : poms) {
+        record(pom, stage, share);
+      }
+    }
+  }
+
+  /**
+   * Drops the metrics of a pom that is no longer part of the registry
+   */
+  void remove(IFile pom) {
+    poms.remove(pom.getFullPath());
+  }
+
+  void recordCascade(Cascade cascade, int count) {
+    if(count > 0) {
+      cascades.get(cascade).add(count);
+    }
+  }
+
+  void recordRefresh(long nanos) {
+    refreshCount.increment();
+    refreshNanos.add(nanos);
+  }
+
+  /**
+   * @return full path of all poms for which metrics were recorded
+   */
+  public Set<IPath> getPoms() {
+    return Set.copyOf(poms.keySet());
+  }
+
+  /**
+   * @return the statistics of the given stage for the pom with the given full path
+   */
+  public StageStatistics getStatistics(IPath pom, Stage stage) {
+    PomMetrics metrics = poms.get(pom);
+    return metrics != null ? metrics.getStatistics(stage) : new StageStatistics(0, 0, 0);
+  }
+
+  /**
+   * @return the statistics of the given stage summed up over all poms
+   */
+  public StageStatistics getStatistics(Stage stage) {
+    long count = 0;
+    long total = 0;
+    long max = 0;
+    for(PomMetrics metrics : poms.values()) {
+      StageStatistics statistics = metrics.getStatistics(stage);
+      count += statistics.count();
+      total += statistics.totalNanos();
+      max = Math.max(max, statistics.maxNanos());
+    }
+    return new StageStatistics(count, total, max);
+  }
+
+  /**
+   * @return the number of poms that were added to a running refresh for the given cause
+   */
+  public long getCascadeCount(Cascade cascade) {
+    return cascades.get(cascade).sum();
+  }
+
+  public long getRefreshCount() {
+    return refreshCount.sum();
+  }
+
+  public long getRefreshNanos() {
+    return refreshNanos.sum();
+  }
+
+  public void reset() {
+    poms.clear();
+    cascades.values().forEach(LongAdder::reset);
+    refreshCount.reset();
+    refreshNanos.reset();
+  }
+
+  /**
+   * @return all metrics as JSON document, times are given in milliseconds
+   */
+  public String toJson() {
+    JsonObject json = new JsonObject();
+    json.addProperty("refreshCount", getRefreshCount());
+    json.addProperty("refreshMillis", toMillis(getRefreshNanos()));
+    JsonObject cascadesJson = new JsonObject();
+    for(Cascade cascade : Cascade.values()) {
+      cascadesJson.addProperty(cascade.name(), getCascadeCount(cascade));
+    }
+    json.add("cascades", cascadesJson);
+    JsonObject totalJson = new JsonObject();
+    for(Stage stage : Stage.values()) {
+      totalJson.add(stage.getDisplayName(), toJson(getStatistics(stage)));
+    }
+    json.add("stages", totalJson);
+    JsonObject pomsJson = new JsonObject();
+    Map<String, PomMetrics> sorted = new TreeMap<>();
+    poms.forEach((path, metrics) -> sorted.put(path.toPortableString(), metrics));
+    sorted.forEach((path, metrics) -> {
+      JsonObject pomJson = new JsonObject();
+      for(Stage stage : Stage.values()) {
+        StageStatistics statistics = metrics.getStatistics(stage);
+        if(statistics.count() > 0) {
+          pomJson.add(stage.getDisplayName(), toJson(statistics));
+        }
+      }
+      pomsJson.add(path, pomJson);
+    });
+    json.add("poms", pomsJson);
+    return new GsonBuilder().setPrettyPrinting().create().toJson(json);
+  }
+
+  private static JsonObject toJson(StageStatistics statistics) {
+    JsonObject json = new JsonObject();
+    json.addProperty("count", statistics.count());
+    json.addProperty("totalMillis", toMillis(statistics.totalNanos()));
+    json.addProperty("maxMillis", toMillis(statistics.maxNanos()));
+    return json;
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  private static final class PomMetrics {
+
+    private final LongAdder[] counts = new LongAdder[Stage.values().length];
+
+    private final LongAdder[] totals = new LongAdder[Stage.values().length];
+
+    private final LongAccumulator[] maxima = new LongAccumulator[Stage.values().length];
+
+    PomMetrics() {
+      for(int i = 0; i < counts.length; i++ ) {
+        counts[i] = new LongAdder();
+        totals[i] = new LongAdder();
+        maxima[i] = new LongAccumulator(Math::max, 0);
+      }
+    }
+
+    void record(Stage stage, long nanos) {
+      int i = stage.ordinal();
+      counts[i].increment();
+      totals[i].add(nanos);
+      maxima[i].accumulate(nanos);
+    }
+
+    StageStatistics getStatistics(Stage stage) {
+      int i = stage.ordinal();
+      return new StageStatistics(counts[i].sum(), totals[i].sum(), maxima[i].get());
+    }
+  }
+}
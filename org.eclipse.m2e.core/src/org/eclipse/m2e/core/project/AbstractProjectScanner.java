@@ -14,7 +14,10 @@
 package org.eclipse.m2e.core.project;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
@@ -27,9 +30,11 @@ import org.eclipse.core.runtime.OperationCanceledException;
  */
 public abstract class AbstractProjectScanner<T extends MavenProjectInfo> {
 
-  private final List<T> projects = new ArrayList<>();
+  private final List<T> projects = Collections.synchronizedList(new ArrayList<>());
 
-  private final List<Throwable> errors = new ArrayList<>();
+  private final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+
+  private final List<Consumer<? super T>> projectListeners = new CopyOnWriteArrayList<>();
 
   /**
    * Returns <code>List</code> of {@link MavenProjectInfo}
@@ -45,8 +50,29 @@ public abstract class AbstractProjectScanner<T extends MavenProjectInfo> {
     return this.errors;
   }
 
+  /**
+   * Adds a listener that is notified of each project as soon as it was found, while the scanner is still running.
+   * Scanners that read modules notify the listener of each module as well, possibly before it was added to its parent
+   * project. The listener may be called from any thread.
+   *
+   * @since 2.7
+   */
+  public void addProjectListener(Consumer<? super T> listener) {
+    projectListeners.add(listener);
+  }
+
   protected void addProject(T mavenProjectInfo) {
     projects.add(mavenProjectInfo);
+    projectFound(mavenProjectInfo);
+  }
+
+  /**
+   * Notifies the project listeners of a project or module that was found, without adding it to the projects.
+   *
+   * @since 2.7
+   */
+  protected void projectFound(T mavenProjectInfo) {
+    projectListeners.forEach(listener -> listener.accept(mavenProjectInfo));
   }
 
   protected void addError(Throwable exception) {
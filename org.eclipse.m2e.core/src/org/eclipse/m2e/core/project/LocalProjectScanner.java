@@ -15,14 +15,30 @@ package org.eclipse.m2e.core.project;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.osgi.util.NLS;
@@ -36,17 +52,37 @@ import org.eclipse.m2e.core.internal.Messages;
 
 
 /**
+ * Scans the given folders for maven projects. Directories are visited and poms are read in parallel, found projects
+ * and their modules are reported to the {@link #addProjectListener(java.util.function.Consumer) project listeners} as
+ * soon as their pom is read.
+ *
  * @author Eugene Kuleshov
  */
 public class LocalProjectScanner extends AbstractProjectScanner<MavenProjectInfo> {
+
+  /**
+   * Number of threads used to scan, defaults to the number of available processors.
+   */
+  private static final int THREADS = Integer.getInteger("m2e.scanner.threads", //$NON-NLS-1$
+      Runtime.getRuntime().availableProcessors());
+
+  /**
+   * Comma separated names of folders that are never scanned, in addition to the workspace metadata folder.
+   */
+  private static final Set<String> EXCLUDED_FOLDERS = Arrays
+      .stream(System.getProperty("m2e.scanner.excludedFolders", ".git,node_modules") //$NON-NLS-1$ //$NON-NLS-2$
+          .split(",")) //$NON-NLS-1$
+      .map(String::trim).filter(name -> !name.isEmpty()).collect(Collectors.toSet());
+
   private final List<String> folders;
 
   private final boolean basedirRemameRequired;
 
-  private final Set<File> scannedFolders = new HashSet<>();
+  private final Set<File> scannedFolders = ConcurrentHashMap.newKeySet();
 
   private final MavenModelManager modelManager;
 
+  private volatile boolean canceled;
 
   public LocalProjectScanner(List<String> folders, boolean basedirRemameRequired,
       MavenModelManager modelManager) {
@@ -58,64 +94,115 @@ public class LocalProjectScanner extends AbstractProjectScanner<MavenProjectInfo
   @Override
   public void run(IProgressMonitor monitor) throws InterruptedException {
     SubMonitor subMonitor = SubMonitor.convert(monitor, Messages.LocalProjectScanner_task_scanning, folders.size());
+    // poms are read with the context class loader of the caller, as if they were read by the calling thread
+    ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    ForkJoinPool pool = new ForkJoinPool(Math.max(1, THREADS), p -> {
+      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+      thread.setName("m2e project scanner " + thread.getPoolIndex()); //$NON-NLS-1$
+      thread.setContextClassLoader(contextClassLoader);
+      return thread;
+    }, null, false);
     try {
       for(String folderName : folders) {
         try {
           File folder = new File(folderName).getCanonicalFile();
-          scanFolder(folder, "", subMonitor.split(1)); //$NON-NLS-1$
+          subMonitor.subTask(folder.toString());
+          ForkJoinTask<Void> task = pool.submit(new ScanTask(folder.toPath(), "")); //$NON-NLS-1$
+          while(true) {
+            if(subMonitor.isCanceled()) {
+              canceled = true;
+              throw new OperationCanceledException();
+            }
+            try {
+              task.get(100, TimeUnit.MILLISECONDS);
+              break;
+            } catch(TimeoutException ex) {
+              // check for cancellation again
+            } catch(ExecutionException ex) {
+              addError(ex.getCause());
+              break;
+            }
+          }
+          subMonitor.worked(1);
         } catch(IOException ex) {
           addError(ex);
         }
       }
     } finally {
+      pool.shutdownNow();
       subMonitor.done();
     }
+    // projects are found in any order, report them in a stable one
+    List<MavenProjectInfo> projects = getProjects();
+    synchronized(projects) {
+      projects.sort(
+          Comparator.comparing(MavenProjectInfo::getPomFile, Comparator.nullsFirst(Comparator.naturalOrder())));
+    }
   }
 
-  private void scanFolder(File baseDir, String rootRelPath, IProgressMonitor m) throws InterruptedException {
-    SubMonitor monitor = SubMonitor.convert(m, baseDir.toString(), 1);
+  /**
+   * Scans a directory for a maven project, or its sub directories if it is not one.
+   */
+  private final class ScanTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
 
-    // Don't scan the .metadata folder
-    if(!baseDir.isDirectory() || IMavenConstants.METADATA_FOLDER.equals(baseDir.getName())) {
-      monitor.done();
-      return;
-    }
+    private final transient Path dir;
 
-    try {
-      if(scannedFolders.contains(baseDir.getCanonicalFile())) {
-        monitor.done();
-        return;
-      }
-    } catch(IOException ex1) {
-      addError(ex1);
-      return;
-    }
+    private final String rootRelPath;
 
-    MavenProjectInfo projectInfo = readMavenProjectInfo(baseDir, rootRelPath, null);
-    if(projectInfo != null) {
-      addProject(projectInfo);
-      monitor.done();
-      return; // don't scan subfolders of the Maven project
+    ScanTask(Path dir, String rootRelPath) {
+      this.dir = dir;
+      this.rootRelPath = rootRelPath;
     }
 
-    File[] files = baseDir.listFiles();
-    if(files == null) {
-      addError(new Exception(NLS.bind(Messages.LocalProjectScanner_accessDeniedFromFolder, baseDir.getAbsolutePath())));
-      return;
-    }
-    monitor.setWorkRemaining(files.length);
-    for(File file : files) {
+    @Override
+    protected void compute() {
+      if(canceled) {
+        return;
+      }
+      Path fileName = dir.getFileName();
+      String name = fileName != null ? fileName.toString() : ""; //$NON-NLS-1$
+      // Don't scan the .metadata folder
+      if(IMavenConstants.METADATA_FOLDER.equals(name) || EXCLUDED_FOLDERS.contains(name)) {
+        return;
+      }
+      File baseDir;
       try {
-        file = file.getCanonicalFile();
-        scanFolder(file, rootRelPath + "/" + file.getName(), monitor.split(1)); //$NON-NLS-1$
+        // only directories are canonicalized, symbolic links may point to an already scanned directory
+        baseDir = dir.toFile().getCanonicalFile();
       } catch(IOException ex) {
         addError(ex);
+        return;
+      }
+      if(scannedFolders.contains(baseDir)) {
+        return;
       }
+
+      MavenProjectInfo projectInfo = readMavenProjectInfo(baseDir, rootRelPath, null);
+      if(projectInfo != null) {
+        // the listeners were notified when the pom was read
+        getProjects().add(projectInfo);
+        return; // don't scan subfolders of the Maven project
+      }
+
+      List<ScanTask> children = new ArrayList<>();
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, Files::isDirectory)) {
+        for(Path child : stream) {
+          children.add(new ScanTask(child, rootRelPath + "/" + child.getFileName())); //$NON-NLS-1$
+        }
+      } catch(IOException | SecurityException ex) {
+        addError(new Exception(NLS.bind(Messages.LocalProjectScanner_accessDeniedFromFolder, dir.toAbsolutePath())));
+        return;
+      }
+      invokeAll(children);
     }
   }
 
   private MavenProjectInfo readMavenProjectInfo(File baseDir, String modulePath, MavenProjectInfo parentInfo) {
     try {
+      if(canceled) {
+        return null;
+      }
       baseDir = baseDir.getCanonicalFile();
 
       if(!scannedFolders.add(baseDir)) {
@@ -136,6 +223,7 @@ public class LocalProjectScanner extends AbstractProjectScanner<MavenProjectInfo
       if(parentInfo == null) {
         projectInfo.setBasedirRename(getBasedirRename(projectInfo));
       }
+      projectFound(projectInfo);
 
       Map<String, Set<String>> modules = new LinkedHashMap<>();
       for(String module : model.getModules()) {
@@ -159,14 +247,21 @@ public class LocalProjectScanner extends AbstractProjectScanner<MavenProjectInfo
         }
       }
 
+      // modules are read in parallel but added in the order they are declared
+      Map<ForkJoinTask<MavenProjectInfo>, Set<String>> moduleTasks = new LinkedHashMap<>();
       for(Map.Entry<String, Set<String>> e : modules.entrySet()) {
         String module = e.getKey();
-        Set<String> profiles = e.getValue();
-
         File moduleBaseDir = new File(baseDir, module);
-        MavenProjectInfo moduleInfo = readMavenProjectInfo(moduleBaseDir, module, projectInfo);
+        ForkJoinTask<MavenProjectInfo> task = ForkJoinTask
+            .adapt(() -> readMavenProjectInfo(moduleBaseDir, module, projectInfo));
+        moduleTasks.put(ForkJoinTask.inForkJoinPool() ? task.fork() : task, e.getValue());
+      }
+
+      for(Map.Entry<ForkJoinTask<MavenProjectInfo>, Set<String>> e : moduleTasks.entrySet()) {
+        ForkJoinTask<MavenProjectInfo> task = e.getKey();
+        MavenProjectInfo moduleInfo = ForkJoinTask.inForkJoinPool() ? task.join() : task.invoke();
         if(moduleInfo != null) {
-          moduleInfo.addProfiles(profiles);
+          moduleInfo.addProfiles(e.getValue());
           projectInfo.add(moduleInfo);
         }
       }
@@ -96,6 +96,7 @@ import org.eclipse.m2e.core.internal.IMavenConstants;
 import org.eclipse.m2e.core.internal.MavenPluginActivator;
 import org.eclipse.m2e.core.internal.jobs.MavenJob;
 import org.eclipse.m2e.core.internal.preferences.MavenPreferenceConstants;
+import org.eclipse.m2e.core.internal.project.registry.MavenProjectCache;
 import org.eclipse.m2e.core.project.IMavenProjectChangedListener;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
 import org.eclipse.m2e.core.project.IMavenProjectRegistry;
@@ -147,6 +148,11 @@ public class MavenPomEditor extends FormEditor implements IResourceChangeListene
 
   private MavenProject mavenProject;
 
+  /**
+   * keeps the project of the edited pom in the project cache while the editor is open
+   */
+  private MavenProjectCache.Retention projectCacheRetention;
+
   private int sourcePageIndex;
 
   IModelManager modelManager;
@@ -703,6 +709,10 @@ public class MavenPomEditor extends FormEditor implements IResourceChangeListene
       if(input instanceof IFileEditorInput fileInput) {
         pomFile = fileInput.getFile();
         pomFile.refreshLocal(1, null);
+        if(projectCacheRetention == null && !disposed && pomFile.getLocation() != null) {
+          projectCacheRetention = MavenPluginActivator.getDefault().getMavenProjectManagerImpl()
+              .retainMavenProject(pomFile.getLocation().toFile());
+        }
       }
 
       //never overwrite by null, rather keep old value than null..
@@ -732,6 +742,11 @@ public class MavenPomEditor extends FormEditor implements IResourceChangeListene
 
     MavenPluginActivator.getDefault().getMavenProjectManager().removeMavenProjectChangedListener(this);
 
+    if(projectCacheRetention != null) {
+      projectCacheRetention.close();
+      projectCacheRetention = null;
+    }
+
     if(structuredModel != null) { //#336331
       structuredModel.releaseFromEdit();
     }
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.jdt.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+public class ModuleInfoCacheTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final ModuleInfoCache cache = new ModuleInfoCache(null);
+
+  private final IProgressMonitor monitor = new NullProgressMonitor();
+
+  @Test
+  public void testHit() throws IOException {
+    File jar = jar("a.jar", "org.example.a", 1000000);
+    InternalModuleInfo first = cache.getModuleInfos(List.of(jar), 11, monitor).get(jar);
+    assertEquals("org.example.a", first.name);
+    assertSame(first, cache.getModuleInfos(List.of(jar), 11, monitor).get(jar));
+  }
+
+  @Test
+  public void testInvalidatedByModificationTime() throws IOException {
+    File jar = jar("a.jar", "org.example.a", 1000000);
+    cache.getModuleInfos(List.of(jar), 11, monitor);
+    // rewritten with a new modification time
+    jar("a.jar", "org.example.b", 2000000);
+    assertEquals("org.example.b", cache.getModuleInfos(List.of(jar), 11, monitor).get(jar).name);
+  }
+
+  @Test
+  public void testInvalidatedBySize() throws IOException {
+    File jar = jar("a.jar", "org.example.a", 1000000);
+    cache.getModuleInfos(List.of(jar), 11, monitor);
+    // rewritten with the same modification time, but a different length
+    jar("a.jar", "org.example.changed", 1000000);
+    assertEquals("org.example.changed", cache.getModuleInfos(List.of(jar), 11, monitor).get(jar).name);
+  }
+
+  @Test
+  public void testComplianceIsPartOfKey() throws IOException {
+    File jar = jar("a.jar", "org.example.a", 1000000);
+    InternalModuleInfo moduleInfo = cache.getModuleInfos(List.of(jar), 11, monitor).get(jar);
+    assertNotSame(moduleInfo, cache.getModuleInfos(List.of(jar), 17, monitor).get(jar));
+    assertSame(moduleInfo, cache.getModuleInfos(List.of(jar), 11, monitor).get(jar));
+  }
+
+  @Test
+  public void testOrderAndMissingFiles() throws IOException {
+    File a = jar("a.jar", "org.example.a", 1000000);
+    File b = jar("b.jar", "org.example.b", 1000000);
+    cache.getModuleInfos(List.of(a), 11, monitor);
+    Map<File, InternalModuleInfo> moduleInfos = cache.getModuleInfos(
+        List.of(b, new File(folder.getRoot(), "missing.jar"), folder.getRoot(), a), 11, monitor);
+    assertEquals(List.of(b, a), List.copyOf(moduleInfos.keySet()));
+  }
+
+  @Test
+  public void testCanceled() throws IOException {
+    File jar = jar("a.jar", "org.example.a", 1000000);
+    monitor.setCanceled(true);
+    assertEquals(Map.of(), cache.getModuleInfos(List.of(jar), 11, monitor));
+  }
+
+  private File jar(String name, String moduleName, long lastModified) throws IOException {
+    File file = new File(folder.getRoot(), name);
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    manifest.getMainAttributes().putValue("Automatic-Module-Name", moduleName);
+    try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file), manifest)) {
+      // only the manifest
+    }
+    file.setLastModified(lastModified);
+    return file;
+  }
+}
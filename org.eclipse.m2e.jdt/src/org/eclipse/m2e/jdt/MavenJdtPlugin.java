@@ -57,6 +57,7 @@ import org.eclipse.m2e.core.project.IMavenProjectRegistry;
 import org.eclipse.m2e.jdt.internal.BuildPathManager;
 import org.eclipse.m2e.jdt.internal.MavenClassifierManager;
 import org.eclipse.m2e.jdt.internal.Messages;
+import org.eclipse.m2e.jdt.internal.ModuleInfoCache;
 import org.eclipse.m2e.jdt.internal.launch.MavenLaunchConfigurationListener;
 
 
@@ -186,6 +187,8 @@ public class MavenJdtPlugin extends Plugin {
       dplugin.getLaunchManager().removeLaunchConfigurationListener(launchConfigurationListener);
     }
 
+    ModuleInfoCache.saveDefault();
+
     this.buildpathManager = null;
     this.launchConfigurationListener = null;
     this.mavenClassifierManager = null;
@@ -14,8 +14,10 @@
 package org.eclipse.m2e.jdt.internal;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -41,10 +43,12 @@ import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.repository.RepositorySystem;
 
 import org.eclipse.m2e.core.MavenPlugin;
 import org.eclipse.m2e.core.embedder.ArtifactKey;
 import org.eclipse.m2e.core.embedder.IMaven;
+import org.eclipse.m2e.core.internal.embedder.MavenImpl;
 import org.eclipse.m2e.core.internal.jobs.IBackgroundProcessingQueue;
 import org.eclipse.m2e.core.internal.jobs.MavenJob;
 import org.eclipse.m2e.core.project.IMavenProjectFacade;
@@ -63,6 +67,11 @@ class DownloadSourcesJob extends MavenJob implements IBackgroundProcessingQueue
 
   private static final long SCHEDULE_INTERVAL = 1000L;
 
+  /**
+   * Number of downloads after which the classpath is updated
+   */
+  private static final int UPDATE_CHUNK_SIZE = 50;
+
   private static class DownloadRequest {
     final IProject project;
 
@@ -100,6 +109,15 @@ class DownloadSourcesJob extends MavenJob implements IBackgroundProcessingQueue
     }
   }
 
+  /**
+   * A single artifact whose attachments are downloaded for a request
+   *
+   * @param updateProject whether the classpath of the whole project or only the fragment of the request is updated
+   */
+  private static record Download(DownloadRequest request, ArtifactKey artifact,
+      List<ArtifactRepository> repositories, boolean updateProject) {
+  }
+
   private static final class Attachments {
     public final File javadoc;
 
@@ -140,42 +158,53 @@ class DownloadSourcesJob extends MavenJob implements IBackgroundProcessingQueue
 
   @Override
   public IStatus run(IProgressMonitor monitor) {
-    int totalWork = 2 * queue.size();
-    SubMonitor subMonitor = SubMonitor.convert(monitor, totalWork);
-    while(!queue.isEmpty() && !monitor.isCanceled()) {
-      final DownloadRequest request = queue.poll();
+    List<DownloadRequest> batch = new ArrayList<>();
+    queue.drainTo(batch);
+    SubMonitor subMonitor = SubMonitor.convert(monitor, 2 * batch.size());
+    List<Download> downloads = new ArrayList<>();
+    for(DownloadRequest request : batch) {
+      if(monitor.isCanceled()) {
+        break;
+      }
       try {
         // Process requests one by one to not fill the maven context with too many projects at once and retain a lot of RAM
-        IStatus status = maven.execute((context, aMonitor) -> downloadFilesAndPopulateToUpdate(request, aMonitor),
+        IStatus status = maven.execute((context, aMonitor) -> collectDownloads(request, downloads, aMonitor),
             subMonitor.split(1));
         if(!status.isOK()) {
           // or maybe just log and ignore?
-          queue.clear();
-          requests.clear();
-          toUpdateAttachments.clear();
-          toUpdateMavenProjects.clear();
+          clear();
           return status;
         }
       } catch(CoreException ex) {
         return ex.getStatus();
       }
     }
+    SubMonitor downloadMonitor = subMonitor.split(batch.size()).setWorkRemaining(2 * downloads.size());
+    // download in chunks and update the classpath after each, so sources become available progressively
+    for(int i = 0; i < downloads.size() && !monitor.isCanceled(); i += UPDATE_CHUNK_SIZE) {
+      List<Download> chunk = downloads.subList(i, Math.min(i + UPDATE_CHUNK_SIZE, downloads.size()));
+      try {
+        // all attachments of a chunk are resolved in the same maven execution context
+        IStatus status = maven.execute((context, aMonitor) -> downloadChunk(chunk, aMonitor),
+            downloadMonitor.split(chunk.size()));
+        if(!status.isOK()) {
+          clear();
+          return status;
+        }
+      } catch(CoreException ex) {
+        clear();
+        return ex.getStatus();
+      }
+      if(!toUpdateAttachments.isEmpty() || !toUpdateMavenProjects.isEmpty()) {
+        updateClasspath(manager, toUpdateMavenProjects, toUpdateAttachments, downloadMonitor.split(chunk.size()));
+        toUpdateAttachments.clear();
+        toUpdateMavenProjects.clear();
+      }
+    }
     if(monitor.isCanceled()) {
-      queue.clear();
-      requests.clear();
-      toUpdateAttachments.clear();
-      toUpdateMavenProjects.clear();
+      clear();
       return Status.CANCEL_STATUS;
     }
-
-    if(!toUpdateAttachments.isEmpty() || !toUpdateMavenProjects.isEmpty()) {
-      // consider update classpath after each individual download?
-      // pro: user gets sources progressively (then faster)
-      // con: more save operations
-      updateClasspath(manager, toUpdateMavenProjects, toUpdateAttachments, subMonitor.split(totalWork / 2));
-      toUpdateAttachments.clear();
-      toUpdateMavenProjects.clear();
-    }
     // updateClasspath might has added new requests to the queue.
     requests.clear(); // Retain in requests all elements in queue (in an efficient manner)
     requests.addAll(queue);
@@ -183,6 +212,76 @@ class DownloadSourcesJob extends MavenJob implements IBackgroundProcessingQueue
     return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
   }
 
+  private void clear() {
+    queue.clear();
+    requests.clear();
+    toUpdateAttachments.clear();
+    toUpdateMavenProjects.clear();
+  }
+
+  /**
+   * Downloads the attachments of the given chunk with a single resolution request, so the repository connector
+   * downloads them in parallel, and records what needs to be updated afterwards.
+   */
+  private IStatus downloadChunk(List<Download> chunk, IProgressMonitor monitor) {
+    SubMonitor chunkMonitor = SubMonitor.convert(monitor, 2 * chunk.size());
+    try {
+      MavenImpl mavenImpl = (MavenImpl) maven;
+      RepositorySystem repositorySystem = mavenImpl.lookup(RepositorySystem.class);
+      // the same attachment might be requested for several projects, it is resolved once
+      Map<ArtifactKey, Artifact> attachments = new HashMap<>();
+      Map<Artifact, List<ArtifactRepository>> toResolve = new LinkedHashMap<>();
+      List<Artifact[]> requested = new ArrayList<>(chunk.size());
+      for(Download download : chunk) {
+        if(chunkMonitor.isCanceled()) {
+          return Status.CANCEL_STATUS;
+        }
+        ArtifactKey[] attached = manager.getAttachedSourcesAndJavadoc(download.artifact(), download.repositories(),
+            download.request().downloadSources, download.request().downloadJavaDoc);
+        Artifact[] artifacts = new Artifact[attached.length];
+        for(int i = 0; i < attached.length; i++ ) {
+          if(attached[i] != null) {
+            artifacts[i] = attachments.computeIfAbsent(attached[i],
+                key -> repositorySystem.createArtifactWithClassifier(key.groupId(), key.artifactId(), key.version(),
+                    "jar", key.classifier())); //$NON-NLS-1$
+            toResolve.putIfAbsent(artifacts[i], download.repositories());
+          }
+        }
+        requested.add(artifacts);
+        chunkMonitor.worked(1);
+      }
+      chunkMonitor.setTaskName(getName());
+      mavenImpl.resolveAll(toResolve, chunkMonitor.split(chunk.size()));
+      for(int i = 0; i < chunk.size(); i++ ) {
+        Download download = chunk.get(i);
+        File sources = getFile(requested.get(i)[0], "sources", download.artifact()); //$NON-NLS-1$
+        File javadoc = getFile(requested.get(i)[1], "javadoc", download.artifact()); //$NON-NLS-1$
+        populateToUpdate(download, sources != null || javadoc != null ? new Attachments(javadoc, sources) : null);
+      }
+      return Status.OK_STATUS;
+    } catch(OperationCanceledException ex) {
+      return Status.CANCEL_STATUS;
+    } catch(CoreException ex) {
+      return new MultiStatus(MavenJdtPlugin.PLUGIN_ID, -1, new IStatus[] {ex.getStatus()},
+          "Could not download sources or javadoc", null);
+    }
+  }
+
+  /**
+   * @return the file of the given attachment or <code>null</code> if it was not requested or could not be downloaded
+   */
+  private static File getFile(Artifact attachment, String kind, ArtifactKey artifact) {
+    if(attachment == null) {
+      return null;
+    }
+    if(!attachment.isResolved()) {
+      log.error("Could not download " + kind + " for " + artifact); //$NON-NLS-1$ //$NON-NLS-2$
+      return null;
+    }
+    log.info("Downloaded " + kind + " for " + artifact);
+    return attachment.getFile();
+  }
+
   private static void updateClasspath(BuildPathManager manager, Set<IProject> toUpdateMavenProjects,
       Map<IPackageFragmentRoot, Attachments> toUpdateAttachments, IProgressMonitor monitor) {
     SubMonitor updateMonitor = SubMonitor.convert(monitor, Messages.DownloadSourcesJob_job_associateWithClasspath,
@@ -207,8 +306,8 @@ class DownloadSourcesJob extends MavenJob implements IBackgroundProcessingQueue
     }
   }
 
-  IStatus downloadFilesAndPopulateToUpdate(DownloadRequest request, IProgressMonitor monitor) {
-    SubMonitor requestMonitor = SubMonitor.convert(monitor, 33);
+  IStatus collectDownloads(DownloadRequest request, List<Download> downloads, IProgressMonitor monitor) {
+    SubMonitor requestMonitor = SubMonitor.convert(monitor, 3);
     try {
       if(request.artifact != null) {
         requestMonitor.setTaskName(getName() + ": " + request.artifact.artifactId());
@@ -217,22 +316,19 @@ class DownloadSourcesJob extends MavenJob implements IBackgroundProcessingQueue
       }
       IMavenProjectFacade projectFacade = projectManager.create(request.project, requestMonitor.split(1));
       if(projectFacade != null) {
-        Attachments files = downloadMaven(projectFacade, request.artifact, request.downloadSources,
-            request.downloadJavaDoc, requestMonitor.split(2));
-        if(files != null && files.isNotEmpty()) {
-          //only perform later classpath update if something changed
-          toUpdateMavenProjects.add(request.project);
-        }
-      } else if(request.artifact != null) {
-        List<ArtifactRepository> repositories = maven.getArtifactRepositories();
-        Attachments files = downloadAttachments(request.artifact, repositories, request.downloadSources,
-            request.downloadJavaDoc, requestMonitor.split(2));
-        if(request.fragment == null) {
-          log.warn(
-              "IPackageFragmentRoot is missing, skipping javadoc/source attachment for project " + request.project);
+        MavenProject mavenProject = projectFacade.getMavenProject(requestMonitor.split(2));
+        List<ArtifactRepository> repositories = mavenProject.getRemoteArtifactRepositories();
+        if(request.artifact != null) {
+          downloads.add(new Download(request, request.artifact, repositories, true));
         } else {
-          toUpdateAttachments.put(request.fragment, files);
+          for(Artifact a : mavenProject.getArtifacts()) {
+            ArtifactKey aKey = new ArtifactKey(a.getGroupId(), a.getArtifactId(), a.getBaseVersion(),
+                a.getClassifier());
+            downloads.add(new Download(request, aKey, repositories, true));
+          }
         }
+      } else if(request.artifact != null) {
+        downloads.add(new Download(request, request.artifact, maven.getArtifactRepositories(), false));
       }
       return Status.OK_STATUS;
     } catch(CoreException ex) {
@@ -243,76 +339,18 @@ class DownloadSourcesJob extends MavenJob implements IBackgroundProcessingQueue
     }
   }
 
-  private Attachments downloadMaven(IMavenProjectFacade projectFacade, ArtifactKey artifact, boolean downloadSources,
-      boolean downloadJavadoc, IProgressMonitor monitor) throws CoreException {
-    MavenProject mavenProject = projectFacade.getMavenProject(monitor);
-    List<ArtifactRepository> repositories = mavenProject.getRemoteArtifactRepositories();
-    Attachments files = null;
-    if(artifact != null) {
-      files = downloadAttachments(artifact, repositories, downloadSources, downloadJavadoc, monitor);
-    } else {
-      for(Artifact a : mavenProject.getArtifacts()) {
-        ArtifactKey aKey = new ArtifactKey(a.getGroupId(), a.getArtifactId(), a.getBaseVersion(), a.getClassifier());
-        files = downloadAttachments(aKey, repositories, downloadSources, downloadJavadoc, monitor);
-      }
-    }
-    if(files != null && files.isNotEmpty()) {
-      return files;
-    }
-    return null;
-  }
-
-  /**
-   * @return null if no attachment was found, the found attachments otherwise
-   * @throws CoreException
-   */
-  private Attachments downloadAttachments(ArtifactKey artifact, List<ArtifactRepository> repositories,
-      boolean downloadSources, boolean downloadJavadoc, IProgressMonitor monitor) throws CoreException {
-    if(monitor != null && monitor.isCanceled()) {
-      String message = "Downloading of sources/javadocs was canceled"; //$NON-NLS-1$
-      log.debug(message);
-      throw new OperationCanceledException(message);
-    }
-    ArtifactKey[] attached = manager.getAttachedSourcesAndJavadoc(artifact, repositories, downloadSources,
-        downloadJavadoc);
-
-    File source = null;
-    if(attached[0] != null) {
-      try {
-        source = download(attached[0], repositories, monitor);
-        log.info("Downloaded sources for " + artifact.toString());
-      } catch(CoreException e) {
-        log.error("Could not download sources for " + artifact.toString(), e); //$NON-NLS-1$
+  private void populateToUpdate(Download download, Attachments files) {
+    DownloadRequest request = download.request();
+    if(download.updateProject()) {
+      if(files != null && files.isNotEmpty()) {
+        //only perform later classpath update if something changed
+        toUpdateMavenProjects.add(request.project);
       }
+    } else if(request.fragment == null) {
+      log.warn("IPackageFragmentRoot is missing, skipping javadoc/source attachment for project " + request.project);
+    } else if(files != null) {
+      toUpdateAttachments.put(request.fragment, files);
     }
-    if(monitor != null) {
-      monitor.worked(1);
-    }
-    File javadoc = null;
-    if(attached[1] != null) {
-      try {
-        javadoc = download(attached[1], repositories, monitor);
-        log.info("Downloaded javadoc for " + artifact.toString());
-      } catch(CoreException e) {
-        log.error("Could not download javadoc for " + artifact.toString(), e); //$NON-NLS-1$
-      }
-    }
-    if(source == null && javadoc == null) {
-      return null;
-    }
-    return new Attachments(javadoc, source);
-  }
-
-  private File download(ArtifactKey artifact, List<ArtifactRepository> repositories, IProgressMonitor monitor)
-      throws CoreException {
-    Artifact resolved = maven.resolve(artifact.groupId(), //
-        artifact.artifactId(), //
-        artifact.version(), //
-        "jar" /*type*/, // //$NON-NLS-1$
-        artifact.classifier(), //
-        repositories, //
-        monitor);
-    return resolved.getFile();
   }
 
   private void scheduleDownload(IProject project, IPackageFragmentRoot fragment, ArtifactKey artifact,
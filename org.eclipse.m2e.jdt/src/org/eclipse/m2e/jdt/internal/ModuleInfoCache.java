@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.jdt.internal;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.m2e.core.internal.BinaryCacheFile;
+import org.eclipse.m2e.jdt.MavenJdtPlugin;
+
+
+/**
+ * Process wide cache of the module info of jars, keyed by the path of the jar and the target compliance and validated
+ * by the size and modification time of the jar. The cache is persisted in the plugin state location, so unchanged jars
+ * are not read again after a restart.
+ */
+public final class ModuleInfoCache {
+  private static final Logger log = LoggerFactory.getLogger(ModuleInfoCache.class);
+
+  private static final String CACHE_FILE = "moduleInfoCache.bin"; //$NON-NLS-1$
+
+  /**
+   * "M2EM"
+   */
+  private static final int MAGIC = 0x4d32454d;
+
+  private static final int FORMAT_VERSION = 1;
+
+  /**
+   * Number of jars that are read concurrently, shared by all projects
+   */
+  private static final int READ_PARALLELISM = Integer.getInteger("m2e.jdt.moduleinfo.parallelism", 4);
+
+  private static final ThreadPoolExecutor READ_EXECUTOR = new ThreadPoolExecutor(READ_PARALLELISM, READ_PARALLELISM,
+      30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "m2e-module-info"); //$NON-NLS-1$
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  static {
+    READ_EXECUTOR.allowCoreThreadTimeOut(true);
+  }
+
+  private static ModuleInfoCache instance;
+
+  private record Key(String path, int compliance) {
+  }
+
+  private record Entry(long length, long lastModified, InternalModuleInfo moduleInfo) {
+  }
+
+  private final BinaryCacheFile cacheFile;
+
+  private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+  private volatile boolean dirty;
+
+  ModuleInfoCache(BinaryCacheFile cacheFile) {
+    this.cacheFile = cacheFile;
+  }
+
+  static synchronized ModuleInfoCache getDefault() {
+    if(instance == null) {
+      MavenJdtPlugin plugin = MavenJdtPlugin.getDefault();
+      ModuleInfoCache cache = new ModuleInfoCache(plugin != null
+          ? new BinaryCacheFile(plugin.getStateLocation().append(CACHE_FILE).toFile().toPath(), MAGIC, FORMAT_VERSION)
+          : null);
+      cache.load();
+      instance = cache;
+    }
+    return instance;
+  }
+
+  /**
+   * Persists the cache if it was used.
+   */
+  public static synchronized void saveDefault() {
+    if(instance != null) {
+      instance.save();
+    }
+  }
+
+  /**
+   * Computes the module info of the given jars, only jars that are not cached or have changed are read. They are read
+   * in parallel on a dedicated bounded executor, as reading a jar blocks on I/O.
+   *
+   * @return the module info by jar in the order of the given jars, jars that are not a file are not contained. If the
+   *         monitor is canceled, the jars that were not read yet are missing.
+   */
+  Map<File, InternalModuleInfo> getModuleInfos(Collection<File> files, int targetCompliance, IProgressMonitor monitor) {
+    Map<File, InternalModuleInfo> result = new LinkedHashMap<>();
+    Map<File, Future<InternalModuleInfo>> reads = new LinkedHashMap<>();
+    for(File file : files) {
+      if(monitor.isCanceled()) {
+        break;
+      }
+      BasicFileAttributes attributes = readAttributes(file);
+      if(attributes == null) {
+        continue;
+      }
+      InternalModuleInfo moduleInfo = getCached(file, attributes, targetCompliance);
+      if(moduleInfo != null) {
+        result.put(file, moduleInfo);
+      } else {
+        result.put(file, null); // keeps the position of the jar
+        reads.put(file, READ_EXECUTOR.submit(() -> read(file, attributes, targetCompliance)));
+      }
+    }
+    try {
+      for(Map.Entry<File, Future<InternalModuleInfo>> read : reads.entrySet()) {
+        try {
+          result.put(read.getKey(), await(read.getValue(), monitor));
+        } catch(ExecutionException ex) {
+          log.debug("Can't read module info of {}", read.getKey(), ex.getCause());
+        }
+      }
+    } catch(InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      reads.values().forEach(future -> future.cancel(true));
+    } catch(CancellationException ex) {
+      reads.values().forEach(future -> future.cancel(true));
+    }
+    result.values().removeIf(moduleInfo -> moduleInfo == null);
+    return result;
+  }
+
+  /**
+   * Waits for the given read, checking the monitor in between
+   *
+   * @throws CancellationException if the monitor is canceled
+   */
+  private static InternalModuleInfo await(Future<InternalModuleInfo> read, IProgressMonitor monitor)
+      throws InterruptedException, ExecutionException {
+    while(true) {
+      if(monitor.isCanceled()) {
+        throw new CancellationException();
+      }
+      try {
+        return read.get(100, TimeUnit.MILLISECONDS);
+      } catch(TimeoutException ex) {
+        // check the monitor again
+      }
+    }
+  }
+
+  private InternalModuleInfo getCached(File file, BasicFileAttributes attributes, int targetCompliance) {
+    Entry entry = entries.get(new Key(file.getAbsolutePath(), targetCompliance));
+    if(entry != null && entry.length() == attributes.size()
+        && entry.lastModified() == attributes.lastModifiedTime().toMillis()) {
+      return entry.moduleInfo();
+    }
+    return null;
+  }
+
+  private InternalModuleInfo read(File file, BasicFileAttributes attributes, int targetCompliance) {
+    Key key = new Key(file.getAbsolutePath(), targetCompliance);
+    long lastModified = attributes.lastModifiedTime().toMillis();
+    InternalModuleInfo moduleInfo = ModuleSupport.readModuleInfo(file, targetCompliance);
+    if(moduleInfo != null) {
+      entries.put(key, new Entry(attributes.size(), lastModified, moduleInfo));
+      dirty = true;
+    }
+    return moduleInfo;
+  }
+
+  private static BasicFileAttributes readAttributes(File file) {
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+      return attributes.isRegularFile() ? attributes : null;
+    } catch(IOException ex) {
+      return null;
+    }
+  }
+
+  private void load() {
+    if(cacheFile == null) {
+      return;
+    }
+    try {
+      cacheFile.read(in -> {
+        int size = in.readInt();
+        for(int i = 0; i < size; i++ ) {
+          Key key = new Key(in.readUTF(), in.readInt());
+          long length = in.readLong();
+          long lastModified = in.readLong();
+          String name = in.readUTF();
+          List<String> requiredModules = readList(in);
+          List<String> usedServices = readList(in);
+          List<String> providedServices = readList(in);
+          entries.put(key, new Entry(length, lastModified,
+              new InternalModuleInfo(name, requiredModules, usedServices, providedServices)));
+        }
+        return null;
+      });
+    } catch(IOException | RuntimeException ex) {
+      log.debug("Can't read module info cache", ex);
+      entries.clear();
+    }
+  }
+
+  private void save() {
+    if(!dirty || cacheFile == null) {
+      return;
+    }
+    // jars of removed dependency versions are deleted from the local repository, their module info is not needed again
+    entries.keySet().removeIf(key -> !new File(key.path()).isFile());
+    Map<Key, Entry> snapshot = Map.copyOf(entries);
+    try {
+      cacheFile.write(out -> {
+        out.writeInt(snapshot.size());
+        for(Map.Entry<Key, Entry> e : snapshot.entrySet()) {
+          Entry entry = e.getValue();
+          InternalModuleInfo moduleInfo = entry.moduleInfo();
+          out.writeUTF(e.getKey().path());
+          out.writeInt(e.getKey().compliance());
+          out.writeLong(entry.length());
+          out.writeLong(entry.lastModified());
+          out.writeUTF(moduleInfo.name);
+          writeList(out, moduleInfo.requiredModuleNames);
+          writeList(out, moduleInfo.usedServiceNames);
+          writeList(out, moduleInfo.providedServiceNames);
+        }
+      });
+      dirty = false;
+    } catch(IOException ex) {
+      log.debug("Can't write module info cache", ex);
+    }
+  }
+
+  private static List<String> readList(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    List<String> list = new ArrayList<>(size);
+    for(int i = 0; i < size; i++ ) {
+      list.add(in.readUTF());
+    }
+    return list;
+  }
+
+  private static void writeList(DataOutputStream out, List<String> list) throws IOException {
+    out.writeInt(list.size());
+    for(String value : list) {
+      out.writeUTF(value);
+    }
+  }
+}
@@ -124,13 +124,26 @@ public class ModuleSupport {
       return;
     }
 
+    // the module info of all libraries is computed at once, so it can be read in parallel
+    List<File> libraries = new ArrayList<>();
+    for(IClasspathEntryDescriptor entryDescriptor : classpath.getEntryDescriptors()) {
+      if(IClasspathEntry.CPE_LIBRARY == entryDescriptor.getEntryKind()) {
+        libraries.add(entryDescriptor.getPath().toFile());
+      }
+    }
+    Map<File, InternalModuleInfo> libraryModuleInfos = ModuleInfoCache.getDefault().getModuleInfos(libraries,
+        targetCompliance, monitor);
+    if(monitor.isCanceled()) {
+      return;
+    }
+
     Map<String, InternalModuleInfo> entryModuleInfos = new LinkedHashMap<>();
     Map<String, IClasspathEntryDescriptor> entryDescriptors = new LinkedHashMap<>();
     for(IClasspathEntryDescriptor entryDescriptor : classpath.getEntryDescriptors()) {
       if(monitor.isCanceled()) {
         return;
       }
-      InternalModuleInfo entryModuleInfo = getModuleInfo(entryDescriptor, monitor, targetCompliance);
+      InternalModuleInfo entryModuleInfo = getModuleInfo(entryDescriptor, monitor, libraryModuleInfos);
       if(entryModuleInfo != null) {
         entryModuleInfos.put(entryModuleInfo.name, entryModuleInfo);//potentially suppresses duplicate entries from the same workspace project, with different classifiers
         entryDescriptors.put(entryModuleInfo.name, entryDescriptor);
@@ -196,10 +209,10 @@ public class ModuleSupport {
   }
 
   private static InternalModuleInfo getModuleInfo(IClasspathEntryDescriptor entry, IProgressMonitor monitor,
-      int targetCompliance) {
+      Map<File, InternalModuleInfo> libraryModuleInfos) {
     if(entry != null && !monitor.isCanceled()) {
       if(IClasspathEntry.CPE_LIBRARY == entry.getEntryKind()) {
-        return getModuleInfo(entry.getPath().toFile(), targetCompliance);
+        return libraryModuleInfos.get(entry.getPath().toFile());
       } else if(IClasspathEntry.CPE_PROJECT == entry.getEntryKind()) {
         return getModuleInfo(getJavaProject(entry.getPath()), monitor);
       }
@@ -233,7 +246,10 @@ public class ModuleSupport {
     return null;
   }
 
-  private static InternalModuleInfo getModuleInfo(File file, int targetCompliance) {
+  /**
+   * Reads the module info of the given jar, use {@link ModuleInfoCache} to avoid reading unchanged jars again.
+   */
+  static InternalModuleInfo readModuleInfo(File file, int targetCompliance) {
     if(!file.isFile()) {
       return null;
     }
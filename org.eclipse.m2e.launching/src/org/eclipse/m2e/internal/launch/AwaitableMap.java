@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.m2e.internal.launch;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+
+/**
+ * A map whose values are published by one thread and can be awaited by others, until the map is closed. Each key is
+ * backed by a future that is completed when the value is put, so waiting threads block instead of polling.
+ */
+public final class AwaitableMap<K, V> {
+
+  private final Map<K, CompletableFuture<V>> values = new ConcurrentHashMap<>();
+
+  private volatile boolean closed;
+
+  /**
+   * Publishes the value of the given key and wakes up all threads waiting for it. The first value put for a key wins.
+   */
+  public void put(K key, V value) {
+    values.computeIfAbsent(key, k -> new CompletableFuture<>()).complete(value);
+  }
+
+  /**
+   * Closes this map, no further values are expected. Threads waiting for a key that has no value are released and
+   * receive <code>null</code>.
+   */
+  public void close() {
+    closed = true;
+    values.values().forEach(f -> f.complete(null));
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Waits until the value of the given key is put or this map is closed.
+   *
+   * @return the value of the given key or <code>null</code> if the key has no value when the map is closed, the
+   *         timeout elapsed or the thread was interrupted
+   */
+  public V await(K key, Duration timeout) {
+    CompletableFuture<V> future = values.computeIfAbsent(key, k -> new CompletableFuture<>());
+    if(closed) {
+      // close() may have run before the future was added
+      future.complete(null);
+    }
+    try {
+      return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch(InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch(ExecutionException | TimeoutException ex) {
+      return null;
+    }
+  }
+}
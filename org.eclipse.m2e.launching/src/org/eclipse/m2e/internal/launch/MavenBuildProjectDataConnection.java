@@ -14,6 +14,7 @@
 package org.eclipse.m2e.internal.launch;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
@@ -30,15 +31,22 @@ import org.eclipse.m2e.core.internal.launch.MavenEmbeddedRuntime;
 import org.eclipse.m2e.internal.launch.MavenRuntimeLaunchSupport.VMArguments;
 import org.eclipse.m2e.internal.maven.listener.M2EMavenBuildDataBridge;
 import org.eclipse.m2e.internal.maven.listener.M2EMavenBuildDataBridge.MavenBuildConnection;
+import org.eclipse.m2e.internal.maven.listener.M2EMavenBuildDataBridge.MavenBuildListener;
 import org.eclipse.m2e.internal.maven.listener.M2EMavenBuildDataBridge.MavenProjectBuildData;
 
 
 public class MavenBuildProjectDataConnection {
 
-  private static record MavenBuildConnectionData(Map<ArtifactKey, MavenProjectBuildData> projects,
+  private static record MavenBuildConnectionData(AwaitableMap<ArtifactKey, MavenProjectBuildData> projects,
       MavenBuildConnection connection) {
   }
 
+  /**
+   * The maximum time to wait for the data of a project, it should arrive almost immediately since the GAV of the
+   * project was already printed on the console.
+   */
+  private static final Duration PROJECT_DATA_TIMEOUT = Duration.ofSeconds(10);
+
   private static final Map<ILaunch, MavenBuildConnectionData> LAUNCH_PROJECT_DATA = new ConcurrentHashMap<>();
 
   static {
@@ -72,11 +80,20 @@ public class MavenBuildProjectDataConnection {
     try {
       if(MavenLaunchUtils.getMavenRuntime(launch.getLaunchConfiguration()) instanceof MavenEmbeddedRuntime) {
 
-        Map<ArtifactKey, MavenProjectBuildData> projects = new ConcurrentHashMap<>();
+        AwaitableMap<ArtifactKey, MavenProjectBuildData> projects = new AwaitableMap<>();
+
+        MavenBuildConnection connection = M2EMavenBuildDataBridge
+            .prepareConnection(launch.getLaunchConfiguration().getName(), new MavenBuildListener() {
+              @Override
+              public void projectStarted(MavenProjectBuildData d) {
+                projects.put(new ArtifactKey(d.groupId, d.artifactId, d.version, null), d);
+              }
 
-        MavenBuildConnection connection = M2EMavenBuildDataBridge.prepareConnection(
-            launch.getLaunchConfiguration().getName(),
-            d -> projects.put(new ArtifactKey(d.groupId, d.artifactId, d.version, null), d));
+              @Override
+              public void connectionClosed() {
+                projects.close();
+              }
+            });
 
         if(LAUNCH_PROJECT_DATA.putIfAbsent(launch, new MavenBuildConnectionData(projects, connection)) != null) {
           connection.close();
@@ -94,14 +111,8 @@ public class MavenBuildProjectDataConnection {
     if(build == null) {
       return null;
     }
-    ArtifactKey key = new ArtifactKey(groupId, artifactId, version, null);
-    while(true) {
-      MavenProjectBuildData buildProject = build.projects().get(key);
-      if(buildProject != null || build.connection().isReadCompleted()) {
-        return buildProject;
-      }
-      Thread.onSpinWait(); // Await completion of project data read. It has to become available soon, since its GAV was printed on the console
-    }
+    // Await the project data, it is published by the reader thread of the connection
+    return build.projects().await(new ArtifactKey(groupId, artifactId, version, null), PROJECT_DATA_TIMEOUT);
   }
 
 }
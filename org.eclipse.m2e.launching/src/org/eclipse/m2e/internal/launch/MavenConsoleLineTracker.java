@@ -268,7 +268,7 @@ public class MavenConsoleLineTracker implements IConsoleLineTracker {
   private ProjectReference getProject(String groupId, String artifactId, String version) {
     MavenProjectBuildData buildProject = MavenBuildProjectDataConnection.getBuildProject(launch, groupId, artifactId,
         version);
-    if(buildProject == null) {
+    if(buildProject == null || buildProject.projectBasedir == null) {
       return null;
     }
     IWorkspaceRoot wsRoot = ResourcesPlugin.getWorkspace().getRoot();
@@ -348,7 +348,8 @@ public class MavenConsoleLineTracker implements IConsoleLineTracker {
 
     @Override
     public void linkActivated() {
-      List<Path> reportFiles = getTestReportFiles(project.buildProject().projectBuildDirectory, testName);
+      Path buildDirectory = project.buildProject().projectBuildDirectory;
+      List<Path> reportFiles = buildDirectory != null ? getTestReportFiles(buildDirectory, testName) : List.of();
       if(!reportFiles.isEmpty()) {
         IWorkspaceRoot wsRoot = ResourcesPlugin.getWorkspace().getRoot();
         for(Path reportFile : reportFiles) {
@@ -398,7 +399,11 @@ public class MavenConsoleLineTracker implements IConsoleLineTracker {
     }
 
     public void linkActivated() {
-      Path relativePath = project.buildProject().projectBasedir.relativize(project.buildProject().projectFile);
+      MavenProjectBuildData buildProject = project.buildProject();
+      // the file is unknown if the project was not read from a file
+      Path relativePath = buildProject.projectFile != null
+          ? buildProject.projectBasedir.relativize(buildProject.projectFile)
+          : Path.of(IMavenConstants.POM_FILE_NAME);
       IFile projectFile;
       String filename = relativePath.getFileName().toString();
       if(IMavenConstants.POM_FILE_NAME.equals(filename)) {
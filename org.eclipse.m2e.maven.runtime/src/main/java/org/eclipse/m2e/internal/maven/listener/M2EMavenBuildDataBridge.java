@@ -13,20 +13,24 @@
 
 package org.eclipse.m2e.internal.maven.listener;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
-import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
-import java.util.StringJoiner;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
@@ -35,7 +39,7 @@ import javax.inject.Singleton;
 
 import org.apache.maven.eventspy.EventSpy;
 import org.apache.maven.execution.ExecutionEvent;
-import org.apache.maven.execution.ExecutionEvent.Type;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.project.MavenProject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +48,11 @@ import org.slf4j.LoggerFactory;
  * This {@link EventSpy} listens to certain events within a Maven build JVM and
  * sends certain data (e.g. about projects being built) to the JVM of the
  * Eclipse IDE that launched the Maven build JVM.
+ * <p>
+ * The data is sent as a sequence of frames, each frame consists of its length
+ * as int, the type of the event as byte and the fields of the event. Strings
+ * are written as length prefixed UTF-8, so they may contain any character.
+ * </p>
  * 
  * @author Hannes Wellmann
  *
@@ -53,7 +62,17 @@ import org.slf4j.LoggerFactory;
 public class M2EMavenBuildDataBridge implements EventSpy {
 
 	private static final String SOCKET_FILE_PROPERTY_NAME = "m2e.build.project.data.socket.port";
-	private static final String DATA_SET_SEPARATOR = ";;";
+
+	private static final byte PROJECT_STARTED = 1;
+	private static final byte PROJECT_FINISHED = 2;
+	private static final byte MOJO_STARTED = 3;
+	private static final byte MOJO_FINISHED = 4;
+
+	/**
+	 * Upper bound for the length of a frame, larger lengths indicate a corrupt
+	 * stream
+	 */
+	private static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(M2EMavenBuildDataBridge.class);
 
@@ -77,78 +96,318 @@ public class M2EMavenBuildDataBridge implements EventSpy {
 
 	@Override
 	public void close() throws IOException {
-		writeChannel.close();
+		if (writeChannel != null) {
+			writeChannel.close();
+		}
 	}
 
 	@Override
 	public void onEvent(Object event) throws Exception {
-		if (writeChannel != null && event instanceof ExecutionEvent
-				&& ((ExecutionEvent) event).getType() == Type.ProjectStarted) {
-
-			String message = serializeProjectData(((ExecutionEvent) event).getProject());
-
-			ByteBuffer buffer = ByteBuffer.wrap(message.getBytes());
-			synchronized (writeChannel) {
-				while (buffer.hasRemaining()) {
-					writeChannel.write(buffer);
+		if (writeChannel != null && event instanceof ExecutionEvent) {
+			byte[] frame = serializeEvent((ExecutionEvent) event, System.currentTimeMillis());
+			if (frame != null) {
+				ByteBuffer buffer = ByteBuffer.wrap(frame);
+				synchronized (writeChannel) {
+					while (buffer.hasRemaining()) {
+						writeChannel.write(buffer);
+					}
 				}
 			}
 		}
 	}
 
-	private static String serializeProjectData(MavenProject project) {
-		StringJoiner data = new StringJoiner(",");
-		add(data, "groupId", project.getGroupId());
-		add(data, "artifactId", project.getArtifactId());
-		add(data, "version", project.getVersion());
-		add(data, "file", project.getFile());
-		add(data, "basedir", project.getBasedir());
-		add(data, "build.directory", project.getBuild().getDirectory());
-		return data.toString() + DATA_SET_SEPARATOR;
+	/**
+	 * @return the frame for the given event or <code>null</code> if the event is
+	 *         not sent
+	 */
+	static byte[] serializeEvent(ExecutionEvent event, long timestamp) throws IOException {
+		MavenProject project = event.getProject();
+		if (project == null) {
+			return null;
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0); // length, set below
+		switch (event.getType()) {
+		case ProjectStarted:
+			out.writeByte(PROJECT_STARTED);
+			writeProject(out, project, timestamp);
+			writeString(out, Objects.toString(project.getFile(), null));
+			writeString(out, Objects.toString(project.getBasedir(), null));
+			writeString(out, project.getBuild().getDirectory());
+			break;
+		case ProjectSucceeded:
+		case ProjectFailed:
+		case ProjectSkipped:
+			out.writeByte(PROJECT_FINISHED);
+			writeProject(out, project, timestamp);
+			writeResult(out, event);
+			break;
+		case MojoStarted:
+			out.writeByte(MOJO_STARTED);
+			writeProject(out, project, timestamp);
+			writeMojo(out, event.getMojoExecution());
+			break;
+		case MojoSucceeded:
+		case MojoFailed:
+		case MojoSkipped:
+			out.writeByte(MOJO_FINISHED);
+			writeProject(out, project, timestamp);
+			writeMojo(out, event.getMojoExecution());
+			writeResult(out, event);
+			break;
+		default:
+			return null;
+		}
+		out.flush();
+		byte[] frame = bytes.toByteArray();
+		ByteBuffer.wrap(frame).putInt(frame.length - Integer.BYTES);
+		return frame;
+	}
+
+	private static void writeProject(DataOutputStream out, MavenProject project, long timestamp) throws IOException {
+		out.writeLong(timestamp);
+		writeString(out, project.getGroupId());
+		writeString(out, project.getArtifactId());
+		writeString(out, project.getVersion());
+	}
+
+	private static void writeMojo(DataOutputStream out, MojoExecution mojo) throws IOException {
+		writeString(out, mojo != null ? mojo.getGroupId() : null);
+		writeString(out, mojo != null ? mojo.getArtifactId() : null);
+		writeString(out, mojo != null ? mojo.getVersion() : null);
+		writeString(out, mojo != null ? mojo.getGoal() : null);
+		writeString(out, mojo != null ? mojo.getExecutionId() : null);
+	}
+
+	private static void writeResult(DataOutputStream out, ExecutionEvent event) throws IOException {
+		switch (event.getType()) {
+		case ProjectFailed:
+		case MojoFailed:
+			out.writeByte(BuildResult.FAILED.ordinal());
+			break;
+		case ProjectSkipped:
+		case MojoSkipped:
+			out.writeByte(BuildResult.SKIPPED.ordinal());
+			break;
+		default:
+			out.writeByte(BuildResult.SUCCEEDED.ordinal());
+			break;
+		}
+		Throwable exception = event.getException();
+		writeString(out, exception != null ? Objects.toString(exception.getMessage(), exception.toString()) : null);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
 	}
 
-	private static void add(StringJoiner data, String key, Object value) {
-		data.add(key + "=" + value);
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static Path readPath(DataInputStream in) throws IOException {
+		String path = readString(in);
+		return path != null ? Paths.get(path) : null;
 	}
 
 	/**
+	 * Reads one frame and notifies the listener about its event.
 	 * <p>
 	 * This method is supposed to be called from M2E within the Eclipse-IDE JVM.
 	 * </p>
-	 * 
-	 * @param dataSet the data-set to parse
-	 * @return the {@link MavenProjectBuildData} parsed from the given string
 	 */
-	private static MavenProjectBuildData parseMavenBuildProject(String dataSet) {
-		Map<String, String> data = new HashMap<>(8);
-		for (String entry : dataSet.split(",")) {
-			String[] keyValue = entry.split("=");
-			if (keyValue.length != 2) {
-				throw new IllegalStateException("Invalid data-set format" + dataSet);
-			}
-			data.put(keyValue[0], keyValue[1]);
+	static void readEvent(DataInputStream in, MavenBuildListener listener) throws IOException {
+		int length = in.readInt();
+		if (length <= 0 || length > MAX_FRAME_LENGTH) {
+			throw new IOException("Invalid frame length " + length);
+		}
+		byte[] frame = new byte[length];
+		in.readFully(frame);
+		DataInputStream data = new DataInputStream(new ByteArrayInputStream(frame));
+		byte type = data.readByte();
+		long timestamp = data.readLong();
+		String groupId = readString(data);
+		String artifactId = readString(data);
+		String version = readString(data);
+		switch (type) {
+		case PROJECT_STARTED:
+			listener.projectStarted(new MavenProjectBuildData(groupId, artifactId, version, readPath(data),
+					readPath(data), readPath(data), timestamp));
+			break;
+		case PROJECT_FINISHED: {
+			BuildResult result = readResult(data);
+			listener.projectFinished(
+					new MavenProjectResult(groupId, artifactId, version, result, readString(data), timestamp));
+			break;
+		}
+		case MOJO_STARTED:
+			listener.mojoStarted(new MojoExecutionData(groupId, artifactId, version, readString(data),
+					readString(data), readString(data), readString(data), readString(data), null, null, timestamp));
+			break;
+		case MOJO_FINISHED: {
+			String pluginGroupId = readString(data);
+			String pluginArtifactId = readString(data);
+			String pluginVersion = readString(data);
+			String goal = readString(data);
+			String executionId = readString(data);
+			BuildResult result = readResult(data);
+			listener.mojoFinished(new MojoExecutionData(groupId, artifactId, version, pluginGroupId,
+					pluginArtifactId, pluginVersion, goal, executionId, result, readString(data), timestamp));
+			break;
+		}
+		default:
+			// unknown events of newer versions are skipped
+			break;
+		}
+	}
+
+	private static BuildResult readResult(DataInputStream in) throws IOException {
+		int ordinal = in.readByte();
+		BuildResult[] results = BuildResult.values();
+		return ordinal >= 0 && ordinal < results.length ? results[ordinal] : BuildResult.FAILED;
+	}
+
+	public enum BuildResult {
+		SUCCEEDED, FAILED, SKIPPED
+	}
+
+	/**
+	 * Listener for the events of a Maven build, called in the Eclipse-IDE JVM from
+	 * the reader thread of the connection.
+	 */
+	@FunctionalInterface
+	public interface MavenBuildListener {
+
+		void projectStarted(MavenProjectBuildData project);
+
+		default void projectFinished(MavenProjectResult result) {
+		}
+
+		default void mojoStarted(MojoExecutionData mojo) {
+		}
+
+		default void mojoFinished(MojoExecutionData mojo) {
+		}
+
+		/**
+		 * Called once after the last event was read, i.e. when the Maven build has
+		 * finished or the connection was closed. No further events are reported
+		 * afterwards.
+		 */
+		default void connectionClosed() {
 		}
-		return new MavenProjectBuildData(data);
 	}
 
 	public static final class MavenProjectBuildData {
 		public final String groupId;
 		public final String artifactId;
 		public final String version;
+		/**
+		 * the base directory of the project, <code>null</code> if the project was not
+		 * read from a file
+		 */
 		public final Path projectBasedir;
+		/**
+		 * the pom file of the project, <code>null</code> if the project was not read
+		 * from a file
+		 */
 		public final Path projectFile;
+		/**
+		 * the build directory of the project, <code>null</code> if it is not set
+		 */
 		public final Path projectBuildDirectory;
+		/**
+		 * the time the project was started, in milliseconds since the epoch
+		 */
+		public final long timestamp;
 
-		MavenProjectBuildData(Map<String, String> data) {
-			if (data.size() != 6) {
-				throw new IllegalArgumentException();
-			}
-			this.groupId = Objects.requireNonNull(data.get("groupId"));
-			this.artifactId = Objects.requireNonNull(data.get("artifactId"));
-			this.version = Objects.requireNonNull(data.get("version"));
-			this.projectBasedir = Paths.get(data.get("basedir"));
-			this.projectFile = Paths.get(data.get("file"));
-			this.projectBuildDirectory = Paths.get(data.get("build.directory"));
+		MavenProjectBuildData(String groupId, String artifactId, String version, Path projectFile,
+				Path projectBasedir, Path projectBuildDirectory, long timestamp) {
+			this.groupId = Objects.requireNonNull(groupId);
+			this.artifactId = Objects.requireNonNull(artifactId);
+			this.version = Objects.requireNonNull(version);
+			this.projectFile = projectFile;
+			this.projectBasedir = projectBasedir;
+			this.projectBuildDirectory = projectBuildDirectory;
+			this.timestamp = timestamp;
+		}
+	}
+
+	public static final class MavenProjectResult {
+		public final String groupId;
+		public final String artifactId;
+		public final String version;
+		public final BuildResult result;
+		/**
+		 * the message of the failure, <code>null</code> if there was none
+		 */
+		public final String failure;
+		/**
+		 * the time the project was finished, in milliseconds since the epoch
+		 */
+		public final long timestamp;
+
+		MavenProjectResult(String groupId, String artifactId, String version, BuildResult result, String failure,
+				long timestamp) {
+			this.groupId = groupId;
+			this.artifactId = artifactId;
+			this.version = version;
+			this.result = result;
+			this.failure = failure;
+			this.timestamp = timestamp;
+		}
+	}
+
+	public static final class MojoExecutionData {
+		public final String groupId;
+		public final String artifactId;
+		public final String version;
+		public final String pluginGroupId;
+		public final String pluginArtifactId;
+		public final String pluginVersion;
+		public final String goal;
+		public final String executionId;
+		/**
+		 * the result of the execution, <code>null</code> if it was just started
+		 */
+		public final BuildResult result;
+		/**
+		 * the message of the failure, <code>null</code> if there was none
+		 */
+		public final String failure;
+		/**
+		 * the time the execution was started or finished, in milliseconds since the
+		 * epoch
+		 */
+		public final long timestamp;
+
+		MojoExecutionData(String groupId, String artifactId, String version, String pluginGroupId,
+				String pluginArtifactId, String pluginVersion, String goal, String executionId, BuildResult result,
+				String failure, long timestamp) {
+			this.groupId = groupId;
+			this.artifactId = artifactId;
+			this.version = version;
+			this.pluginGroupId = pluginGroupId;
+			this.pluginArtifactId = pluginArtifactId;
+			this.pluginVersion = pluginVersion;
+			this.goal = goal;
+			this.executionId = executionId;
+			this.result = result;
+			this.failure = failure;
+			this.timestamp = timestamp;
 		}
 	}
 
@@ -165,6 +424,21 @@ public class M2EMavenBuildDataBridge implements EventSpy {
 	 */
 	public static MavenBuildConnection prepareConnection(String label, Consumer<MavenProjectBuildData> datasetListener)
 			throws IOException {
+		return prepareConnection(label, (MavenBuildListener) datasetListener::accept);
+	}
+
+	/**
+	 * Prepares the connection to a {@code Maven build JVM} to be launched and is
+	 * intended to be called from the Eclipse IDE JVM.
+	 * 
+	 * @param label    the label of the listener thread
+	 * @param listener the listener, which is notified about the projects and mojo
+	 *                 executions of the build
+	 * @return the prepared {@link MavenBuildConnection}
+	 * @throws IOException
+	 */
+	public static MavenBuildConnection prepareConnection(String label, MavenBuildListener listener)
+			throws IOException {
 
 //	    TODO: use UNIX domain socket once Java-17 is required by Maven
 //	    Path socketFile = Files.createTempFile("m2e.maven.build.listener", ".socket");
@@ -180,24 +454,16 @@ public class M2EMavenBuildDataBridge implements EventSpy {
 
 		Thread reader = new Thread(() -> {
 			try (ServerSocketChannel s = server; SocketChannel readChannel = server.accept()) {
-				ByteBuffer buffer = ByteBuffer.allocate(512);
-				StringBuilder message = new StringBuilder();
-				while (readChannel.read(buffer) >= 0) {
-					message.append(new String(buffer.array(), 0, buffer.position()));
-					for (int terminatorIndex; (terminatorIndex = message.indexOf(DATA_SET_SEPARATOR)) >= 0;) {
-						String dataSet = message.substring(0, terminatorIndex);
-						message.delete(0, terminatorIndex + DATA_SET_SEPARATOR.length());
-
-						MavenProjectBuildData buildData = parseMavenBuildProject(dataSet);
-						datasetListener.accept(buildData);
-					}
-					// Explicit cast for compatibility with covariant return type on JDK 9's
-					// ByteBuffer
-					((Buffer) buffer).clear();
+				DataInputStream in = new DataInputStream(
+						new BufferedInputStream(Channels.newInputStream(readChannel), 8192));
+				while (true) {
+					readEvent(in, listener);
 				}
+			} catch (EOFException ex) { // the Maven process has finished
 			} catch (IOException ex) { // ignore, happens if Maven process is forcibly terminated
 			} finally {
 				connection.readCompleted.set(true);
+				listener.connectionClosed();
 			}
 //	      try {
 //	        Files.deleteIfExists(socketFile);
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *      Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.m2e.mavenarchiver.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.m2e.core.MavenPlugin;
+import org.eclipse.m2e.core.internal.MavenPluginActivator;
+import org.eclipse.m2e.core.project.IMavenProjectFacade;
+import org.eclipse.m2e.tests.common.AbstractMavenProjectTestCase;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("restriction")
+public class ManifestFingerprintTest extends AbstractMavenProjectTestCase {
+
+	private static final String PROPERTY = "m2e.fingerprint.test";
+
+	private final JarArchiverConfigurator configurator = new JarArchiverConfigurator();
+
+	private IProject project;
+
+	private IMavenProjectFacade facade;
+
+	private IFile manifest;
+
+	@Before
+	public void importJarProject() throws Exception {
+		project = importProject("resources/projects/jar/pom.xml");
+		waitForJobsToComplete();
+		facade = MavenPlugin.getMavenProjectRegistry().create(project, monitor);
+		manifest = project.getFile("target/classes/META-INF/MANIFEST.MF");
+		configurator.setMarkerManager(MavenPluginActivator.getDefault().getMavenMarkerManager());
+	}
+
+	@Test
+	public void testFingerprintIsStable() {
+		Set<Artifact> artifacts = Set.of(artifact("dependency-1.0.0.jar"));
+		assertEquals(configurator.getManifestFingerprint(facade, artifacts),
+				configurator.getManifestFingerprint(facade, Set.of(artifact("dependency-1.0.0.jar"))));
+	}
+
+	@Test
+	public void testFingerprintCoversArtifactFileNames() {
+		// a workspace project is passed with the name of the file it is replaced with
+		// in the manifest, not with the name of its output folder
+		String classes = configurator.getManifestFingerprint(facade, Set.of(artifact("classes")));
+		String jar = configurator.getManifestFingerprint(facade, Set.of(artifact("dependency-1.0.0.jar")));
+		assertNotEquals(classes, jar);
+		assertNotEquals(jar, configurator.getManifestFingerprint(facade, Set.of()));
+	}
+
+	@Test
+	public void testFingerprintCoversProperties() {
+		MavenProject mavenProject = facade.getMavenProject();
+		String fingerprint = configurator.getManifestFingerprint(facade, Set.of());
+		mavenProject.getProperties().setProperty(PROPERTY, "changed");
+		try {
+			assertNotEquals(fingerprint, configurator.getManifestFingerprint(facade, Set.of()));
+		} finally {
+			mavenProject.getProperties().remove(PROPERTY);
+		}
+		assertEquals(fingerprint, configurator.getManifestFingerprint(facade, Set.of()));
+	}
+
+	@Test
+	public void testGeneratedFingerprint() throws Exception {
+		manifest.getParent().getLocation().toFile().mkdirs();
+		File file = manifest.getLocation().toFile();
+		file.delete();
+		manifest.getParent().refreshLocal(IResource.DEPTH_INFINITE, monitor);
+		assertNull(AbstractMavenArchiverConfigurator.getGeneratedFingerprint(manifest));
+
+		Files.writeString(file.toPath(), "Manifest-Version: 1.0\n");
+		AbstractMavenArchiverConfigurator.setGeneratedFingerprint(manifest, "fingerprint", monitor);
+		assertEquals("fingerprint", AbstractMavenArchiverConfigurator.getGeneratedFingerprint(manifest));
+
+		// a manifest that was changed afterwards is generated again
+		Files.writeString(file.toPath(), "Manifest-Version: 1.0\nX-Changed: true\n");
+		manifest.refreshLocal(IResource.DEPTH_ZERO, monitor);
+		assertNull(AbstractMavenArchiverConfigurator.getGeneratedFingerprint(manifest));
+	}
+
+	@Test
+	public void testGenerationIsSkippedForUnchangedInputs() throws Exception {
+		configurator.generateManifest(facade, manifest, monitor);
+		File file = manifest.getLocation().toFile();
+		assertTrue(file.isFile());
+		assertTrue(Files.readString(file.toPath(), StandardCharsets.UTF_8).startsWith("Manifest-Version"));
+
+		// replace the content but keep size and modification time, only a generation
+		// would restore it
+		long lastModified = file.lastModified();
+		byte[] replaced = new byte[(int) file.length()];
+		Arrays.fill(replaced, (byte) 'x');
+		Files.write(file.toPath(), replaced);
+		file.setLastModified(lastModified);
+		configurator.generateManifest(facade, manifest, monitor);
+		assertArrayEquals(replaced, Files.readAllBytes(file.toPath()));
+
+		// a changed input generates the manifest again
+		MavenProject mavenProject = facade.getMavenProject();
+		mavenProject.getProperties().setProperty(PROPERTY, "changed");
+		try {
+			configurator.generateManifest(facade, manifest, monitor);
+		} finally {
+			mavenProject.getProperties().remove(PROPERTY);
+		}
+		assertTrue(Files.readString(file.toPath(), StandardCharsets.UTF_8).startsWith("Manifest-Version"));
+	}
+
+	private static Artifact artifact(String fileName) {
+		DefaultArtifact artifact = new DefaultArtifact("org.eclipse.m2e.mavenarchiver.tests", "dependency", "1.0.0",
+				Artifact.SCOPE_COMPILE, "jar", null, new DefaultArtifactHandler("jar"));
+		artifact.setFile(new File(fileName));
+		return artifact;
+	}
+}
@@ -22,12 +22,16 @@ import java.io.Writer;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HexFormat;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -36,6 +40,8 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.Attributes;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -48,6 +54,7 @@ import org.apache.maven.execution.MavenSession;
 import org.apache.maven.lifecycle.MavenExecutionPlan;
 import org.apache.maven.model.Organization;
 import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
 import org.apache.maven.plugin.Mojo;
 import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.project.MavenProject;
@@ -67,6 +74,7 @@ import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.QualifiedName;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
@@ -126,6 +134,34 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 
 	private static final String GENERATED_BY_M2E = "Generated by " + M2E;
 
+	/**
+	 * Persistent property of the generated manifest, holds the fingerprint of the
+	 * inputs it was generated from and the size and modification time of the file
+	 */
+	private static final QualifiedName MANIFEST_FINGERPRINT = new QualifiedName(
+			AbstractMavenArchiverConfigurator.class.getName(), "manifestFingerprint");
+
+	/**
+	 * Fields of the mojo classes by name, absent if a class has no such field
+	 */
+	private static final ClassValue<Map<String, Optional<Field>>> FIELDS = new ClassValue<>() {
+		@Override
+		protected Map<String, Optional<Field>> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/**
+	 * Methods of the archiver and manifest classes by name and parameter types,
+	 * absent if a class has no such method
+	 */
+	private static final ClassValue<Map<String, Optional<Method>>> METHODS = new ClassValue<>() {
+		@Override
+		protected Map<String, Optional<Method>> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
 	private static final boolean JDT_SUPPORTS_MODULES;
 
 	static {
@@ -362,13 +398,25 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 
 		MavenProject mavenProject = mavenFacade.getMavenProject();
 		Set<Artifact> originalArtifacts = mavenProject.getArtifacts();
-		boolean parentHierarchyLoaded = loadParentHierarchy(mavenFacade, monitor);
+		boolean parentHierarchyLoaded = false;
 		try {
+			// Workspace project artifacts don't have a valid getFile(), so won't appear in
+			// the manifest
+			// We need to workaround the issue by creating fake files for such artifacts.
+			// We could also use a custom File implementation having "public boolean
+			// exists(){return true;}"
+			Set<Artifact> artifacts = fixArtifactFileNames(mavenFacade);
+			// the manifest is only generated again if any of its inputs has changed
+			String fingerprint = getManifestFingerprint(mavenFacade, artifacts);
+			if (fingerprint != null && fingerprint.equals(getGeneratedFingerprint(manifest))) {
+				return;
+			}
+			parentHierarchyLoaded = loadParentHierarchy(mavenFacade, monitor);
 			markerManager.deleteMarkers(mavenFacade.getPom(), MavenArchiverConstants.MAVENARCHIVER_MARKER_ERROR);
 
 			IMavenExecutionContext context = mavenFacade.createExecutionContext();
 			context.getExecutionRequest().setOffline(MavenPlugin.getMavenConfiguration().isOffline());
-			context.execute((innerContext, innerMonitor) -> {
+			boolean generated = context.execute((innerContext, innerMonitor) -> {
 				// Find the mojoExecution
 
 				ClassLoader originalTCL = Thread.currentThread().getContextClassLoader();
@@ -380,32 +428,27 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 					MavenExecutionPlan executionPlan = mavenFacade.setupExecutionPlan(List.of("package"), monitor);
 					MojoExecution mojoExecution = getExecution(executionPlan, getExecutionKey());
 					if (mojoExecution == null) {
-						return null;
+						return false;
 					}
 
 					// Get the target manifest file
 					IFolder destinationFolder = (IFolder) manifest.getParent();
 					org.eclipse.m2e.core.internal.M2EUtils.createFolder(destinationFolder, true, monitor);
 
-					// Workspace project artifacts don't have a valid getFile(), so won't appear in
-					// the manifest
-					// We need to workaround the issue by creating fake files for such artifacts.
-					// We could also use a custom File implementation having "public boolean
-					// exists(){return true;}"
-					mavenProject.setArtifacts(fixArtifactFileNames(mavenFacade));
+					mavenProject.setArtifacts(artifacts);
 
 					// Invoke the manifest generation API via reflection
-					reflectManifestGeneration(mavenFacade, mojoExecution, innerContext.getSession(),
+					return reflectManifestGeneration(mavenFacade, mojoExecution, innerContext.getSession(),
 							new File(manifest.getLocation().toOSString()));
 				} catch (Exception e) {
 					throw new CoreException(Status.error("Something goes wrong!", e));
 				} finally {
 					Thread.currentThread().setContextClassLoader(originalTCL);
 				}
-
-				return null;
 			}, monitor);
-
+			if (generated && fingerprint != null) {
+				setGeneratedFingerprint(manifest, fingerprint, monitor);
+			}
 		} catch (Exception ex) {
 			markerManager.addErrorMarkers(mavenFacade.getPom(), MavenArchiverConstants.MAVENARCHIVER_MARKER_ERROR, ex);
 
@@ -419,7 +462,10 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 
 	}
 
-	private void reflectManifestGeneration(IMavenProjectFacade facade, MojoExecution mojoExecution,
+	/**
+	 * @return true if the manifest was written
+	 */
+	private boolean reflectManifestGeneration(IMavenProjectFacade facade, MojoExecution mojoExecution,
 			MavenSession session, File manifestFile) throws CoreException, ReflectiveOperationException, IOException {
 
 		ClassLoader loader = null;
@@ -455,8 +501,9 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 				mergeManifests(manifest, userManifest);
 
 				// Serialize the Manifest instance to an actual file
-				writeManifest(manifestFile, manifest);
+				return writeManifest(manifestFile, manifest);
 			}
+			return false;
 		} finally {
 			mojoExecution.setConfiguration(originalConfig);
 
@@ -464,7 +511,7 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 		}
 	}
 
-	private void writeManifest(File manifestFile, Object manifest) throws UnsupportedEncodingException,
+	private boolean writeManifest(File manifestFile, Object manifest) throws UnsupportedEncodingException,
 			IllegalAccessException, IllegalArgumentException, InvocationTargetException, IOException {
 		Method write = getWriteMethod(manifest);
 		if (write != null) {
@@ -472,7 +519,9 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 					WriterFactory.newWriter(manifestFile, WriterFactory.UTF_8))) {
 				write.invoke(manifest, printWriter);
 			}
+			return true;
 		}
+		return false;
 	}
 
 	private Object getManifest(MavenSession session, MavenProject mavenProject, Object archiveConfiguration,
@@ -480,7 +529,7 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 		Object manifest = null;
 		Class<?> archiveConfigClass = archiveConfiguration.getClass();
 		try {
-			Method getManifest = mavenArchiver.getClass().getMethod(GET_MANIFEST, MavenSession.class,
+			Method getManifest = getMethod(mavenArchiver.getClass(), GET_MANIFEST, MavenSession.class,
 					MavenProject.class, archiveConfigClass);
 
 			// Create the Manifest instance
@@ -488,7 +537,7 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 
 		} catch (NoSuchMethodException nsme) {
 			// Fall back to legacy invocation
-			Method getManifest = mavenArchiver.getClass().getMethod(GET_MANIFEST, MavenProject.class,
+			Method getManifest = getMethod(mavenArchiver.getClass(), GET_MANIFEST, MavenProject.class,
 					archiveConfigClass);
 
 			// Create the Manifest instance
@@ -517,7 +566,6 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 
 	@SuppressWarnings("unchecked")
 	private static <T> T getValue(Object obj, Field field) throws IllegalAccessException {
-		field.setAccessible(true);
 		return (T) field.get(obj);
 	}
 
@@ -533,15 +581,17 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 	}
 
 	private Method getWriteMethod(Object manifest) {
-		for (Method m : manifest.getClass().getMethods()) {
-			if ("write".equals(m.getName())) {
-				Class<?>[] params = m.getParameterTypes();
-				if (params.length == 1 && Writer.class.isAssignableFrom(params[0])) {
-					return m;
+		return METHODS.get(manifest.getClass()).computeIfAbsent("write(Writer)", k -> {
+			for (Method m : manifest.getClass().getMethods()) {
+				if ("write".equals(m.getName())) {
+					Class<?>[] params = m.getParameterTypes();
+					if (params.length == 1 && Writer.class.isAssignableFrom(params[0])) {
+						return Optional.of(m);
+					}
 				}
 			}
-		}
-		return null;
+			return Optional.empty();
+		}).orElse(null);
 	}
 
 	/**
@@ -587,7 +637,7 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 	private Object getProvidedManifest(Class<?> manifestClass, Object archiveConfiguration) throws SecurityException,
 			IllegalArgumentException, InstantiationException, IllegalAccessException, InvocationTargetException {
 		try {
-			Method getManifestFile = archiveConfiguration.getClass().getMethod("getManifestFile");
+			Method getManifestFile = getMethod(archiveConfiguration.getClass(), "getManifestFile");
 			File manifestFile = (File) getManifestFile.invoke(archiveConfiguration);
 
 			if (manifestFile == null || !manifestFile.exists() || !manifestFile.canRead()) {
@@ -611,7 +661,7 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 			merge(mani, sourceMani, false);
 		} else {
 			// keep backward compatibility with old plexus-archiver versions prior to 2.1
-			Method merge = manifest.getClass().getMethod("merge", sourceManifest.getClass());
+			Method merge = getMethod(manifest.getClass(), "merge", sourceManifest.getClass());
 			merge.invoke(manifest, sourceManifest);
 		}
 	}
@@ -710,8 +760,30 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 		}
 	}
 
-	private Field findField(String name, Class<?> clazz) {
-		return ReflectionUtils.getFieldByNameIncludingSuperclasses(name, clazz);
+	/**
+	 * @return the accessible field or <code>null</code> if the class has no such
+	 *         field
+	 */
+	private static Field findField(String name, Class<?> clazz) {
+		return FIELDS.get(clazz).computeIfAbsent(name, n -> {
+			Field field = ReflectionUtils.getFieldByNameIncludingSuperclasses(n, clazz);
+			if (field != null) {
+				field.setAccessible(true);
+			}
+			return Optional.ofNullable(field);
+		}).orElse(null);
+	}
+
+	private static Method getMethod(Class<?> clazz, String name, Class<?>... parameterTypes)
+			throws NoSuchMethodException {
+		String key = name + Arrays.toString(parameterTypes);
+		return METHODS.get(clazz).computeIfAbsent(key, k -> {
+			try {
+				return Optional.of(clazz.getMethod(name, parameterTypes));
+			} catch (NoSuchMethodException ex) {
+				return Optional.empty();
+			}
+		}).orElseThrow(() -> new NoSuchMethodException(clazz.getName() + "." + name + "()"));
 	}
 
 	private Object getMavenArchiver(Object archiver, File manifestFile, ClassLoader loader)
@@ -721,18 +793,116 @@ public abstract class AbstractMavenArchiverConfigurator extends AbstractProjectC
 
 		Method setArchiver = findMethodForArgumentTypes(mavenArchiverClass, "setArchiver", archiver.getClass());
 		setArchiver.invoke(mavenArchiver, archiver);
-		Method setOutputFile = mavenArchiverClass.getMethod("setOutputFile", File.class);
+		Method setOutputFile = getMethod(mavenArchiverClass, "setOutputFile", File.class);
 		setOutputFile.invoke(mavenArchiver, manifestFile);
 		return mavenArchiver;
 	}
 
 	private static Method findMethodForArgumentTypes(Class<?> clazz, String methodName, Class<?>... parameterTypes)
 			throws NoSuchMethodException, SecurityException {
-		return Arrays.stream(clazz.getMethods())
+		String key = "assignable:" + methodName + Arrays.toString(parameterTypes);
+		return METHODS.get(clazz).computeIfAbsent(key, k -> Arrays.stream(clazz.getMethods())
 				.filter(m -> methodName.equals(m.getName()) && m.getParameterCount() == parameterTypes.length)
 				.filter(m -> IntStream.range(0, parameterTypes.length)
 						.mapToObj(i -> m.getParameterTypes()[i].isAssignableFrom(parameterTypes[i])).allMatch(b -> b))
-				.findAny().orElseThrow(() -> new NoSuchMethodException("Method " + methodName + "() not found"));
+				.findAny()).orElseThrow(() -> new NoSuchMethodException("Method " + methodName + "() not found"));
+	}
+
+	/**
+	 * Computes a fingerprint of the inputs of the generated manifest, that is the
+	 * version of this bundle, the plugin and its archive configuration, the project
+	 * metadata and properties, which include the properties inherited from the
+	 * parents, and the resolved artifacts.
+	 * 
+	 * @param facade    the maven project facade
+	 * @param artifacts the artifacts the manifest is generated with, i.e. after
+	 *                  {@link #fixArtifactFileNames(IMavenProjectFacade)}
+	 * @return the fingerprint or <code>null</code> if it can't be computed
+	 */
+	String getManifestFingerprint(IMavenProjectFacade facade, Set<Artifact> artifacts) {
+		MavenProject mavenProject = facade.getMavenProject();
+		Bundle bundle = FrameworkUtil.getBundle(AbstractMavenArchiverConfigurator.class);
+		StringBuilder sb = new StringBuilder(getClass().getName()).append(' ')
+				.append(bundle != null ? bundle.getVersion() : null).append('\n');
+		Plugin plugin = mavenProject.getPlugin(getPluginKey());
+		if (plugin != null) {
+			sb.append(plugin.getVersion()).append('\n').append(plugin.getConfiguration()).append('\n');
+			for (PluginExecution execution : plugin.getExecutions()) {
+				sb.append(execution.getId()).append(execution.getGoals()).append(execution.getConfiguration())
+						.append('\n');
+			}
+		}
+		Xpp3Dom archiveConfig = getArchiveConfiguration(mavenProject);
+		Xpp3Dom manifestFileNode = archiveConfig != null ? archiveConfig.getChild("manifestFile") : null;
+		if (manifestFileNode != null && manifestFileNode.getValue() != null) {
+			// the user provided manifest is merged into the generated one
+			File manifestFile = new File(manifestFileNode.getValue().trim());
+			if (!manifestFile.isAbsolute()) {
+				manifestFile = new File(mavenProject.getBasedir(), manifestFile.getPath());
+			}
+			sb.append(manifestFile).append(manifestFile.length()).append(manifestFile.lastModified()).append('\n');
+		}
+		sb.append(mavenProject.getId()).append('\n').append(mavenProject.getName()).append('\n');
+		sb.append(mavenProject.getDescription()).append('\n').append(mavenProject.getUrl()).append('\n');
+		Organization organization = mavenProject.getOrganization();
+		if (organization != null) {
+			sb.append(organization.getName()).append(organization.getUrl()).append('\n');
+		}
+		sb.append(new TreeMap<>(mavenProject.getProperties())).append('\n');
+		sb.append(System.getProperty("java.specification.version")).append(isModular(facade.getProject()))
+				.append('\n');
+		if (artifacts != null) {
+			for (Artifact artifact : artifacts) {
+				File file = artifact.getFile();
+				sb.append(artifact).append(artifact.isOptional()).append(file != null ? file.getName() : null)
+						.append('\n');
+			}
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the fingerprint the given manifest was generated from or
+	 *         <code>null</code> if it is unknown or the manifest was changed
+	 *         afterwards
+	 */
+	static String getGeneratedFingerprint(IFile manifest) {
+		try {
+			if (!manifest.exists()) {
+				return null;
+			}
+			String value = manifest.getPersistentProperty(MANIFEST_FINGERPRINT);
+			int index = value != null ? value.indexOf('@') : -1;
+			if (index < 0 || !value.substring(index + 1).equals(getFileStamp(manifest))) {
+				return null;
+			}
+			return value.substring(0, index);
+		} catch (CoreException ex) {
+			return null;
+		}
+	}
+
+	static void setGeneratedFingerprint(IFile manifest, String fingerprint, IProgressMonitor monitor) {
+		try {
+			manifest.refreshLocal(IResource.DEPTH_ZERO, monitor);
+			manifest.setPersistentProperty(MANIFEST_FINGERPRINT, fingerprint + "@" + getFileStamp(manifest));
+		} catch (CoreException ex) {
+			// ignore, the manifest is generated again next time
+		}
+	}
+
+	private static String getFileStamp(IFile file) {
+		IPath location = file.getLocation();
+		if (location == null) {
+			return null;
+		}
+		File localFile = location.toFile();
+		return localFile.length() + "-" + localFile.lastModified();
 	}
 
 	private String getPluginKey() {
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Christoph Läubrich and others.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.m2e.pde.target.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.m2e.pde.target.MavenTargetLocationFactory;
+import org.eclipse.pde.core.target.ITargetDefinition;
+import org.eclipse.pde.core.target.ITargetLocation;
+import org.eclipse.pde.core.target.ITargetPlatformService;
+import org.eclipse.pde.core.target.TargetFeature;
+import org.junit.Test;
+
+public class ParallelResolutionTest extends AbstractMavenTargetTest {
+
+	private static final String JUNIT_BOM = """
+			<dependency>
+				<groupId>org.junit</groupId>
+				<artifactId>junit-bom</artifactId>
+				<version>5.9.3</version>
+				<type>pom</type>
+			</dependency>
+			""";
+
+	private static final String JAXB_RI = """
+			<dependency>
+				<groupId>com.sun.xml.bind</groupId>
+				<artifactId>jaxb-ri</artifactId>
+				<version>4.0.2</version>
+				<type>pom</type>
+			</dependency>
+			""";
+
+	@Test
+	public void testFeaturesAreInRootOrder() throws Exception {
+		// the roots are resolved concurrently, but the features must not depend on
+		// the order the workers complete
+		ITargetLocation target = resolveMavenTarget(location(JUNIT_BOM + JAXB_RI));
+		assertStatusOk(target.getStatus());
+		assertEquals(List.of("org.junit.junit-bom.pom", "com.sun.xml.bind.jaxb-ri.pom"), featureIds(target));
+
+		target = resolveMavenTarget(location(JAXB_RI + JUNIT_BOM));
+		assertStatusOk(target.getStatus());
+		assertEquals(List.of("com.sun.xml.bind.jaxb-ri.pom", "org.junit.junit-bom.pom"), featureIds(target));
+	}
+
+	@Test
+	public void testCanceledResolutionIsDiscarded() throws Exception {
+		@SuppressWarnings("restriction")
+		ITargetPlatformService service = org.eclipse.pde.internal.core.PDECore.getDefault()
+				.acquireService(ITargetPlatformService.class);
+		ITargetDefinition definition = service.newTarget();
+		ITargetLocation target = new MavenTargetLocationFactory().getTargetLocation("Maven", location("""
+				<dependency>
+					<groupId>org.junit.jupiter</groupId>
+					<artifactId>junit-jupiter-api</artifactId>
+					<version>5.9.3</version>
+					<type>jar</type>
+				</dependency>
+				<dependency>
+					<groupId>org.opentest4j</groupId>
+					<artifactId>opentest4j</artifactId>
+					<version>1.2.0</version>
+					<type>jar</type>
+				</dependency>
+				"""));
+		definition.setTargetLocations(new ITargetLocation[] { target });
+		// cancel as soon as the first root is resolved
+		NullProgressMonitor cancelingMonitor = new NullProgressMonitor() {
+			@Override
+			public void worked(int work) {
+				setCanceled(true);
+			}
+
+			@Override
+			public void internalWorked(double work) {
+				setCanceled(true);
+			}
+		};
+		try {
+			target.resolve(definition, cancelingMonitor);
+		} catch (OperationCanceledException e) {
+			// expected as well
+		}
+		assertTrue(cancelingMonitor.isCanceled());
+		// a partial result must not be kept, resolving again gives the full content
+		assertStatusOk(target.resolve(definition, new NullProgressMonitor()));
+		assertTargetBundles(target, List.of( //
+				originalOSGiBundle("junit-jupiter-api", "5.9.3", "org.junit.jupiter:junit-jupiter-api"),
+				originalOSGiBundle("org.opentest4j", "1.2.0", "org.opentest4j:opentest4j")));
+	}
+
+	private static String location(String dependencies) {
+		return """
+				<location includeDependencyDepth="none" includeDependencyScopes="compile" includeSource="false" missingManifest="error" type="Maven">
+					<dependencies>
+				%s
+					</dependencies>
+				</location>
+				""".formatted(dependencies);
+	}
+
+	private static List<String> featureIds(ITargetLocation target) {
+		return Arrays.stream(target.getFeatures()).map(TargetFeature::getId).toList();
+	}
+}
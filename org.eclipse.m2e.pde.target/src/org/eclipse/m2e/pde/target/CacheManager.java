@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020, 2023 Christoph Läubrich and others
+ * Copyright (c) 2020, 2026 Christoph Läubrich and others
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License 2.0 which is available at
@@ -14,6 +14,9 @@ package org.eclipse.m2e.pde.target;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.file.DirectoryStream;
@@ -24,60 +27,123 @@ import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.jar.JarFile;
 
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.file.DeletingPathVisitor;
 import org.eclipse.aether.artifact.Artifact;
-import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.pde.core.target.ITargetHandle;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.m2e.core.internal.BinaryCacheFile;
+import org.eclipse.pde.internal.core.ICoreConstants;
 import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
 import org.osgi.framework.FrameworkUtil;
 
 /**
  *
  * The cache manager serves the following purpose:
  * <ul>
- * <li>adding a synchronization point for code working on the same (effective)
- * target model (e.g. active target in eclipse and a target editor opened)</li>
+ * <li>adding a synchronization point for code working on the same cached
+ * artifact (e.g. active target in eclipse and a target editor opened)</li>
  * <li>prevent different processes/jvm to access the same file using
  * file-locks</li>
- * <li>providing a storage area for each target for example if different targets
- * reference the same maven artifact but with different properties</li>
- * <li>allows to remove target content that has not been used for a long
- * time</li>
+ * <li>providing a storage area that is shared by all targets, entries are keyed
+ * by the checksum of the artifact content and a variant that captures the
+ * properties the cached data depends on, so targets that reference the same
+ * artifact share the data</li>
+ * <li>keeps the storage area within a disk budget by removing the least
+ * recently used entries that are not pinned by a resolved target</li>
+ * <li>remembers the checksum of an artifact and whether it is a feature by the
+ * path, size and modification time of the artifact file across sessions, so
+ * unchanged artifacts are neither read nor hashed again</li>
  * </ul>
  */
+@SuppressWarnings("restriction")
 class CacheManager {
 
 	private static final String LASTACCESS_MARKER = ".lastaccess";
 
+	private static final String STORE_FOLDER = "store";
+
+	private static final String DEFAULT_VARIANT = "default";
+
+	private static final String STAMPS_FILE = "artifacts.bin";
+
+	/**
+	 * "M2EP"
+	 */
+	private static final int STAMPS_MAGIC = 0x4d324550;
+
+	private static final int STAMPS_FORMAT_VERSION = 1;
+
+	private static final long STAMPS_SAVE_DELAY = 10000;
+
+	/**
+	 * the last access marker of an entry is only updated if it is older than this,
+	 * which is precise enough to find the least recently used entries
+	 */
+	private static final long LASTACCESS_RESOLUTION = TimeUnit.HOURS.toMillis(1);
+
+	/**
+	 * disk budget of the shared store in MB
+	 */
+	private static final long DISK_BUDGET = Long.getLong("m2e.pde.target.cache.size", 2048) * FileUtils.ONE_MB;
+
 	private static Path baseDir;
 
-	private static final Map<String, CacheManager> MANAGERS = new HashMap<>();
+	/**
+	 * the number of resolved targets that use an entry of the store, files of
+	 * the entry are referenced by the target content and pinned entries are
+	 * never evicted
+	 */
+	private static final ConcurrentMap<Path, Integer> PINS = new ConcurrentHashMap<>();
 
-	private final Path folder;
+	private static final Cleaner CLEANER = Cleaner.create();
 
-	private CacheManager(String cacheKey) {
-		this.folder = getCacheBaseDir().resolve(cacheKey);
-		try {
-			Files.writeString(folder.resolve(LASTACCESS_MARKER), ""); // touch last access
-		} catch (IOException e) {
-			// can't mark last access then...
+	/**
+	 * in-process locks for the entries, a {@link FileLock} is held on behalf of
+	 * the whole JVM and can't be used to coordinate threads. The locks are striped
+	 * so their number stays bounded however many entries are accessed.
+	 */
+	private static final ReentrantLock[] ENTRY_LOCKS = new ReentrantLock[64];
+
+	static {
+		for (int i = 0; i < ENTRY_LOCKS.length; i++) {
+			ENTRY_LOCKS[i] = new ReentrantLock();
 		}
 	}
 
+	private static final AtomicBoolean EVICTION_RUNNING = new AtomicBoolean();
+
+	private final Pins pins = new Pins();
+
+	private final Cleaner.Cleanable cleanable = CLEANER.register(this, pins);
+
+	private CacheManager() {
+	}
+
 	private static final Set<OpenOption> LOCK_FILE_OPEN_OPTIONS = Set.of(StandardOpenOption.CREATE,
 			StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
 
 	/**
 	 * Allows synchronized and locked access to the given artifact, the consumer is
 	 * called with the file that represents the artifact at this cache location
-	 * (what might not exits).
+	 * (what might not exits). Only access to the same artifact file is
+	 * serialized, different artifacts can be accessed concurrently.
 	 *
 	 * @param <R>      the return value type
 	 * @param artifact the artifact identifier to be used
@@ -90,36 +156,197 @@ class CacheManager {
 	 *                   system-resources locks or any exception thrown by the
 	 *                   consumer itself
 	 */
-	public synchronized <R> R accessArtifactFile(Artifact artifact, CacheConsumer<R> consumer) throws Exception {
-		Path gav = Path.of(artifact.getGroupId(), artifact.getArtifactId(), artifact.getBaseVersion());
-		Path gavFolder = Files.createDirectories(folder.resolve(gav));
-		Path file = gavFolder.resolve(artifact.getFile().getName());
-		Path lockFile = gavFolder.resolve(artifact.getFile().getName() + ".lock");
-		try (FileChannel channel = FileChannel.open(lockFile, LOCK_FILE_OPEN_OPTIONS); FileLock lock = channel.lock()) {
-			return consumer.consume(file.toFile());
+	public <R> R accessArtifactFile(Artifact artifact, CacheConsumer<R> consumer) throws Exception {
+		return accessArtifactFile(artifact, null, consumer);
+	}
+
+	/**
+	 * Like {@link #accessArtifactFile(Artifact, CacheConsumer)} but for data that
+	 * not only depends on the artifact content but also on further properties,
+	 * each variant of the artifact gets its own file.
+	 *
+	 * @param variant the properties the cached data depends on or
+	 *                <code>null</code> if it only depends on the artifact
+	 */
+	public <R> R accessArtifactFile(Artifact artifact, String variant, CacheConsumer<R> consumer) throws Exception {
+		File artifactFile = artifact.getFile();
+		Path entry = getStoreDir().resolve(getChecksum(artifactFile))
+				.resolve(variant == null ? DEFAULT_VARIANT : DigestUtils.sha1Hex(variant));
+		// pin the entry before locking so a concurrent eviction skips it
+		pins.pin(entry);
+		ReentrantLock entryLock = getEntryLock(entry);
+		entryLock.lock();
+		try {
+			Files.createDirectories(entry);
+			touch(entry.resolve(LASTACCESS_MARKER));
+			Path file = entry.resolve(artifactFile.getName());
+			Path lockFile = entry.resolve(artifactFile.getName() + ".lock");
+			try (FileChannel channel = FileChannel.open(lockFile, LOCK_FILE_OPEN_OPTIONS);
+					FileLock lock = channel.lock()) {
+				return consumer.consume(file.toFile());
+			}
+		} finally {
+			entryLock.unlock();
 		}
 	}
 
+	private static ReentrantLock getEntryLock(Path entry) {
+		return ENTRY_LOCKS[Math.floorMod(entry.hashCode(), ENTRY_LOCKS.length)];
+	}
+
 	/**
-	 * Gives access to the {@link CacheManager} for the given {@link ITargetHandle},
-	 * the handle must support the {@link ITargetHandle#getMemento()} for this to
-	 * work
+	 * Creates a {@link CacheManager} for a resolution of a target location, all
+	 * entries accessed through it are pinned until the manager is
+	 * {@link #release() released} or garbage collected together with the
+	 * resolved location
 	 *
-	 * @param handle the handle for what a {@link CacheManager} is requested
-	 * @return the {@link CacheManager} that should be used to access files from
-	 *         this location
-	 * @throws CoreException if unable to generate a memento from the given
-	 *                       {@link ITargetHandle}
+	 * @return the {@link CacheManager} that should be used to access files for
+	 *         this resolution
+	 */
+	public static CacheManager create() {
+		CacheManager manager = new CacheManager();
+		scheduleEviction();
+		return manager;
+	}
+
+	/**
+	 * Releases the entries pinned by this manager, e.g. because the location was
+	 * resolved again, they may be evicted afterwards
+	 */
+	public void release() {
+		cleanable.clean();
+	}
+
+	static boolean isPinned(Path entry) {
+		return PINS.containsKey(entry);
+	}
+
+	/**
+	 * Checks whether the given jar contains a feature, the result is remembered
+	 * until the jar changes
+	 *
+	 * @param jarFile the artifact file to check
+	 * @return <code>true</code> if the jar contains a feature.xml
+	 * @throws IOException if the jar can't be read
+	 */
+	public static boolean isFeature(File jarFile) throws IOException {
+		ArtifactStamps stamps = ArtifactStamps.get();
+		Stamp stamp = stamps.get(jarFile);
+		if (stamp.feature() == null) {
+			try (JarFile jar = new JarFile(jarFile)) {
+				stamp = stamp.withFeature(jar.getEntry(ICoreConstants.FEATURE_FILENAME_DESCRIPTOR) != null);
+			}
+			stamps.put(jarFile, stamp);
+		}
+		return stamp.feature();
+	}
+
+	private static String getChecksum(File file) throws IOException {
+		ArtifactStamps stamps = ArtifactStamps.get();
+		Stamp stamp = stamps.get(file);
+		if (stamp.sha1() == null) {
+			try (InputStream stream = Files.newInputStream(file.toPath())) {
+				stamp = stamp.withSha1(DigestUtils.sha1Hex(stream));
+			}
+			stamps.put(file, stamp);
+		}
+		return stamp.sha1();
+	}
+
+	private static void touch(Path marker) {
+		try {
+			if (!Files.isRegularFile(marker) || Files.getLastModifiedTime(marker)
+					.toMillis() < System.currentTimeMillis() - LASTACCESS_RESOLUTION) {
+				Files.writeString(marker, ""); // touch last access
+			}
+		} catch (IOException e) {
+			// can't mark last access then...
+		}
+	}
+
+	private static void scheduleEviction() {
+		if (EVICTION_RUNNING.compareAndSet(false, true)) {
+			Path store = getStoreDir();
+			Thread thread = new Thread(() -> {
+				try {
+					evictLeastRecentlyUsed(store, DISK_BUDGET);
+				} finally {
+					EVICTION_RUNNING.set(false);
+				}
+			}, "Wrapped bundles cache eviction");
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Removes the least recently used entries of the store until the store fits
+	 * into the given budget, entries that are pinned or currently accessed are
+	 * skipped
 	 */
-	public static synchronized CacheManager forTargetHandle(ITargetHandle handle) throws CoreException {
-		String targetId = DigestUtils.sha1Hex(handle.getMemento());
-		return MANAGERS.computeIfAbsent(targetId, CacheManager::new);
+	private static void evictLeastRecentlyUsed(Path store, long budget) {
+		if (!Files.isDirectory(store)) {
+			return;
+		}
+		List<StoreEntry> entries = new ArrayList<>();
+		long total = 0;
+		try (DirectoryStream<Path> contents = Files.newDirectoryStream(store)) {
+			for (Path content : contents) {
+				try (DirectoryStream<Path> variants = Files.newDirectoryStream(content)) {
+					for (Path variant : variants) {
+						StoreEntry entry = new StoreEntry(variant, FileUtils.sizeOfDirectory(variant.toFile()),
+								getLastAccess(variant));
+						entries.add(entry);
+						total += entry.size();
+					}
+				}
+			}
+			if (total <= budget) {
+				return;
+			}
+			entries.sort(Comparator.comparing(StoreEntry::lastAccess));
+			for (StoreEntry entry : entries) {
+				if (total <= budget) {
+					break;
+				}
+				if (isPinned(entry.path())) {
+					continue;
+				}
+				// an entry that shares its lock with one in use is evicted next time
+				ReentrantLock entryLock = getEntryLock(entry.path());
+				if (entryLock.tryLock()) {
+					try {
+						// the entry might have been pinned before it was locked
+						if (isPinned(entry.path())) {
+							continue;
+						}
+						Files.walkFileTree(entry.path(), DeletingPathVisitor.withLongCounters());
+						total -= entry.size();
+					} finally {
+						entryLock.unlock();
+					}
+					try (DirectoryStream<Path> variants = Files.newDirectoryStream(entry.path().getParent())) {
+						if (!variants.iterator().hasNext()) {
+							Files.deleteIfExists(entry.path().getParent());
+						}
+					}
+				}
+			}
+		} catch (IOException | UncheckedIOException e) {
+			Platform.getLog(CacheManager.class).log(Status.error("Failed to evict Maven bundle cache entries", e));
+		}
+	}
+
+	private static FileTime getLastAccess(Path entry) throws IOException {
+		Path marker = entry.resolve(LASTACCESS_MARKER);
+		return Files.isRegularFile(marker) ? Files.getLastModifiedTime(marker) : FileTime.fromMillis(0);
 	}
 
 	/**
-	 * Clears all inactive cache locations that are older than the given time
+	 * Clears all cache locations of the former per target layout that are older
+	 * than the given time
 	 *
-	 * @param timeout the duration since the last use after which a CacheManager is
+	 * @param timeout the duration since the last use after which a location is
 	 *                deleted
 	 */
 	private static synchronized void clearFilesOlderThan(Path cacheBaseDir, Duration timeout) {
@@ -127,8 +354,7 @@ class CacheManager {
 		try (DirectoryStream<Path> folders = Files.newDirectoryStream(cacheBaseDir)) {
 			for (Path folder : folders) {
 				// Delete cache-folders last used before the specified timeout
-				// and not used in any manager
-				if (!MANAGERS.containsKey(folder.getFileName().toString())) {
+				if (!STORE_FOLDER.equals(folder.getFileName().toString())) {
 					Path marker = folder.resolve(LASTACCESS_MARKER);
 					if (Files.isRegularFile(marker) && Files.getLastModifiedTime(marker).compareTo(deleteBefore) < 0) {
 						Files.walkFileTree(folder, DeletingPathVisitor.withLongCounters());
@@ -140,6 +366,10 @@ class CacheManager {
 		}
 	}
 
+	private static Path getStoreDir() {
+		return getCacheBaseDir().resolve(STORE_FOLDER);
+	}
+
 	private static synchronized Path getCacheBaseDir() {
 		if (baseDir == null) {
 			Bundle bundle = FrameworkUtil.getBundle(CacheManager.class);
@@ -147,11 +377,8 @@ class CacheManager {
 				throw new IllegalStateException(CacheManager.class.getSimpleName() + " not loaded from a bundle");
 			}
 			baseDir = bundle.getDataFile("").toPath();
-			// clear all locations older than 14 days, this can be improved by
-			// 1) watch for changes in the workspace -> if target is deleted/removed from
-			// workspace we can clear the cache
-			// 2) we can add a preference page where the user can force clearing the cache
-			// or set the cache days
+			// locations of the former per target layout are no longer accessed and are
+			// removed once they have not been used for 14 days
 			Runnable cleaner = () -> clearFilesOlderThan(baseDir, Duration.ofDays(14));
 			new Thread(cleaner, "Wrapped bundles cache cleaner").start();
 		}
@@ -168,6 +395,162 @@ class CacheManager {
 		T consume(File file) throws Exception;
 	}
 
+	/**
+	 * What is known about an artifact file of the given size and modification time
+	 *
+	 * @param sha1    the checksum of the content or <code>null</code> if not yet
+	 *                computed
+	 * @param feature whether the file is a feature or <code>null</code> if not yet
+	 *                probed
+	 */
+	private record Stamp(long length, long lastModified, String sha1, Boolean feature) {
+
+		Stamp withSha1(String sha1) {
+			return new Stamp(length, lastModified, sha1, feature);
+		}
+
+		Stamp withFeature(boolean feature) {
+			return new Stamp(length, lastModified, sha1, feature);
+		}
+	}
+
+	/**
+	 * The stamps of the artifact files by path, persisted in the cache base
+	 * directory shortly after they have changed and when the bundle is stopped
+	 */
+	private static final class ArtifactStamps {
+
+		private static ArtifactStamps instance;
+
+		private final BinaryCacheFile file;
+
+		private final ConcurrentMap<String, Stamp> stamps = new ConcurrentHashMap<>();
+
+		private final Job saveJob = Job.createSystem("Saving Maven target artifact stamps", monitor -> save());
+
+		private volatile boolean dirty;
+
+		private ArtifactStamps(BinaryCacheFile file) {
+			this.file = file;
+		}
+
+		static synchronized ArtifactStamps get() {
+			if (instance == null) {
+				ArtifactStamps stamps = new ArtifactStamps(new BinaryCacheFile(
+						getCacheBaseDir().resolve(STAMPS_FILE), STAMPS_MAGIC, STAMPS_FORMAT_VERSION));
+				stamps.load();
+				FrameworkUtil.getBundle(CacheManager.class).getBundleContext().addBundleListener(event -> {
+					if (event.getType() == BundleEvent.STOPPED) {
+						stamps.saveJob.cancel();
+						stamps.save();
+					}
+				});
+				instance = stamps;
+			}
+			return instance;
+		}
+
+		/**
+		 * @return the known stamp of the given file or an empty one if the file is
+		 *         unknown or has changed
+		 */
+		Stamp get(File artifactFile) {
+			long length = artifactFile.length();
+			long lastModified = artifactFile.lastModified();
+			Stamp stamp = stamps.get(artifactFile.getAbsolutePath());
+			if (stamp == null || stamp.length() != length || stamp.lastModified() != lastModified) {
+				return new Stamp(length, lastModified, null, null);
+			}
+			return stamp;
+		}
+
+		void put(File artifactFile, Stamp stamp) {
+			stamps.put(artifactFile.getAbsolutePath(), stamp);
+			dirty = true;
+			saveJob.schedule(STAMPS_SAVE_DELAY);
+		}
+
+		private void load() {
+			try {
+				file.read(in -> {
+					int size = in.readInt();
+					for (int i = 0; i < size; i++) {
+						String path = in.readUTF();
+						long length = in.readLong();
+						long lastModified = in.readLong();
+						String sha1 = in.readBoolean() ? in.readUTF() : null;
+						Boolean feature = in.readBoolean() ? in.readBoolean() : null;
+						stamps.put(path, new Stamp(length, lastModified, sha1, feature));
+					}
+					return null;
+				});
+			} catch (IOException | RuntimeException e) {
+				Platform.getLog(CacheManager.class).log(Status.warning("Can't read Maven target artifact stamps", e));
+				stamps.clear();
+			}
+		}
+
+		private synchronized void save() {
+			if (!dirty) {
+				return;
+			}
+			// artifacts are mostly in the local repository, where old versions get deleted
+			stamps.keySet().removeIf(path -> !new File(path).isFile());
+			Map<String, Stamp> snapshot = Map.copyOf(stamps);
+			try {
+				file.write(out -> {
+					out.writeInt(snapshot.size());
+					for (Map.Entry<String, Stamp> entry : snapshot.entrySet()) {
+						Stamp stamp = entry.getValue();
+						out.writeUTF(entry.getKey());
+						out.writeLong(stamp.length());
+						out.writeLong(stamp.lastModified());
+						out.writeBoolean(stamp.sha1() != null);
+						if (stamp.sha1() != null) {
+							out.writeUTF(stamp.sha1());
+						}
+						out.writeBoolean(stamp.feature() != null);
+						if (stamp.feature() != null) {
+							out.writeBoolean(stamp.feature());
+						}
+					}
+				});
+				dirty = false;
+			} catch (IOException e) {
+				Platform.getLog(CacheManager.class).log(Status.warning("Can't write Maven target artifact stamps", e));
+			}
+		}
+	}
+
+	private static record StoreEntry(Path path, long size, FileTime lastAccess) {
+	}
+
+	/**
+	 * The entries pinned by a manager, released at most once, either explicitly
+	 * or when the manager is no longer reachable
+	 */
+	private static final class Pins implements Runnable {
+
+		private final Set<Path> entries = new HashSet<>();
+
+		private boolean released;
+
+		synchronized void pin(Path entry) {
+			if (!released && entries.add(entry)) {
+				PINS.merge(entry, 1, Integer::sum);
+			}
+		}
+
+		@Override
+		public synchronized void run() {
+			released = true;
+			for (Path entry : entries) {
+				PINS.computeIfPresent(entry, (e, count) -> count > 1 ? count - 1 : null);
+			}
+			entries.clear();
+		}
+	}
+
 	public static boolean isOutdated(File cacheFile, File sourceFile) {
 		if (cacheFile.exists()) {
 			long sourceTimeStamp = sourceFile.lastModified();
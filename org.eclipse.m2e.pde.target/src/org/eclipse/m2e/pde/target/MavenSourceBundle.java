@@ -48,7 +48,9 @@ public class MavenSourceBundle extends TargetBundle {
 		if (isValidSourceManifest(manifest)) {
 			fInfo.setLocation(sourceFile.toURI());
 		} else {
-			File generatedSourceBundle = cacheManager.accessArtifactFile(artifact, file -> {
+			// the generated manifest depends on the bundle the sources belong to
+			String variant = sourceTarget.getSymbolicName() + ":" + sourceTarget.getVersion();
+			File generatedSourceBundle = cacheManager.accessArtifactFile(artifact, variant, file -> {
 				if (CacheManager.isOutdated(file, sourceFile)) {
 					addSourceBundleMetadata(manifest, sourceTarget);
 					transferJarEntries(sourceFile, manifest, file);
@@ -14,7 +14,6 @@
 package org.eclipse.m2e.pde.target;
 
 import java.io.File;
-import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.util.ArrayList;
@@ -24,19 +23,27 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.jar.JarFile;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.output.StringBuilderWriter;
 import org.apache.maven.RepositoryUtils;
@@ -58,6 +65,7 @@ import org.eclipse.core.runtime.ILog;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
@@ -83,7 +91,6 @@ public class MavenTargetLocation extends AbstractBundleContainer {
 
 	private static final ILog LOGGER = Platform.getLog(MavenTargetLocation.class);
 	private static final String SOURCE_SUFFIX = ".source";
-	private static final String NOT_A_FEATURE = "not_a_feature";
 	public static final String ELEMENT_CLASSIFIER = "classifier";
 	public static final String ELEMENT_TYPE = "type";
 	public static final String ELEMENT_VERSION = "version";
@@ -116,12 +123,20 @@ public class MavenTargetLocation extends AbstractBundleContainer {
 	public static final String DEPENDENCYNODE_ROOT = "dependencynode.root";
 	public static final DependencyDepth DEFAULT_INCLUDE_MODE = DependencyDepth.NONE;
 
+	private static final int RESOLVER_THREADS = Integer.getInteger("m2e.pde.target.threads",
+			Runtime.getRuntime().availableProcessors());
+
 	private final Collection<String> dependencyScopes;
 	private final MissingMetadataMode metadataMode;
 	private TargetBundles targetBundles;
+	/**
+	 * pins the cache entries whose files are referenced by the resolved target
+	 * bundles and features
+	 */
+	private CacheManager cacheManager;
 
 	private final Set<String> excludedArtifacts = new HashSet<>();
-	private final Set<Artifact> failedArtifacts = new HashSet<>();
+	private final Set<Artifact> failedArtifacts = ConcurrentHashMap.newKeySet();
 	private final Map<String, BNDInstructions> instructionsMap = new LinkedHashMap<>();
 	private final boolean includeSource;
 	private final List<MavenTargetDependency> roots;
@@ -161,30 +176,147 @@ public class MavenTargetLocation extends AbstractBundleContainer {
 	private synchronized Optional<TargetBundles> resolveArtifacts(ITargetDefinition definition,
 			IProgressMonitor monitor) throws CoreException {
 		if (targetBundles == null && definition != null) {
-			CacheManager cacheManager = CacheManager.forTargetHandle(definition.getHandle());
-			TargetBundles bundles = new TargetBundles();
-			IMaven maven = MavenPlugin.getMaven();
-			List<ArtifactRepository> repositories = getAvailableArtifactRepositories(maven);
-			SubMonitor subMonitor = SubMonitor.convert(monitor, roots.size() * 100);
-			for (MavenTargetDependency root : roots) {
-				resolveDependency(root, maven, repositories, bundles, cacheManager, subMonitor.split(100));
+			CacheManager cacheManager = CacheManager.create();
+			TargetBundles bundles;
+			try {
+				bundles = resolveArtifacts(cacheManager, monitor);
+			} catch (OperationCanceledException e) {
+				cacheManager.release();
+				return Optional.empty();
+			} catch (CoreException | RuntimeException e) {
+				cacheManager.release();
+				throw e;
+			}
+			// the entries used by the former resolution may be evicted now
+			if (this.cacheManager != null) {
+				this.cacheManager.release();
 			}
-			if (featureTemplate != null) {
-				generateFeature(bundles, false);
-				if (includeSource) {
-					generateFeature(bundles, true);
+			this.cacheManager = cacheManager;
+			targetBundles = bundles;
+		}
+		return Optional.ofNullable(targetBundles);
+	}
+
+	/**
+	 * @return the resolved bundles and features
+	 * @throws OperationCanceledException if the resolution was canceled, partial
+	 *                                    results are discarded then
+	 */
+	private TargetBundles resolveArtifacts(CacheManager cacheManager, IProgressMonitor monitor)
+			throws CoreException {
+		TargetBundles bundles = new TargetBundles();
+		IMaven maven = MavenPlugin.getMaven();
+		List<ArtifactRepository> repositories = getAvailableArtifactRepositories(maven);
+		SubMonitor subMonitor = SubMonitor.convert(monitor, 200);
+		AtomicInteger threadNumber = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(RESOLVER_THREADS, r -> {
+			Thread thread = new Thread(r,
+					"Resolve Maven target location " + label + " #" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			// first resolve all roots concurrently and collect the artifacts to add
+			Set<Artifact> artifacts = new LinkedHashSet<>();
+			for (List<Artifact> rootArtifacts : invokeAll(executor, roots,
+					root -> resolveDependency(root, maven, repositories, bundles, subMonitor),
+					subMonitor.split(100))) {
+				artifacts.addAll(rootArtifacts);
+			}
+			// then add the bundles, wrapping of independent artifacts is done in parallel
+			// while the features are added in the order of their artifacts afterwards
+			for (List<TargetFeature> features : invokeAll(executor, artifacts,
+					artifact -> addBundleForArtifact(artifact, cacheManager, maven, bundles, subMonitor),
+					subMonitor.split(100))) {
+				bundles.features.addAll(features);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		if (featureTemplate != null) {
+			generateFeature(bundles, false);
+			if (includeSource) {
+				generateFeature(bundles, true);
+			}
+		}
+		Iterable<IModel> models = bundles.features.stream().map(TargetFeature::getFeatureModel)::iterator;
+		for (IModel model : models) {
+			model.load();
+		}
+		if (subMonitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+		return bundles;
+	}
+
+	/**
+	 * Runs the task for each of the given items on the executor and waits for all
+	 * of them to complete, progress is reported on the calling thread as tasks
+	 * complete. The tasks only get hold of the parent monitor to check for
+	 * cancellation as progress monitors can't be shared across threads.
+	 *
+	 * @return the results in the order of the given items
+	 * @throws OperationCanceledException if the monitor was canceled before all
+	 *                                    tasks completed
+	 */
+	private static <T, R> List<R> invokeAll(ExecutorService executor, Collection<T> items,
+			ResolveTask<T, R> task, IProgressMonitor monitor) throws CoreException {
+		SubMonitor subMonitor = SubMonitor.convert(monitor, items.size());
+		CompletionService<R> completionService = new ExecutorCompletionService<>(executor);
+		List<Future<R>> futures = new ArrayList<>();
+		for (T item : items) {
+			futures.add(completionService.submit(() -> {
+				if (monitor.isCanceled()) {
+					throw new OperationCanceledException();
 				}
+				return task.run(item);
+			}));
+		}
+		try {
+			for (int i = 0; i < futures.size(); i++) {
+				completionService.take().get();
+				subMonitor.worked(1);
 			}
-			Iterable<IModel> models = bundles.features.stream().map(TargetFeature::getFeatureModel)::iterator;
-			for (IModel model : models) {
-				model.load();
+			if (monitor.isCanceled()) {
+				throw new OperationCanceledException();
 			}
-			if (subMonitor.isCanceled()) {
-				return Optional.empty();
+			List<R> results = new ArrayList<>(futures.size());
+			for (Future<R> future : futures) {
+				results.add(future.get());
 			}
-			targetBundles = bundles;
+			return results;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CoreException coreException) {
+				throw coreException;
+			}
+			if (e.getCause() instanceof OperationCanceledException canceledException) {
+				throw canceledException;
+			}
+			throw new CoreException(Status.error("Resolving Maven target location failed", e.getCause()));
+		} finally {
+			futures.forEach(future -> future.cancel(true));
 		}
-		return Optional.ofNullable(targetBundles);
+	}
+
+	/**
+	 * @return a monitor for use by a worker thread that only forwards cancellation
+	 *         of the given monitor
+	 */
+	private static IProgressMonitor cancelableMonitor(IProgressMonitor monitor) {
+		return new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return monitor.isCanceled();
+			}
+		};
+	}
+
+	@FunctionalInterface
+	private interface ResolveTask<T, R> {
+		R run(T item) throws CoreException;
 	}
 
 	public String getLabel() {
@@ -225,52 +357,48 @@ public class MavenTargetLocation extends AbstractBundleContainer {
 		return extraRepositories;
 	}
 
-	private Artifact resolveDependency(MavenTargetDependency root, IMaven maven, List<ArtifactRepository> repositories,
-			TargetBundles targetBundles, CacheManager cacheManager, IProgressMonitor monitor) throws CoreException {
-		SubMonitor subMonitor = SubMonitor.convert(monitor, 100);
+	/**
+	 * Resolves the given root and returns the artifacts that should be added as
+	 * bundles or features to the target, might be called concurrently for
+	 * different roots.
+	 */
+	private List<Artifact> resolveDependency(MavenTargetDependency root, IMaven maven,
+			List<ArtifactRepository> repositories, TargetBundles targetBundles, IProgressMonitor cancelMonitor)
+			throws CoreException {
+		IProgressMonitor monitor = cancelableMonitor(cancelMonitor);
 		IMavenProjectRegistry registry = MavenPlugin.getMavenProjectRegistry();
 		IMavenProjectFacade workspaceProject = registry.getMavenProject(root.getGroupId(), root.getArtifactId(),
 				root.getVersion());
 		Artifact artifact;
 		if (workspaceProject != null && workspaceProject.getPackaging().equals(root.getType())) {
-			MavenProject mavenProject = workspaceProject.getMavenProject(subMonitor.split(80));
+			MavenProject mavenProject = workspaceProject.getMavenProject(monitor);
 			artifact = new WorkspaceArtifact(RepositoryUtils.toArtifact(mavenProject.getArtifact()), workspaceProject);
 		} else {
 			artifact = RepositoryUtils.toArtifact(maven.resolve(root.getGroupId(), root.getArtifactId(),
-					root.getVersion(), root.getType(), root.getClassifier(), repositories, subMonitor.split(80)));
+					root.getVersion(), root.getType(), root.getClassifier(), repositories, monitor));
 		}
-		if (artifact != null) {
-			DependencyDepth depth = dependencyDepth;
-			if (isPomType(artifact) && depth == DependencyDepth.NONE) {
-				// fetching only the pom but no dependencies does not makes much sense...
-				depth = DependencyDepth.DIRECT;
-			}
-			SubMonitor split = subMonitor.split(20);
-			if (depth == DependencyDepth.DIRECT || depth == DependencyDepth.INFINITE) {
-				ICallable<PreorderNodeListGenerator> callable = DependencyNodeGenerator.create(root, artifact, depth,
-						dependencyScopes, repositories, this);
-				PreorderNodeListGenerator dependecies;
-				if (workspaceProject == null) {
-					dependecies = maven.createExecutionContext().execute(callable, subMonitor);
-				} else {
-					dependecies = registry.execute(workspaceProject, callable, subMonitor);
-				}
-				List<Artifact> artifacts = dependecies.getArtifacts(true);
-				split.setWorkRemaining(artifacts.size());
-				for (Artifact a : artifacts) {
-					if (a.getFile() == null) {
-						// this is a filtered dependency
-						continue;
-					}
-					addBundleForArtifact(a, cacheManager, maven, targetBundles, split.split(1));
-				}
-				targetBundles.dependencyNodes.put(root, dependecies.getNodes());
+		if (artifact == null) {
+			return List.of();
+		}
+		DependencyDepth depth = dependencyDepth;
+		if (isPomType(artifact) && depth == DependencyDepth.NONE) {
+			// fetching only the pom but no dependencies does not makes much sense...
+			depth = DependencyDepth.DIRECT;
+		}
+		if (depth == DependencyDepth.DIRECT || depth == DependencyDepth.INFINITE) {
+			ICallable<PreorderNodeListGenerator> callable = DependencyNodeGenerator.create(root, artifact, depth,
+					dependencyScopes, repositories, this);
+			PreorderNodeListGenerator dependecies;
+			if (workspaceProject == null) {
+				dependecies = maven.createExecutionContext().execute(callable, monitor);
 			} else {
-				addBundleForArtifact(artifact, cacheManager, maven, targetBundles, split);
+				dependecies = registry.execute(workspaceProject, callable, monitor);
 			}
+			targetBundles.dependencyNodes.put(root, dependecies.getNodes());
+			// filtered dependencies have no file
+			return dependecies.getArtifacts(true).stream().filter(a -> a.getFile() != null).toList();
 		}
-
-		return artifact;
+		return List.of(artifact);
 	}
 
 	private boolean isPomType(Artifact artifact) {
@@ -294,6 +422,10 @@ public class MavenTargetLocation extends AbstractBundleContainer {
 
 	private File unpackFeatureFile(Artifact artifact, CacheManager cacheManager) {
 		try {
+			// only features are unpacked into the cache, other jars are just probed once
+			if (!CacheManager.isFeature(artifact.getFile())) {
+				return null;
+			}
 			return cacheManager.accessArtifactFile(artifact, file -> {
 				// Unpack feature.xml into the same directory as the jar
 				File featureFile = new File(file.getParentFile(), ICoreConstants.FEATURE_FILENAME_DESCRIPTOR);
@@ -303,27 +435,14 @@ public class MavenTargetLocation extends AbstractBundleContainer {
 					return featureFile;
 				}
 
-				File markerFile = new File(file.getParentFile(), NOT_A_FEATURE);
-
-				// Artifact has already been checked during an earlier cycle
-				if (markerFile.exists() && markerFile.lastModified() >= file.lastModified()) {
-					return null;
-				}
-
 				try (JarFile jar = new JarFile(artifact.getFile())) {
 					ZipEntry entry = jar.getEntry(ICoreConstants.FEATURE_FILENAME_DESCRIPTOR);
-
-					// feature.xml is missing -> not an Eclipse feature
 					if (entry == null) {
-						FileUtils.touch(markerFile);
 						return null;
 					}
 					Files.copy(jar.getInputStream(entry), featureFile.toPath());
 
 					return featureFile;
-				} catch (IOException e) {
-					LOGGER.error(e.getLocalizedMessage(), e);
-					return null;
 				}
 			});
 		} catch (Exception e) {
@@ -332,26 +451,31 @@ public class MavenTargetLocation extends AbstractBundleContainer {
 		}
 	}
 
-	private void addBundleForArtifact(Artifact artifact, CacheManager cacheManager, IMaven maven,
-			TargetBundles targetBundles, IProgressMonitor monitor) {
+	/**
+	 * @return the features contributed by the artifact, these are not added to
+	 *         the given target bundles as the order they are added in must not
+	 *         depend on the order concurrent calls complete
+	 */
+	private List<TargetFeature> addBundleForArtifact(Artifact artifact, CacheManager cacheManager, IMaven maven,
+			TargetBundles targetBundles, IProgressMonitor cancelMonitor) {
+		IProgressMonitor monitor = cancelableMonitor(cancelMonitor);
 		File featureFile = getFeatureFile(artifact, cacheManager);
 
 		if (isPomType(artifact)) {
-			targetBundles.features
-					.add(new MavenTargetFeature(new MavenPomFeatureModel(artifact, targetBundles, false)));
+			List<TargetFeature> features = new ArrayList<>(2);
+			features.add(new MavenTargetFeature(new MavenPomFeatureModel(artifact, targetBundles, false)));
 			if (includeSource) {
-				targetBundles.features
-						.add(new MavenTargetFeature(new MavenPomFeatureModel(artifact, targetBundles, true)));
+				features.add(new MavenTargetFeature(new MavenPomFeatureModel(artifact, targetBundles, true)));
 			}
-			return;
+			return features;
 		} else if (featureFile != null) {
 			try {
-				targetBundles.features.add(new TargetFeature(featureFile));
+				return List.of(new TargetFeature(featureFile));
 			} catch (CoreException e) {
 				failedArtifacts.add(artifact);
 				LOGGER.error(e.getLocalizedMessage(), e);
 			}
-			return;
+			return List.of();
 		}
 		MavenTargetBundle bundle = new MavenTargetBundle(artifact, this, monitor);
 		IStatus status = bundle.getStatus();
@@ -378,6 +502,7 @@ public class MavenTargetLocation extends AbstractBundleContainer {
 			// failed ones must be added to the target as well to fail resolution of the TP
 			targetBundles.addBundle(artifact, bundle);
 		}
+		return List.of();
 	}
 
 	/**
@@ -14,13 +14,12 @@ package org.eclipse.m2e.pde.target;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import org.eclipse.aether.artifact.Artifact;
@@ -29,15 +28,17 @@ import org.eclipse.pde.core.target.TargetBundle;
 import org.eclipse.pde.core.target.TargetFeature;
 
 /**
- * represents a resolved set of {@link Artifact} -> {@link TargetBundle}
+ * represents a resolved set of {@link Artifact} -> {@link TargetBundle}, the
+ * bundles might be added concurrently while the location is resolved, the
+ * features are only added by the resolving thread
  */
 class TargetBundles {
-	private final Map<Artifact, TargetBundle> bundles = new HashMap<>();
-	private final Map<File, Artifact> artifacts = new HashMap<>();
-	private final Map<Artifact, MavenSourceBundle> sourceBundles = new HashMap<>();
-	final Set<Artifact> ignoredArtifacts = new HashSet<>();
+	private final Map<Artifact, TargetBundle> bundles = new ConcurrentHashMap<>();
+	private final Map<File, Artifact> artifacts = new ConcurrentHashMap<>();
+	private final Map<Artifact, MavenSourceBundle> sourceBundles = new ConcurrentHashMap<>();
+	final Set<Artifact> ignoredArtifacts = ConcurrentHashMap.newKeySet();
 	final List<TargetFeature> features = new ArrayList<>();
-	final Map<MavenTargetDependency, List<DependencyNode>> dependencyNodes = new HashMap<>();
+	final Map<MavenTargetDependency, List<DependencyNode>> dependencyNodes = new ConcurrentHashMap<>();
 
 	Optional<DependencyNode> getDependencyNode(Artifact artifact) {
 		return dependencyNodes.values().stream().flatMap(List::stream)